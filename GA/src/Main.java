@@ -1,17 +1,50 @@
 import controllers.DomainController;
-import controllers.EvolutionEngine;
+import controllers.EngineFactory;
+import controllers.EngineType;
+import controllers.HeadlessController;
+import controllers.SolverService;
+import controllers.SweepController;
+import controllers.OptimizerEngine;
 import model.Individual;
 import model.domains.Domain;
+import service.SolutionCache;
+import utils.EventTrace;
+import utils.EventTraceReader;
 import view.DomainConsoleView;
 import view.EvolutionConsoleView;
+import view.JobFileReader;
+import view.JobResultWriter;
+import view.SolverHttpServer;
+import view.SweepConsoleView;
 
 
 import java.awt.geom.Rectangle2D;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.*;
 
 
 public class Main {
     public static void main(String[] args) {
+        // Modalità servizio: java Main --serve [--port N] [--workers N] [--queue N] [--cache <file>]
+        if (args.length > 0 && args[0].equals("--serve")) {
+            runServer(args);
+            return;
+        }
+        // Conversione di una traccia degli eventi: java Main --trace-csv <dump> [<file csv>|-]
+        if (args.length > 0 && args[0].equals("--trace-csv")) {
+            System.exit(convertTrace(args));
+        }
+        // Sweep dei parametri: java Main --sweep <file|-> [--out <file|->]
+        if (args.length > 0 && args[0].equals("--sweep")) {
+            System.exit(runSweep(args));
+        }
+        // Modalità headless: java Main --job <file|-> [--out <file|->] [--cache <file>] [--trace <file>]
+        if (args.length > 0) {
+            System.exit(runHeadless(args));
+        }
+
         Scanner scanner = new Scanner(System.in);
         int individualSize = 0;
         double pointRadius = 0.0;
@@ -79,13 +112,34 @@ public class Main {
         }
         System.out.printf("\n✅ Valid radius entered: %.2f\n", pointRadius);
 
+        // scelta del motore di ottimizzazione (AG o Differential Evolution)
+        Optional<EngineType> engineType = Optional.empty();
+        while (engineType.isEmpty()) {
+            System.out.println("\n--- Select optimizer engine ---");
+            for (EngineType type : EngineType.values()) {
+                System.out.println(type.getMenuId() + ") " + type.getDisplayName());
+            }
+            System.out.print("Enter your choice: ");
+
+            if (scanner.hasNextInt()) {
+                engineType = EngineType.fromMenuId(scanner.nextInt());
+                if (engineType.isEmpty()) {
+                    System.out.println("❌ Invalid choice. Retry.");
+                }
+            } else {
+                System.out.println("❌ Invalid Input. Please enter an integer. Retry.");
+                scanner.next(); // Scarta l'input non valido
+            }
+        }
+
         scanner.close(); // Chiude lo scanner dopo aver finito di leggere l'input
 
         // l'evolution engine riceve delle coppie: [(numero punti, raggio punti), (numero punti, raggio punti)]
         // il totale dei punti sarà la dimensione dell'individuo, nei controlli, ogni punto avrà il suo raggio.
 
         // Creazione e Avvio del Motore
-        EvolutionEngine engine = new EvolutionEngine(
+        OptimizerEngine engine = new EngineFactory().createEngine(
+                engineType.get(),
                 new EvolutionConsoleView(),
                 problemDomain,
                 individualSize, // Valore inserito dall'utente
@@ -99,4 +153,188 @@ public class Main {
         System.out.printf("Best solution's Fitness: %.6f\n", bestSolution.getFitness());
         System.out.println(bestSolution);
     }
-}
\ No newline at end of file
+
+    /**
+     * Avvia la modalità headless: legge i job dal file indicato (o da stdin con "-") e scrive i risultati
+     * nel file indicato (o su stdout). I messaggi di avanzamento dei motori vanno su stderr.
+     * Con {@code --cache} le soluzioni vengono riprese e salvate nel file della cache indicato; con {@code --trace}
+     * la traccia degli eventi viene scritta nel file indicato al termine, anche se un job fallisce.
+     * @return Il codice di uscita del processo (0 se tutti i job sono stati risolti).
+     */
+    private static int runHeadless(String[] args) {
+        String jobPath = null;
+        String outPath = "-";
+        String cachePath = "";
+        String tracePath = "";
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--job" -> jobPath = i + 1 < args.length ? args[++i] : null;
+                case "--out" -> outPath = i + 1 < args.length ? args[++i] : null;
+                case "--cache" -> cachePath = i + 1 < args.length ? args[++i] : null;
+                case "--trace" -> tracePath = i + 1 < args.length ? args[++i] : null;
+                default -> jobPath = null;
+            }
+            if (jobPath == null || outPath == null || cachePath == null || tracePath == null) break;
+        }
+        if (jobPath == null || outPath == null || cachePath == null || tracePath == null) {
+            System.err.println("Usage: java Main --job <file|-> [--out <file|->] [--cache <file>] [--trace <file>]");
+            return 2;
+        }
+        SolutionCache cache;
+        try {
+            cache = openCache(cachePath);
+        } catch (IOException e) {
+            System.err.println("❌ Cannot open the solution cache: " + e.getMessage());
+            return 1;
+        }
+
+        try (Reader in = jobPath.equals("-")
+                    ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                    : new FileReader(jobPath, StandardCharsets.UTF_8);
+             PrintStream out = outPath.equals("-")
+                    ? new PrintStream(new FileOutputStream(FileDescriptor.out), false, StandardCharsets.UTF_8)
+                    : new PrintStream(new FileOutputStream(outPath), false, StandardCharsets.UTF_8)) {
+
+            HeadlessController controller = new HeadlessController(
+                    new JobFileReader(in),
+                    new JobResultWriter(out),
+                    new EvolutionConsoleView(System.err, System.err),
+                    cache
+            );
+            int solved = controller.runAll();
+            System.err.printf("\n%d job(s) solved.\n", solved);
+            return out.checkError() ? 1 : 0;
+        } catch (IOException e) {
+            System.err.println("❌ I/O error: " + e.getMessage());
+            return 1;
+        } finally {
+            if (!tracePath.isEmpty()) {
+                writeTrace(Path.of(tracePath));
+            }
+        }
+    }
+
+    /**
+     * Esegue gli sweep dei parametri letti dal file indicato (o da stdin con "-") e ne scrive i riepiloghi nel file
+     * indicato (o su stdout). Il formato è quello dei job, con più valori per i parametri da variare
+     * (vedi {@link JobFileReader#nextSweep()}).
+     * @return Il codice di uscita del processo (0 se i riepiloghi sono stati scritti senza errori).
+     */
+    private static int runSweep(String[] args) {
+        String sweepPath = null;
+        String outPath = "-";
+        if (args.length == 2 || (args.length == 4 && args[2].equals("--out"))) {
+            sweepPath = args[1];
+            if (args.length == 4) outPath = args[3];
+        }
+        if (sweepPath == null) {
+            System.err.println("Usage: java Main --sweep <file|-> [--out <file|->]");
+            return 2;
+        }
+
+        try (Reader in = sweepPath.equals("-")
+                    ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                    : new FileReader(sweepPath, StandardCharsets.UTF_8);
+             PrintStream out = outPath.equals("-")
+                    ? new PrintStream(new FileOutputStream(FileDescriptor.out), false, StandardCharsets.UTF_8)
+                    : new PrintStream(new FileOutputStream(outPath), false, StandardCharsets.UTF_8);
+             JobFileReader reader = new JobFileReader(in)) {
+
+            SweepController controller = new SweepController(reader, new SweepConsoleView(out));
+            int completed = controller.runAll();
+            System.err.printf("\n%d sweep(s) completed.\n", completed);
+            return out.checkError() ? 1 : 0;
+        } catch (IOException e) {
+            System.err.println("❌ I/O error: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    /** Scrive la traccia degli eventi su richiesta ({@code --trace}); un errore viene solo segnalato. */
+    private static void writeTrace(Path file) {
+        try {
+            int records = EventTrace.dump(file);
+            System.err.printf("🧾 Event trace %s: %d record(s).\n", file, records);
+        } catch (IOException e) {
+            System.err.println("❌ Cannot write the event trace: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Converte in CSV una traccia degli eventi scritta con {@code --trace}, dopo un fallimento o da
+     * {@code GET /trace}.
+     * @return Il codice di uscita del processo.
+     */
+    private static int convertTrace(String[] args) {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: java Main --trace-csv <dump> [<file>|-]");
+            return 2;
+        }
+        String outPath = args.length == 3 ? args[2] : "-";
+        try (Writer out = outPath.equals("-")
+                    ? new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8)
+                    : new FileWriter(outPath, StandardCharsets.UTF_8)) {
+            EventTraceReader.toCsv(Path.of(args[1]), out);
+            return 0;
+        } catch (IOException e) {
+            System.err.println("❌ Cannot convert the event trace: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    /**
+     * Avvia il servizio residente: accetta job via HTTP su localhost finché il processo non viene terminato.
+     */
+    private static void runServer(String[] args) {
+        int port = 8080;
+        int workers = 2;
+        int queue = 64;
+        String cachePath = "";
+        try {
+            for (int i = 1; i < args.length; i += 2) {
+                switch (args[i]) {
+                    case "--port" -> port = Integer.parseInt(args[i + 1]);
+                    case "--workers" -> workers = Integer.parseInt(args[i + 1]);
+                    case "--queue" -> queue = Integer.parseInt(args[i + 1]);
+                    case "--cache" -> cachePath = args[i + 1];
+                    default -> throw new IllegalArgumentException(args[i]);
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Usage: java Main --serve [--port N] [--workers N] [--queue N] [--cache <file>]");
+            return;
+        }
+        SolutionCache cache;
+        try {
+            cache = openCache(cachePath);
+        } catch (IOException e) {
+            System.err.println("❌ Cannot open the solution cache: " + e.getMessage());
+            return;
+        }
+
+        try {
+            SolverHttpServer server = new SolverHttpServer(new SolverService(workers, queue, cache), port);
+            Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+            server.start();
+            System.err.printf("🛰️ Solver service listening on http://localhost:%d (%d workers, queue %d).\n",
+                    server.getPort(), workers, queue);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("❌ Cannot start the solver service: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Apre la cache delle soluzioni indicata da {@code --cache}.
+     * @param path Il file della cache, oppure la stringa vuota se l'opzione non è stata data.
+     * @return La cache aperta, oppure null se non richiesta.
+     * @throws IOException Se il file esiste ma non è una cache leggibile.
+     */
+    private static SolutionCache openCache(String path) throws IOException {
+        if (path.isEmpty()) {
+            return null;
+        }
+        SolutionCache cache = new SolutionCache(Path.of(path), SolutionCache.DEFAULT_MAX_BYTES);
+        System.err.printf("💾 Solution cache %s: %d solution(s).\n", path, cache.size());
+        return cache;
+    }
+}
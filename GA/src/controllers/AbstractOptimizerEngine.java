@@ -0,0 +1,479 @@
+package controllers;
+
+import exceptions.MaxAttemptsExceededException;
+import model.EvolutionConfig;
+import model.GenerationHistory;
+import model.GenomeLattice;
+import model.GenomeLayout;
+import model.Individual;
+import model.Point;
+import model.domains.Domain;
+import service.FitnessCalculator;
+import utils.EventTrace;
+import utils.RandomUtils;
+import view.EvolutionConsoleView;
+
+import java.awt.geom.Rectangle2D;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * Base comune dei motori di ottimizzazione.
+ * <p>
+ * Contiene la parte del flusso indipendente dall'algoritmo: il ciclo di tentativi con verifica di validità
+ * ({@code runEvolutionEngine}), la gestione della View e il tracciamento del record globale.
+ * Le sottoclassi implementano solo {@code runEvolutionCore}, cioè un singolo ciclo di ottimizzazione completo.
+ */
+public abstract class AbstractOptimizerEngine implements OptimizerEngine {
+
+    // Numero massimo di cicli completi eseguiti prima di dichiarare il fallimento.
+    private static final int MAX_RETRY_ATTEMPTS = 3;
+
+    // Punti minimi per core perché convenga dividere un individuo tra i core (almeno un blocco di lavoro ciascuno).
+    private static final int MIN_POINTS_PER_CORE = 4096;
+
+    // Efficienza stimata della valutazione parallela di un individuo: il counting sort e i punti fuori dal dominio
+    // restano seriali, e i blocchi hanno carichi diversi.
+    private static final double INTRA_INDIVIDUAL_EFFICIENCY = 0.75;
+
+    // Geni campionati per misurare la diversità della popolazione nella storia delle generazioni.
+    private static final int DIVERSITY_SAMPLES = 32;
+
+    // Il vincolo spaziale del problema. Definisce l'area valida per i punti degli individui.
+    protected final Domain domain;
+
+    // Servizio per il calcolo del valore di fitness, condiviso da tutti i motori.
+    protected final FitnessCalculator fitnessCalculator;
+
+    // Componente View per la gestione dell'output e della visualizzazione dello stato evolutivo.
+    protected final EvolutionConsoleView view;
+
+    // Osservatori dell'avanzamento. CopyOnWrite perché le registrazioni sono rare e le letture a ogni generazione.
+    private final List<GenerationListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Soluzione di partenza opzionale per la popolazione iniziale (null = inizializzazione casuale).
+    private volatile Individual warmStart;
+
+    // Storia delle generazioni dell'ultimo tentativo (null = non registrata).
+    private final GenerationHistory history;
+
+    // Vista riusata da recordHistory(int, List, long): nessuna allocazione per generazione.
+    private final IndividualReader<Individual> individuals = new IndividualReader<>(Function.identity());
+
+    // Reticolo dei geni quantizzati (null = coordinate continue): gli individui costruiti dalla classe base
+    // conservano i codici dei geni, e gli operatori genetici lavorano sul reticolo.
+    protected final GenomeLattice lattice;
+
+    protected AbstractOptimizerEngine(EvolutionConsoleView view, Domain domain, FitnessCalculator fitnessCalculator) {
+        this.view = view;
+        this.domain = domain;
+        this.fitnessCalculator = fitnessCalculator;
+        this.history = null;
+        this.lattice = null;
+    }
+
+    /**
+     * @param config La configurazione: dimensione della storia delle generazioni e risoluzione del reticolo dei geni.
+     */
+    protected AbstractOptimizerEngine(EvolutionConsoleView view, Domain domain, FitnessCalculator fitnessCalculator,
+                                      EvolutionConfig config) {
+        this.view = view;
+        this.domain = domain;
+        this.fitnessCalculator = fitnessCalculator;
+        this.history = config.getHistorySize() > 0 ? new GenerationHistory(config.getHistorySize()) : null;
+        this.lattice = config.getLatticeResolution() > 0
+                ? new GenomeLattice(domain.getBoundingBox(), config.getLatticeResolution(), fitnessCalculator.getGenomeLayout())
+                : null;
+    }
+
+    // ==================================================================================
+    // 🧩 PUNTI DI ESTENSIONE
+    // ==================================================================================
+
+    /**
+     * Esegue un singolo ciclo di ottimizzazione completo.
+     * @return La migliore soluzione trovata nel ciclo (non necessariamente valida).
+     */
+    protected abstract Individual runEvolutionCore();
+
+    /** Numero di generazioni eseguite da un ciclo, mostrato all'avvio. */
+    protected abstract int getGenerations();
+
+    /** Dimensione della popolazione, mostrata all'avvio. */
+    protected abstract int getPopulationSize();
+
+    // ==================================================================================
+    // 🚀 POPOLAZIONE INIZIALE
+    // ==================================================================================
+
+    /**
+     * Genera un singolo individuo (soluzione) con punti casuali generati dal dominio.
+     * * Scelta Implementativa: di default il dominio campiona la Bounding Box, il modo più efficiente per le forme
+     * semplici; i domini irregolari (es. i poligoni) campionano solo le zone che occupano.
+     */
+    protected Individual buildIndividual() {
+        GenomeLayout layout = fitnessCalculator.getGenomeLayout();
+        List<Point> points = new ArrayList<>(layout.getSize());
+        // Ciclo esterno: un passo per ogni coppia (#piante, raggio). Ciclo interno: #piante punti con quel raggio.
+        for (int g = 0; g < layout.getGroupCount(); g++) {
+            for (int i = layout.getStart(g); i < layout.getEnd(g); i++) {
+                points.add(domain.samplePoint(layout.getRadius(g)));
+            }
+        }
+        return newIndividual(points);
+    }
+
+    /**
+     * Crea la prima generazione di individui (popolazione iniziale) in modo casuale,
+     * oppure attorno alla soluzione di partenza, se impostata.
+     */
+    protected List<Individual> firstGeneration(int populationSize) {
+        Individual seed = getWarmStart();
+        List<Individual> firstGen = new ArrayList<>(populationSize);
+        if (seed != null) {
+            // Il primo individuo è la soluzione di partenza intatta (l'elitismo la conserva finché non viene superata).
+            firstGen.add(lattice == null ? seed.copy() : new Individual(seed.getChromosomes(), lattice));
+        }
+        while (firstGen.size() < populationSize) {
+            firstGen.add(seed == null ? buildIndividual() : buildAround(seed));
+        }
+        return firstGen;
+    }
+
+    /**
+     * Genera un individuo vicino alla soluzione di partenza: ogni punto viene spostato al più di mezzo raggio
+     * su ciascun asse, così la popolazione esplora localmente senza perdere la disposizione ereditata.
+     */
+    protected Individual buildAround(Individual seed) {
+        GenomeLayout layout = fitnessCalculator.getGenomeLayout();
+        List<Point> points = new ArrayList<>(layout.getSize());
+        for (int i = 0; i < layout.getSize(); i++) {
+            points.add(RandomUtils.jitter(seed.getChromosomes().get(i), 0.5 * layout.getRadiusAt(i), domain.getBoundingBox()));
+        }
+        return newIndividual(points);
+    }
+
+    /** Un nuovo individuo con i geni dati, quantizzato sul reticolo se il motore ne usa uno. */
+    private Individual newIndividual(List<Point> points) {
+        return lattice == null ? new Individual(points) : new Individual(points, lattice);
+    }
+
+    // ==================================================================================
+    // ♻️ CICLO DEI TENTATIVI
+    // ==================================================================================
+
+    @Override
+    public Individual runSingleAttempt() {
+        clearHistory();
+        return fitnessCalculator.toPhenotype(runEvolutionCore());
+    }
+
+    @Override
+    public void addGenerationListener(GenerationListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void setWarmStart(Individual seed) {
+        if (seed != null && seed.getDimension() != fitnessCalculator.getGenomeLayout().getSize()) {
+            throw new IllegalArgumentException(String.format(
+                    "The warm start has %d points, the problem has %d.",
+                    seed.getDimension(), fitnessCalculator.getGenomeLayout().getSize()));
+        }
+        this.warmStart = seed == null ? null : seed.copy();
+    }
+
+    @Override
+    public Individual runEvolutionEngine() {
+        int currentAttempt = 0;
+        Individual lastAttemptSolution;
+        double lastExecutionTimeMs;
+        double totalExecutionTimeMs = 0;
+
+        view.displayStartMessage(getType().getDisplayName(), getGenerations(), getPopulationSize());
+
+        do {
+            Instant startTime = Instant.now();
+
+            // aggiorna counter
+            currentAttempt++;
+            EventTrace.record(EventTrace.Event.ATTEMPT_START, currentAttempt);
+            clearHistory();
+
+            // 1. esecuzione del core (il genoma ridotto per simmetria viene espanso nella soluzione completa)
+            lastAttemptSolution = fitnessCalculator.toPhenotype(runEvolutionCore());
+
+            Instant endTime = Instant.now();
+            lastExecutionTimeMs = Duration.between(startTime,endTime).toMillis();
+            // se la soluzione viene trovata (e.g.) al secondo giro, devo indicare la somma dei tempi dei 2 giri come tempo di esecuzione
+            totalExecutionTimeMs += lastExecutionTimeMs;
+            EventTrace.record(EventTrace.Event.ATTEMPT_END, currentAttempt, lastAttemptSolution.getFitness());
+
+            // 2. verifica di validità
+            if (domain.isValidIndividual(lastAttemptSolution)) {
+                // mostra che una soluzione corretta è stata provata
+                view.displaySuccess(currentAttempt, totalExecutionTimeMs / 1000);
+                return  lastAttemptSolution.copy();
+            }
+
+            // individuo non valido, mostralo all'utente
+            view.displayRetryWarning(currentAttempt, MAX_RETRY_ATTEMPTS, lastExecutionTimeMs / 1000);
+
+        } while (currentAttempt < MAX_RETRY_ATTEMPTS);
+
+        // 4. FALLIMENTO controllato, l'algoritmo non è riuscito a trovare una soluzione.
+
+        view.displayCriticalFailure(MAX_RETRY_ATTEMPTS, lastAttemptSolution.getFitness(), totalExecutionTimeMs / 1000);
+
+        // La traccia degli eventi (ultime generazioni di ogni tentativo) viene salvata per l'analisi post-mortem.
+        EventTrace.record(EventTrace.Event.RUN_FAILED, MAX_RETRY_ATTEMPTS, lastAttemptSolution.getFitness());
+        Path trace = EventTrace.dumpOnFailure();
+
+        throw new MaxAttemptsExceededException(
+                String.format(
+                "The %s failed after %d attempts (%.2f total seconds). " +
+                        "Last Fitness value: %.4f. Try changing the parameters.%s",
+                getType().getDisplayName().toLowerCase(),
+                MAX_RETRY_ATTEMPTS,
+                totalExecutionTimeMs / 1000.0,
+                lastAttemptSolution.getFitness(),
+                trace == null ? "" : " Event trace: " + trace + "."
+        ));
+    }
+
+    // ==================================================================================
+    // ℹ️ UTILITY
+    // ==================================================================================
+
+    /**
+     * Interrompe l'esecuzione se il thread che esegue il ciclo è stato interrotto (es. job annullato dal servizio).
+     * Va chiamato dalle sottoclassi all'inizio di ogni generazione: la generazione in corso viene sempre completata.
+     * @throws CancellationException Se il thread è stato interrotto.
+     */
+    protected void checkCancelled() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException(getType().getDisplayName() + " cancelled.");
+        }
+    }
+
+    /**
+     * Sceglie come usare i core per valutare un lotto di individui: in parallelo tra gli individui (un individuo per
+     * core, il default) oppure un individuo alla volta diviso tra tutti i core
+     * ({@link FitnessCalculator#getFitnessParallel(List)}).
+     * <p>
+     * Gli individui di un lotto costano tutti uguale, quindi tra gli individui l'ultimo "giro" lascia inattivi
+     * i core in eccesso: con {@code B} individui e {@code C} core l'efficienza è {@code B / (C * ceil(B / C))}.
+     * Si divide il singolo individuo quando quell'efficienza è minore di quella stimata per la valutazione
+     * parallela e il genoma è abbastanza grande da dare lavoro a tutti i core.
+     * @param batchSize Il numero di individui da valutare insieme.
+     * @param genomeSize Il numero di punti di ciascun individuo.
+     * @return true per valutare un individuo alla volta su tutti i core.
+     */
+    protected boolean prefersIntraIndividualParallelism(int batchSize, int genomeSize) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        if (cores <= 1 || batchSize <= 0 || !fitnessCalculator.supportsParallelEvaluation()) return false;
+        if (genomeSize < MIN_POINTS_PER_CORE * (long) cores) return false;
+        int rounds = (batchSize + cores - 1) / cores;
+        double interIndividualEfficiency = batchSize / (double) (rounds * cores);
+        return interIndividualEfficiency < INTRA_INDIVIDUAL_EFFICIENCY;
+    }
+
+    @Override
+    public Optional<GenerationHistory> getHistory() {
+        return Optional.ofNullable(history);
+    }
+
+    /** Ritorna la soluzione di partenza impostata con {@link #setWarmStart}, oppure null. */
+    protected Individual getWarmStart() {
+        return warmStart;
+    }
+
+    /** Indica se ci sono osservatori registrati (evita di costruire dati di notifica inutili). */
+    protected boolean hasGenerationListeners() {
+        return !listeners.isEmpty();
+    }
+
+    /**
+     * Notifica tutti gli osservatori del completamento di una generazione.
+     * @param generation L'indice della generazione completata.
+     * @param best Il record globale corrente.
+     */
+    protected void notifyGeneration(int generation, Individual best) {
+        if (listeners.isEmpty()) return;
+        // Gli osservatori ricevono sempre la soluzione completa, anche quando il genoma è ridotto per simmetria.
+        Individual phenotype = fitnessCalculator.toPhenotype(best);
+        for (GenerationListener listener : listeners) {
+            listener.onGeneration(generation, phenotype);
+        }
+    }
+
+    /**
+     * Determina e traccia il miglior individuo tra la generazione corrente e il record storico.
+     * @param individuals La lista degli individui della generazione corrente.
+     * @param currentSolution Il miglior individuo trovato fino a quel momento (record globale).
+     * @return L'individuo con la fitness più alta (il nuovo record globale, se trovato).
+     */
+    protected Individual currentBestSolution(List<Individual> individuals, Individual currentSolution) {
+        // Trova il migliore della generazione corrente (KING)
+        Individual KING = individuals.getFirst();
+
+        for (int i = 1; i < individuals.size(); i++) {
+            if (KING.getFitness() < individuals.get(i).getFitness()) {
+                KING = individuals.get(i);
+            }
+        }
+
+        // Confronta con il record globale precedente.
+        if (currentSolution == null) {
+            return KING;
+        }
+
+        // Restituisce il migliore tra il KING e il record storico.
+        if (KING.getFitness() > currentSolution.getFitness()) {
+            return KING;
+        } else {
+            return currentSolution;
+        }
+    }
+
+    // ==================================================================================
+    // 📈 STORIA DELLE GENERAZIONI
+    // ==================================================================================
+
+    /**
+     * Vista primitiva di una popolazione per la storia delle generazioni: fitness e coordinate per indice, senza
+     * oggetti intermedi. I motori la creano una volta per esecuzione e la riusano a ogni generazione.
+     */
+    protected interface PopulationReader {
+        /** Il numero di individui. */
+        int size();
+
+        /** La fitness dell'individuo. */
+        double fitness(int individual);
+
+        /** La coordinata c dell'individuo: 2g = x, 2g + 1 = y del gene g. */
+        double coordinate(int individual, int coordinate);
+    }
+
+    /**
+     * {@link PopulationReader} su una lista di elementi che contengono un individuo (gli individui stessi, oppure
+     * gli individui con i loro obiettivi). La lista si cambia a ogni generazione con {@link #over(List)}, senza
+     * allocare; i geni quantizzati vengono letti dai codici, senza decodificarli in {@code Point}.
+     * @param <T> Il tipo degli elementi della lista.
+     */
+    protected static final class IndividualReader<T> implements PopulationReader {
+
+        private final Function<? super T, Individual> unwrap;
+        private List<? extends T> members = List.of();
+
+        /**
+         * @param unwrap L'individuo contenuto in un elemento (una funzione senza stato, es. un method reference).
+         */
+        public IndividualReader(Function<? super T, Individual> unwrap) {
+            this.unwrap = unwrap;
+        }
+
+        /** Punta la vista sulla popolazione indicata (la lista non viene copiata). */
+        public IndividualReader<T> over(List<? extends T> members) {
+            this.members = members;
+            return this;
+        }
+
+        @Override
+        public int size() {
+            return members.size();
+        }
+
+        @Override
+        public double fitness(int individual) {
+            return unwrap.apply(members.get(individual)).getFitness();
+        }
+
+        @Override
+        public double coordinate(int individual, int coordinate) {
+            Individual member = unwrap.apply(members.get(individual));
+            int gene = coordinate >> 1;
+            GenomeLattice genomeLattice = member.getLattice();
+            if (genomeLattice != null) {
+                int code = member.getCode(gene);
+                return (coordinate & 1) == 0 ? genomeLattice.x(code) : genomeLattice.y(code);
+            }
+            Point point = member.getChromosomes().get(gene);
+            return (coordinate & 1) == 0 ? point.getX() : point.getY();
+        }
+    }
+
+    /** Indica se la storia delle generazioni viene registrata (evita di calcolare statistiche inutili). */
+    protected boolean isRecordingHistory() {
+        return history != null;
+    }
+
+    /**
+     * Registra nella storia una generazione completata (nulla se la storia non è attiva).
+     * @param generation L'indice della generazione.
+     * @param population La popolazione della generazione, già valutata.
+     * @param elapsedNanos La durata della generazione.
+     */
+    protected void recordHistory(int generation, List<Individual> population, long elapsedNanos) {
+        if (history == null) return;
+        recordHistory(generation, individuals.over(population), elapsedNanos);
+        // La vista non deve trattenere la popolazione fino alla generazione successiva.
+        individuals.over(List.of());
+    }
+
+    /**
+     * Registra nella storia una generazione completata, letta attraverso una vista primitiva (nulla se la storia
+     * non è attiva). Non alloca nulla.
+     * <p>
+     * La diversità è lo scarto quadratico medio delle posizioni dei geni rispetto alla loro media nella
+     * popolazione, diviso per la diagonale della bounding box: 0 quando la popolazione è collassata su una sola
+     * disposizione. Viene stimata su {@link #DIVERSITY_SAMPLES} geni equidistanti del cromosoma, quindi costa
+     * O(popolazione) qualunque sia la dimensione del genoma.
+     * @param generation L'indice della generazione.
+     * @param population La popolazione della generazione, già valutata.
+     * @param elapsedNanos La durata della generazione.
+     */
+    protected void recordHistory(int generation, PopulationReader population, long elapsedNanos) {
+        if (history == null) return;
+        int populationSize = population.size();
+        double best = Double.NEGATIVE_INFINITY, worst = Double.POSITIVE_INFINITY, sum = 0.0;
+        for (int i = 0; i < populationSize; i++) {
+            double f = population.fitness(i);
+            best = Math.max(best, f);
+            worst = Math.min(worst, f);
+            sum += f;
+        }
+
+        int genes = fitnessCalculator.getGenomeLayout().getSize();
+        int samples = Math.min(DIVERSITY_SAMPLES, genes);
+        double squares = 0.0;
+        for (int s = 0; s < samples; s++) {
+            int gene = (int) ((long) s * genes / samples);
+            for (int c = 2 * gene; c <= 2 * gene + 1; c++) {
+                double center = 0.0;
+                for (int i = 0; i < populationSize; i++) center += population.coordinate(i, c);
+                center /= populationSize;
+                for (int i = 0; i < populationSize; i++) {
+                    double d = population.coordinate(i, c) - center;
+                    squares += d * d;
+                }
+            }
+        }
+        Rectangle2D box = domain.getBoundingBox();
+        double diagonal = Math.hypot(box.getWidth(), box.getHeight());
+        double diversity = samples == 0 ? 0.0 : Math.sqrt(squares / ((double) samples * populationSize)) / diagonal;
+
+        history.record(generation, best, sum / populationSize, worst, diversity, elapsedNanos);
+    }
+
+    private void clearHistory() {
+        if (history != null) history.clear();
+    }
+}
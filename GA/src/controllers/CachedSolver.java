@@ -0,0 +1,80 @@
+package controllers;
+
+import model.Individual;
+import model.ProblemSignature;
+import model.domains.Domain;
+import service.FitnessCalculator;
+import service.SolutionCache;
+import view.EvolutionConsoleView;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Esecuzione di un job con la cache persistente delle soluzioni, condivisa dalla modalità headless e dal servizio.
+ * <p>
+ * Prima di avviare il motore si cerca il problema nella {@link SolutionCache}:
+ * <ul>
+ *   <li>una soluzione dello stesso problema senza overlap viene restituita subito, senza eseguire il motore;</li>
+ *   <li>ogni altra soluzione compatibile (stesso problema ma imperfetta, oppure raggi diversi) diventa il
+ *       warm start del motore, che parte quindi da una disposizione già buona invece che da una casuale.</li>
+ * </ul>
+ * Al termine la soluzione trovata viene salvata, se migliora quella in cache.
+ */
+final class CachedSolver {
+
+    // La cache, oppure null se i job vanno sempre risolti da zero.
+    private final SolutionCache cache;
+
+    CachedSolver(SolutionCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Risolve un job, usando la cache se disponibile.
+     * @param job Il job da risolvere.
+     * @param domain Il dominio del job.
+     * @param engine Il motore, già configurato (listener compresi).
+     * @param view La View per i messaggi della cache.
+     * @return La soluzione valida trovata (o ripresa dalla cache).
+     * @throws exceptions.MaxAttemptsExceededException Se il motore non trova una soluzione valida.
+     */
+    Individual solve(JobSpec job, Domain domain, OptimizerEngine engine, EvolutionConsoleView view) {
+        if (cache == null) {
+            return engine.runEvolutionEngine();
+        }
+        ProblemSignature signature = job.signature(domain);
+        Optional<SolutionCache.Hit> hit = cache.lookup(signature);
+
+        if (hit.isPresent()) {
+            Individual cached = hit.get().solution();
+            if (hit.get().exact() && isPerfect(cached, job, domain)) {
+                view.displayCacheHit(true, cached.getFitness());
+                return cached;
+            }
+            // Nella modalità a simmetria ridotta il genoma contiene solo i rappresentanti: niente warm start.
+            if (job.config().getSymmetryOrder() <= 1) {
+                view.displayCacheHit(false, cached.getFitness());
+                engine.setWarmStart(cached);
+            }
+        }
+
+        Individual solution = engine.runEvolutionEngine();
+        try {
+            cache.store(signature, solution);
+        } catch (IOException e) {
+            view.displayCacheWarning(e.getMessage());
+        }
+        return solution;
+    }
+
+    /**
+     * Verifica che una soluzione in cache sia ancora valida e senza overlap per il dominio del job.
+     * La fitness viene ricalcolata, così il risultato non dipende dai valori salvati nel file.
+     */
+    private static boolean isPerfect(Individual cached, JobSpec job, Domain domain) {
+        if (!domain.isValidIndividual(cached)) return false;
+        cached.setFitness(FitnessCalculator.forProblem(domain, job.groups(), 0).getFitness(cached));
+        return cached.getFitness() >= 1.0;
+    }
+}
@@ -0,0 +1,296 @@
+package controllers;
+
+import model.EvolutionConfig;
+import model.GenomeLayout;
+import model.Individual;
+import model.Point;
+import model.PointGroup;
+import model.domains.Domain;
+import service.FitnessCalculator;
+import utils.EventTrace;
+import view.EvolutionConsoleView;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Motore di ottimizzazione basato sulla <b>Differential Evolution</b> (schema DE/rand/1/bin).
+ * <p>
+ * A differenza dell'{@code EvolutionEngine}, la popolazione non è una lista di {@code Individual} ma una matrice
+ * primitiva {@code double[populationSize][2 * individualSize]} con le coordinate interlacciate (x0, y0, x1, y1, ...).
+ * Per ogni vettore target viene costruito un mutante {@code a + F * (b - c)} da tre vettori distinti,
+ * ricombinato con il target per punto (crossover binomiale) e accettato solo se non peggiora la fitness.
+ * <p>
+ * La valutazione usa lo stesso {@code FitnessCalculator} dell'AG, quindi i due motori sono direttamente confrontabili.
+ */
+public class DifferentialEvolutionEngine extends AbstractOptimizerEngine {
+
+    // ==================================================================================
+    // ⚙️ CONFIGURAZIONE E ATTRIBUTI IMMUTABILI
+    // ==================================================================================
+
+    // Parametri dell'esecuzione: generazioni, dimensione della popolazione (almeno 4 per lo schema rand/1),
+    // fattore di scala F (differentialWeight) e probabilità di crossover binomiale CR (crossoverRate).
+    private final EvolutionConfig config;
+
+    /** Lunghezza del cromosoma: numero di punti che compongono ciascuna soluzione. */
+    private final int individualSize;
+
+    /** Disposizione dei gruppi nel vettore: fornisce il raggio di ciascun punto, per indice. */
+    private final GenomeLayout layout;
+
+    // ==================================================================================
+    // 🔨 COSTRUTTORE
+    // ==================================================================================
+
+    /**
+     * @param view La View da utilizzare per la visualizzazione dello stato.
+     * @param domain Il vincolo spaziale che definisce l'area valida per la soluzione.
+     * @param groups I gruppi di punti (#piante, raggio) da posizionare.
+     * @param config I parametri dell'esecuzione.
+     */
+    public DifferentialEvolutionEngine(EvolutionConsoleView view, Domain domain, List<PointGroup> groups,
+                                       EvolutionConfig config) {
+        this(view, domain, FitnessCalculator.forProblem(domain, groups, config), config);
+    }
+
+    /**
+     * Costruttore a partire da una layout già costruita: equivale a quello con i gruppi della layout, quindi tutte
+     * le opzioni di valutazione della configurazione (simmetria, liste dei vicini, campo di distanza, ...) valgono.
+     */
+    public DifferentialEvolutionEngine(EvolutionConsoleView view, Domain domain, GenomeLayout layout,
+                                       EvolutionConfig config) {
+        this(view, domain, layout.getGroups(), config);
+    }
+
+    /**
+     * Costruttore comune: il vettore evoluto è quello descritto dal FitnessCalculator
+     * (completo, oppure ridotto per simmetria).
+     */
+    private DifferentialEvolutionEngine(EvolutionConsoleView view, Domain domain, FitnessCalculator fitnessCalculator,
+                                        EvolutionConfig config) {
+        super(view, domain, fitnessCalculator, config);
+        this.config = config;
+        this.layout = fitnessCalculator.getGenomeLayout();
+        this.individualSize = layout.getSize();
+    }
+
+    /**
+     * Costruttore per un problema con un solo gruppo di punti.
+     * @param individualSize Il numero di punti da posizionare.
+     * @param pointRadius Il raggio dei punti.
+     */
+    public DifferentialEvolutionEngine(EvolutionConsoleView view, Domain domain, int individualSize, double pointRadius,
+                                       EvolutionConfig config) {
+        this(view, domain, List.of(new PointGroup(individualSize, pointRadius)), config);
+    }
+
+    /**
+     * Costruttore con la configurazione di default ({@link EvolutionConfig#defaults()}).
+     */
+    public DifferentialEvolutionEngine(EvolutionConsoleView view, Domain domain, int individualSize, double pointRadius) {
+        this(view, domain, individualSize, pointRadius, EvolutionConfig.defaults());
+    }
+
+    // ==================================================================================
+    // ♻️ MOTORE DI EVOLUZIONE
+    // ==================================================================================
+
+    @Override
+    protected Individual runEvolutionCore() {
+        final int populationSize = config.getPopulationSize();
+        Rectangle2D box = domain.getBoundingBox();
+        int dimension = 2 * individualSize;
+
+        // --- Fase 1: Inizializzazione con i punti campionati dal dominio (o attorno alla soluzione di partenza) ---
+        double[][] population = new double[populationSize][dimension];
+        double[] fitness = new double[populationSize];
+        Individual seed = getWarmStart();
+        for (int i = 0; i < populationSize; i++) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int k = 0; k < individualSize; k++) {
+                if (seed == null) {
+                    Point p = domain.samplePoint(layout.getRadiusAt(k));
+                    population[i][2 * k] = p.getX();
+                    population[i][2 * k + 1] = p.getY();
+                } else {
+                    // Il vettore 0 è la soluzione di partenza intatta, gli altri la perturbano di al più mezzo raggio.
+                    double amplitude = i == 0 ? 0 : 0.5 * layout.getRadiusAt(k);
+                    Point p = seed.getChromosomes().get(k);
+                    population[i][2 * k] = clamp(p.getX() + (random.nextDouble() * 2 - 1) * amplitude, box.getMinX(), box.getMaxX());
+                    population[i][2 * k + 1] = clamp(p.getY() + (random.nextDouble() * 2 - 1) * amplitude, box.getMinY(), box.getMaxY());
+                }
+            }
+        }
+        // Con pochi vettori molto grandi ogni valutazione viene divisa tra tutti i core, invece che tra i vettori.
+        final boolean intraIndividual = prefersIntraIndividualParallelism(populationSize, individualSize);
+        if (intraIndividual) {
+            for (int i = 0; i < populationSize; i++) {
+                fitness[i] = fitnessCalculator.getFitnessParallel(toPoints(population[i]));
+            }
+        } else {
+            IntStream.range(0, populationSize).parallel()
+                    .forEach(i -> fitness[i] = fitnessCalculator.getFitness(toPoints(population[i])));
+        }
+
+        // Buffer dei vettori di prova, riutilizzato per tutte le generazioni (nessuna allocazione nel ciclo).
+        double[][] trials = new double[populationSize][dimension];
+        double[] trialFitness = new double[populationSize];
+
+        // Vista della popolazione per la storia, creata una volta: la selezione scambia le righe, non gli array.
+        PopulationReader historyReader = new PopulationReader() {
+            @Override
+            public int size() {
+                return populationSize;
+            }
+
+            @Override
+            public double fitness(int individual) {
+                return fitness[individual];
+            }
+
+            @Override
+            public double coordinate(int individual, int coordinate) {
+                return population[individual][coordinate];
+            }
+        };
+
+        // --- Fase 2: Ciclo di Evoluzione ---
+        for (int g = 0; g < config.getGenerations(); g++) {
+            checkCancelled();
+            EventTrace.record(EventTrace.Event.GENERATION_START, g);
+            final long generationStart = System.nanoTime();
+
+            // 1. Mutazione, crossover e valutazione dei vettori di prova (in parallelo, uno per target).
+            // Ogni task scrive solo nella propria riga di 'trials', quindi non serve sincronizzazione.
+            IntStream.range(0, populationSize).parallel().forEach(i -> {
+                buildTrial(population, i, trials[i], box);
+                if (!intraIndividual) {
+                    trialFitness[i] = fitnessCalculator.getFitness(toPoints(trials[i]));
+                }
+            });
+            if (intraIndividual) {
+                for (int i = 0; i < populationSize; i++) {
+                    trialFitness[i] = fitnessCalculator.getFitnessParallel(toPoints(trials[i]));
+                }
+            }
+            EventTrace.record(EventTrace.Event.BREEDING, System.nanoTime() - generationStart);
+            EventTrace.record(EventTrace.Event.EVALUATIONS, populationSize, 0);
+
+            // 2. Selezione greedy uno-a-uno: il vettore di prova sostituisce il target se non è peggiore.
+            // Lo scambio dei riferimenti evita la copia dei vettori.
+            for (int i = 0; i < populationSize; i++) {
+                if (trialFitness[i] >= fitness[i]) {
+                    double[] replaced = population[i];
+                    population[i] = trials[i];
+                    trials[i] = replaced;
+                    fitness[i] = trialFitness[i];
+                }
+            }
+
+            // La selezione è elitista per costruzione: il migliore della popolazione è anche il record globale.
+            int best = bestIndex(fitness);
+            if (hasGenerationListeners()) {
+                notifyGeneration(g, new Individual(toPoints(population[best]), fitness[best]));
+            }
+            EventTrace.record(EventTrace.Event.GENERATION_END, g, fitness[best]);
+            if (isRecordingHistory()) {
+                recordHistory(g, historyReader, System.nanoTime() - generationStart);
+            }
+        }
+
+        // --- Fase 3: Estrazione del migliore ---
+        int best = bestIndex(fitness);
+        return new Individual(toPoints(population[best]), fitness[best]);
+    }
+
+    /**
+     * Costruisce il vettore di prova per il target {@code targetIndex} (DE/rand/1/bin).
+     * @param population La popolazione corrente (solo lettura).
+     * @param targetIndex L'indice del vettore target.
+     * @param trial Il buffer in cui scrivere il vettore di prova.
+     * @param box La Bounding Box usata per il clamping delle coordinate.
+     */
+    private void buildTrial(double[][] population, int targetIndex, double[] trial, Rectangle2D box) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        // Tre vettori distinti tra loro e dal target.
+        int size = population.length;
+        int a, b, c;
+        do { a = random.nextInt(size); } while (a == targetIndex);
+        do { b = random.nextInt(size); } while (b == targetIndex || b == a);
+        do { c = random.nextInt(size); } while (c == targetIndex || c == a || c == b);
+
+        double[] target = population[targetIndex];
+        double[] va = population[a];
+        double[] vb = population[b];
+        double[] vc = population[c];
+
+        // Il punto forzato garantisce che il vettore di prova differisca dal target in almeno un punto.
+        int forcedPoint = random.nextInt(individualSize);
+
+        for (int k = 0; k < individualSize; k++) {
+            int ix = 2 * k;
+            int iy = ix + 1;
+            // Crossover binomiale per punto: x e y di un punto vengono sempre dallo stesso vettore.
+            if (k == forcedPoint || random.nextDouble() < config.getCrossoverRate()) {
+                trial[ix] = clamp(va[ix] + config.getDifferentialWeight() * (vb[ix] - vc[ix]), box.getMinX(), box.getMaxX());
+                trial[iy] = clamp(va[iy] + config.getDifferentialWeight() * (vb[iy] - vc[iy]), box.getMinY(), box.getMaxY());
+            } else {
+                trial[ix] = target[ix];
+                trial[iy] = target[iy];
+            }
+        }
+    }
+
+    // ==================================================================================
+    // ℹ️ UTILITY
+    // ==================================================================================
+
+    /**
+     * Ritorna l'indice del vettore con la fitness più alta.
+     */
+    private int bestIndex(double[] fitness) {
+        int best = 0;
+        for (int i = 1; i < fitness.length; i++) {
+            if (fitness[i] > fitness[best]) best = i;
+        }
+        return best;
+    }
+
+    /**
+     * Converte il vettore primitivo delle coordinate nella lista di {@code Point} attesa dal {@code FitnessCalculator}.
+     */
+    private List<Point> toPoints(double[] vector) {
+        List<Point> points = new ArrayList<>(individualSize);
+        for (int k = 0; k < individualSize; k++) {
+            points.add(new Point(vector[2 * k], vector[2 * k + 1], layout.getRadiusAt(k)));
+        }
+        return points;
+    }
+
+    /**
+     * Limita un valore 'value' all'interno di un intervallo chiuso [min, max].
+     */
+    private double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    @Override
+    public EngineType getType() {
+        return EngineType.DIFFERENTIAL_EVOLUTION;
+    }
+
+    @Override
+    protected int getGenerations() {
+        return config.getGenerations();
+    }
+
+    @Override
+    protected int getPopulationSize() {
+        return config.getPopulationSize();
+    }
+}
@@ -5,6 +5,7 @@ import model.domains.DomainFactory;
 import model.domains.DomainType;
 import view.DomainConsoleView;
 
+import java.nio.file.Path;
 import java.util.*;
 
 /**
@@ -65,10 +66,11 @@ public class DomainController {
 
             // 4. Raccolta dei parametri richiesti (delegato alla View)
             Map<String, Double> params = view.readParameters(type.getRequiredParameters(), type.getDisplayName());
+            Path file = type.requiresFile() ? Path.of(view.readFilePath(type.getDisplayName())) : null;
 
             // 5. Creazione del dominio (Delegata alla Factory)
             try {
-                Domain domain = factory.createDomain(type, params);
+                Domain domain = factory.createDomain(type, params, file);
 
                 // Messaggio di successo (delegato alla View)
                 view.showSuccess();
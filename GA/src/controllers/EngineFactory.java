@@ -0,0 +1,64 @@
+package controllers;
+
+import model.EvolutionConfig;
+import model.PointGroup;
+import model.domains.Domain;
+import view.EvolutionConsoleView;
+
+import java.util.List;
+
+/**
+ * Factory dei motori di ottimizzazione.
+ * <p>
+ * Analoga alla {@code DomainFactory}: è l'unico punto in cui si decide quale implementazione
+ * concreta di {@code OptimizerEngine} istanziare per un dato {@code EngineType}.
+ */
+public class EngineFactory {
+
+    /**
+     * Crea il motore richiesto per un problema con più gruppi di punti (#piante, raggio).
+     *
+     * @param type Il tipo di motore da creare.
+     * @param view La View da utilizzare per l'output dello stato evolutivo.
+     * @param domain Il vincolo spaziale del problema.
+     * @param groups I gruppi di punti da posizionare.
+     * @param config I parametri dell'esecuzione.
+     * @return L'istanza concreta del motore, trattata come interfaccia {@code OptimizerEngine}.
+     */
+    public OptimizerEngine createEngine(EngineType type, EvolutionConsoleView view, Domain domain,
+                                        List<PointGroup> groups, EvolutionConfig config) {
+        // Con più livelli di risoluzione il motore richiesto risolve ciascun livello della pipeline coarse-to-fine.
+        if (config.getResolutionLevels() > 1) {
+            return new MultiResolutionEngine(type, view, domain, groups, config, this);
+        }
+        return switch (type) {
+            case GENETIC -> new EvolutionEngine(view, domain, groups, config);
+            case DIFFERENTIAL_EVOLUTION -> new DifferentialEvolutionEngine(view, domain, groups, config);
+            case NSGA2 -> new NsgaEngine(view, domain, groups, config);
+        };
+    }
+
+    /**
+     * Crea il motore richiesto per il problema specificato.
+     *
+     * @param type Il tipo di motore da creare.
+     * @param view La View da utilizzare per l'output dello stato evolutivo.
+     * @param domain Il vincolo spaziale del problema.
+     * @param individualSize Il numero di punti da posizionare.
+     * @param pointRadius Il raggio dei punti.
+     * @param config I parametri dell'esecuzione.
+     * @return L'istanza concreta del motore, trattata come interfaccia {@code OptimizerEngine}.
+     */
+    public OptimizerEngine createEngine(EngineType type, EvolutionConsoleView view, Domain domain,
+                                        int individualSize, double pointRadius, EvolutionConfig config) {
+        return createEngine(type, view, domain, List.of(new PointGroup(individualSize, pointRadius)), config);
+    }
+
+    /**
+     * Crea il motore richiesto con la configurazione di default.
+     */
+    public OptimizerEngine createEngine(EngineType type, EvolutionConsoleView view, Domain domain,
+                                        int individualSize, double pointRadius) {
+        return createEngine(type, view, domain, individualSize, pointRadius, EvolutionConfig.defaults());
+    }
+}
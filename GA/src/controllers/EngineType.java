@@ -0,0 +1,61 @@
+package controllers;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Rappresenta i motori di ottimizzazione disponibili nel sistema.
+ * <p>
+ * Come {@code DomainType}, funge da repository di metadati (menu ID e nome visualizzato)
+ * usati dalla {@code EngineFactory} e dalla View per la scelta del motore.
+ */
+public enum EngineType {
+
+    // Algoritmo Genetico classico (torneo + crossover uniforme + mutazione adattiva).
+    GENETIC(1, "GENETIC ALGORITHM"),
+    // Differential Evolution (DE/rand/1/bin) sul vettore primitivo delle coordinate.
+    DIFFERENTIAL_EVOLUTION(2, "DIFFERENTIAL EVOLUTION"),
+    // NSGA-II: penalità e dispersione come obiettivi separati, restituisce anche il fronte di Pareto.
+    NSGA2(3, "NSGA-II");
+
+    // ------------------- ATTRIBUTI -------------------
+
+    // L'identificativo numerico univoco utilizzato per la selezione nel menu a riga di comando (CLI).
+    private final int menuId;
+
+    // Il nome "amichevole" del motore, usato per la visualizzazione e nei log.
+    private final String displayName;
+
+    // ------------------- COSTRUTTORE -------------------
+
+    EngineType(int menuId, String displayName) {
+        this.menuId = menuId;
+        this.displayName = displayName;
+    }
+
+    // ------------------- GETTER PUBBLICI -------------------
+
+    /** Restituisce l'ID numerico del motore, utilizzato per la selezione da menu. */
+    public int getMenuId() { return menuId; }
+
+    /** Ritorna il nome "amichevole" del motore per la visualizzazione. */
+    public String getDisplayName() { return displayName; }
+
+    // ------------------- METODI DI UTILITÀ -------------------
+
+    /**
+     * Cerca e restituisce un {@code EngineType} basato sull'ID del menu fornito.
+     * @param id L'ID numerico selezionato dall'utente.
+     * @return Un {@code Optional} contenente il {@code EngineType} corrispondente, se trovato.
+     */
+    public static Optional<EngineType> fromMenuId(int id) {
+        return Arrays.stream(EngineType.values())
+                .filter(type -> type.menuId == id)
+                .findFirst();
+    }
+
+    @Override
+    public String toString() {
+        return this.displayName;
+    }
+}
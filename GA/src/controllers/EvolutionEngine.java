@@ -1,74 +1,48 @@
 package controllers;
 
 import service.Crossover;
+import service.FitnessCache;
 import service.FitnessCalculator;
+import service.MortonOrder;
 import service.Mutation;
 import service.Selection;
-import exceptions.MaxAttemptsExceededException;
+import model.EvolutionConfig;
+import model.GenomeLayout;
 import model.Individual;
-import model.Point;
+import model.PointGroup;
 import model.domains.Domain;
-import utils.RandomUtils;
+import utils.EventTrace;
 import view.EvolutionConsoleView;
 
-import java.time.Duration;
-import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.IntStream;
 
 /**
  * Motore centrale che gestisce il ciclo evolutivo di un Algoritmo Genetico (AG).
  * <p>
- * Questa classe incapsula tutte le costanti di configurazione dell'AG (dimensioni, probabilità, ecc.)
+ * Questa classe riceve la configurazione dell'AG (dimensioni, probabilità, ecc.) tramite un {@code EvolutionConfig}
  * e orchestra l'esecuzione dei servizi (Fitness, Mutazione, Crossover, Selezione) per risolvere
  * un problema di ottimizzazione vincolato a un {@code Domain} geometrico.
  */
-public class EvolutionEngine {
+public class EvolutionEngine extends AbstractOptimizerEngine {
 
     // ==================================================================================
     // ⚙️ CONFIGURAZIONE E ATTRIBUTI IMMUTABILI
     // ==================================================================================
 
-// Configurazione dei Parametri AG, fissi per l'esecuzione.
-    //Numero massimo di generazioni da eseguire.
-    private final int GENERATIONS = 800;
+    // Configurazione dei Parametri AG (generazioni, popolazione, torneo, probabilità, ...), fissa per l'esecuzione.
+    // Scelta Implementativa: oggetto immutabile iniettato, così i parametri possono variare senza ricompilare.
+    private final EvolutionConfig config;
 
-    // Dimensione fissa di ogni popolazione in ogni generazione.
-    private final int POPULATION_SIZE = 100;
-
-    // Numero di individui selezionati per il torneo durante la selezione.
-    private final int TOURNAMENT_SIZE = 3;
-
-    // Percentuale della popolazione (gli individui migliori) da preservare tramite elitismo.
-    private final double ELITES_PERCENTAGE = 0.05;
-
-    // Probabilità di eseguire l'operatore di Crossover su una coppia di genitori.
-    private final double CROSSOVER_PROB = 0.9;
-
-    // Forza iniziale dell'operatore di Mutazione (utilizzata, ad esempio, per ricottura simulata o riduzione progressiva).
-    private final double INITIAL_MUTATION_STRENGTH = 1.0;
-
-    // Probabilità di eseguire l'operatore di Mutazione su un gene (Point) di un nuovo individuo.
-    private final double MUTATION_PROB = 0.02;
-
-    // Il vincolo spaziale del problema. Definisce l'area valida per i punti degli individui.
-    private final Domain domain;
-
-    /** Lunghezza del cromosoma: numero di {@code Point} (geni) che compongono ciascun individuo. */
-    private final int individualSize;
-
-    /** Il raggio (dimensione) dei {@code Point} che compongono gli individui, rilevante per la validazione spaziale.
-     * Indicherà poi il più grande raggio dei punti (se ho diversi raggi disponibili, quel valore sarà il raggio più grande)
-     * */
-    private final double pointRadius;
+    /** Disposizione dei gruppi (#piante, raggio) nel cromosoma: i punti di ciascun gruppo sono contigui. */
+    private final GenomeLayout layout;
 
     // ------------------- SERVIZI E STATO -------------------
 
     // Servizi (Dipendenze): componenti funzionali dell'AG.
-
-    // Servizio per il calcolo del valore di fitness di un individuo.
-    private final FitnessCalculator fitnessCalculator;
+    // Il FitnessCalculator, il Domain e la View sono ereditati da AbstractOptimizerEngine.
 
     // Servizio per l'applicazione dell'operatore di Mutazione.
     private final Mutation gammaRays;
@@ -79,8 +53,15 @@ public class EvolutionEngine {
     // Servizio per l'applicazione dell'operatore di Selezione.
     private final Selection selector;
 
-    // Componente View per la gestione dell'output e della visualizzazione dello stato evolutivo.
-    private final EvolutionConsoleView view;
+    // Riordino periodico dei geni secondo l'ordine di Morton (null se disattivato nella configurazione).
+    private final MortonOrder mortonOrder;
+
+    // Fitness della generazione corrente per impronta del genoma: i figli identici a un individuo già valutato
+    // non vengono rivalutati.
+    private final FitnessCache fitnessCache = new FitnessCache();
+
+    // Tentativi di nuova mutazione di un figlio duplicato (politica MUTATE) prima di tenerlo così com'è.
+    private static final int MAX_DUPLICATE_MUTATIONS = 3;
 
     // ==================================================================================
     // 🔨 COSTRUTTORE
@@ -90,56 +71,73 @@ public class EvolutionEngine {
      * Costruttore completo che inizializza il motore evolutivo e tutti i suoi servizi.
      * <p>
      * Le dipendenze essenziali (View e contesto spaziale) sono iniettate, mentre i servizi
-     * funzionali vengono istanziati internamente utilizzando le costanti AG definite nella classe.
+     * funzionali vengono istanziati internamente utilizzando i parametri AG della configurazione.
      *
      * @param view La View da utilizzare per l'interazione e la visualizzazione dello stato.
      * @param domain Il vincolo spaziale che definisce l'area valida per la soluzione.
-     * @param individualSize La lunghezza (numero di punti) del cromosoma degli individui.
-     * @param pointRadius La dimensione dei punti che compongono l'individuo.
+     * @param groups I gruppi di punti (#piante, raggio); la lunghezza del cromosoma è la somma dei conteggi.
+     * @param config I parametri dell'AG per questa esecuzione.
      */
-    public EvolutionEngine(EvolutionConsoleView view, Domain domain, int individualSize, double pointRadius) {
+    public EvolutionEngine(EvolutionConsoleView view, Domain domain, List<PointGroup> groups, EvolutionConfig config) {
+        this(view, domain, FitnessCalculator.forProblem(domain, groups, config), config);
+    }
+
+    /**
+     * Costruttore a partire da una layout già costruita: equivale a quello con i gruppi della layout, quindi tutte
+     * le opzioni di valutazione della configurazione (simmetria, liste dei vicini, campo di distanza, ...) valgono.
+     */
+    public EvolutionEngine(EvolutionConsoleView view, Domain domain, GenomeLayout layout, EvolutionConfig config) {
+        this(view, domain, layout.getGroups(), config);
+    }
+
+    /**
+     * Costruttore comune: il genoma evoluto è quello descritto dal FitnessCalculator
+     * (completo, oppure ridotto per simmetria).
+     */
+    private EvolutionEngine(EvolutionConsoleView view, Domain domain, FitnessCalculator fitnessCalculator,
+                            EvolutionConfig config) {
+        // Il FitnessCalculator è condiviso con gli altri motori tramite la classe base.
+        // Le strategie di overlap usano la tabella delle distanze per coppia di gruppi della layout.
+        super(view, domain, fitnessCalculator, config);
+
         // Inizializza tutti gli attributi finali di configurazione.
-        this.view = view;
-        this.domain = domain;
-        this.individualSize = individualSize;
-        this.pointRadius = pointRadius;
+        this.config = config;
+        this.layout = fitnessCalculator.getGenomeLayout();
 
         // Inizializzazione dei servizi: sono istanze costanti (Singleton) per tutta l'esecuzione.
         // I servizi sono configurati con i parametri AG e le dipendenze necessarie.
-        this.fitnessCalculator = new FitnessCalculator(domain, pointRadius);
-        this.gammaRays = new Mutation(MUTATION_PROB, INITIAL_MUTATION_STRENGTH, domain, GENERATIONS);
-        this.mixer = new Crossover(CROSSOVER_PROB);
-        this.selector = new Selection(TOURNAMENT_SIZE, ELITES_PERCENTAGE);
+        // Mutazione e Crossover operano gruppo per gruppo, secondo la layout.
+        this.gammaRays = new Mutation(config.getMutationProb(), config.getInitialMutationStrength(), domain,
+                config.getGenerations(), layout);
+        this.mixer = new Crossover(config.getCrossoverProb(), layout, domain, config.getCutCrossoverProb());
+        this.selector = new Selection(config.getTournamentSize(), config.getElitesPercentage());
+        this.mortonOrder = config.getMortonInterval() > 0 ? new MortonOrder(domain, layout) : null;
     }
 
-    // ==================================================================================
-    // 🚀 STEP 1: INIZIALIZZAZIONE
-    // ==================================================================================
-
     /**
-     * Genera un singolo individuo (soluzione) con punti casuali all'interno della Bounding Box.
-     * * Scelta Implementativa: Usa la Bounding Box per l'efficienza di inizializzazione.
+     * Costruttore per un problema con un solo gruppo di punti, tutti con lo stesso raggio.
+     * @param individualSize La lunghezza (numero di punti) del cromosoma degli individui.
+     * @param pointRadius La dimensione dei punti che compongono l'individuo.
      */
-    private Individual buildIndividual() {
-        List<Point> points = new ArrayList<>(individualSize);
-        for (int i = 0; i < individualSize; i++) {
-            // Usa il raggio del punto (this.pointRadius) per creare il Point.
-            points.add(RandomUtils.insideBoxGenerator(domain.getBoundingBox(), pointRadius));
-        }
-        return new Individual(points);
+    public EvolutionEngine(EvolutionConsoleView view, Domain domain, int individualSize, double pointRadius,
+                           EvolutionConfig config) {
+        this(view, domain, List.of(new PointGroup(individualSize, pointRadius)), config);
     }
 
     /**
-     * Crea la prima generazione di individui (popolazione iniziale) in modo casuale.
+     * Costruttore con la configurazione di default ({@link EvolutionConfig#defaults()}).
      */
-    private List<Individual> firstGeneration() {
-        List<Individual> firstGen = new ArrayList<>(POPULATION_SIZE);
-        for (int i = 0; i < POPULATION_SIZE; i++) {
-            firstGen.add(buildIndividual());
-        }
-        return firstGen;
+    public EvolutionEngine(EvolutionConsoleView view, Domain domain, int individualSize, double pointRadius) {
+        this(view, domain, individualSize, pointRadius, EvolutionConfig.defaults());
     }
 
+    // ==================================================================================
+    // 🚀 STEP 1: INIZIALIZZAZIONE
+    // ==================================================================================
+
+    // La popolazione iniziale (casuale o attorno alla soluzione di partenza) è costruita dalla classe base,
+    // condivisa con gli altri motori che rappresentano la popolazione come {@code Individual}.
+
     // ==================================================================================
     // ♻️ STEP 2: MOTORE DI EVOLUZIONE (Metodo Pubblico)
     // ==================================================================================
@@ -148,36 +146,65 @@ public class EvolutionEngine {
      * Metodo di avvio: Esegue il ciclo evolutivo completo e restituisce la migliore soluzione trovata.
      * @return Una copia della migliore soluzione trovata globalmente.
      */
-    private Individual runEvolutionCore() {
+    @Override
+    protected Individual runEvolutionCore() {
         // tengo traccia del miglior individuo
         Individual solution;
 
         // --- Fase 1: Inizializzazione ---
-        List<Individual> oldGeneration = firstGeneration();
+        List<Individual> oldGeneration = firstGeneration(config.getPopulationSize());
 
         // Calcola la fitness iniziale per l'intera popolazione.
 
         // Esegui la valutazione della fitness su core CPU multipli
-        oldGeneration.parallelStream().forEach(ind -> {
-            // La lambda expression (ind -> ...) viene eseguita in parallelo
-            ind.setFitness(fitnessCalculator.getFitness(ind));
-        });
+        if (prefersIntraIndividualParallelism(oldGeneration.size(), layout.getSize())) {
+            // Pochi individui molto grandi: ognuno viene diviso tra tutti i core.
+            for (Individual ind : oldGeneration) {
+                ind.setFitness(fitnessCalculator.getFitnessParallel(ind.getChromosomes()));
+            }
+        } else {
+            oldGeneration.parallelStream().forEach(ind -> {
+                // La lambda expression (ind -> ...) viene eseguita in parallelo
+                ind.setFitness(fitnessCalculator.getFitness(ind));
+            });
+        }
 
         // Stabilisce la prima soluzione globale migliore.
         solution = currentBestSolution(oldGeneration, null);
 
         // --- Fase 2: Ciclo di Evoluzione ---
-        for (int i = 0; i < GENERATIONS; i++) {
+        for (int i = 0; i < config.getGenerations(); i++) {
+            checkCancelled();
+            EventTrace.record(EventTrace.Event.GENERATION_START, i);
+            final long generationStart = System.nanoTime();
+            final long hitsBefore = fitnessCache.getHits();
+
+            // 0. Riordino (opzionale): la stessa permutazione per tutti, che mette in ordine di Morton i geni del
+            // migliore, così la valutazione legge i punti vicini quasi in sequenza. Non cambia né le soluzioni né
+            // la loro fitness né il comportamento di crossover e mutazione.
+            if (mortonOrder != null && i % config.getMortonInterval() == 0) {
+                mortonOrder.reorder(oldGeneration, currentBestSolution(oldGeneration, null));
+            }
 
             final List<Individual> currentGeneration = oldGeneration;
-            List<Individual> newGeneration = new ArrayList<>(POPULATION_SIZE);
+            fitnessCache.reset(currentGeneration);
+            List<Individual> newGeneration = new ArrayList<>(config.getPopulationSize());
 
-            // 1. Elitismo: seleziona i migliori della generazione precedente.
-            List<Individual> elites = selector.selectElites(oldGeneration);
-            newGeneration.addAll(elites);
+            // Nella selezione (μ+λ) i figli competono con i genitori: di un figlio interessa solo se batte il
+            // peggiore dei genitori, e la sua valutazione si ferma appena è certo che non ci riesce.
+            final boolean plusSelection = config.isPlusSelection();
+            final double threshold = plusSelection ? worstFitness(currentGeneration) : Double.NEGATIVE_INFINITY;
+
+            // 1. Elitismo: seleziona i migliori della generazione precedente (implicito nella selezione (μ+λ)).
+            if (!plusSelection) {
+                newGeneration.addAll(selector.selectElites(oldGeneration));
+            }
 
-            // 2. Crossover e Mutazione: riempie il resto della popolazione.
-            int childrenToGenerate = POPULATION_SIZE - elites.size();
+            // 2. Crossover e Mutazione: riempie il resto della popolazione (λ = μ figli nella selezione (μ+λ)).
+            int childrenToGenerate = config.getPopulationSize() - newGeneration.size();
+
+            // Con pochi figli molto grandi la fitness viene calcolata dopo, un figlio alla volta su tutti i core.
+            final boolean intraIndividual = prefersIntraIndividualParallelism(childrenToGenerate, layout.getSize());
 
             // Genera i figli in parallelo e raccoglili in una lista temporanea
             final int currentGenerationAge = i;
@@ -194,13 +221,19 @@ public class EvolutionEngine {
                     }
 
                     // b. Crossover
-                    Individual child = mixer.uniformCrossover(mom, dad);
+                    Individual child = mixer.crossover(mom, dad);
 
                     // c. Mutazione
                     gammaRays.mutate(child, currentGenerationAge);
 
-                    // d. Calcolo Fitness (uso di fitnessCalculator.getFitness() thread-safe)
-                    child.setFitness(fitnessCalculator.getFitness(child));
+                    // d. Duplicati: secondo la configurazione il figlio identico a un individuo già presente viene
+                    // tenuto, mutato di nuovo o sostituito.
+                    child = resolveDuplicate(child, currentGenerationAge);
+
+                    // e. Calcolo Fitness (uso di fitnessCalculator.getFitness() thread-safe), saltato per i duplicati
+                    if (!intraIndividual) {
+                        evaluate(child, threshold);
+                    }
 
                     // Ritorna l'oggetto creato
                     return child;
@@ -208,11 +241,30 @@ public class EvolutionEngine {
                 // La funzione collect() si occupa di raccogliere in modo thread-safe tutti i risultati
                 .toList(); //genera lista immutabile
 
+            if (intraIndividual) {
+                for (Individual child : children) {
+                    if (!fitnessCache.reuse(child)) {
+                        child.setFitness(fitnessCalculator.getFitnessParallel(child.getChromosomes()));
+                        fitnessCache.register(child);
+                    }
+                }
+            }
+            long reused = fitnessCache.getHits() - hitsBefore;
+            EventTrace.record(EventTrace.Event.BREEDING, System.nanoTime() - generationStart);
+            EventTrace.record(EventTrace.Event.EVALUATIONS, children.size() - reused, reused);
+
             // Aggiungi tutti i figli generati in parallelo alla newGeneration
-            newGeneration.addAll(children);
+            if (plusSelection) {
+                newGeneration = truncation(currentGeneration, children, threshold);
+            } else {
+                newGeneration.addAll(children);
+            }
 
             // 3. Aggiornamento: Verifica il record globale (Elitismo Globale).
             solution = currentBestSolution(newGeneration, solution);
+            notifyGeneration(i, solution);
+            EventTrace.record(EventTrace.Event.GENERATION_END, i, solution.getFitness());
+            recordHistory(i, newGeneration, System.nanoTime() - generationStart);
 
             // La nuova generazione diventa la base per la prossima iterazione.
             oldGeneration = newGeneration;
@@ -222,86 +274,85 @@ public class EvolutionEngine {
         return solution.copy();
     }
 
-    public Individual runEvolutionEngine() {
-        final int MAX_RETRY_ATTEMPTS = 3;
-        int currentAttempt = 0;
-        Individual lastAttemptSolution;
-        double lastExecutionTimeMs;
-        double totalExecutionTimeMs = 0;
-
-        view.displayStartMessage(GENERATIONS, POPULATION_SIZE);
-
-        do {
-            Instant startTime = Instant.now();
-
-            // aggiorna counter
-            currentAttempt++;
-
-            // 1. esecuzione del core
-            lastAttemptSolution = runEvolutionCore();
+    /**
+     * Valuta un figlio, riprendendo la fitness dalla cache se è identico a un individuo già valutato.
+     * @param minFitness La soglia sotto cui la fitness esatta non interessa (NEGATIVE_INFINITY = sempre esatta):
+     *                   sotto la soglia il figlio riceve solo un limite superiore e non entra nella cache.
+     */
+    private void evaluate(Individual child, double minFitness) {
+        if (fitnessCache.reuse(child)) return;
+        double fitness = minFitness == Double.NEGATIVE_INFINITY
+                ? fitnessCalculator.getFitness(child)
+                : fitnessCalculator.getFitness(child, minFitness);
+        child.setFitness(fitness);
+        if (fitness >= minFitness) {
+            fitnessCache.register(child);
+        }
+    }
 
-            Instant endTime = Instant.now();
-            lastExecutionTimeMs = Duration.between(startTime,endTime).toMillis();
-            // se la soluzione viene trovata (e.g.) al secondo giro, devo indicare la somma dei tempi dei 2 giri come tempo di esecuzione
-            totalExecutionTimeMs += lastExecutionTimeMs;
+    /** La fitness peggiore della popolazione. */
+    private static double worstFitness(List<Individual> population) {
+        double worst = Double.POSITIVE_INFINITY;
+        for (Individual individual : population) {
+            worst = Math.min(worst, individual.getFitness());
+        }
+        return worst;
+    }
 
-            // 2. verifica di validità
-            if (domain.isValidIndividual(lastAttemptSolution)) {
-                // mostra che una soluzione corretta è stata provata
-                view.displaySuccess(currentAttempt, totalExecutionTimeMs / 1000);
-                return  lastAttemptSolution.copy();
+    /**
+     * Selezione (μ+λ) per troncamento: i μ migliori tra genitori e figli.
+     * <p>
+     * I figli che non superano la soglia (il peggiore dei genitori) vengono scartati subito: la loro fitness è solo
+     * un limite superiore e non potrebbero comunque entrare. A parità di fitness vincono i genitori (ordinamento
+     * stabile, genitori per primi).
+     */
+    private List<Individual> truncation(List<Individual> parents, List<Individual> children, double threshold) {
+        List<Individual> pool = new ArrayList<>(parents.size() + children.size());
+        pool.addAll(parents);
+        for (Individual child : children) {
+            if (child.getFitness() > threshold) {
+                pool.add(child);
             }
+        }
+        pool.sort(Comparator.comparingDouble(Individual::getFitness).reversed());
+        return new ArrayList<>(pool.subList(0, config.getPopulationSize()));
+    }
 
-            // individuo non valido, mostralo all'utente
-            view.displayRetryWarning(currentAttempt, MAX_RETRY_ATTEMPTS, lastExecutionTimeMs / 1000);
-
-        } while (currentAttempt < MAX_RETRY_ATTEMPTS);
-
-        // 4. FALLIMENTO controllato, l'algoritmo non è riuscito a trovare una soluzione.
-
-        view.displayCriticalFailure(MAX_RETRY_ATTEMPTS, lastAttemptSolution.getFitness(), totalExecutionTimeMs / 1000);
-
-        throw new MaxAttemptsExceededException(
-                String.format(
-                "The genetic algorithm failed after %d attempts (%.2f total seconds). " +
-                        "Last Fitness value: %.4f. Try changing the parameters.",
-                MAX_RETRY_ATTEMPTS,
-                totalExecutionTimeMs / 1000.0,
-                lastAttemptSolution.getFitness()
-        ));
+    /**
+     * Applica la politica dei duplicati a un figlio appena generato.
+     * @return Il figlio stesso (eventualmente mutato di nuovo) oppure il suo sostituto.
+     */
+    private Individual resolveDuplicate(Individual child, int generation) {
+        EvolutionConfig.DuplicatePolicy policy = config.getDuplicatePolicy();
+        if (policy == EvolutionConfig.DuplicatePolicy.KEEP || !fitnessCache.contains(child)) {
+            return child;
+        }
+        if (policy == EvolutionConfig.DuplicatePolicy.FRESH) {
+            Individual seed = getWarmStart();
+            return seed == null ? buildIndividual() : buildAround(seed);
+        }
+        for (int attempt = 0; attempt < MAX_DUPLICATE_MUTATIONS && fitnessCache.contains(child); attempt++) {
+            gammaRays.mutate(child, generation);
+        }
+        return child;
     }
 
     // ==================================================================================
-    // ℹ️ UTILITY
+    // ℹ️ METADATI
     // ==================================================================================
 
-    /**
-     * Determina e traccia il miglior individuo tra la generazione corrente e il record storico.
-     * @param individuals La lista degli individui della generazione corrente.
-     * @param currentSolution Il miglior individuo trovato fino a quel momento (record globale).
-     * @return L'individuo con la fitness più alta (il nuovo record globale, se trovato).
-     */
-    private Individual currentBestSolution(List<Individual> individuals, Individual currentSolution) {
-        // Trova il migliore della generazione corrente (KING)
-        Individual KING = individuals.getFirst();
-
-        for (int i = 1; i < individuals.size(); i++) {
-            if (KING.getFitness() < individuals.get(i).getFitness()) {
-                KING = individuals.get(i);
-            }
-        }
+    @Override
+    public EngineType getType() {
+        return EngineType.GENETIC;
+    }
 
-        // Confronta con il record globale precedente.
-        if (currentSolution == null) {
-            return KING;
-        }
+    @Override
+    protected int getGenerations() {
+        return config.getGenerations();
+    }
 
-        // Restituisce il migliore tra il KING e il record storico.
-        if (KING.getFitness() > currentSolution.getFitness()) {
-            return KING;
-        } else {
-            return currentSolution;
-        }
+    @Override
+    protected int getPopulationSize() {
+        return config.getPopulationSize();
     }
 }
-
@@ -0,0 +1,22 @@
+package controllers;
+
+import model.Individual;
+
+/**
+ * Osservatore dell'avanzamento di un motore di ottimizzazione.
+ * <p>
+ * Viene notificato al termine di ogni generazione con il record globale corrente; permette a componenti esterni
+ * (sweep dei parametri, report di avanzamento, ...) di misurare l'esecuzione senza modificare il motore.
+ * <p>
+ * Le notifiche arrivano sempre dal thread che esegue il ciclo evolutivo, mai dai worker paralleli,
+ * quindi un listener non ha bisogno di sincronizzazione propria se usato da una sola esecuzione.
+ */
+@FunctionalInterface
+public interface GenerationListener {
+
+    /**
+     * @param generation L'indice (da 0) della generazione appena completata.
+     * @param best Il miglior individuo trovato finora. Non va modificato.
+     */
+    void onGeneration(int generation, Individual best);
+}
@@ -0,0 +1,113 @@
+package controllers;
+
+import exceptions.MaxAttemptsExceededException;
+import model.Individual;
+import model.domains.Domain;
+import model.domains.DomainFactory;
+import service.SolutionCache;
+import view.EvolutionConsoleView;
+import view.JobFileReader;
+import view.JobResultWriter;
+
+import java.util.Optional;
+
+/**
+ * Controller della modalità headless: risolve in sequenza, nella stessa JVM, tutti i job letti da un file (o da stdin).
+ * <p>
+ * A differenza del flusso interattivo di {@code Main}, non legge nulla da tastiera: dominio, gruppi di punti,
+ * motore e configurazione arrivano dal {@code JobFileReader}. I job vengono eseguiti uno dopo l'altro, così dal
+ * secondo in poi il codice dei motori è già compilato dal JIT; ogni risultato viene scritto appena disponibile.
+ * <p>
+ * Un job malformato o non risolvibile viene riportato nell'output e non interrompe i successivi.
+ * Con una {@link SolutionCache} i job già risolti vengono ripresi dalla cache (vedi {@code CachedSolver}).
+ */
+public class HeadlessController {
+
+    private final DomainFactory domainFactory = new DomainFactory();
+    private final EngineFactory engineFactory = new EngineFactory();
+
+    // Sorgente dei job, destinazione dei risultati e View per i messaggi di avanzamento dei motori.
+    private final JobFileReader reader;
+    private final JobResultWriter writer;
+    private final EvolutionConsoleView progressView;
+    private final CachedSolver solver;
+
+    /**
+     * @param reader La sorgente dei job.
+     * @param writer La destinazione dei risultati.
+     * @param progressView La View su cui i motori stampano l'avanzamento (tipicamente rediretta su stderr).
+     */
+    public HeadlessController(JobFileReader reader, JobResultWriter writer, EvolutionConsoleView progressView) {
+        this(reader, writer, progressView, null);
+    }
+
+    /**
+     * @param reader La sorgente dei job.
+     * @param writer La destinazione dei risultati.
+     * @param progressView La View su cui i motori stampano l'avanzamento (tipicamente rediretta su stderr).
+     * @param cache La cache delle soluzioni, oppure null per risolvere sempre da zero.
+     */
+    public HeadlessController(JobFileReader reader, JobResultWriter writer, EvolutionConsoleView progressView,
+                              SolutionCache cache) {
+        this.reader = reader;
+        this.writer = writer;
+        this.progressView = progressView;
+        this.solver = new CachedSolver(cache);
+    }
+
+    /**
+     * Esegue tutti i job fino a fine input.
+     * @return Il numero di job risolti con successo.
+     */
+    public int runAll() {
+        int solved = 0;
+        while (true) {
+            Optional<JobSpec> job;
+            try {
+                job = reader.next();
+            } catch (IllegalArgumentException e) {
+                // Job malformato: lo riportiamo e passiamo al successivo.
+                writer.writeError(String.valueOf(reader.getLastJobName()), e.getMessage());
+                continue;
+            }
+            if (job.isEmpty()) {
+                return solved;
+            }
+            if (runJob(job.get())) {
+                solved++;
+            }
+        }
+    }
+
+    /**
+     * Esegue un singolo job e ne scrive il risultato.
+     * @return true se il job è stato risolto con una soluzione valida.
+     */
+    private boolean runJob(JobSpec job) {
+        Domain domain;
+        OptimizerEngine engine;
+        try {
+            domain = job.createDomain(domainFactory);
+            // Anche la creazione del motore può rifiutare il job (es. simmetria non supportata dal dominio).
+            engine = engineFactory.createEngine(job.engineType(), progressView, domain, job.groups(), job.config());
+        } catch (IllegalArgumentException e) {
+            writer.writeError(job.name(), e.getMessage());
+            return false;
+        }
+
+        long start = System.nanoTime();
+        try {
+            Individual solution = solver.solve(job, domain, engine, progressView);
+            writer.writeSolved(job.name(), job.engineType().name(), solution, (System.nanoTime() - start) / 1e6);
+            return true;
+        } catch (MaxAttemptsExceededException e) {
+            writer.writeFailed(job.name(), job.engineType().name(), e.getMessage(), (System.nanoTime() - start) / 1e6);
+            return false;
+        } finally {
+            // Il fronte dei motori multi-obiettivo e la storia delle generazioni sono utili anche quando nessuna
+            // soluzione è valida.
+            writer.writeParetoFront(job.name(), engine.getParetoFront());
+            engine.getHistory().ifPresent(history -> writer.writeHistory(job.name(), history));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package controllers;
+
+import model.EvolutionConfig;
+import model.PointGroup;
+import model.ProblemSignature;
+import model.domains.CompositeDomain;
+import model.domains.Domain;
+import model.domains.DomainFactory;
+import model.domains.DomainType;
+import model.domains.types.PolygonDomain;
+
+import java.awt.geom.Rectangle2D;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Descrizione completa di un problema da risolvere in modalità headless (senza input da tastiera).
+ *
+ * @param name Il nome del job, riportato nell'output.
+ * @param domainType Il tipo di dominio.
+ * @param domainParameters I parametri del dominio, con le chiavi di {@code DomainType.getRequiredParameters()}.
+ * @param domainFile Il file del dominio per i tipi che lo richiedono (es. i vertici del poligono), altrimenti null.
+ * @param groups I gruppi di punti (#piante, raggio) da posizionare.
+ * @param engineType Il motore di ottimizzazione da usare.
+ * @param config I parametri del motore.
+ */
+public record JobSpec(
+        String name,
+        DomainType domainType,
+        Map<String, Double> domainParameters,
+        String domainFile,
+        List<PointGroup> groups,
+        EngineType engineType,
+        EvolutionConfig config
+) {
+    public JobSpec {
+        domainParameters = Map.copyOf(domainParameters);
+        groups = List.copyOf(groups);
+    }
+
+    /**
+     * Crea il dominio del job e verifica che i raggi siano compatibili con esso.
+     * <p>
+     * Applica lo stesso limite del flusso interattivo: nessun raggio può superare metà del lato minore della Bounding Box.
+     * @param factory La factory dei domini.
+     * @return Il dominio creato.
+     * @throws IllegalArgumentException Se i parametri del dominio o i raggi non sono validi.
+     */
+    public Domain createDomain(DomainFactory factory) {
+        Domain domain = factory.createDomain(domainType, domainParameters, domainFile == null ? null : Path.of(domainFile));
+        Rectangle2D box = domain.getBoundingBox();
+        double maxRadiusLimit = Math.min(box.getWidth(), box.getHeight()) / 2.0;
+        for (PointGroup group : groups) {
+            if (group.radius() > maxRadiusLimit) {
+                throw new IllegalArgumentException(String.format(
+                        "The radius (%.2f) cannot exceed the maximum limit (%.2f).", group.radius(), maxRadiusLimit));
+            }
+        }
+        return domain;
+    }
+
+    /**
+     * Ritorna la firma canonica del problema (dominio e gruppi, indipendente dalla configurazione del motore),
+     * usata come chiave della cache delle soluzioni.
+     * @param domain Il dominio creato da {@link #createDomain}: per i poligoni e i domini composti la firma
+     * include l'impronta del file che li descrive.
+     */
+    public ProblemSignature signature(Domain domain) {
+        String shapeId = switch (domain) {
+            case PolygonDomain polygon -> polygon.getFingerprint();
+            case CompositeDomain composite -> composite.getFingerprint();
+            default -> null;
+        };
+        return ProblemSignature.of(domainType, domainParameters, shapeId, groups);
+    }
+}
@@ -0,0 +1,488 @@
+package controllers;
+
+import model.EvolutionConfig;
+import model.Individual;
+import model.Point;
+import model.PointGroup;
+import model.domains.Domain;
+import service.FitnessCalculator;
+import view.EvolutionConsoleView;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Risoluzione <b>coarse-to-fine</b> per problemi con molti punti.
+ * <p>
+ * Invece di partire da disposizioni casuali alla risoluzione piena, il problema viene prima "sgrossato":
+ * ogni gruppo (N, r) diventa (⌈N/4⌉, (1 + √2) r), cioè un quarto dei dischi, ognuno grande abbastanza da contenere
+ * i suoi 4 figli, su un dominio eroso di quanto basta perché i figli restino dentro quello originale. Il livello più
+ * grossolano viene risolto da zero; poi ogni disco viene diviso nei suoi figli (centrati in (x ± r, y ± r)), un
+ * rilassamento separa i dischi ancora sovrapposti e l'evoluzione riprende, localmente, dalla disposizione
+ * ereditata (warm start).
+ * <p>
+ * Ogni livello è risolto da un motore del tipo richiesto ({@code GENETIC} o {@code DIFFERENTIAL_EVOLUTION}),
+ * creato dalla {@code EngineFactory}, ed esegue tutte le generazioni della configurazione. I livelli di
+ * raffinamento usano una forza di mutazione pari al diametro dei loro dischi, così le mosse restano locali. I gruppi
+ * con meno di 4 punti, o i cui dischi ingranditi non starebbero più comodamente nel dominio, restano invariati tra
+ * i livelli; lo sgrossamento si ferma quando il livello diventerebbe troppo denso o il dominio troppo eroso.
+ * <p>
+ * Le opzioni della configurazione valgono per ogni livello; con {@code historySize} la storia dell'esecuzione
+ * riunisce quelle dei livelli, con la stessa numerazione continua delle generazioni inoltrata agli osservatori.
+ */
+public class MultiResolutionEngine extends AbstractOptimizerEngine {
+
+    // Sotto questo numero di punti non conviene sgrossare ulteriormente.
+    private static final int MIN_COARSE_POINTS = 100;
+
+    // Numero di figli per disco grossolano.
+    private static final int CHILDREN = 4;
+
+    // Rapporto tra il raggio del disco grossolano e quello dei figli: 1 + √2 è il raggio del più piccolo cerchio
+    // che contiene 4 dischi unitari disposti a quadrato, quindi una soluzione grossolana senza overlap si divide in
+    // una soluzione fine senza overlap.
+    private static final double COARSE_RADIUS_FACTOR = 1 + Math.sqrt(2);
+
+    // Densità massima (area dei dischi / area della Bounding Box) di un livello grossolano: ogni livello è più denso
+    // del precedente di un fattore (1 + √2)² / 4 ≈ 1.46, e oltre questa soglia il livello diventa troppo difficile.
+    private static final double MAX_COARSE_DENSITY = 0.55;
+
+    // Distanza dei figli dal centro del disco grossolano, in raggi dei figli: i centri stanno in (x ± r, y ± r).
+    private static final double CHILD_OFFSET = Math.sqrt(2);
+
+    // Frazione massima del raggio inscritto del dominio che l'erosione dei livelli grossolani può consumare.
+    private static final double MAX_INSET_FRACTION = 0.5;
+
+    // Lato della griglia di campionamento con cui si stima il raggio inscritto del dominio.
+    private static final int INSCRIBED_SAMPLES = 64;
+
+    // Passi di bisezione con cui un figlio fuori dal dominio viene riportato verso il centro del padre.
+    private static final int PROJECTION_STEPS = 20;
+
+    // Passate massime del rilassamento del seme raffinato (ci si ferma prima se non resta nulla da correggere).
+    private static final int RELAX_SWEEPS = 200;
+
+    // Margine relativo al raggio con cui il rilassamento separa i dischi e li riporta dentro al dominio.
+    private static final double RELAX_MARGIN = 1e-6;
+
+    private final EngineType innerType;
+    private final EvolutionConfig config;
+    private final EngineFactory engineFactory;
+
+    // I gruppi di ciascun livello: levels.get(0) è il problema originale, l'ultimo il più grossolano.
+    private final List<List<PointGroup>> levels;
+
+    // Il dominio di ciascun livello: quello originale per il livello 0, eroso per i livelli grossolani.
+    private final List<Domain> levelDomains;
+
+    /**
+     * @param innerType Il motore che risolve ciascun livello.
+     * @param view La View per i messaggi di avanzamento.
+     * @param domain Il vincolo spaziale del problema.
+     * @param groups I gruppi (#piante, raggio) del problema originale.
+     * @param config I parametri dell'esecuzione; {@code resolutionLevels} limita il numero di livelli.
+     * @param engineFactory La factory usata per creare il motore di ciascun livello.
+     * @throws IllegalArgumentException Se è richiesta anche la simmetria (le due riduzioni non sono combinabili).
+     */
+    public MultiResolutionEngine(EngineType innerType, EvolutionConsoleView view, Domain domain, List<PointGroup> groups,
+                                 EvolutionConfig config, EngineFactory engineFactory) {
+        super(view, domain, FitnessCalculator.forProblem(domain, groups, withoutSymmetry(config)), config);
+        this.innerType = innerType;
+        this.config = config;
+        this.engineFactory = engineFactory;
+        this.levels = new ArrayList<>();
+        this.levelDomains = new ArrayList<>();
+        buildLevels(List.copyOf(groups), domain, config.getResolutionLevels());
+    }
+
+    /** Rifiuta la simmetria prima che il calcolatore provi a ridurre il genoma. */
+    private static EvolutionConfig withoutSymmetry(EvolutionConfig config) {
+        if (config.getSymmetryOrder() > 1) {
+            throw new IllegalArgumentException("resolutionLevels cannot be combined with symmetryOrder.");
+        }
+        return config;
+    }
+
+    // ==================================================================================
+    // 🧱 COSTRUZIONE DEI LIVELLI
+    // ==================================================================================
+
+    /**
+     * Costruisce la gerarchia dei livelli, dal problema originale verso quello più grossolano.
+     * <p>
+     * Ogni livello grossolano viene risolto su un dominio eroso della distanza dei figli dal centro del padre
+     * (√2 r), sommata su tutti i livelli più fini: un centro grossolano valido ha così tutti i suoi figli (e i
+     * discendenti dei livelli successivi) dentro il dominio del livello più fine, e una soluzione grossolana senza
+     * penalità si divide in una soluzione fine senza penalità. L'erosione non supera metà del raggio inscritto del
+     * dominio, così le forme sottili (es. una corona stretta) non vengono sgrossate fino a sparire.
+     */
+    private void buildLevels(List<PointGroup> groups, Domain domain, int maxLevels) {
+        Rectangle2D box = domain.getBoundingBox();
+        // Un disco grossolano non deve superare un quarto del lato minore del dominio, per potersi ancora muovere.
+        double radiusLimit = Math.min(box.getWidth(), box.getHeight()) / 4.0;
+        double boxArea = box.getWidth() * box.getHeight();
+        double maxInset = MAX_INSET_FRACTION * inscribedRadius(domain);
+
+        levels.add(groups);
+        levelDomains.add(domain);
+        List<PointGroup> current = groups;
+        double inset = 0;
+        while (levels.size() < maxLevels && PointGroup.totalCount(current) > MIN_COARSE_POINTS) {
+            List<PointGroup> coarse = new ArrayList<>(current.size());
+            double childOffset = 0;
+            for (PointGroup group : current) {
+                if (isCoarsenable(group, radiusLimit)) {
+                    coarse.add(new PointGroup((group.count() + CHILDREN - 1) / CHILDREN, COARSE_RADIUS_FACTOR * group.radius()));
+                    childOffset = Math.max(childOffset, CHILD_OFFSET * group.radius());
+                } else {
+                    coarse.add(group);
+                }
+            }
+            if (childOffset == 0 || density(coarse, boxArea) > MAX_COARSE_DENSITY || inset + childOffset > maxInset) break;
+            inset += childOffset;
+            levels.add(coarse);
+            levelDomains.add(new ErodedDomain(domain, inset));
+            current = coarse;
+        }
+    }
+
+    private static boolean isCoarsenable(PointGroup group, double radiusLimit) {
+        return group.count() >= CHILDREN && COARSE_RADIUS_FACTOR * group.radius() <= radiusLimit;
+    }
+
+    /**
+     * Stima del raggio del più grande cerchio inscritto nel dominio: la distanza dal bordo più profonda su una
+     * griglia di punti della Bounding Box.
+     */
+    private static double inscribedRadius(Domain domain) {
+        Rectangle2D box = domain.getBoundingBox();
+        double deepest = 0;
+        for (int i = 0; i < INSCRIBED_SAMPLES; i++) {
+            double x = box.getMinX() + (i + 0.5) * box.getWidth() / INSCRIBED_SAMPLES;
+            for (int j = 0; j < INSCRIBED_SAMPLES; j++) {
+                double y = box.getMinY() + (j + 0.5) * box.getHeight() / INSCRIBED_SAMPLES;
+                deepest = Math.max(deepest, -domain.signedDistance(x, y));
+            }
+        }
+        return deepest;
+    }
+
+    /** Frazione della Bounding Box coperta dai dischi dei gruppi. */
+    private static double density(List<PointGroup> groups, double boxArea) {
+        double area = 0;
+        for (PointGroup group : groups) area += group.count() * Math.PI * group.radius() * group.radius();
+        return area / boxArea;
+    }
+
+    // ==================================================================================
+    // ♻️ MOTORE
+    // ==================================================================================
+
+    @Override
+    protected Individual runEvolutionCore() {
+        Individual best = null;
+        int generationOffset = 0;
+
+        // Con un warm start (es. dalla cache delle soluzioni) i livelli grossolani non servono: si raffina il seme.
+        int coarsest = getWarmStart() == null ? levels.size() - 1 : 0;
+
+        // Dal livello più grossolano al problema originale.
+        for (int level = coarsest; level >= 0; level--) {
+            checkCancelled();
+            List<PointGroup> groups = levels.get(level);
+            Domain levelDomain = levelDomains.get(level);
+            OptimizerEngine engine = engineFactory.createEngine(innerType, view, levelDomain, groups, levelConfig(level));
+
+            // L'avanzamento dei livelli viene inoltrato con una numerazione continua delle generazioni.
+            final int offset = generationOffset;
+            engine.addGenerationListener((generation, individual) -> notifyGeneration(offset + generation, individual));
+
+            if (best != null) {
+                Individual seed = refine(best, levels.get(level + 1), groups, levelDomain);
+                engine.setWarmStart(relax(seed, groups, levelDomain, config.isGradedBoundary()));
+            } else if (getWarmStart() != null) {
+                engine.setWarmStart(getWarmStart());
+            }
+            best = engine.runSingleAttempt();
+            appendHistory(engine, offset);
+            generationOffset += config.getGenerations();
+        }
+        return best;
+    }
+
+    /** Accoda alla storia dell'esecuzione quella del livello appena risolto (numerazione continua). */
+    private void appendHistory(OptimizerEngine levelEngine, int offset) {
+        getHistory().ifPresent(history -> levelEngine.getHistory().ifPresent(level -> history.append(level, offset)));
+    }
+
+    /**
+     * Configurazione di un livello: il più grossolano parte con i parametri originali, i livelli di raffinamento
+     * usano mosse locali (forza di mutazione pari al diametro dei loro dischi più numerosi) e un solo livello.
+     */
+    private EvolutionConfig levelConfig(int level) {
+        EvolutionConfig.Builder builder = config.toBuilder().resolutionLevels(1);
+        if (level < levels.size() - 1) {
+            double diameter = 2 * dominantRadius(levels.get(level));
+            builder.initialMutationStrength(Math.min(config.getInitialMutationStrength(), diameter));
+        }
+        return builder.build();
+    }
+
+    private static double dominantRadius(List<PointGroup> groups) {
+        PointGroup dominant = groups.getFirst();
+        for (PointGroup group : groups) {
+            if (group.count() > dominant.count()) dominant = group;
+        }
+        return dominant.radius();
+    }
+
+    /**
+     * Divide ogni disco della soluzione grossolana nei suoi figli, producendo una soluzione per il livello più fine.
+     * <p>
+     * Il figlio k del disco j di un gruppo occupa l'indice {@code 4j + k} del gruppo fine (l'ultimo disco può avere
+     * meno di 4 figli). I gruppi rimasti invariati tra i due livelli vengono copiati. Un figlio che cade fuori dal
+     * dominio fine (solo se il padre era troppo vicino al bordo, cioè la soluzione grossolana non era valida) viene
+     * riportato dentro lungo il segmento verso il centro del padre; se anche il padre è fuori resta dov'è e lo
+     * riporterà dentro {@link #relax}.
+     * @param coarse La soluzione del livello grossolano.
+     * @param coarseGroups I gruppi del livello grossolano.
+     * @param fineGroups I gruppi del livello fine.
+     * @param fineDomain Il dominio del livello fine.
+     * @return La soluzione di partenza per il livello fine.
+     */
+    private static Individual refine(Individual coarse, List<PointGroup> coarseGroups, List<PointGroup> fineGroups,
+                                     Domain fineDomain) {
+        List<Point> coarsePoints = coarse.getChromosomes();
+        List<Point> finePoints = new ArrayList<>(PointGroup.totalCount(fineGroups));
+
+        int coarseStart = 0;
+        for (int g = 0; g < fineGroups.size(); g++) {
+            PointGroup fine = fineGroups.get(g);
+            PointGroup rough = coarseGroups.get(g);
+
+            if (fine.equals(rough)) {
+                finePoints.addAll(coarsePoints.subList(coarseStart, coarseStart + rough.count()));
+            } else {
+                double r = fine.radius();
+                for (int i = 0; i < fine.count(); i++) {
+                    Point parent = coarsePoints.get(coarseStart + i / CHILDREN);
+                    // I 4 figli occupano i quadranti del disco padre, a distanza r dai suoi assi.
+                    int k = i % CHILDREN;
+                    double x = parent.getX() + ((k & 1) == 0 ? -r : r);
+                    double y = parent.getY() + ((k & 2) == 0 ? -r : r);
+                    finePoints.add(intoDomain(fineDomain, parent, x, y, r));
+                }
+            }
+            coarseStart += rough.count();
+        }
+        return new Individual(finePoints);
+    }
+
+    /**
+     * Il figlio in (x, y) se è nel dominio; altrimenti il punto del segmento padre → figlio più lontano dal padre
+     * che sta ancora nel dominio (bisezione), oppure il figlio invariato se il padre stesso è fuori.
+     */
+    private static Point intoDomain(Domain domain, Point parent, double x, double y, double radius) {
+        if (!domain.isPointOutside(x, y) || domain.isPointOutside(parent.getX(), parent.getY())) {
+            return new Point(x, y, radius);
+        }
+        double inside = 0, outside = 1;
+        for (int step = 0; step < PROJECTION_STEPS; step++) {
+            double t = 0.5 * (inside + outside);
+            if (domain.isPointOutside(parent.getX() + t * (x - parent.getX()), parent.getY() + t * (y - parent.getY()))) {
+                outside = t;
+            } else {
+                inside = t;
+            }
+        }
+        return new Point(parent.getX() + inside * (x - parent.getX()), parent.getY() + inside * (y - parent.getY()), radius);
+    }
+
+    /**
+     * Ricerca locale sul seme raffinato, prima di evolverlo: a ogni passata le coppie di dischi sovrapposti vengono
+     * separate lungo la congiungente dei centri (metà spostamento ciascuno) e i punti fuori dal dominio vengono
+     * riportati dentro lungo il gradiente della distanza con segno.
+     * <p>
+     * Scelta Implementativa: un seme con qualche overlap residuo è un ottimo locale per l'algoritmo evolutivo (la
+     * popolazione generata attorno al seme è molto peggiore del seme e l'elitismo lo conserva immutato), mentre il
+     * rilassamento elimina quegli overlap in poche passate O(N), con una griglia di celle di lato pari al diametro
+     * massimo.
+     * @param seed Il seme prodotto da {@link #refine}.
+     * @param groups I gruppi del livello.
+     * @param domain Il dominio del livello.
+     * @param graded Se il bordo è graduato (tutto il disco deve stare nel dominio) o conta solo il centro.
+     * @return Il seme rilassato.
+     */
+    private static Individual relax(Individual seed, List<PointGroup> groups, Domain domain, boolean graded) {
+        int n = PointGroup.totalCount(groups);
+        double[] xs = new double[n], ys = new double[n], rs = new double[n];
+        double maxRadius = 0;
+        int i = 0;
+        for (PointGroup group : groups) {
+            for (int k = 0; k < group.count(); k++, i++) {
+                Point p = seed.getChromosomes().get(i);
+                xs[i] = p.getX();
+                ys[i] = p.getY();
+                rs[i] = group.radius();
+            }
+            maxRadius = Math.max(maxRadius, group.radius());
+        }
+
+        Rectangle2D box = domain.getBoundingBox();
+        double cellSize = 2 * maxRadius;
+        int cols = Math.max(1, (int) Math.ceil(box.getWidth() / cellSize));
+        int rows = Math.max(1, (int) Math.ceil(box.getHeight() / cellSize));
+        int[] head = new int[cols * rows];
+        int[] next = new int[n];
+        int[] cellX = new int[n], cellY = new int[n];
+
+        for (int sweep = 0; sweep < RELAX_SWEEPS; sweep++) {
+            boolean moved = false;
+
+            // Griglia delle posizioni all'inizio della passata (liste concatenate per cella).
+            Arrays.fill(head, -1);
+            for (int a = 0; a < n; a++) {
+                cellX[a] = Math.clamp((long) ((xs[a] - box.getMinX()) / cellSize), 0, cols - 1);
+                cellY[a] = Math.clamp((long) ((ys[a] - box.getMinY()) / cellSize), 0, rows - 1);
+                int cell = cellY[a] * cols + cellX[a];
+                next[a] = head[cell];
+                head[cell] = a;
+            }
+
+            // 1️⃣ Separazione delle coppie sovrapposte.
+            for (int a = 0; a < n; a++) {
+                for (int cy = Math.max(0, cellY[a] - 1); cy <= Math.min(rows - 1, cellY[a] + 1); cy++) {
+                    for (int cx = Math.max(0, cellX[a] - 1); cx <= Math.min(cols - 1, cellX[a] + 1); cx++) {
+                        for (int b = head[cy * cols + cx]; b != -1; b = next[b]) {
+                            if (b <= a) continue;
+                            double dx = xs[b] - xs[a];
+                            double dy = ys[b] - ys[a];
+                            double required = rs[a] + rs[b];
+                            double d2 = dx * dx + dy * dy;
+                            if (d2 >= required * required) continue;
+
+                            double d = Math.sqrt(d2);
+                            if (d == 0) {
+                                // Centri coincidenti: una direzione qualsiasi.
+                                dx = 1;
+                                d = 1;
+                                dy = 0;
+                            }
+                            double push = 0.5 * (required * (1 + RELAX_MARGIN) - Math.sqrt(d2)) / d;
+                            xs[a] -= push * dx;
+                            ys[a] -= push * dy;
+                            xs[b] += push * dx;
+                            ys[b] += push * dy;
+                            moved = true;
+                        }
+                    }
+                }
+            }
+
+            // 2️⃣ Rientro nel dominio lungo il gradiente (numerico) della distanza con segno.
+            for (int a = 0; a < n; a++) {
+                double limit = graded ? -rs[a] * (1 + RELAX_MARGIN) : -RELAX_MARGIN * rs[a];
+                double excess = domain.signedDistance(xs[a], ys[a]) - limit;
+                if (excess <= 0) continue;
+
+                double h = RELAX_MARGIN * rs[a];
+                double gx = domain.signedDistance(xs[a] + h, ys[a]) - domain.signedDistance(xs[a] - h, ys[a]);
+                double gy = domain.signedDistance(xs[a], ys[a] + h) - domain.signedDistance(xs[a], ys[a] - h);
+                double norm = Math.hypot(gx, gy);
+                if (norm == 0) continue;
+                xs[a] -= excess * gx / norm;
+                ys[a] -= excess * gy / norm;
+                moved = true;
+            }
+
+            if (!moved) break;
+        }
+
+        List<Point> points = new ArrayList<>(n);
+        for (int a = 0; a < n; a++) {
+            points.add(new Point(xs[a], ys[a], rs[a]));
+        }
+        return new Individual(points);
+    }
+
+    /**
+     * Il dominio di un livello grossolano: i punti che distano almeno {@code inset} dal bordo del dominio originale.
+     * Si appoggia alla distanza con segno esatta del dominio; la Bounding Box si restringe di {@code inset} per lato.
+     */
+    private static final class ErodedDomain implements Domain {
+
+        // Tentativi di campionamento nel dominio originale prima di accettare un punto fuori dal dominio eroso.
+        private static final int SAMPLE_ATTEMPTS = 32;
+
+        private final Domain domain;
+        private final double inset;
+        private final Rectangle2D boundingBox;
+
+        private ErodedDomain(Domain domain, double inset) {
+            this.domain = domain;
+            this.inset = inset;
+            Rectangle2D box = domain.getBoundingBox();
+            this.boundingBox = new Rectangle2D.Double(box.getX() + inset, box.getY() + inset,
+                    box.getWidth() - 2 * inset, box.getHeight() - 2 * inset);
+        }
+
+        @Override
+        public boolean isPointOutside(double x, double y) {
+            return domain.signedDistance(x, y) > -inset;
+        }
+
+        @Override
+        public double signedDistance(double x, double y) {
+            return domain.signedDistance(x, y) + inset;
+        }
+
+        @Override
+        public Point samplePoint(double radius) {
+            Point p = domain.samplePoint(radius);
+            for (int attempt = 1; attempt < SAMPLE_ATTEMPTS && isPointOutside(p.getX(), p.getY()); attempt++) {
+                p = domain.samplePoint(radius);
+            }
+            return p;
+        }
+
+        @Override
+        public boolean isValidIndividual(Individual individual) {
+            for (Point p : individual.getChromosomes()) {
+                if (isPointOutside(p.getX(), p.getY())) { return false; }
+            }
+            return true;
+        }
+
+        @Override
+        public Rectangle2D getBoundingBox() {
+            return boundingBox;
+        }
+    }
+
+    // ==================================================================================
+    // ℹ️ METADATI
+    // ==================================================================================
+
+    @Override
+    public EngineType getType() {
+        return innerType;
+    }
+
+    /** Generazioni totali: quelle di ciascun livello, sommate. */
+    @Override
+    protected int getGenerations() {
+        return config.getGenerations() * levels.size();
+    }
+
+    @Override
+    protected int getPopulationSize() {
+        return config.getPopulationSize();
+    }
+
+    /** Numero di livelli effettivamente usati (può essere minore di {@code resolutionLevels}). */
+    public int getLevelCount() {
+        return levels.size();
+    }
+}
@@ -0,0 +1,257 @@
+package controllers;
+
+import model.EvolutionConfig;
+import model.GenomeLayout;
+import model.Individual;
+import model.ParetoPoint;
+import model.PointGroup;
+import model.domains.Domain;
+import service.Crossover;
+import service.FitnessCalculator;
+import service.Mutation;
+import service.ParetoRanking;
+import utils.EventTrace;
+import view.EvolutionConsoleView;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Motore di ottimizzazione multi-obiettivo basato su <b>NSGA-II</b>.
+ * <p>
+ * L'AG classico riduce tutto alla fitness scalare {@code 1 / (1 + penalità)}; qui penalità (dominio più overlap, da
+ * minimizzare) e dispersione (distanza media tra i centri, da massimizzare) restano due obiettivi separati. A ogni
+ * generazione μ figli (torneo binario affollato, poi gli stessi crossover e mutazione dell'AG) si uniscono ai μ
+ * genitori; sopravvivono i μ migliori per fronte di Pareto e, nell'ultimo fronte ammesso, per distanza di
+ * affollamento (vedi {@link ParetoRanking}). Al termine il fronte non dominato è disponibile con
+ * {@link #getParetoFront()}: dalla soluzione valida più dispersa a quelle che cedono un po' di validità in cambio
+ * di dispersione.
+ * <p>
+ * La soluzione restituita è quella con la penalità minima (a parità, la più dispersa): è un estremo del primo
+ * fronte, quindi la selezione non la perde mai.
+ */
+public class NsgaEngine extends AbstractOptimizerEngine {
+
+    // ==================================================================================
+    // ⚙️ CONFIGURAZIONE E ATTRIBUTI IMMUTABILI
+    // ==================================================================================
+
+    // Parametri dell'esecuzione: generazioni, popolazione (μ, anche il numero di figli), probabilità di crossover e
+    // mutazione. Torneo ed élite dell'AG non vengono usati (torneo binario, selezione (μ+μ)).
+    private final EvolutionConfig config;
+
+    /** Disposizione dei gruppi (#piante, raggio) nel cromosoma. */
+    private final GenomeLayout layout;
+
+    // Operatori genetici, gli stessi dell'AG.
+    private final Mutation gammaRays;
+    private final Crossover mixer;
+
+    // Fronte di Pareto dell'ultima esecuzione (vuoto prima della prima).
+    private volatile List<ParetoPoint> paretoFront = List.of();
+
+    /** Un individuo con i suoi due obiettivi. */
+    private record Member(Individual individual, double penalty, double spread) {
+    }
+
+    // ==================================================================================
+    // 🔨 COSTRUTTORE
+    // ==================================================================================
+
+    /**
+     * @param view La View da utilizzare per la visualizzazione dello stato.
+     * @param domain Il vincolo spaziale che definisce l'area valida per la soluzione.
+     * @param groups I gruppi di punti (#piante, raggio) da posizionare.
+     * @param config I parametri dell'esecuzione.
+     */
+    public NsgaEngine(EvolutionConsoleView view, Domain domain, List<PointGroup> groups, EvolutionConfig config) {
+        this(view, domain, FitnessCalculator.forProblem(domain, groups, config), config);
+    }
+
+    /**
+     * Costruttore comune: il genoma evoluto è quello descritto dal FitnessCalculator
+     * (completo, oppure ridotto per simmetria).
+     */
+    private NsgaEngine(EvolutionConsoleView view, Domain domain, FitnessCalculator fitnessCalculator,
+                       EvolutionConfig config) {
+        super(view, domain, fitnessCalculator, config);
+        this.config = config;
+        this.layout = fitnessCalculator.getGenomeLayout();
+        this.gammaRays = new Mutation(config.getMutationProb(), config.getInitialMutationStrength(), domain,
+                config.getGenerations(), layout);
+        this.mixer = new Crossover(config.getCrossoverProb(), layout, domain, config.getCutCrossoverProb());
+    }
+
+    // ==================================================================================
+    // ♻️ MOTORE DI EVOLUZIONE
+    // ==================================================================================
+
+    @Override
+    protected Individual runEvolutionCore() {
+        final int mu = config.getPopulationSize();
+
+        // --- Fase 1: Inizializzazione ---
+        List<Member> parents = evaluate(firstGeneration(mu));
+        ParetoRanking ranking = rank(parents);
+        // Vista dei genitori per la storia, creata una volta e puntata a ogni generazione sui nuovi genitori.
+        IndividualReader<Member> historyReader = new IndividualReader<>(Member::individual);
+
+        // --- Fase 2: Ciclo di Evoluzione ---
+        for (int g = 0; g < config.getGenerations(); g++) {
+            checkCancelled();
+            EventTrace.record(EventTrace.Event.GENERATION_START, g);
+            final long generationStart = System.nanoTime();
+
+            // 1. μ figli in parallelo: torneo binario affollato, crossover e mutazione.
+            final List<Member> currentParents = parents;
+            final ParetoRanking currentRanking = ranking;
+            final int generation = g;
+            List<Individual> children = IntStream.range(0, mu)
+                .parallel()
+                .mapToObj(j -> {
+                    int dad = tournament(currentRanking, mu);
+                    int mom = tournament(currentRanking, mu);
+                    while (mom == dad) {
+                        mom = tournament(currentRanking, mu);
+                    }
+                    Individual child = mixer.crossover(currentParents.get(mom).individual(),
+                            currentParents.get(dad).individual());
+                    gammaRays.mutate(child, generation);
+                    return child;
+                })
+                .toList();
+
+            // 2. Selezione (μ+μ): fronti di Pareto di genitori e figli, poi affollamento nell'ultimo fronte ammesso.
+            List<Member> combined = new ArrayList<>(2 * mu);
+            combined.addAll(currentParents);
+            combined.addAll(evaluate(children));
+            EventTrace.record(EventTrace.Event.BREEDING, System.nanoTime() - generationStart);
+            EventTrace.record(EventTrace.Event.EVALUATIONS, mu, 0);
+            parents = survivors(combined, rank(combined), mu);
+            ranking = rank(parents);
+
+            Member leader = best(parents);
+            if (hasGenerationListeners()) {
+                notifyGeneration(g, leader.individual());
+            }
+            EventTrace.record(EventTrace.Event.GENERATION_END, g, leader.individual().getFitness());
+            if (isRecordingHistory()) {
+                recordHistory(g, historyReader.over(parents), System.nanoTime() - generationStart);
+            }
+        }
+
+        // --- Fase 3: Fronte di Pareto e soluzione restituita ---
+        List<ParetoPoint> front = new ArrayList<>();
+        for (int i : ranking.getFront(0)) {
+            Member member = parents.get(i);
+            front.add(new ParetoPoint(fitnessCalculator.toPhenotype(member.individual().copy()),
+                    member.penalty(), member.spread()));
+        }
+        paretoFront = List.copyOf(front);
+        return best(parents).individual().copy();
+    }
+
+    // ==================================================================================
+    // 🧮 VALUTAZIONE E SELEZIONE
+    // ==================================================================================
+
+    /**
+     * Valuta in parallelo i due obiettivi di ogni individuo. La fitness scalare dell'individuo (usata da View,
+     * osservatori e verifica finale) segue la regola di {@link FitnessCalculator#combine(double, double)}.
+     */
+    private List<Member> evaluate(List<Individual> individuals) {
+        return individuals.parallelStream()
+                .map(individual -> {
+                    double penalty = fitnessCalculator.getPenalty(individual.getChromosomes());
+                    double spread = fitnessCalculator.getSpread(individual.getChromosomes());
+                    individual.setFitness(fitnessCalculator.combine(penalty, spread));
+                    return new Member(individual, penalty, spread);
+                })
+                .toList();
+    }
+
+    /**
+     * Fronti e affollamento: la penalità si minimizza, la dispersione si massimizza (si minimizza il suo opposto).
+     * <p>
+     * Scelta Implementativa: la penalità entra come {@code log(1 + P)}. La dominanza non cambia (trasformazione
+     * monotona), ma l'affollamento sì: le penalità vanno da 0 a decine di migliaia, e su scala lineare quasi tutto il
+     * fronte finirebbe tra le soluzioni molto invalide, lasciando pochi individui a esplorare quelle quasi valide.
+     */
+    private static ParetoRanking rank(List<Member> members) {
+        int n = members.size();
+        double[] penalty = new double[n];
+        double[] negatedSpread = new double[n];
+        for (int i = 0; i < n; i++) {
+            penalty[i] = Math.log1p(members.get(i).penalty());
+            negatedSpread[i] = -members.get(i).spread();
+        }
+        return ParetoRanking.of(penalty, negatedSpread);
+    }
+
+    /** Torneo binario con il confronto affollato: fronte migliore, a parità la soluzione più isolata. */
+    private static int tournament(ParetoRanking ranking, int size) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int a = random.nextInt(size);
+        int b = random.nextInt(size);
+        return ranking.compare(a, b) <= 0 ? a : b;
+    }
+
+    /**
+     * I μ sopravvissuti: i fronti interi finché entrano, poi le soluzioni più isolate del primo fronte che non
+     * entra per intero.
+     */
+    private static List<Member> survivors(List<Member> combined, ParetoRanking ranking, int mu) {
+        List<Member> next = new ArrayList<>(mu);
+        for (int k = 0; k < ranking.getFrontCount() && next.size() < mu; k++) {
+            int[] front = ranking.getFront(k);
+            if (next.size() + front.length <= mu) {
+                for (int i : front) next.add(combined.get(i));
+            } else {
+                IntStream.of(front).boxed()
+                        .sorted(Comparator.comparingDouble(ranking::getCrowding).reversed())
+                        .limit(mu - next.size())
+                        .forEach(i -> next.add(combined.get(i)));
+            }
+        }
+        return next;
+    }
+
+    /** La soluzione con la penalità minima; a parità, la più dispersa. */
+    private static Member best(List<Member> members) {
+        Member best = members.getFirst();
+        for (Member member : members) {
+            if (member.penalty() < best.penalty()
+                    || (member.penalty() == best.penalty() && member.spread() > best.spread())) {
+                best = member;
+            }
+        }
+        return best;
+    }
+
+    // ==================================================================================
+    // ℹ️ UTILITY
+    // ==================================================================================
+
+    @Override
+    public List<ParetoPoint> getParetoFront() {
+        return paretoFront;
+    }
+
+    @Override
+    public EngineType getType() {
+        return EngineType.NSGA2;
+    }
+
+    @Override
+    protected int getGenerations() {
+        return config.getGenerations();
+    }
+
+    @Override
+    protected int getPopulationSize() {
+        return config.getPopulationSize();
+    }
+}
@@ -0,0 +1,70 @@
+package controllers;
+
+import model.GenerationHistory;
+import model.Individual;
+import model.ParetoPoint;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Astrazione comune a tutti i motori di ottimizzazione del sistema.
+ * <p>
+ * Un motore riceve un problema di packing (un {@code Domain} e i punti da posizionare) e restituisce
+ * la migliore soluzione trovata. L'implementazione storica è l'{@code EvolutionEngine} (Algoritmo Genetico),
+ * ma la stessa interfaccia permette di affiancargli altri ottimizzatori (es. {@code DifferentialEvolutionEngine})
+ * che condividono l'infrastruttura di fitness, così da poter scegliere il motore per ogni job.
+ */
+public interface OptimizerEngine {
+
+    /**
+     * Esegue l'ottimizzazione completa (compresi eventuali nuovi tentativi) e restituisce la migliore soluzione.
+     * @return Una copia della migliore soluzione valida trovata.
+     * @throws exceptions.MaxAttemptsExceededException Se non viene trovata una soluzione valida entro il numero massimo di tentativi.
+     * @throws java.util.concurrent.CancellationException Se il thread chiamante viene interrotto durante l'esecuzione.
+     */
+    Individual runEvolutionEngine();
+
+    /**
+     * Esegue un singolo ciclo di ottimizzazione, senza nuovi tentativi e senza output sulla View.
+     * Usato dove il chiamante gestisce da sé la misura e il report (es. lo sweep dei parametri).
+     * @return La migliore soluzione trovata nel ciclo (non necessariamente valida).
+     */
+    Individual runSingleAttempt();
+
+    /**
+     * Registra un osservatore notificato al termine di ogni generazione.
+     * @param listener Il listener da aggiungere.
+     */
+    void addGenerationListener(GenerationListener listener);
+
+    /**
+     * Imposta una soluzione di partenza (warm start): la popolazione iniziale viene costruita attorno ad essa
+     * invece che in modo casuale. Deve essere disposta secondo i gruppi del problema.
+     * @param seed La soluzione di partenza, oppure null per tornare all'inizializzazione casuale.
+     * @throws IllegalArgumentException Se la dimensione della soluzione non corrisponde al problema.
+     */
+    void setWarmStart(Individual seed);
+
+    /**
+     * Ritorna il fronte di Pareto dell'ultima esecuzione, per i motori multi-obiettivo.
+     * @return Le soluzioni non dominate, in ordine di penalità crescente; vuoto per i motori a obiettivo singolo
+     * o prima di un'esecuzione.
+     */
+    default List<ParetoPoint> getParetoFront() {
+        return List.of();
+    }
+
+    /**
+     * Ritorna la storia delle generazioni dell'ultimo tentativo (fitness migliore, media e peggiore, diversità e
+     * tempi), se il motore la registra (vedi il parametro {@code historySize} di {@code EvolutionConfig}).
+     */
+    default Optional<GenerationHistory> getHistory() {
+        return Optional.empty();
+    }
+
+    /**
+     * Ritorna il tipo del motore, utile per log e report.
+     */
+    EngineType getType();
+}
@@ -0,0 +1,227 @@
+package controllers;
+
+import model.EvolutionConfig;
+import model.Individual;
+import model.PointGroup;
+import model.SweepResult;
+import model.SweepSummary;
+import model.domains.Domain;
+import view.EvolutionConsoleView;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Esegue uno sweep dei parametri dei motori su un problema fissato (dominio e gruppi di punti).
+ * <p>
+ * Ogni configurazione viene eseguita più volte (repliche indipendenti) e tutte le coppie
+ * (configurazione, replica) vengono sottomesse come task a un unico {@code ForkJoinPool}.
+ * Scelta Implementativa: i cicli paralleli interni ai motori ({@code parallel()} sugli stream) eseguiti da un
+ * task del pool usano lo stesso pool, quindi esecuzioni e valutazioni delle fitness condividono i worker
+ * tramite work-stealing, senza sovra-sottoscrivere i core.
+ * <p>
+ * Per ogni esecuzione misura il tempo alla prima soluzione ammissibile (penalità totale nulla, cioè fitness 1.0)
+ * e la fitness finale.
+ */
+public class ParameterSweep {
+
+    // Il problema su cui vengono confrontate le configurazioni.
+    private final Domain domain;
+    private final List<PointGroup> groups;
+    private final EngineType engineType;
+
+    // Il pool work-stealing condiviso da tutte le esecuzioni.
+    private final ForkJoinPool pool;
+
+    private final EngineFactory engineFactory = new EngineFactory();
+
+    // Le esecuzioni sono molte e concorrenti: l'avanzamento dei motori non viene stampato.
+    private final EvolutionConsoleView silentView =
+            new EvolutionConsoleView(new PrintStream(OutputStream.nullOutputStream()), new PrintStream(OutputStream.nullOutputStream()));
+
+    /**
+     * @param domain Il vincolo spaziale del problema.
+     * @param groups I gruppi di punti (#piante, raggio) da posizionare.
+     * @param engineType Il motore da usare per tutte le esecuzioni.
+     * @param pool Il pool su cui eseguire lo sweep (es. {@code ForkJoinPool.commonPool()}).
+     */
+    public ParameterSweep(Domain domain, List<PointGroup> groups, EngineType engineType, ForkJoinPool pool) {
+        this.domain = domain;
+        this.groups = List.copyOf(groups);
+        this.engineType = engineType;
+        this.pool = pool;
+    }
+
+    /**
+     * Costruttore che usa il pool comune della JVM.
+     */
+    public ParameterSweep(Domain domain, List<PointGroup> groups, EngineType engineType) {
+        this(domain, groups, engineType, ForkJoinPool.commonPool());
+    }
+
+    // ==================================================================================
+    // 🧮 GENERAZIONE DELLE CONFIGURAZIONI
+    // ==================================================================================
+
+    /**
+     * Costruisce la griglia completa (prodotto cartesiano) dei valori indicati.
+     * @param base La configurazione di partenza per i parametri non variati.
+     * @param axes Per ogni nome di parametro (vedi {@link EvolutionConfig#PARAMETER_NAMES}) la lista dei valori da provare.
+     * @return Tutte le combinazioni, validate.
+     * @throws IllegalArgumentException Se un nome o una combinazione non è valida.
+     */
+    public static List<EvolutionConfig> grid(EvolutionConfig base, Map<String, List<Double>> axes) {
+        List<EvolutionConfig> configs = new ArrayList<>();
+        configs.add(base);
+        for (Map.Entry<String, List<Double>> axis : axes.entrySet()) {
+            List<EvolutionConfig> expanded = new ArrayList<>(configs.size() * axis.getValue().size());
+            for (EvolutionConfig config : configs) {
+                for (double value : axis.getValue()) {
+                    expanded.add(config.withParameter(axis.getKey(), value));
+                }
+            }
+            configs = expanded;
+        }
+        return configs;
+    }
+
+    /**
+     * Estrae un campione casuale della griglia: per ogni configurazione sceglie un valore a caso da ciascun asse.
+     * Utile quando il prodotto cartesiano completo è troppo grande.
+     * @param base La configurazione di partenza per i parametri non variati.
+     * @param axes I valori candidati per ciascun parametro.
+     * @param samples Il numero di configurazioni da estrarre.
+     * @return Le configurazioni estratte (possono contenere duplicati).
+     */
+    public static List<EvolutionConfig> randomSample(EvolutionConfig base, Map<String, List<Double>> axes, int samples) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<EvolutionConfig> configs = new ArrayList<>(samples);
+        for (int s = 0; s < samples; s++) {
+            EvolutionConfig.Builder builder = base.toBuilder();
+            for (Map.Entry<String, List<Double>> axis : axes.entrySet()) {
+                List<Double> values = axis.getValue();
+                builder.set(axis.getKey(), values.get(random.nextInt(values.size())));
+            }
+            configs.add(builder.build());
+        }
+        return configs;
+    }
+
+    // ==================================================================================
+    // 🚀 ESECUZIONE
+    // ==================================================================================
+
+    /**
+     * Esegue ogni configurazione {@code seeds} volte in parallelo sul pool condiviso.
+     * <p>
+     * Nota: i motori usano {@code ThreadLocalRandom} (non inizializzabile con un seme), quindi il "seed" di un risultato
+     * identifica la replica indipendente e non rende l'esecuzione riproducibile.
+     *
+     * @param configs Le configurazioni da provare.
+     * @param seeds Il numero di repliche per configurazione.
+     * @return I risultati di tutte le esecuzioni, nell'ordine (configurazione, replica).
+     */
+    public List<SweepResult> run(List<EvolutionConfig> configs, int seeds) {
+        if (seeds <= 0) {
+            throw new IllegalArgumentException("The number of seeds must be positive. Found: " + seeds);
+        }
+
+        List<ForkJoinTask<SweepResult>> tasks = new ArrayList<>(configs.size() * seeds);
+        for (EvolutionConfig config : configs) {
+            for (int seed = 0; seed < seeds; seed++) {
+                final int replica = seed;
+                tasks.add(pool.submit(() -> runOnce(config, replica)));
+            }
+        }
+
+        List<SweepResult> results = new ArrayList<>(tasks.size());
+        for (ForkJoinTask<SweepResult> task : tasks) {
+            results.add(task.join());
+        }
+        return results;
+    }
+
+    /**
+     * Esegue una singola replica misurando il tempo alla prima soluzione ammissibile.
+     */
+    private SweepResult runOnce(EvolutionConfig config, int seed) {
+        OptimizerEngine engine = engineFactory.createEngine(
+                engineType, silentView, domain, groups, config);
+
+        final long start = System.nanoTime();
+        // [0] = generazione, [1] = istante (ns) della prima soluzione ammissibile. Scritti solo dal thread del ciclo.
+        final long[] feasibleAt = {-1, -1};
+        engine.addGenerationListener((generation, best) -> {
+            if (feasibleAt[0] < 0 && best.getFitness() >= 1.0) {
+                feasibleAt[0] = generation;
+                feasibleAt[1] = System.nanoTime();
+            }
+        });
+
+        Individual best = engine.runSingleAttempt();
+        long end = System.nanoTime();
+
+        double timeToFeasibleMs = feasibleAt[0] < 0 ? -1 : (feasibleAt[1] - start) / 1e6;
+        return new SweepResult(config, seed, best.getFitness(), (int) feasibleAt[0], timeToFeasibleMs, (end - start) / 1e6);
+    }
+
+    // ==================================================================================
+    // 📊 AGGREGAZIONE
+    // ==================================================================================
+
+    /**
+     * Aggrega i risultati per configurazione.
+     * <p>
+     * L'ordinamento privilegia le configurazioni che arrivano più spesso a una soluzione ammissibile,
+     * poi quelle più rapide a raggiungerla, infine quelle con fitness finale media più alta.
+     *
+     * @param results I risultati prodotti da {@link #run(List, int)}.
+     * @return Un riepilogo per configurazione, dalla migliore alla peggiore.
+     */
+    public static List<SweepSummary> summarize(List<SweepResult> results) {
+        // LinkedHashMap con chiave per identità: due configurazioni uguali ma distinte restano separate.
+        Map<EvolutionConfig, List<SweepResult>> byConfig = new LinkedHashMap<>();
+        for (SweepResult result : results) {
+            byConfig.computeIfAbsent(result.config(), k -> new ArrayList<>()).add(result);
+        }
+
+        List<SweepSummary> summaries = new ArrayList<>(byConfig.size());
+        for (Map.Entry<EvolutionConfig, List<SweepResult>> entry : byConfig.entrySet()) {
+            List<SweepResult> runs = entry.getValue();
+            int feasible = 0;
+            double fitnessSum = 0, bestFitness = Double.NEGATIVE_INFINITY, feasibleTimeSum = 0, totalTimeSum = 0;
+            for (SweepResult r : runs) {
+                fitnessSum += r.finalFitness();
+                bestFitness = Math.max(bestFitness, r.finalFitness());
+                totalTimeSum += r.totalTimeMs();
+                if (r.isFeasible()) {
+                    feasible++;
+                    feasibleTimeSum += r.timeToFeasibleMs();
+                }
+            }
+            summaries.add(new SweepSummary(
+                    entry.getKey(),
+                    runs.size(),
+                    feasible,
+                    fitnessSum / runs.size(),
+                    bestFitness,
+                    feasible == 0 ? Double.NaN : feasibleTimeSum / feasible,
+                    totalTimeSum / runs.size()
+            ));
+        }
+
+        summaries.sort(Comparator
+                .comparingDouble((SweepSummary s) -> -(double) s.feasibleRuns() / s.runs())
+                .thenComparingDouble(s -> Double.isNaN(s.meanTimeToFeasibleMs()) ? Double.MAX_VALUE : s.meanTimeToFeasibleMs())
+                .thenComparingDouble(s -> -s.meanFinalFitness()));
+        return summaries;
+    }
+}
@@ -0,0 +1,162 @@
+package controllers;
+
+import model.Individual;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Un job accodato nel {@code SolverService}: la sua specifica, la priorità e lo stato corrente.
+ * <p>
+ * Lo stato è scritto dal worker che esegue il job e letto dai thread HTTP (virtual thread) che ne riportano
+ * l'avanzamento; i campi sono quindi {@code volatile} e ogni cambiamento sveglia chi attende con {@link #awaitChange}.
+ * <p>
+ * Scelta Implementativa: il job è esso stesso il {@code Runnable} sottomesso all'executor ed è {@code Comparable},
+ * così una {@code PriorityBlockingQueue} può ordinarlo direttamente (priorità più alta prima, poi FIFO).
+ */
+public class SolverJob implements Runnable, Comparable<SolverJob> {
+
+    /** Stati del ciclo di vita di un job. */
+    public enum State { QUEUED, RUNNING, SOLVED, FAILED, CANCELLED, ERROR }
+
+    // Contatore globale per l'ordine di arrivo (FIFO a parità di priorità).
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private final String id;
+    private final JobSpec spec;
+    private final int priority;
+    private final long sequence = SEQUENCE.getAndIncrement();
+
+    // Il lavoro vero e proprio, fornito dal servizio (risoluzione del job e aggiornamento dello stato).
+    private final Runnable work;
+
+    // ------------------- STATO (scritto dal worker, letto dai thread HTTP) -------------------
+
+    private volatile State state = State.QUEUED;
+    private volatile int generation = -1;
+    private volatile double bestFitness = Double.NaN;
+    private volatile Individual solution;
+    private volatile String message;
+    private volatile long startedAt;
+    private volatile long finishedAt;
+
+    // Il thread che sta eseguendo il job (per l'annullamento tramite interrupt).
+    private volatile Thread runner;
+
+    SolverJob(String id, JobSpec spec, int priority, Consumer<SolverJob> work) {
+        this.id = id;
+        this.spec = spec;
+        this.priority = priority;
+        this.work = () -> work.accept(this);
+    }
+
+    // ------------------- ESECUZIONE -------------------
+
+    @Override
+    public void run() {
+        synchronized (this) {
+            // Annullato mentre era in coda: non parte nemmeno.
+            if (state != State.QUEUED) return;
+            runner = Thread.currentThread();
+            startedAt = System.nanoTime();
+            state = State.RUNNING;
+            notifyAll();
+        }
+        try {
+            work.run();
+        } finally {
+            synchronized (this) {
+                runner = null;
+                // Pulisce un eventuale interrupt di annullamento arrivato a fine esecuzione, per non "sporcare" il worker.
+                Thread.interrupted();
+            }
+        }
+    }
+
+    /**
+     * Richiede l'annullamento del job.
+     * @return true se il job era ancora in coda o in esecuzione.
+     */
+    synchronized boolean cancel() {
+        if (state == State.QUEUED) {
+            finish(State.CANCELLED, null, "Cancelled while queued.");
+            return true;
+        }
+        if (state == State.RUNNING) {
+            // Il motore controlla l'interrupt all'inizio di ogni generazione e termina con CancellationException.
+            Thread t = runner;
+            if (t != null) t.interrupt();
+            return true;
+        }
+        return false;
+    }
+
+    /** Aggiorna l'avanzamento (chiamato dal listener del motore a ogni generazione). */
+    synchronized void progress(int generation, double bestFitness) {
+        this.generation = generation;
+        this.bestFitness = bestFitness;
+        notifyAll();
+    }
+
+    /** Porta il job in uno stato finale. */
+    synchronized void finish(State finalState, Individual solution, String message) {
+        this.state = finalState;
+        this.solution = solution;
+        this.message = message;
+        this.finishedAt = System.nanoTime();
+        if (solution != null) this.bestFitness = solution.getFitness();
+        notifyAll();
+    }
+
+    /**
+     * Attende un cambiamento di stato o di avanzamento, al massimo per {@code timeoutMs}.
+     * Pensato per i virtual thread che riportano l'avanzamento in streaming.
+     */
+    public synchronized void awaitChange(int lastGeneration, State lastState, long timeoutMs) throws InterruptedException {
+        if (generation == lastGeneration && state == lastState) {
+            wait(timeoutMs);
+        }
+    }
+
+    /** Indica se il job è in uno stato finale. */
+    public boolean isDone() {
+        State s = state;
+        return s != State.QUEUED && s != State.RUNNING;
+    }
+
+    // ------------------- ORDINAMENTO IN CODA -------------------
+
+    @Override
+    public int compareTo(SolverJob other) {
+        // Priorità più alta prima; a parità, il job arrivato prima.
+        int byPriority = Integer.compare(other.priority, this.priority);
+        return byPriority != 0 ? byPriority : Long.compare(this.sequence, other.sequence);
+    }
+
+    // ------------------- GETTER -------------------
+
+    public String getId() { return id; }
+
+    public JobSpec getSpec() { return spec; }
+
+    public int getPriority() { return priority; }
+
+    public State getState() { return state; }
+
+    public int getGeneration() { return generation; }
+
+    public double getBestFitness() { return bestFitness; }
+
+    /** La soluzione finale, disponibile solo nello stato {@code SOLVED}. */
+    public Individual getSolution() { return solution; }
+
+    public String getMessage() { return message; }
+
+    /** Millisecondi di esecuzione (fino a ora se il job è ancora in corso, 0 se non è mai partito). */
+    public double getElapsedMs() {
+        long start = startedAt;
+        if (start == 0) return 0;
+        long end = isDone() ? finishedAt : System.nanoTime();
+        return (end - start) / 1e6;
+    }
+}
@@ -0,0 +1,196 @@
+package controllers;
+
+import exceptions.MaxAttemptsExceededException;
+import model.Individual;
+import model.domains.Domain;
+import model.domains.DomainFactory;
+import service.SolutionCache;
+import view.EvolutionConsoleView;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servizio residente che esegue job di packing in coda, riutilizzando la stessa JVM (e quindi il codice già
+ * compilato dal JIT) per tutte le richieste.
+ * <p>
+ * I job sono eseguiti da un pool fisso di worker (il "CPU pool": ogni motore parallelizza già internamente la
+ * valutazione delle fitness, quindi pochi job concorrenti bastano a saturare i core). La coda è a priorità e limitata:
+ * oltre {@code queueCapacity} job in attesa le nuove richieste vengono rifiutate (backpressure), invece di accumulare
+ * lavoro senza limite. I job possono essere annullati sia in coda sia durante l'esecuzione.
+ * <p>
+ * Il servizio non dipende dal trasporto: {@code view.SolverHttpServer} lo espone via HTTP.
+ */
+public class SolverService {
+
+    // Numero massimo di job conclusi conservati nel registro per la consultazione.
+    private static final int MAX_RETAINED_JOBS = 1000;
+
+    // Limite massimo di job in attesa (esclusi quelli in esecuzione).
+    private final int queueCapacity;
+
+    // Pool dei worker con coda a priorità. Gli elementi della coda sono i SolverJob stessi (Comparable).
+    private final ThreadPoolExecutor executor;
+
+    // Registro dei job (attivi e conclusi), per id.
+    private final Map<String, SolverJob> jobs = new ConcurrentHashMap<>();
+
+    // Numero di job accettati ma non ancora partiti (usato per la backpressure, più economico di queue.size()).
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final AtomicLong ids = new AtomicLong();
+    private final DomainFactory domainFactory = new DomainFactory();
+    private final EngineFactory engineFactory = new EngineFactory();
+    private final CachedSolver solver;
+
+    // I motori stampano messaggi su una View; nel servizio l'avanzamento passa dai listener, quindi la View è muta.
+    private final EvolutionConsoleView silentView =
+            new EvolutionConsoleView(new PrintStream(OutputStream.nullOutputStream()), new PrintStream(OutputStream.nullOutputStream()));
+
+    /**
+     * @param workers Il numero di job eseguiti in parallelo.
+     * @param queueCapacity Il numero massimo di job in attesa.
+     */
+    public SolverService(int workers, int queueCapacity) {
+        this(workers, queueCapacity, null);
+    }
+
+    /**
+     * @param workers Il numero di job eseguiti in parallelo.
+     * @param queueCapacity Il numero massimo di job in attesa.
+     * @param cache La cache delle soluzioni condivisa dai worker, oppure null per risolvere sempre da zero.
+     */
+    public SolverService(int workers, int queueCapacity, SolutionCache cache) {
+        if (workers <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("workers and queueCapacity must be positive.");
+        }
+        this.queueCapacity = queueCapacity;
+        this.solver = new CachedSolver(cache);
+        this.executor = new ThreadPoolExecutor(
+                workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(),
+                runnable -> {
+                    Thread t = new Thread(runnable, "solver-worker");
+                    t.setDaemon(true);
+                    return t;
+                }) {
+            @Override
+            protected void beforeExecute(Thread t, Runnable r) {
+                // Ogni job estratto dalla coda (anche se già annullato) libera il suo posto.
+                queued.decrementAndGet();
+            }
+        };
+    }
+
+    // ==================================================================================
+    // 📥 SOTTOMISSIONE, CONSULTAZIONE E ANNULLAMENTO
+    // ==================================================================================
+
+    /**
+     * Accoda un job.
+     * @param spec La specifica del job.
+     * @param priority La priorità (più alta = eseguito prima).
+     * @return Il job accodato.
+     * @throws RejectedExecutionException Se la coda è piena o il servizio è stato fermato.
+     */
+    public SolverJob submit(JobSpec spec, int priority) {
+        // Prenotazione del posto in coda: se si supera la capacità, si annulla la prenotazione e si rifiuta.
+        if (queued.incrementAndGet() > queueCapacity) {
+            queued.decrementAndGet();
+            throw new RejectedExecutionException("Queue full (" + queueCapacity + " jobs waiting). Retry later.");
+        }
+        SolverJob job = new SolverJob("job-" + ids.incrementAndGet(), spec, priority, this::solve);
+        purgeFinishedJobs();
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(job);
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            jobs.remove(job.getId());
+            throw e;
+        }
+        return job;
+    }
+
+    /** Ritorna il job con l'id indicato, se esiste. */
+    public Optional<SolverJob> find(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /**
+     * Annulla un job in coda o in esecuzione.
+     * @return true se il job esisteva e non era già concluso.
+     */
+    public boolean cancel(String id) {
+        SolverJob job = jobs.get(id);
+        if (job == null) return false;
+        boolean wasQueued = job.getState() == SolverJob.State.QUEUED;
+        boolean cancelled = job.cancel();
+        // Un job annullato in coda libera subito il suo posto; se il worker lo ha già estratto,
+        // remove() fallisce e il posto è già stato liberato da beforeExecute.
+        if (cancelled && wasQueued && executor.remove(job)) {
+            queued.decrementAndGet();
+        }
+        return cancelled;
+    }
+
+    /**
+     * Rimuove dal registro i job conclusi quando se ne accumulano troppi, per non crescere senza limite.
+     */
+    private void purgeFinishedJobs() {
+        if (jobs.size() < MAX_RETAINED_JOBS) return;
+        jobs.values().removeIf(SolverJob::isDone);
+    }
+
+    /** Numero di job in attesa di un worker. */
+    public int getQueuedCount() {
+        return queued.get();
+    }
+
+    /** Ferma il servizio: i job in coda non partono, quelli in esecuzione vengono interrotti. */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // ==================================================================================
+    // ⚙️ ESECUZIONE DI UN JOB (sul thread worker)
+    // ==================================================================================
+
+    private void solve(SolverJob job) {
+        JobSpec spec = job.getSpec();
+        try {
+            Domain domain = spec.createDomain(domainFactory);
+            OptimizerEngine engine = engineFactory.createEngine(
+                    spec.engineType(), silentView, domain, spec.groups(), spec.config());
+            engine.addGenerationListener((generation, best) -> job.progress(generation, best.getFitness()));
+
+            Individual solution = solver.solve(spec, domain, engine, silentView);
+            job.finish(SolverJob.State.SOLVED, solution, null);
+        } catch (CancellationException e) {
+            job.finish(SolverJob.State.CANCELLED, null, "Cancelled while running.");
+        } catch (MaxAttemptsExceededException e) {
+            job.finish(SolverJob.State.FAILED, null, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            job.finish(SolverJob.State.ERROR, null, e.getMessage());
+        } catch (RuntimeException e) {
+            // Errore imprevisto del dominio o del motore: il job deve comunque chiudersi, altrimenti resterebbe
+            // RUNNING per sempre e i client in attesa dell'avanzamento non riceverebbero mai lo stato finale.
+            job.finish(SolverJob.State.ERROR, null, String.valueOf(e.getMessage()));
+        } finally {
+            // Anche un Error (es. memoria esaurita) non deve lasciare il job senza stato finale.
+            if (!job.isDone()) {
+                job.finish(SolverJob.State.ERROR, null, "Unexpected failure while running.");
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package controllers;
+
+import model.EvolutionConfig;
+import model.SweepResult;
+import model.domains.Domain;
+import model.domains.DomainFactory;
+import view.JobFileReader;
+import view.SweepConsoleView;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Controller degli sweep dei parametri: esegue in sequenza, nella stessa JVM, tutti gli sweep letti da un file
+ * (o da stdin) e scrive per ciascuno la tabella di riepilogo delle configurazioni.
+ * <p>
+ * Le repliche di uno sweep girano in parallelo sul pool comune (vedi {@link ParameterSweep}); gli sweep si
+ * susseguono, così ognuno ha tutti i core. Uno sweep malformato (o con una combinazione di valori non valida)
+ * viene riportato nell'output e non interrompe i successivi.
+ */
+public class SweepController {
+
+    private final DomainFactory domainFactory = new DomainFactory();
+
+    // Sorgente degli sweep e destinazione delle tabelle.
+    private final JobFileReader reader;
+    private final SweepConsoleView view;
+
+    /**
+     * @param reader La sorgente degli sweep (vedi {@link JobFileReader#nextSweep()}).
+     * @param view La destinazione dei riepiloghi.
+     */
+    public SweepController(JobFileReader reader, SweepConsoleView view) {
+        this.reader = reader;
+        this.view = view;
+    }
+
+    /**
+     * Esegue tutti gli sweep fino a fine input.
+     * @return Il numero di sweep eseguiti.
+     */
+    public int runAll() {
+        int completed = 0;
+        while (true) {
+            Optional<SweepSpec> sweep;
+            try {
+                sweep = reader.nextSweep();
+            } catch (IllegalArgumentException e) {
+                view.displayError(String.valueOf(reader.getLastJobName()), e.getMessage());
+                continue;
+            }
+            if (sweep.isEmpty()) {
+                return completed;
+            }
+            if (runSweep(sweep.get())) {
+                completed++;
+            }
+        }
+    }
+
+    /**
+     * Esegue un singolo sweep e ne scrive il riepilogo.
+     * @return true se lo sweep è stato eseguito.
+     */
+    private boolean runSweep(SweepSpec sweep) {
+        JobSpec job = sweep.job();
+        Domain domain;
+        List<EvolutionConfig> configs;
+        try {
+            domain = job.createDomain(domainFactory);
+            configs = sweep.configurations();
+        } catch (IllegalArgumentException e) {
+            view.displayError(job.name(), e.getMessage());
+            return false;
+        }
+
+        view.displayStartMessage(job.name(), job.engineType().name(), configs.size(), sweep.seeds());
+        try {
+            List<SweepResult> results = new ParameterSweep(domain, job.groups(), job.engineType())
+                    .run(configs, sweep.seeds());
+            view.displaySummary(ParameterSweep.summarize(results));
+            return true;
+        } catch (IllegalArgumentException e) {
+            // Es. simmetria non supportata dal dominio: il motore rifiuta la configurazione.
+            view.displayError(job.name(), e.getMessage());
+            return false;
+        }
+    }
+}
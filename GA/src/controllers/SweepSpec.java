@@ -0,0 +1,46 @@
+package controllers;
+
+import model.EvolutionConfig;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Descrizione di uno sweep dei parametri letto da file: il problema e la configurazione di base (un job), i valori
+ * da provare per ciascun parametro e il numero di repliche.
+ *
+ * @param job Il problema e la configurazione di base (i parametri non variati).
+ * @param axes Per ogni nome di parametro (vedi {@link EvolutionConfig#PARAMETER_NAMES}) i valori da provare.
+ * @param seeds Le repliche indipendenti per configurazione.
+ * @param samples Le configurazioni estratte a caso dalla griglia, oppure 0 per la griglia completa.
+ */
+public record SweepSpec(JobSpec job, Map<String, List<Double>> axes, int seeds, int samples) {
+
+    /** Repliche per configurazione quando il file non le indica. */
+    public static final int DEFAULT_SEEDS = 3;
+
+    public SweepSpec {
+        if (seeds <= 0) {
+            throw new IllegalArgumentException("The number of seeds must be positive. Found: " + seeds);
+        }
+        if (samples < 0) {
+            throw new IllegalArgumentException("The number of samples cannot be negative. Found: " + samples);
+        }
+        // Copia che conserva l'ordine degli assi (quello del file).
+        Map<String, List<Double>> copy = new LinkedHashMap<>();
+        axes.forEach((name, values) -> copy.put(name, List.copyOf(values)));
+        axes = Collections.unmodifiableMap(copy);
+    }
+
+    /**
+     * Le configurazioni da provare: la griglia completa, oppure {@code samples} configurazioni estratte a caso.
+     * @throws IllegalArgumentException Se una combinazione di valori non è valida.
+     */
+    public List<EvolutionConfig> configurations() {
+        return samples > 0
+                ? ParameterSweep.randomSample(job.config(), axes, samples)
+                : ParameterSweep.grid(job.config(), axes);
+    }
+}
@@ -0,0 +1,449 @@
+package model;
+
+import model.domains.DistanceField;
+
+import java.util.List;
+
+/**
+ * Configurazione immutabile di un'esecuzione dei motori di ottimizzazione.
+ * <p>
+ * Raccoglie i parametri che prima erano costanti private dell'{@code EvolutionEngine}
+ * (generazioni, popolazione, torneo, élite, probabilità di crossover e mutazione, forza iniziale della mutazione)
+ * e quelli della Differential Evolution, così da poterli variare senza ricompilare
+ * (es. nello sweep dei parametri o nei job headless).
+ * <p>
+ * Scelta Implementativa: classe final con campi final e {@code Builder}.
+ * Ogni modifica produce una nuova istanza, quindi la stessa configurazione può essere condivisa
+ * senza rischi tra thread e tra esecuzioni diverse.
+ */
+public final class EvolutionConfig {
+
+    /**
+     * Nomi dei parametri numerici modificabili tramite {@link #withParameter(String, double)}.
+     * Usati dallo sweep dei parametri e dal parser dei job per mappare chiavi testuali ai campi.
+     */
+    public static final List<String> PARAMETER_NAMES = List.of(
+            "generations", "populationSize", "tournamentSize", "elitesPercentage",
+            "crossoverProb", "mutationProb", "initialMutationStrength",
+            "differentialWeight", "crossoverRate", "symmetryOrder", "resolutionLevels", "neighbourSkin",
+            "gradedBoundary", "mortonInterval", "cutCrossoverProb", "duplicatePolicy", "plusSelection",
+            "spreadWeight", "spreadTheta", "historySize",
+            "latticeResolution", "distanceField"
+    );
+
+    /**
+     * Cosa fa l'AG con un figlio identico a un individuo già presente (un clone non mutato): come parametro
+     * numerico vale l'indice della costante (0 = KEEP, 1 = MUTATE, 2 = FRESH).
+     */
+    public enum DuplicatePolicy {
+        /** Il figlio resta nella popolazione, con la fitness del gemello (nessuna valutazione). */
+        KEEP,
+        /** Il figlio viene mutato di nuovo finché non è diverso (al più qualche tentativo). */
+        MUTATE,
+        /** Il figlio viene sostituito da un individuo nuovo, generato come quelli della prima generazione. */
+        FRESH
+    }
+
+    // ------------------- PARAMETRI AG -------------------
+
+    // Numero massimo di generazioni da eseguire.
+    private final int generations;
+
+    // Dimensione fissa di ogni popolazione in ogni generazione.
+    private final int populationSize;
+
+    // Numero di individui selezionati per il torneo durante la selezione.
+    private final int tournamentSize;
+
+    // Percentuale della popolazione (gli individui migliori) da preservare tramite elitismo.
+    private final double elitesPercentage;
+
+    // Probabilità di eseguire l'operatore di Crossover su una coppia di genitori.
+    private final double crossoverProb;
+
+    // Probabilità che un crossover usi il taglio geometrico (una retta o una circonferenza casuale, ogni genitore dà
+    // i punti di un lato) invece del crossover uniforme.
+    private final double cutCrossoverProb;
+
+    // Probabilità di eseguire l'operatore di Mutazione su un gene (Point) di un nuovo individuo.
+    private final double mutationProb;
+
+    // Forza iniziale dell'operatore di Mutazione (decade con le generazioni).
+    private final double initialMutationStrength;
+
+    // ------------------- PARAMETRI DIFFERENTIAL EVOLUTION -------------------
+
+    // Fattore di scala F applicato al vettore differenza.
+    private final double differentialWeight;
+
+    // Probabilità CR che un punto del vettore di prova venga preso dal mutante.
+    private final double crossoverRate;
+
+    // ------------------- PARAMETRI COMUNI -------------------
+
+    // Ordine della simmetria del dominio da sfruttare (0 o 1 = nessuna): i motori evolvono solo una regione
+    // fondamentale (es. 4 = un quadrante, k = uno spicchio di 2π/k) ed espandono i punti per riflessione/rotazione.
+    private final int symmetryOrder;
+
+    // Numero massimo di livelli di risoluzione (1 = nessun raffinamento): con più livelli il problema viene prima
+    // risolto con meno dischi più grandi, poi raffinato dividendo ogni disco nei suoi figli.
+    private final int resolutionLevels;
+
+    // Margine delle liste dei vicini per individuo (liste di Verlet) dell'AG, in frazioni del raggio del gruppo più
+    // numeroso (0 = disattivate): la lista di un individuo viene riusata finché pochi punti si spostano più di metà margine.
+    private final double neighbourSkin;
+
+    // Penalità di confine graduata: proporzionale a quanto ogni disco sporge dal dominio, invece di una penalità
+    // fissa per ogni centro fuori. Dà una direzione alla ricerca e impedisce ai dischi di sporgere dal bordo.
+    private final boolean gradedBoundary;
+
+    // Ogni quante generazioni l'AG permuta i geni della popolazione secondo l'ordine di Morton del migliore (0 = mai):
+    // la valutazione legge i punti vicini quasi in sequenza. La permutazione è la stessa per tutti gli individui.
+    private final int mortonInterval;
+
+    // Trattamento dei figli identici a un individuo già presente nella popolazione.
+    private final DuplicatePolicy duplicatePolicy;
+
+    // Selezione (μ+λ) invece di quella generazionale con élite: genitori e figli competono e sopravvivono i
+    // migliori μ. La valutazione di un figlio si ferma appena è peggiore del peggiore dei genitori.
+    private final boolean plusSelection;
+
+    // Peso dell'obiettivo di dispersione (0 = disattivato): le configurazioni senza penalità ricevono in più la
+    // somma delle distanze tra tutte le coppie di punti, normalizzata in [0, 1], moltiplicata per questo peso.
+    private final double spreadWeight;
+
+    // Angolo di apertura dell'approssimazione di Barnes–Hut della dispersione (0 = somma esatta).
+    private final double spreadTheta;
+
+    // Righe massime della storia delle generazioni (0 = non registrata): oltre questo numero le generazioni
+    // vengono accorpate a coppie, quindi la memoria resta fissa anche con milioni di generazioni.
+    private final int historySize;
+
+    // Passo del reticolo dei geni quantizzati, come frazione del lato maggiore della bounding box (0 = coordinate
+    // continue): i geni dell'AG e dell'NSGA-II diventano codici interi su un GenomeLattice.
+    private final double latticeResolution;
+
+    // Celle lungo il lato maggiore della bounding box del campo di distanza precalcolato (0 = nessun campo): la
+    // penalità di dominio interroga un DistanceField invece del dominio, a costo costante qualunque sia la forma.
+    private final int distanceField;
+
+    // ------------------- COSTRUTTORE -------------------
+
+    private EvolutionConfig(Builder builder) {
+        this.generations = builder.generations;
+        this.populationSize = builder.populationSize;
+        this.tournamentSize = builder.tournamentSize;
+        this.elitesPercentage = builder.elitesPercentage;
+        this.crossoverProb = builder.crossoverProb;
+        this.cutCrossoverProb = builder.cutCrossoverProb;
+        this.mutationProb = builder.mutationProb;
+        this.initialMutationStrength = builder.initialMutationStrength;
+        this.differentialWeight = builder.differentialWeight;
+        this.crossoverRate = builder.crossoverRate;
+        this.symmetryOrder = builder.symmetryOrder;
+        this.resolutionLevels = builder.resolutionLevels;
+        this.neighbourSkin = builder.neighbourSkin;
+        this.gradedBoundary = builder.gradedBoundary;
+        this.mortonInterval = builder.mortonInterval;
+        this.duplicatePolicy = builder.duplicatePolicy;
+        this.plusSelection = builder.plusSelection;
+        this.spreadWeight = builder.spreadWeight;
+        this.spreadTheta = builder.spreadTheta;
+        this.historySize = builder.historySize;
+        this.latticeResolution = builder.latticeResolution;
+        this.distanceField = builder.distanceField;
+    }
+
+    /**
+     * Ritorna la configurazione storica del progetto (800 generazioni, 100 individui, ...).
+     */
+    public static EvolutionConfig defaults() {
+        return new Builder().build();
+    }
+
+    /** Crea un builder inizializzato con i valori di default. */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** Crea un builder inizializzato con i valori di questa configurazione. */
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    /**
+     * Ritorna una copia della configurazione con un singolo parametro modificato, indicato per nome.
+     * @param name Uno dei nomi in {@link #PARAMETER_NAMES}.
+     * @param value Il nuovo valore (i parametri interi vengono arrotondati).
+     * @return Una nuova configurazione validata.
+     * @throws IllegalArgumentException Se il nome non è riconosciuto o il valore non è valido.
+     */
+    public EvolutionConfig withParameter(String name, double value) {
+        return toBuilder().set(name, value).build();
+    }
+
+    // ------------------- GETTER -------------------
+
+    public int getGenerations() { return generations; }
+
+    public int getPopulationSize() { return populationSize; }
+
+    public int getTournamentSize() { return tournamentSize; }
+
+    public double getElitesPercentage() { return elitesPercentage; }
+
+    public double getCrossoverProb() { return crossoverProb; }
+
+    public double getCutCrossoverProb() { return cutCrossoverProb; }
+
+    public double getMutationProb() { return mutationProb; }
+
+    public double getInitialMutationStrength() { return initialMutationStrength; }
+
+    public double getDifferentialWeight() { return differentialWeight; }
+
+    public double getCrossoverRate() { return crossoverRate; }
+
+    public int getSymmetryOrder() { return symmetryOrder; }
+
+    public int getResolutionLevels() { return resolutionLevels; }
+
+    public double getNeighbourSkin() { return neighbourSkin; }
+
+    public boolean isGradedBoundary() { return gradedBoundary; }
+
+    public int getMortonInterval() { return mortonInterval; }
+
+    public DuplicatePolicy getDuplicatePolicy() { return duplicatePolicy; }
+
+    public boolean isPlusSelection() { return plusSelection; }
+
+    public double getSpreadWeight() { return spreadWeight; }
+
+    public double getSpreadTheta() { return spreadTheta; }
+
+    public int getHistorySize() { return historySize; }
+
+    public double getLatticeResolution() { return latticeResolution; }
+
+    public int getDistanceField() { return distanceField; }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "gen=%d pop=%d tour=%d elite=%.3f pc=%.3f cut=%.3f pm=%.4f strength=%.3f F=%.3f CR=%.3f sym=%d levels=%d skin=%.2f graded=%b morton=%d duplicates=%s plus=%b spread=%.3f theta=%.2f history=%d lattice=%.2e field=%d",
+                generations, populationSize, tournamentSize, elitesPercentage,
+                crossoverProb, cutCrossoverProb, mutationProb, initialMutationStrength, differentialWeight, crossoverRate, symmetryOrder, resolutionLevels,
+                neighbourSkin, gradedBoundary, mortonInterval, duplicatePolicy, plusSelection, spreadWeight, spreadTheta, historySize,
+                latticeResolution, distanceField);
+    }
+
+    // ==================================================================================
+    // 🔨 BUILDER
+    // ==================================================================================
+
+    /**
+     * Builder mutabile e non thread-safe: va usato localmente e poi convertito con {@link #build()}.
+     */
+    public static final class Builder {
+        private int generations = 800;
+        private int populationSize = 100;
+        private int tournamentSize = 3;
+        private double elitesPercentage = 0.05;
+        private double crossoverProb = 0.9;
+        private double cutCrossoverProb = 0.0;
+        private double mutationProb = 0.02;
+        private double initialMutationStrength = 1.0;
+        private double differentialWeight = 0.5;
+        private double crossoverRate = 0.05;
+        private int symmetryOrder = 0;
+        private int resolutionLevels = 1;
+        private double neighbourSkin = 0.0;
+        private boolean gradedBoundary = false;
+        private int mortonInterval = 0;
+        private DuplicatePolicy duplicatePolicy = DuplicatePolicy.KEEP;
+        private boolean plusSelection = false;
+        private double spreadWeight = 0.0;
+        private double spreadTheta = 0.5;
+        private int historySize = 0;
+        private double latticeResolution = 0.0;
+        private int distanceField = 0;
+
+        private Builder() {}
+
+        private Builder(EvolutionConfig config) {
+            this.generations = config.generations;
+            this.populationSize = config.populationSize;
+            this.tournamentSize = config.tournamentSize;
+            this.elitesPercentage = config.elitesPercentage;
+            this.crossoverProb = config.crossoverProb;
+            this.cutCrossoverProb = config.cutCrossoverProb;
+            this.mutationProb = config.mutationProb;
+            this.initialMutationStrength = config.initialMutationStrength;
+            this.differentialWeight = config.differentialWeight;
+            this.crossoverRate = config.crossoverRate;
+            this.symmetryOrder = config.symmetryOrder;
+            this.resolutionLevels = config.resolutionLevels;
+            this.neighbourSkin = config.neighbourSkin;
+            this.gradedBoundary = config.gradedBoundary;
+            this.mortonInterval = config.mortonInterval;
+            this.duplicatePolicy = config.duplicatePolicy;
+            this.plusSelection = config.plusSelection;
+            this.spreadWeight = config.spreadWeight;
+            this.spreadTheta = config.spreadTheta;
+            this.historySize = config.historySize;
+            this.latticeResolution = config.latticeResolution;
+            this.distanceField = config.distanceField;
+        }
+
+        public Builder generations(int generations) { this.generations = generations; return this; }
+
+        public Builder populationSize(int populationSize) { this.populationSize = populationSize; return this; }
+
+        public Builder tournamentSize(int tournamentSize) { this.tournamentSize = tournamentSize; return this; }
+
+        public Builder elitesPercentage(double elitesPercentage) { this.elitesPercentage = elitesPercentage; return this; }
+
+        public Builder crossoverProb(double crossoverProb) { this.crossoverProb = crossoverProb; return this; }
+
+        public Builder cutCrossoverProb(double cutCrossoverProb) { this.cutCrossoverProb = cutCrossoverProb; return this; }
+
+        public Builder mutationProb(double mutationProb) { this.mutationProb = mutationProb; return this; }
+
+        public Builder initialMutationStrength(double strength) { this.initialMutationStrength = strength; return this; }
+
+        public Builder differentialWeight(double differentialWeight) { this.differentialWeight = differentialWeight; return this; }
+
+        public Builder crossoverRate(double crossoverRate) { this.crossoverRate = crossoverRate; return this; }
+
+        public Builder symmetryOrder(int symmetryOrder) { this.symmetryOrder = symmetryOrder; return this; }
+
+        public Builder resolutionLevels(int resolutionLevels) { this.resolutionLevels = resolutionLevels; return this; }
+
+        public Builder neighbourSkin(double neighbourSkin) { this.neighbourSkin = neighbourSkin; return this; }
+
+        public Builder gradedBoundary(boolean gradedBoundary) { this.gradedBoundary = gradedBoundary; return this; }
+
+        public Builder mortonInterval(int mortonInterval) { this.mortonInterval = mortonInterval; return this; }
+
+        public Builder duplicatePolicy(DuplicatePolicy duplicatePolicy) { this.duplicatePolicy = duplicatePolicy; return this; }
+
+        public Builder plusSelection(boolean plusSelection) { this.plusSelection = plusSelection; return this; }
+
+        public Builder spreadWeight(double spreadWeight) { this.spreadWeight = spreadWeight; return this; }
+
+        public Builder spreadTheta(double spreadTheta) { this.spreadTheta = spreadTheta; return this; }
+
+        public Builder historySize(int historySize) { this.historySize = historySize; return this; }
+
+        public Builder latticeResolution(double latticeResolution) { this.latticeResolution = latticeResolution; return this; }
+
+        public Builder distanceField(int distanceField) { this.distanceField = distanceField; return this; }
+
+        /**
+         * Imposta un parametro indicandolo per nome (vedi {@link EvolutionConfig#PARAMETER_NAMES}).
+         * @throws IllegalArgumentException Se il nome non è riconosciuto.
+         */
+        public Builder set(String name, double value) {
+            return switch (name) {
+                case "generations" -> generations((int) Math.round(value));
+                case "populationSize" -> populationSize((int) Math.round(value));
+                case "tournamentSize" -> tournamentSize((int) Math.round(value));
+                case "elitesPercentage" -> elitesPercentage(value);
+                case "crossoverProb" -> crossoverProb(value);
+                case "cutCrossoverProb" -> cutCrossoverProb(value);
+                case "mutationProb" -> mutationProb(value);
+                case "initialMutationStrength" -> initialMutationStrength(value);
+                case "differentialWeight" -> differentialWeight(value);
+                case "crossoverRate" -> crossoverRate(value);
+                case "symmetryOrder" -> symmetryOrder((int) Math.round(value));
+                case "resolutionLevels" -> resolutionLevels((int) Math.round(value));
+                case "neighbourSkin" -> neighbourSkin(value);
+                case "gradedBoundary" -> gradedBoundary(value != 0);
+                case "mortonInterval" -> mortonInterval((int) Math.round(value));
+                case "duplicatePolicy" -> duplicatePolicy(duplicatePolicyOf(value));
+                case "plusSelection" -> plusSelection(value != 0);
+                case "spreadWeight" -> spreadWeight(value);
+                case "spreadTheta" -> spreadTheta(value);
+                case "historySize" -> historySize((int) Math.round(value));
+                case "latticeResolution" -> latticeResolution(value);
+                case "distanceField" -> distanceField((int) Math.round(value));
+                default -> throw new IllegalArgumentException("Unknown configuration parameter: " + name);
+            };
+        }
+
+        /**
+         * Valida i parametri e crea la configurazione immutabile.
+         * @throws IllegalArgumentException Se un parametro è fuori dal suo intervallo valido.
+         */
+        public EvolutionConfig build() {
+            if (generations <= 0) {
+                throw new IllegalArgumentException("generations must be positive. Found: " + generations);
+            }
+            // La DE (schema rand/1) richiede almeno 4 vettori distinti.
+            if (populationSize < 4) {
+                throw new IllegalArgumentException("populationSize must be at least 4. Found: " + populationSize);
+            }
+            if (tournamentSize <= 0 || tournamentSize > populationSize) {
+                throw new IllegalArgumentException("tournamentSize must be in [1, populationSize]. Found: " + tournamentSize);
+            }
+            requireProbability("elitesPercentage", elitesPercentage);
+            requireProbability("crossoverProb", crossoverProb);
+            requireProbability("cutCrossoverProb", cutCrossoverProb);
+            requireProbability("mutationProb", mutationProb);
+            requireProbability("crossoverRate", crossoverRate);
+            if (initialMutationStrength <= 0) {
+                throw new IllegalArgumentException("initialMutationStrength must be positive. Found: " + initialMutationStrength);
+            }
+            if (differentialWeight <= 0 || differentialWeight > 2) {
+                throw new IllegalArgumentException("differentialWeight must be in (0, 2]. Found: " + differentialWeight);
+            }
+            if (symmetryOrder < 0) {
+                throw new IllegalArgumentException("symmetryOrder must be non-negative. Found: " + symmetryOrder);
+            }
+            if (resolutionLevels < 1) {
+                throw new IllegalArgumentException("resolutionLevels must be at least 1. Found: " + resolutionLevels);
+            }
+            if (neighbourSkin < 0) {
+                throw new IllegalArgumentException("neighbourSkin must be non-negative. Found: " + neighbourSkin);
+            }
+            if (duplicatePolicy == null) {
+                throw new IllegalArgumentException("duplicatePolicy must not be null.");
+            }
+            if (mortonInterval < 0) {
+                throw new IllegalArgumentException("mortonInterval must be non-negative. Found: " + mortonInterval);
+            }
+            if (spreadWeight < 0) {
+                throw new IllegalArgumentException("spreadWeight must be non-negative. Found: " + spreadWeight);
+            }
+            requireProbability("spreadTheta", spreadTheta);
+            if (historySize < 0 || historySize == 1) {
+                throw new IllegalArgumentException("historySize must be 0 (disabled) or at least 2. Found: " + historySize);
+            }
+            if (latticeResolution != 0
+                    && !(latticeResolution >= GenomeLattice.MIN_RESOLUTION && latticeResolution <= 1)) {
+                throw new IllegalArgumentException("latticeResolution must be 0 (disabled) or in ["
+                        + GenomeLattice.MIN_RESOLUTION + ", 1]. Found: " + latticeResolution);
+            }
+            if (distanceField != 0 && (distanceField < 2 || distanceField > DistanceField.MAX_RESOLUTION)) {
+                throw new IllegalArgumentException("distanceField must be 0 (disabled) or in [2, "
+                        + DistanceField.MAX_RESOLUTION + "]. Found: " + distanceField);
+            }
+            return new EvolutionConfig(this);
+        }
+
+        private static DuplicatePolicy duplicatePolicyOf(double value) {
+            long index = Math.round(value);
+            if (index < 0 || index >= DuplicatePolicy.values().length) {
+                throw new IllegalArgumentException("duplicatePolicy must be 0 (KEEP), 1 (MUTATE) or 2 (FRESH). Found: " + value);
+            }
+            return DuplicatePolicy.values()[(int) index];
+        }
+
+        private static void requireProbability(String name, double value) {
+            if (value < 0 || value > 1) {
+                throw new IllegalArgumentException(name + " must be in [0, 1]. Found: " + value);
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Storia compatta di un'esecuzione: per ogni generazione la fitness migliore, media e peggiore della popolazione,
+ * la diversità e il tempo impiegato.
+ * <p>
+ * Le colonne sono array primitivi che raddoppiano finché non raggiungono il limite di righe. Raggiunto il limite,
+ * le righe vengono accorpate a coppie e da lì in poi ogni riga riassume il doppio delle generazioni (il passo):
+ * la storia copre sempre tutta l'esecuzione, con una risoluzione che si dimezza ogni volta che si riempie, e la
+ * memoria non supera mai il limite (48 byte per riga). Le generazioni del passo corrente si accumulano in una riga
+ * in corso, che diventa definitiva quando è completa.
+ * <p>
+ * Una riga accorpata conserva la migliore delle fitness migliori e la peggiore delle peggiori; media, diversità e
+ * tempo sono le medie sulle sue generazioni.
+ * <p>
+ * Scelta Implementativa: una colonna per grandezza invece di un oggetto per generazione. Registrare una generazione
+ * aggiorna solo i campi della riga in corso e non alloca nulla (a parte i raddoppi, al più {@code log2} del limite
+ * in tutta l'esecuzione); l'esportazione finale legge colonne contigue. Non è thread-safe: la scrive il thread del
+ * motore e la si legge al termine dell'esecuzione.
+ */
+public final class GenerationHistory {
+
+    // Righe allocate alla prima registrazione.
+    private static final int INITIAL_CAPACITY = 256;
+
+    // ------------------- ATTRIBUTI -------------------
+
+    // Righe massime (pari, così l'accorpamento a coppie non lascia righe spaiate).
+    private final int maxRows;
+
+    // Colonne delle righe complete: prima generazione della riga e medie/estremi sulle sue generazioni.
+    private long[] generation = new long[0];
+    private double[] best = new double[0];
+    private double[] mean = new double[0];
+    private double[] worst = new double[0];
+    private double[] diversity = new double[0];
+    private double[] nanos = new double[0];
+    private int size;
+
+    // Generazioni riassunte da ogni riga completa.
+    private long stride = 1;
+
+    // Riga in corso: somme ed estremi delle generazioni già registrate del passo corrente.
+    private long pendingFirst;
+    private long pendingCount;
+    private double pendingBest, pendingMeanSum, pendingWorst, pendingDiversitySum, pendingNanosSum;
+
+    // ------------------- COSTRUTTORE -------------------
+
+    /**
+     * @param maxRows Il numero massimo di righe conservate (almeno 2; un numero dispari viene arrotondato per difetto).
+     * @throws IllegalArgumentException Se il limite è minore di 2.
+     */
+    public GenerationHistory(int maxRows) {
+        if (maxRows < 2) {
+            throw new IllegalArgumentException("The history needs at least 2 rows. Found: " + maxRows);
+        }
+        this.maxRows = maxRows & ~1;
+    }
+
+    // ------------------- REGISTRAZIONE -------------------
+
+    /**
+     * Registra una generazione. Le generazioni vanno registrate in ordine, senza salti.
+     * @param generationIndex L'indice della generazione.
+     * @param bestFitness La fitness migliore della popolazione.
+     * @param meanFitness La fitness media della popolazione.
+     * @param worstFitness La fitness peggiore della popolazione.
+     * @param diversityValue La diversità della popolazione.
+     * @param elapsedNanos La durata della generazione in nanosecondi.
+     */
+    public void record(long generationIndex, double bestFitness, double meanFitness, double worstFitness,
+                       double diversityValue, long elapsedNanos) {
+        if (pendingCount == 0) {
+            pendingFirst = generationIndex;
+            pendingBest = bestFitness;
+            pendingWorst = worstFitness;
+            pendingMeanSum = pendingDiversitySum = pendingNanosSum = 0.0;
+        } else {
+            pendingBest = Math.max(pendingBest, bestFitness);
+            pendingWorst = Math.min(pendingWorst, worstFitness);
+        }
+        pendingMeanSum += meanFitness;
+        pendingDiversitySum += diversityValue;
+        pendingNanosSum += elapsedNanos;
+        pendingCount++;
+
+        if (pendingCount == stride) {
+            if (size == maxRows) {
+                // Storia piena: si dimezza la risoluzione e la riga in corso continua fino al nuovo passo.
+                compact();
+            } else {
+                commitPending();
+            }
+        }
+    }
+
+    /**
+     * Accoda le generazioni di un'altra storia (es. quella di un livello risolto da un motore interno).
+     * Ogni riga viene registrata una volta per ciascuna delle sue generazioni, quindi estremi e medie si conservano
+     * e l'accorpamento di questa storia procede come se le generazioni fossero state registrate qui.
+     * @param source La storia da accodare.
+     * @param generationOffset Lo scostamento aggiunto agli indici di generazione della sorgente.
+     */
+    public void append(GenerationHistory source, long generationOffset) {
+        for (int row = 0; row < source.size(); row++) {
+            long first = source.getGeneration(row) + generationOffset;
+            long nanosPerGeneration = Math.round(source.getTimeMs(row) * 1e6);
+            for (long k = 0, count = source.getGenerationCount(row); k < count; k++) {
+                record(first + k, source.getBest(row), source.getMean(row), source.getWorst(row),
+                        source.getDiversity(row), nanosPerGeneration);
+            }
+        }
+    }
+
+    /** Svuota la storia (es. all'inizio di un nuovo tentativo), conservando la memoria già allocata. */
+    public void clear() {
+        size = 0;
+        stride = 1;
+        pendingCount = 0;
+    }
+
+    // ------------------- ESPORTAZIONE -------------------
+
+    /** Il numero di righe, compresa l'eventuale riga in corso (incompleta). */
+    public int size() {
+        return pendingCount > 0 ? size + 1 : size;
+    }
+
+    /** Le generazioni riassunte da ogni riga (1 finché la storia non è stata accorpata). */
+    public long getStride() {
+        return stride;
+    }
+
+    /** La prima generazione della riga. */
+    public long getGeneration(int row) {
+        return isPending(row) ? pendingFirst : generation[row];
+    }
+
+    /** Il numero di generazioni della riga ({@link #getStride()}, meno per la riga in corso). */
+    public long getGenerationCount(int row) {
+        return isPending(row) ? pendingCount : stride;
+    }
+
+    public double getBest(int row) {
+        return isPending(row) ? pendingBest : best[row];
+    }
+
+    public double getMean(int row) {
+        return isPending(row) ? pendingMeanSum / pendingCount : mean[row];
+    }
+
+    public double getWorst(int row) {
+        return isPending(row) ? pendingWorst : worst[row];
+    }
+
+    public double getDiversity(int row) {
+        return isPending(row) ? pendingDiversitySum / pendingCount : diversity[row];
+    }
+
+    /** La durata media di una generazione della riga, in millisecondi. */
+    public double getTimeMs(int row) {
+        return (isPending(row) ? pendingNanosSum / pendingCount : nanos[row]) / 1e6;
+    }
+
+    // ------------------- METODI UTILITY -------------------
+
+    private boolean isPending(int row) {
+        if (row < 0 || row >= size()) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of " + size() + ".");
+        }
+        return row == size;
+    }
+
+    /** Trasforma la riga in corso, completa, in una riga definitiva (raddoppiando le colonne se servono). */
+    private void commitPending() {
+        if (size == generation.length) {
+            grow(Math.min(maxRows, Math.max(INITIAL_CAPACITY, 2 * size)));
+        }
+        generation[size] = pendingFirst;
+        best[size] = pendingBest;
+        mean[size] = pendingMeanSum / pendingCount;
+        worst[size] = pendingWorst;
+        diversity[size] = pendingDiversitySum / pendingCount;
+        nanos[size] = pendingNanosSum / pendingCount;
+        size++;
+        pendingCount = 0;
+    }
+
+    /** Accorpa le righe a coppie e raddoppia il passo. */
+    private void compact() {
+        int half = size / 2;
+        for (int i = 0; i < half; i++) {
+            int a = 2 * i, b = a + 1;
+            generation[i] = generation[a];
+            best[i] = Math.max(best[a], best[b]);
+            mean[i] = 0.5 * (mean[a] + mean[b]);
+            worst[i] = Math.min(worst[a], worst[b]);
+            diversity[i] = 0.5 * (diversity[a] + diversity[b]);
+            nanos[i] = 0.5 * (nanos[a] + nanos[b]);
+        }
+        size = half;
+        stride *= 2;
+    }
+
+    private void grow(int capacity) {
+        generation = Arrays.copyOf(generation, capacity);
+        best = Arrays.copyOf(best, capacity);
+        mean = Arrays.copyOf(mean, capacity);
+        worst = Arrays.copyOf(worst, capacity);
+        diversity = Arrays.copyOf(diversity, capacity);
+        nanos = Arrays.copyOf(nanos, capacity);
+    }
+}
@@ -0,0 +1,148 @@
+package model;
+
+import java.awt.geom.Rectangle2D;
+
+/**
+ * Reticolo a virgola fissa per i geni quantizzati.
+ * <p>
+ * Il reticolo copre la bounding box del dominio con un passo uguale sui due assi, pari a {@code resolution} volte
+ * il lato maggiore della box (es. 1e-4: 10001 posizioni per lato). Un gene quantizzato è un solo {@code int}: la
+ * colonna nei 16 bit alti e la riga nei 16 bassi, cioè due coordinate della dimensione di uno {@code short} senza
+ * segno. Il raggio non viene memorizzato: dipende solo dall'indice del gene (vedi {@link GenomeLayout}).
+ * <p>
+ * La conversione è esatta: un punto del reticolo vale {@code min + indice * passo}, e {@link #encode(double, double)}
+ * di quelle coordinate restituisce sempre lo stesso codice, quindi un gene convertito in {@code Point} (per l'output
+ * o per la valutazione) e codificato di nuovo non si sposta. Due geni coincidono se e solo se hanno lo stesso
+ * codice: il confronto dei genomi è un confronto di interi.
+ * <p>
+ * Scelta Implementativa: passo isotropo invece di un passo per asse. Con passi diversi il reticolo sarebbe più fitto
+ * sul lato corto, ma le distanze tra i geni (e quindi l'overlap) dipenderebbero dalla direzione; con un passo unico
+ * la risoluzione è la stessa ovunque. Il lato corto usa solo le righe che gli servono.
+ */
+public final class GenomeLattice {
+
+    /** La risoluzione più fine: 65536 posizioni (16 bit) sul lato maggiore. */
+    public static final double MIN_RESOLUTION = 1.0 / 65535;
+
+    private static final int AXIS_BITS = 16;
+    private static final int AXIS_MASK = (1 << AXIS_BITS) - 1;
+
+    // ------------------- ATTRIBUTI -------------------
+
+    private final double minX, minY;
+    private final double step;
+
+    // Posizioni per asse: gli indici validi sono 0 .. columns - 1 e 0 .. rows - 1.
+    private final int columns, rows;
+
+    // Disposizione dei gruppi: dà il raggio di ogni gene.
+    private final GenomeLayout layout;
+
+    // ------------------- COSTRUTTORE -------------------
+
+    /**
+     * @param box La bounding box del dominio.
+     * @param resolution Il passo, come frazione del lato maggiore della box (in [{@link #MIN_RESOLUTION}, 1]).
+     * @param layout La disposizione dei gruppi nel cromosoma.
+     * @throws IllegalArgumentException Se la risoluzione è fuori dall'intervallo o la box è vuota.
+     */
+    public GenomeLattice(Rectangle2D box, double resolution, GenomeLayout layout) {
+        if (!(resolution >= MIN_RESOLUTION && resolution <= 1)) {
+            throw new IllegalArgumentException("The lattice resolution must be in [" + MIN_RESOLUTION + ", 1]. Found: " + resolution);
+        }
+        double extent = Math.max(box.getWidth(), box.getHeight());
+        if (!(extent > 0)) {
+            throw new IllegalArgumentException("The lattice needs a non-empty bounding box.");
+        }
+        this.minX = box.getMinX();
+        this.minY = box.getMinY();
+        this.step = extent * resolution;
+        // L'ultima posizione non supera il bordo della box (la tolleranza assorbe gli arrotondamenti di extent / step).
+        this.columns = Math.min(AXIS_MASK + 1, (int) Math.floor(box.getWidth() / step + 1e-9) + 1);
+        this.rows = Math.min(AXIS_MASK + 1, (int) Math.floor(box.getHeight() / step + 1e-9) + 1);
+        this.layout = layout;
+    }
+
+    // ------------------- CONVERSIONI -------------------
+
+    /**
+     * Il codice della posizione del reticolo più vicina al punto (le coordinate fuori dalla box vengono riportate
+     * sul bordo).
+     */
+    public int encode(double x, double y) {
+        return code(column(x), row(y));
+    }
+
+    /** Il codice della posizione del reticolo più vicina al centro del punto. */
+    public int encode(Point p) {
+        return encode(p.getX(), p.getY());
+    }
+
+    /** Il codice della posizione (colonna, riga), che devono essere indici validi. */
+    public static int code(int column, int row) {
+        return (column << AXIS_BITS) | row;
+    }
+
+    /** La colonna più vicina alla coordinata x, limitata al reticolo. */
+    public int column(double x) {
+        return clamp(Math.round((x - minX) / step), columns);
+    }
+
+    /** La riga più vicina alla coordinata y, limitata al reticolo. */
+    public int row(double y) {
+        return clamp(Math.round((y - minY) / step), rows);
+    }
+
+    /** La colonna di un codice. */
+    public static int columnOf(int code) {
+        return code >>> AXIS_BITS;
+    }
+
+    /** La riga di un codice. */
+    public static int rowOf(int code) {
+        return code & AXIS_MASK;
+    }
+
+    /** La coordinata x di un codice. */
+    public double x(int code) {
+        return minX + columnOf(code) * step;
+    }
+
+    /** La coordinata y di un codice. */
+    public double y(int code) {
+        return minY + rowOf(code) * step;
+    }
+
+    /** Il gene {@code index} con il codice dato, come {@code Point} (con il raggio del suo gruppo). */
+    public Point toPoint(int index, int code) {
+        return new Point(x(code), y(code), layout.getRadiusAt(index));
+    }
+
+    /**
+     * Sposta un codice di un numero di passi su ciascun asse, restando nel reticolo.
+     * @param code Il codice di partenza.
+     * @param dColumns I passi lungo x (anche negativi).
+     * @param dRows I passi lungo y (anche negativi).
+     */
+    public int shift(int code, long dColumns, long dRows) {
+        return code(clamp(columnOf(code) + dColumns, columns), clamp(rowOf(code) + dRows, rows));
+    }
+
+    // ------------------- GETTER -------------------
+
+    /** Il passo del reticolo, uguale sui due assi. */
+    public double getStep() { return step; }
+
+    public int getColumns() { return columns; }
+
+    public int getRows() { return rows; }
+
+    /** La disposizione dei gruppi a cui il reticolo assegna i raggi. */
+    public GenomeLayout getLayout() { return layout; }
+
+    // ------------------- METODI UTILITY -------------------
+
+    private static int clamp(long index, int size) {
+        return (int) Math.max(0, Math.min(size - 1, index));
+    }
+}
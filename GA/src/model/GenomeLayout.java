@@ -0,0 +1,124 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Disposizione del cromosoma per un problema multi-raggio.
+ * <p>
+ * I geni sono disposti in modo contiguo per gruppo: i primi {@code count(0)} punti appartengono al gruppo 0,
+ * i successivi al gruppo 1 e così via. La disposizione è identica per tutti gli individui di un'esecuzione,
+ * quindi l'indice di un gene ne determina il gruppo (e il raggio) senza consultare il {@code Point}.
+ * <p>
+ * Scelta Implementativa: tutte le grandezze derivate (gruppo di ogni indice, distanze minime per ogni coppia di
+ * gruppi e i loro quadrati) sono precalcolate una volta sola in array primitivi, così i kernel di overlap
+ * le leggono con un accesso diretto invece di ricalcolarle per ogni coppia di punti.
+ */
+public final class GenomeLayout {
+
+    private final List<PointGroup> groups;
+
+    // offsets[g] è l'indice del primo gene del gruppo g; offsets[groupCount] è la dimensione totale.
+    private final int[] offsets;
+
+    // groupOf[i] è il gruppo del gene i.
+    private final int[] groupOf;
+
+    // Raggio di ciascun gruppo.
+    private final double[] radii;
+
+    // Distanza minima tra i centri per ogni coppia di gruppi (r_a + r_b), in una matrice piatta [a * G + b].
+    private final double[] requiredDistance;
+    private final double[] requiredDistanceSq;
+
+    private final double maxRadius;
+    private final double minRadius;
+
+    /**
+     * @param groups I gruppi (#piante, raggio), nell'ordine in cui compaiono nel cromosoma.
+     * @throws IllegalArgumentException Se la lista è vuota.
+     */
+    public GenomeLayout(List<PointGroup> groups) {
+        if (groups.isEmpty()) {
+            throw new IllegalArgumentException("At least one point group is required.");
+        }
+        this.groups = List.copyOf(groups);
+        int g = groups.size();
+
+        this.offsets = new int[g + 1];
+        this.radii = new double[g];
+        double max = 0, min = Double.MAX_VALUE;
+        for (int k = 0; k < g; k++) {
+            offsets[k + 1] = offsets[k] + groups.get(k).count();
+            radii[k] = groups.get(k).radius();
+            max = Math.max(max, radii[k]);
+            min = Math.min(min, radii[k]);
+        }
+        this.maxRadius = max;
+        this.minRadius = min;
+
+        this.groupOf = new int[offsets[g]];
+        for (int k = 0; k < g; k++) {
+            for (int i = offsets[k]; i < offsets[k + 1]; i++) groupOf[i] = k;
+        }
+
+        this.requiredDistance = new double[g * g];
+        this.requiredDistanceSq = new double[g * g];
+        for (int a = 0; a < g; a++) {
+            for (int b = 0; b < g; b++) {
+                double d = radii[a] + radii[b];
+                requiredDistance[a * g + b] = d;
+                requiredDistanceSq[a * g + b] = d * d;
+            }
+        }
+    }
+
+    /** Disposizione con un solo gruppo di {@code size} punti di raggio {@code radius}. */
+    public static GenomeLayout single(int size, double radius) {
+        return new GenomeLayout(List.of(new PointGroup(size, radius)));
+    }
+
+    // ------------------- GETTER -------------------
+
+    public List<PointGroup> getGroups() { return groups; }
+
+    public int getGroupCount() { return radii.length; }
+
+    /** Lunghezza totale del cromosoma. */
+    public int getSize() { return groupOf.length; }
+
+    /** Indice del primo gene del gruppo {@code group}. */
+    public int getStart(int group) { return offsets[group]; }
+
+    /** Indice successivo all'ultimo gene del gruppo {@code group}. */
+    public int getEnd(int group) { return offsets[group + 1]; }
+
+    /** Gruppo del gene {@code index}. */
+    public int getGroupOf(int index) { return groupOf[index]; }
+
+    /** Raggio del gruppo {@code group}. */
+    public double getRadius(int group) { return radii[group]; }
+
+    /** Raggio del gene {@code index}. */
+    public double getRadiusAt(int index) { return radii[groupOf[index]]; }
+
+    /** Distanza minima senza overlap tra un punto del gruppo {@code a} e uno del gruppo {@code b}. */
+    public double getRequiredDistance(int a, int b) { return requiredDistance[a * radii.length + b]; }
+
+    /** Quadrato di {@link #getRequiredDistance(int, int)}. */
+    public double getRequiredDistanceSq(int a, int b) { return requiredDistanceSq[a * radii.length + b]; }
+
+    public double getMaxRadius() { return maxRadius; }
+
+    public double getMinRadius() { return minRadius; }
+
+    /**
+     * Raggio del gruppo più numeroso: la dimensione "tipica" dei punti, usata per dimensionare la griglia spaziale.
+     */
+    public double getDominantRadius() {
+        int best = 0;
+        for (int k = 1; k < groups.size(); k++) {
+            if (groups.get(k).count() > groups.get(best).count()) best = k;
+        }
+        return radii[best];
+    }
+}
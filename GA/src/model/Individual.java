@@ -1,55 +1,87 @@
 package model;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 public class Individual {
     // I cromosomi, ovvero la sequenza di geni (Punti).
-    // È una lista mutabile INTERNA, ma il suo riferimento (final List) non cambia.
-    private final List<Point> chromosomes;
+    // È una lista a segmenti condivisi con copia alla scrittura: le copie dell'individuo condividono i geni finché
+    // uno dei due non viene mutato, e anche allora copiano solo i segmenti toccati.
+    private final SegmentedChromosome chromosomes;
 
     // Il valore di fitness (qualità) calcolato da FitnessCalculator.
     // È mutabile, poiché viene aggiornato dopo ogni ciclo di valutazione.
     private double fitness;
 
+    // Lista dei vicini usata dalla valutazione dell'overlap, ereditata dal genitore (null = da costruire).
+    // È immutabile, quindi viene condivisa (non copiata) tra individui della stessa discendenza.
+    private NeighbourList neighbourList;
+
     // ------------------- COSTRUTTORI -------------------
 
     /**
      * Costruttore principale: crea un nuovo individuo partendo da una lista di cromosomi.
      * * @param chromosomes La lista di Point (geni) che definiscono la soluzione.
-     * * Scelta Implementativa: Uso di new ArrayList<>(chromosomes).
-     * Questa è una **copia superficiale** della lista. Poiché la classe Point è immutabile (i suoi campi sono final),
-     * questa copia garantisce l'**isolamento genetico**: due individui non condividono la stessa lista di cromosomi,
-     * prevenendo corruzioni se uno dei due viene modificato (ad esempio, durante la mutazione).
+     * * Scelta Implementativa: Copia superficiale o condivisione copy-on-write.
+     * Poiché la classe Point è immutabile (i suoi campi sono final), basta copiare i riferimenti per garantire
+     * l'**isolamento genetico**. Se la lista è il cromosoma di un altro individuo (es. quella di {@link #getChromosomes()})
+     * i segmenti vengono condivisi invece che copiati: il primo dei due che li modifica se ne fa una copia privata.
      */
     public Individual(List<Point> chromosomes) {
-        // Copia superficiale per isolamento genetico
-        this.chromosomes = new ArrayList<>(chromosomes);
-        this.fitness = Double.NEGATIVE_INFINITY; // Inizializza la fitness a un valore pessimo
+        this(chromosomes, Double.NEGATIVE_INFINITY); // Inizializza la fitness a un valore pessimo
     }
 
     /**
      * Costruttore completo, usato spesso per operazioni di copia o inizializzazione post-calcolo.
      */
     public Individual(List<Point> chromosomes, double fitness) {
-        // Uso diretto per semplicità, assumendo che i costruttori chiamanti passino già una copia sicura.
-        this.chromosomes = new ArrayList<>(chromosomes);
+        this.chromosomes = chromosomes instanceof SegmentedChromosome segmented
+                ? segmented.share()
+                : SegmentedChromosome.copyOf(chromosomes);
         this.fitness = fitness;
     }
 
+    /**
+     * Crea un nuovo individuo che adotta l'array dei geni, senza copiarlo (es. il figlio appena composto dal
+     * crossover): chi lo passa non deve più modificarlo.
+     */
+    public Individual(Point[] genes) {
+        this.chromosomes = SegmentedChromosome.wrap(genes);
+        this.fitness = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Crea un individuo quantizzato: ogni gene viene portato sulla posizione più vicina del reticolo e conservato
+     * come codice intero (vedi {@link GenomeLattice}).
+     * @param chromosomes I geni, nell'ordine del cromosoma.
+     * @param lattice Il reticolo dei geni.
+     */
+    public Individual(List<Point> chromosomes, GenomeLattice lattice) {
+        this.chromosomes = SegmentedChromosome.quantize(chromosomes, lattice);
+        this.fitness = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Crea un individuo quantizzato che adotta l'array dei codici dei geni, senza copiarlo (es. il figlio appena
+     * composto dal crossover): chi lo passa non deve più modificarlo.
+     */
+    public Individual(int[] codes, GenomeLattice lattice) {
+        this.chromosomes = SegmentedChromosome.wrap(codes, lattice);
+        this.fitness = Double.NEGATIVE_INFINITY;
+    }
+
     // ------------------- GETTER & SETTER -------------------
 
     /**
      * Ritorna una vista immutabile della lista dei cromosomi.
      * @return Una lista non modificabile.
-     * * Scelta Implementativa: Uso di Collections.unmodifiableList().
+     * * Scelta Implementativa: Il cromosoma a segmenti è già una lista immutabile verso l'esterno.
      * **Sicurezza:** Questo impedisce che codice esterno (come Crossover o EvolutionEngine)
      * possa accidentalmente o intenzionalmente modificare la lista interna (aggiungendo o rimuovendo elementi),
-     * preservando l'integrità della dimensione dell'individuo.
+     * preservando l'integrità della dimensione dell'individuo. Restituirlo senza involucro permette inoltre al
+     * costruttore di riconoscerlo e di condividerne i segmenti.
      */
     public List<Point> getChromosomes() {
-        return Collections.unmodifiableList(this.chromosomes);
+        return this.chromosomes;
     }
 
     /**
@@ -61,7 +93,29 @@ public class Individual {
      * Permette di bypassare la vista immutabile del getter (necessario per Mutation.set(i, newPoint)).
      */
     public void setChromosome(int index, Point point) {
-        this.chromosomes.set(index, point);
+        this.chromosomes.replace(index, point);
+    }
+
+    /**
+     * Ritorna il reticolo su cui sono quantizzati i geni, oppure null se l'individuo conserva i {@code Point}.
+     */
+    public GenomeLattice getLattice() {
+        return chromosomes.lattice();
+    }
+
+    /**
+     * Ritorna il codice di un gene sul reticolo (solo per gli individui quantizzati, vedi {@link #getLattice()}).
+     */
+    public int getCode(int index) {
+        return chromosomes.code(index);
+    }
+
+    /**
+     * Sostituisce il codice di un gene di un individuo quantizzato: è l'equivalente di
+     * {@link #setChromosome(int, Point)} sul reticolo, senza creare il {@code Point}.
+     */
+    public void setCode(int index, int code) {
+        this.chromosomes.replace(index, code);
     }
 
     /**
@@ -76,6 +130,28 @@ public class Individual {
         return this.fitness;
     }
 
+    /** Ritorna la lista dei vicini associata all'individuo, oppure null. */
+    public NeighbourList getNeighbourList() {
+        return neighbourList;
+    }
+
+    /**
+     * Associa una lista dei vicini all'individuo (es. quella ereditata dal genitore, o quella appena ricostruita).
+     * La validità rispetto ai cromosomi correnti viene verificata da chi la usa.
+     */
+    public void setNeighbourList(NeighbourList neighbourList) {
+        this.neighbourList = neighbourList;
+    }
+
+    /**
+     * Ritorna l'impronta (fingerprint) a 64 bit dei geni, aggiornata a ogni {@link #setChromosome(int, Point)}.
+     * Individui con gli stessi punti hanno la stessa impronta; impronte uguali indicano quasi certamente gli stessi
+     * punti, ma chi deve esserne sicuro confronta anche i cromosomi.
+     */
+    public long getFingerprint() {
+        return chromosomes.fingerprint();
+    }
+
     /** Ritorna il numero di geni (Punti) nell'individuo. */
     public int getDimension() {
         return chromosomes.size();
@@ -84,14 +160,15 @@ public class Individual {
     // ------------------- UTILITY -------------------
 
     /**
-     * Crea una copia profonda dell'individuo (necessario per restituire il risultato finale
+     * Crea una copia dell'individuo (necessario per restituire il risultato finale
      * o per clonazioni esplicite se richieste).
-     * @return Una nuova istanza di Individual con una nuova lista di cromosomi.
+     * @return Una nuova istanza di Individual, indipendente da questa: i geni sono condivisi finché uno dei due
+     * individui non viene mutato.
      */
     public Individual copy() {
-        // Usa il getter per ottenere la lista di Point (non la lista interna mutabile)
-        // e la copia nuovamente nel costruttore.
-        return new Individual(new ArrayList<>(this.getChromosomes()), this.fitness);
+        Individual copy = new Individual(this.chromosomes, this.fitness);
+        copy.neighbourList = this.neighbourList;
+        return copy;
     }
 
     /**
@@ -0,0 +1,124 @@
+package model;
+
+/**
+ * Lista dei vicini (lista di Verlet) di un individuo, riutilizzabile tra le generazioni.
+ * <p>
+ * Viene costruita sulle <b>posizioni di riferimento</b> dei punti e contiene, per ogni punto {@code i}, i punti
+ * {@code j} di cui è "responsabile" (ogni coppia compare una sola volta) che distavano meno della distanza minima
+ * della coppia più un margine {@code skin}. Se due punti si sono spostati entrambi al più di {@code skin / 2}
+ * dalla loro posizione di riferimento e oggi si sovrappongono, la loro coppia è sicuramente nella lista.
+ * <p>
+ * Per i pochi punti che si sono spostati di più (mutati, o ereditati dall'altro genitore) la lista conserva anche
+ * la griglia delle posizioni di riferimento: i loro vicini possono essere cercati lì, allargando la ricerca di
+ * {@code skin / 2}, senza ricostruire nulla.
+ * <p>
+ * Scelta Implementativa: la lista è immutabile (array in formato CSR: i vicini di {@code i} sono
+ * {@code neighbour(from(i)) .. neighbour(to(i) - 1)}), quindi può essere condivisa senza copie tra un individuo,
+ * le sue copie e i figli che la ereditano, anche da thread diversi.
+ */
+public final class NeighbourList {
+
+    // Posizioni dei punti al momento della costruzione.
+    private final double[] referenceX;
+    private final double[] referenceY;
+
+    // Formato CSR: start ha n + 1 elementi.
+    private final int[] start;
+    private final int[] neighbours;
+
+    // Griglia delle posizioni di riferimento: i punti della cella c sono cellPoints[cellStart[c] .. cellStart[c + 1] - 1].
+    private final double originX, originY, cellSize;
+    private final int cols, rows;
+    private final int[] cellStart;
+    private final int[] cellPoints;
+
+    // Margine della lista e quadrato dello spostamento massimo ammesso (skin / 2)².
+    private final double skin;
+    private final double maxDisplacementSq;
+
+    /**
+     * Tutti gli array vengono adottati, non copiati: il chiamante non deve più modificarli.
+     * @param referenceX Le coordinate x di riferimento.
+     * @param referenceY Le coordinate y di riferimento.
+     * @param start Gli indici di inizio dei vicini di ciascun punto, più la fine (n + 1 elementi).
+     * @param neighbours I vicini, concatenati punto per punto.
+     * @param originX L'ascissa del bordo sinistro della griglia di riferimento.
+     * @param originY L'ordinata del bordo inferiore della griglia di riferimento.
+     * @param cellSize Il lato delle celle.
+     * @param cols Il numero di colonne.
+     * @param rows Il numero di righe.
+     * @param cellStart Gli indici di inizio dei punti di ciascuna cella, più la fine (cols * rows + 1 elementi).
+     * @param cellPoints I punti ordinati per cella.
+     * @param skin Il margine usato nella costruzione.
+     */
+    public NeighbourList(double[] referenceX, double[] referenceY, int[] start, int[] neighbours,
+                         double originX, double originY, double cellSize, int cols, int rows,
+                         int[] cellStart, int[] cellPoints, double skin) {
+        this.referenceX = referenceX;
+        this.referenceY = referenceY;
+        this.start = start;
+        this.neighbours = neighbours;
+        this.originX = originX;
+        this.originY = originY;
+        this.cellSize = cellSize;
+        this.cols = cols;
+        this.rows = rows;
+        this.cellStart = cellStart;
+        this.cellPoints = cellPoints;
+        this.skin = skin;
+        this.maxDisplacementSq = 0.25 * skin * skin;
+    }
+
+    /**
+     * Indica se il punto {@code i}, ora in (x, y), si è spostato più di {@code skin / 2} dalla posizione di
+     * riferimento: le coppie della lista che lo coinvolgono non sono più affidabili.
+     */
+    public boolean isDisplaced(int i, double x, double y) {
+        double dx = x - referenceX[i];
+        double dy = y - referenceY[i];
+        return dx * dx + dy * dy > maxDisplacementSq;
+    }
+
+    // ------------------- LISTA (CSR) -------------------
+
+    /** Primo indice dei vicini del punto {@code i}. */
+    public int from(int i) { return start[i]; }
+
+    /** Indice successivo all'ultimo vicino del punto {@code i}. */
+    public int to(int i) { return start[i + 1]; }
+
+    /** Il vicino in posizione {@code k} (con {@code from(i) <= k < to(i)}). */
+    public int neighbour(int k) { return neighbours[k]; }
+
+    /** Numero di punti coperti dalla lista. */
+    public int size() { return referenceX.length; }
+
+    /** Numero totale di coppie nella lista. */
+    public int pairCount() { return neighbours.length; }
+
+    public double getSkin() { return skin; }
+
+    // ------------------- GRIGLIA DI RIFERIMENTO -------------------
+
+    /** Colonna della griglia che contiene l'ascissa {@code x} (può cadere fuori da [0, cols)). */
+    public int columnOf(double x) { return (int) Math.floor((x - originX) / cellSize); }
+
+    /** Riga della griglia che contiene l'ordinata {@code y} (può cadere fuori da [0, rows)). */
+    public int rowOf(double y) { return (int) Math.floor((y - originY) / cellSize); }
+
+    /** Numero di celle da esplorare in ogni direzione per coprire una distanza {@code distance}. */
+    public int reach(double distance) { return (int) Math.ceil(distance / cellSize); }
+
+    public int getColumns() { return cols; }
+
+    public int getRows() { return rows; }
+
+    /** Primo indice (in {@link #cellPoint}) dei punti della cella {@code c = row * cols + col}. */
+    public int cellFrom(int c) { return cellStart[c]; }
+
+    /** Indice successivo all'ultimo punto della cella {@code c}. */
+    public int cellTo(int c) { return cellStart[c + 1]; }
+
+    /** Il punto in posizione {@code k} dell'ordinamento per cella. */
+    public int cellPoint(int k) { return cellPoints[k]; }
+}
@@ -0,0 +1,19 @@
+package model;
+
+/**
+ * Una soluzione del fronte di Pareto di un'ottimizzazione multi-obiettivo, con i suoi obiettivi.
+ *
+ * @param solution La soluzione (completa, anche se il genoma evoluto era ridotto per simmetria).
+ * @param penalty La penalità totale (dominio più overlap): da minimizzare, 0 se la soluzione è valida.
+ * @param spread La dispersione (distanza media tra due centri / diagonale del dominio): da massimizzare.
+ */
+public record ParetoPoint(
+        Individual solution,
+        double penalty,
+        double spread
+) {
+    /** Indica se la soluzione è valida (nessuna penalità). */
+    public boolean isFeasible() {
+        return penalty == 0;
+    }
+}
@@ -0,0 +1,37 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Gruppo di punti con lo stesso raggio: la coppia (#piante, raggio) descritta nel README.
+ * <p>
+ * Un problema è definito da una lista di gruppi; la dimensione dell'individuo è la somma dei {@code count}.
+ *
+ * @param count Il numero di punti del gruppo (deve essere > 0).
+ * @param radius Il raggio comune dei punti del gruppo (deve essere > 0).
+ */
+public record PointGroup(int count, double radius) {
+
+    public PointGroup {
+        if (count <= 0) {
+            throw new IllegalArgumentException("The number of points in a group must be positive. Found: " + count);
+        }
+        if (radius <= 0) {
+            throw new IllegalArgumentException("The radius of a group must be strictly positive. Found: " + radius);
+        }
+    }
+
+    /** Ritorna il numero totale di punti (la lunghezza del cromosoma). */
+    public static int totalCount(List<PointGroup> groups) {
+        int total = 0;
+        for (PointGroup group : groups) total += group.count();
+        return total;
+    }
+
+    /** Ritorna il raggio massimo tra tutti i gruppi (usato per dimensionare la griglia spaziale). */
+    public static double maxRadius(List<PointGroup> groups) {
+        double max = 0;
+        for (PointGroup group : groups) max = Math.max(max, group.radius());
+        return max;
+    }
+}
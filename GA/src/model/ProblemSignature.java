@@ -0,0 +1,131 @@
+package model;
+
+import model.domains.DomainType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Firma canonica di un problema di packing, usata come chiave della cache delle soluzioni.
+ * <p>
+ * Tutti i domini sono descritti da lunghezze e sono posizionati rispetto all'origine, quindi un problema scalato
+ * di un fattore s ha come soluzione la stessa disposizione moltiplicata per s. La firma divide perciò ogni lunghezza
+ * (parametri del dominio e raggi) per la <b>scala</b>, il primo parametro richiesto dal {@link DomainType}:
+ * due problemi uguali a meno della scala hanno la stessa {@link #key()}.
+ * <ul>
+ *   <li>{@link #shapeKey()}: tipo e proporzioni del dominio, numero di punti per gruppo (i problemi "vicini");</li>
+ *   <li>{@link #key()}: la forma più i raggi normalizzati (il problema esatto).</li>
+ * </ul>
+ * I valori normalizzati sono arrotondati a 9 cifre significative, così le chiavi non dipendono dagli errori di
+ * arrotondamento della divisione.
+ *
+ * @param shapeKey La chiave della forma del problema.
+ * @param key La chiave del problema esatto.
+ * @param scale La lunghezza di riferimento del problema.
+ * @param counts Il numero di punti di ciascun gruppo.
+ * @param radii I raggi normalizzati (divisi per la scala) di ciascun gruppo.
+ */
+public record ProblemSignature(String shapeKey, String key, double scale, int[] counts, double[] radii) {
+
+    /**
+     * Calcola la firma di un problema.
+     * @param domainType Il tipo di dominio.
+     * @param domainParameters I parametri del dominio, con le chiavi di {@code DomainType.getRequiredParameters()}.
+     * @param groups I gruppi (#piante, raggio) del problema.
+     * @return La firma canonica.
+     * @throws IllegalArgumentException Se manca un parametro del dominio o la scala non è positiva.
+     */
+    public static ProblemSignature of(DomainType domainType, Map<String, Double> domainParameters, List<PointGroup> groups) {
+        return of(domainType, domainParameters, null, groups);
+    }
+
+    /**
+     * Calcola la firma di un problema il cui dominio è descritto anche da un file (es. un poligono).
+     * @param domainType Il tipo di dominio.
+     * @param domainParameters I parametri del dominio, con le chiavi di {@code DomainType.getRequiredParameters()}.
+     * @param shapeId L'impronta della forma letta dal file (indipendente dalla scala), oppure null.
+     * @param groups I gruppi (#piante, raggio) del problema.
+     * @return La firma canonica.
+     * @throws IllegalArgumentException Se manca un parametro del dominio o la scala non è positiva.
+     */
+    public static ProblemSignature of(DomainType domainType, Map<String, Double> domainParameters, String shapeId,
+                                      List<PointGroup> groups) {
+        List<Double> values = new ArrayList<>();
+        for (String name : domainType.getRequiredParameters()) {
+            Double value = domainParameters.get(name);
+            if (value == null) {
+                throw new IllegalArgumentException("Missing domain parameter: " + name);
+            }
+            values.add(value);
+        }
+        double scale = values.getFirst();
+        if (!(scale > 0)) {
+            throw new IllegalArgumentException("The first domain parameter must be positive. Found: " + scale);
+        }
+
+        StringBuilder shape = new StringBuilder(domainType.name());
+        if (shapeId != null) {
+            shape.append(':').append(shapeId);
+        }
+        for (double value : values) {
+            shape.append('|').append(canonical(value / scale));
+        }
+        int[] counts = new int[groups.size()];
+        double[] radii = new double[groups.size()];
+        for (int g = 0; g < groups.size(); g++) {
+            counts[g] = groups.get(g).count();
+            radii[g] = Double.parseDouble(canonical(groups.get(g).radius() / scale));
+            shape.append(g == 0 ? "#" : ",").append(counts[g]);
+        }
+
+        StringBuilder key = new StringBuilder(shape);
+        for (int g = 0; g < radii.length; g++) {
+            key.append(g == 0 ? "@" : ",").append(canonical(radii[g]));
+        }
+        return new ProblemSignature(shape.toString(), key.toString(), scale, counts, radii);
+    }
+
+    /** Rappresentazione testuale stabile di un valore normalizzato. */
+    private static String canonical(double value) {
+        return String.format(Locale.ROOT, "%.9g", value);
+    }
+
+    /** Numero totale di punti del problema. */
+    public int totalCount() {
+        int total = 0;
+        for (int count : counts) total += count;
+        return total;
+    }
+
+    /**
+     * Distanza tra i raggi di due problemi con la stessa forma: somma, pesata per numero di punti, del valore
+     * assoluto del logaritmo del rapporto tra i raggi. Vale 0 per lo stesso problema.
+     * @param radii I raggi normalizzati dell'altro problema (stesso numero di gruppi).
+     */
+    public double radiusDistance(double[] radii) {
+        double distance = 0;
+        for (int g = 0; g < counts.length; g++) {
+            distance += counts[g] * Math.abs(Math.log(this.radii[g] / radii[g]));
+        }
+        return distance;
+    }
+
+    // Il record contiene array: uguaglianza e hash sono definiti dalla chiave canonica.
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof ProblemSignature signature && key.equals(signature.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return key.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+}
@@ -0,0 +1,271 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Cromosoma a segmenti con copia alla scrittura (copy-on-write), usato internamente da {@link Individual}.
+ * <p>
+ * I geni sono divisi in segmenti di {@link #SEGMENT_SIZE} punti. Una copia del cromosoma (un clone, un elite, un
+ * figlio senza crossover) non copia i punti: riusa gli stessi segmenti e li marca come condivisi. Un segmento
+ * condiviso non viene mai più modificato: alla prima scrittura chi scrive se ne fa una copia privata. La mutazione
+ * tocca pochi geni, quindi un figlio copia solo i segmenti che contengono un gene mutato e condivide gli altri con
+ * il genitore.
+ * <p>
+ * Verso l'esterno è una lista immutabile (come la vista restituita da {@link Individual#getChromosomes()}); solo
+ * {@link Individual} può sostituire un gene, con {@link #replace(int, Point)}.
+ * <p>
+ * Scelta Implementativa: un flag "condiviso" per segmento invece di un contatore di riferimenti. Il contatore
+ * andrebbe decrementato quando un individuo viene scartato, cosa che in Java non si osserva; il flag è impostato una
+ * volta e non torna mai indietro, quindi al più un genitore già condiviso copia un segmento in più se viene mutato.
+ * Un segmento può anche essere una porzione di un array più grande ({@code offset}): un cromosoma appena costruito
+ * adotta l'array dei suoi geni senza copiarlo.
+ * <p>
+ * Il cromosoma mantiene anche un'impronta (fingerprint) a 64 bit dei suoi geni: la somma degli hash delle coordinate
+ * dei punti, aggiornata in O(1) a ogni sostituzione e copiata con i segmenti condivisi.
+ * <p>
+ * Un cromosoma quantizzato ({@link #quantize(List, GenomeLattice)}) conserva nei segmenti i codici dei geni su un
+ * {@link GenomeLattice} (un {@code int} per gene) invece dei riferimenti ai {@code Point}: {@link #get(int)}
+ * ricostruisce il punto dal codice, e due cromosomi quantizzati sullo stesso reticolo sono uguali se hanno gli
+ * stessi codici.
+ */
+final class SegmentedChromosome extends AbstractList<Point> implements RandomAccess {
+
+    // Punti per segmento (potenza di 2). Con la probabilità di mutazione di default (0.02) un segmento di 16 geni
+    // viene toccato circa una volta su quattro: i tre quarti dei punti di un clone restano condivisi.
+    static final int SEGMENT_SHIFT = 4;
+    static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    // ------------------- ATTRIBUTI -------------------
+
+    private final Segment[] segments;
+    private final int size;
+
+    // Reticolo dei codici (null = i segmenti contengono Point).
+    private final GenomeLattice lattice;
+
+    // Somma (modulo 2^64) degli hash dei geni: non dipende dal loro ordine.
+    private long fingerprint;
+
+    // ------------------- COSTRUTTORI -------------------
+
+    private SegmentedChromosome(Segment[] segments, int size, GenomeLattice lattice, long fingerprint) {
+        this.segments = segments;
+        this.size = size;
+        this.lattice = lattice;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Crea un cromosoma che adotta l'array dei geni, senza copiarlo: chi lo passa non deve più modificarlo.
+     */
+    static SegmentedChromosome wrap(Point[] genes) {
+        Segment[] segments = new Segment[(genes.length + SEGMENT_MASK) >>> SEGMENT_SHIFT];
+        for (int s = 0; s < segments.length; s++) {
+            segments[s] = new Segment(genes, null, s << SEGMENT_SHIFT);
+        }
+        long fingerprint = 0;
+        for (Point gene : genes) {
+            fingerprint += hash(gene);
+        }
+        return new SegmentedChromosome(segments, genes.length, null, fingerprint);
+    }
+
+    /**
+     * Crea un cromosoma quantizzato che adotta l'array dei codici, senza copiarlo: chi lo passa non deve più
+     * modificarlo.
+     */
+    static SegmentedChromosome wrap(int[] codes, GenomeLattice lattice) {
+        Segment[] segments = new Segment[(codes.length + SEGMENT_MASK) >>> SEGMENT_SHIFT];
+        for (int s = 0; s < segments.length; s++) {
+            segments[s] = new Segment(null, codes, s << SEGMENT_SHIFT);
+        }
+        long fingerprint = 0;
+        for (int code : codes) {
+            fingerprint += hash(lattice, code);
+        }
+        return new SegmentedChromosome(segments, codes.length, lattice, fingerprint);
+    }
+
+    /** Crea un cromosoma con una copia dei geni della lista. */
+    static SegmentedChromosome copyOf(List<Point> genes) {
+        return wrap(genes.toArray(new Point[0]));
+    }
+
+    /** Crea un cromosoma quantizzato con i geni della lista portati sul reticolo (al punto più vicino). */
+    static SegmentedChromosome quantize(List<Point> genes, GenomeLattice lattice) {
+        int[] codes = new int[genes.size()];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = lattice.encode(genes.get(i));
+        }
+        return wrap(codes, lattice);
+    }
+
+    /**
+     * Crea una copia che condivide tutti i segmenti con questo cromosoma. Da qui in poi entrambi copiano un
+     * segmento prima di modificarlo. Solo l'array dei riferimenti ai segmenti viene copiato.
+     */
+    SegmentedChromosome share() {
+        for (Segment segment : segments) {
+            segment.shared = true;
+        }
+        return new SegmentedChromosome(segments.clone(), size, lattice, fingerprint);
+    }
+
+    // ------------------- ACCESSO -------------------
+
+    @Override
+    public Point get(int index) {
+        Objects.checkIndex(index, size);
+        Segment segment = segments[index >>> SEGMENT_SHIFT];
+        int slot = segment.offset + (index & SEGMENT_MASK);
+        return lattice == null ? segment.genes[slot] : lattice.toPoint(index, segment.codes[slot]);
+    }
+
+    /** Il codice del gene sul reticolo (solo per i cromosomi quantizzati). */
+    int code(int index) {
+        Objects.checkIndex(index, size);
+        Segment segment = segments[index >>> SEGMENT_SHIFT];
+        return segment.codes[segment.offset + (index & SEGMENT_MASK)];
+    }
+
+    /** Il reticolo dei geni, oppure null se il cromosoma non è quantizzato. */
+    GenomeLattice lattice() {
+        return lattice;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /** L'impronta dei geni: due cromosomi con gli stessi punti (in qualunque ordine) hanno la stessa impronta. */
+    long fingerprint() {
+        return fingerprint;
+    }
+
+    @Override
+    public Object[] toArray() {
+        if (lattice != null) return super.toArray();
+        Point[] out = new Point[size];
+        for (int s = 0; s < segments.length; s++) {
+            int from = s << SEGMENT_SHIFT;
+            System.arraycopy(segments[s].genes, segments[s].offset, out, from, Math.min(SEGMENT_SIZE, size - from));
+        }
+        return out;
+    }
+
+    /**
+     * Sostituisce un gene, copiando prima il suo segmento se è condiviso con un altro cromosoma.
+     * Non è thread-safe rispetto ad altre scritture sullo stesso cromosoma (come {@code ArrayList.set}).
+     */
+    void replace(int index, Point point) {
+        if (lattice != null) {
+            replace(index, lattice.encode(point));
+            return;
+        }
+        Segment segment = writable(index);
+        int slot = segment.offset + (index & SEGMENT_MASK);
+        fingerprint += hash(point) - hash(segment.genes[slot]);
+        segment.genes[slot] = point;
+    }
+
+    /** Sostituisce il codice di un gene di un cromosoma quantizzato, come {@link #replace(int, Point)}. */
+    void replace(int index, int code) {
+        Segment segment = writable(index);
+        int slot = segment.offset + (index & SEGMENT_MASK);
+        fingerprint += hash(lattice, code) - hash(lattice, segment.codes[slot]);
+        segment.codes[slot] = code;
+    }
+
+    /** Il segmento del gene, copiato prima se è condiviso con un altro cromosoma. */
+    private Segment writable(int index) {
+        Objects.checkIndex(index, size);
+        int s = index >>> SEGMENT_SHIFT;
+        Segment segment = segments[s];
+        if (segment.shared) {
+            int from = s << SEGMENT_SHIFT;
+            int length = Math.min(SEGMENT_SIZE, size - from);
+            segment = lattice == null
+                    ? new Segment(Arrays.copyOfRange(segment.genes, segment.offset, segment.offset + length), null, 0)
+                    : new Segment(null, Arrays.copyOfRange(segment.codes, segment.offset, segment.offset + length), 0);
+            segments[s] = segment;
+        }
+        return segment;
+    }
+
+    // ------------------- UGUAGLIANZA -------------------
+
+    /**
+     * Due cromosomi quantizzati sullo stesso reticolo sono uguali se hanno gli stessi codici (gli stessi punti);
+     * negli altri casi vale l'uguaglianza delle liste, che confronta i {@code Point} per identità.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) return true;
+        if (lattice == null || !(o instanceof SegmentedChromosome other) || other.lattice != lattice) {
+            return super.equals(o);
+        }
+        if (other.size != size || other.fingerprint != fingerprint) return false;
+        for (int s = 0; s < segments.length; s++) {
+            Segment a = segments[s], b = other.segments[s];
+            if (a == b) continue;
+            int length = Math.min(SEGMENT_SIZE, size - (s << SEGMENT_SHIFT));
+            if (!Arrays.equals(a.codes, a.offset, a.offset + length, b.codes, b.offset, b.offset + length)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return lattice == null ? super.hashCode() : Long.hashCode(fingerprint);
+    }
+
+    /**
+     * Hash di un punto: i bit delle coordinate mescolati con una sola moltiplicazione. Viene calcolato per ogni gene
+     * di ogni figlio, quindi deve costare poco più di una lettura; le rare collisioni non sono un problema, perché
+     * chi usa l'impronta per riusare una fitness confronta comunque i cromosomi.
+     */
+    static long hash(Point p) {
+        return hash(p.getX(), p.getY());
+    }
+
+    /** Hash di un gene quantizzato: quello del punto che rappresenta, quindi non dipende dalla rappresentazione. */
+    static long hash(GenomeLattice lattice, int code) {
+        return hash(lattice.x(code), lattice.y(code));
+    }
+
+    private static long hash(double x, double y) {
+        long h = Double.doubleToRawLongBits(x) ^ Long.rotateLeft(Double.doubleToRawLongBits(y), 32);
+        return (h ^ (h >>> 29)) * 0x9E3779B97F4A7C15L;
+    }
+
+    // ------------------- SEGMENTO -------------------
+
+    /**
+     * Un segmento: {@code SEGMENT_SIZE} geni (meno per l'ultimo) a partire da {@code genes[offset]}, oppure i loro
+     * codici a partire da {@code codes[offset]} in un cromosoma quantizzato.
+     */
+    private static final class Segment {
+
+        final Point[] genes;
+        final int[] codes;
+        final int offset;
+
+        // Impostato quando il segmento entra in un secondo cromosoma; da allora è di sola lettura. I figli vengono
+        // generati in parallelo dagli stessi genitori, quindi più thread possono impostarlo insieme.
+        volatile boolean shared;
+
+        Segment(Point[] genes, int[] codes, int offset) {
+            this.genes = genes;
+            this.codes = codes;
+            this.offset = offset;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package model;
+
+/**
+ * Risultato di una singola esecuzione dello sweep dei parametri.
+ *
+ * @param config La configurazione usata.
+ * @param seed L'indice della replica (esecuzione indipendente) per questa configurazione.
+ * @param finalFitness La fitness del miglior individuo a fine esecuzione.
+ * @param generationToFeasible La prima generazione in cui il record era ammissibile (penalità nulla), -1 se mai.
+ * @param timeToFeasibleMs Millisecondi dall'avvio alla prima soluzione ammissibile, -1 se mai.
+ * @param totalTimeMs Durata totale dell'esecuzione in millisecondi.
+ */
+public record SweepResult(
+        EvolutionConfig config,
+        int seed,
+        double finalFitness,
+        int generationToFeasible,
+        double timeToFeasibleMs,
+        double totalTimeMs
+) {
+    /** Indica se l'esecuzione ha raggiunto una soluzione ammissibile. */
+    public boolean isFeasible() {
+        return generationToFeasible >= 0;
+    }
+}
@@ -0,0 +1,23 @@
+package model;
+
+/**
+ * Aggregato delle repliche di una stessa configurazione nello sweep dei parametri.
+ *
+ * @param config La configurazione aggregata.
+ * @param runs Il numero di repliche eseguite.
+ * @param feasibleRuns Il numero di repliche che hanno raggiunto una soluzione ammissibile.
+ * @param meanFinalFitness La fitness finale media.
+ * @param bestFinalFitness La fitness finale migliore.
+ * @param meanTimeToFeasibleMs Il tempo medio alla prima soluzione ammissibile, calcolato sulle sole repliche ammissibili
+ *                             ({@code Double.NaN} se nessuna lo è).
+ * @param meanTotalTimeMs La durata media di un'esecuzione.
+ */
+public record SweepSummary(
+        EvolutionConfig config,
+        int runs,
+        int feasibleRuns,
+        double meanFinalFitness,
+        double bestFinalFitness,
+        double meanTimeToFeasibleMs,
+        double meanTotalTimeMs
+) {}
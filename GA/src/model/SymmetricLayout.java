@@ -0,0 +1,217 @@
+package model;
+
+import model.domains.Symmetry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Codifica a simmetria ridotta di un problema su un dominio simmetrico.
+ * <p>
+ * Il genoma contiene solo i rappresentanti delle orbite: ogni gene viene espanso applicando gli elementi del
+ * {@link Symmetry} del dominio. Un problema di N punti per gruppo viene scomposto in:
+ * <ul>
+ *   <li>orbite <b>libere</b> (N / k geni, ognuno espanso in k punti);</li>
+ *   <li>orbite <b>sull'asse</b> di una riflessione (il gene è proiettato sull'asse ed espanso in k / 2 punti),
+ *       usate per il resto della divisione quando il gruppo ha assi di riflessione;</li>
+ *   <li>al più un punto al <b>centro</b> (orbita di un solo punto), se l'origine appartiene al dominio.</li>
+ * </ul>
+ * I vincoli delle orbite speciali sono applicati come mappa genotipo → fenotipo ({@link #projectX}, {@link #projectY}):
+ * gli operatori genetici restano invariati e il gene di un punto sull'asse può muoversi liberamente, ma viene
+ * sempre valutato sulla sua proiezione. Un punto libero troppo vicino a un asse si sovrappone alla propria immagine
+ * riflessa e viene quindi penalizzato come qualunque altra sovrapposizione.
+ * <p>
+ * I geni sono disposti per gruppo ridotto nella {@link #getGenomeLayout() layout del genoma}; la forma espansa elenca,
+ * gruppo ridotto per gruppo ridotto, prima i rappresentanti e poi le loro immagini non banali, così da restare
+ * raggruppata per raggio come il problema completo.
+ */
+public final class SymmetricLayout {
+
+    /** Tipo di orbita di un gruppo ridotto. */
+    public enum OrbitKind { FREE, AXIS, CENTER }
+
+    // Tolleranza per riconoscere immagini coincidenti di un punto sull'asse.
+    private static final double EPSILON = 1e-9;
+
+    private final Symmetry symmetry;
+    private final GenomeLayout genomeLayout;
+
+    // Per ciascun gruppo ridotto: tipo di orbita, asse (o -1) e indici degli elementi del gruppo che producono
+    // immagini distinte (il primo è sempre l'identità).
+    private final OrbitKind[] kinds;
+    private final int[] axisOf;
+    private final int[][] images;
+
+    // Numero di punti del problema completo.
+    private final int expandedSize;
+
+    /**
+     * @param symmetry Il gruppo di simmetria del dominio.
+     * @param groups I gruppi (#piante, raggio) del problema completo.
+     * @param centerAllowed Se l'origine appartiene al dominio (e può quindi ospitare un punto).
+     * @throws IllegalArgumentException Se il numero di punti di un gruppo non è scomponibile in orbite.
+     */
+    public SymmetricLayout(Symmetry symmetry, List<PointGroup> groups, boolean centerAllowed) {
+        this.symmetry = symmetry;
+        int order = symmetry.getOrder();
+        int axisOrbit = order / 2;
+
+        List<PointGroup> reducedGroups = new ArrayList<>();
+        List<OrbitKind> kindList = new ArrayList<>();
+        List<Integer> axisList = new ArrayList<>();
+        boolean centerUsed = false;
+        int total = 0;
+
+        for (PointGroup group : groups) {
+            total += group.count();
+            int free = group.count() / order;
+            int rest = group.count() % order;
+
+            if (free > 0) {
+                reducedGroups.add(new PointGroup(free, group.radius()));
+                kindList.add(OrbitKind.FREE);
+                axisList.add(-1);
+            }
+
+            // Il resto va prima sugli assi (alternandoli), poi al centro.
+            if (symmetry.getAxisCount() > 0 && rest >= axisOrbit) {
+                int onAxes = rest / axisOrbit;
+                rest -= onAxes * axisOrbit;
+                for (int axis = 0; axis < symmetry.getAxisCount(); axis++) {
+                    int count = onAxes / symmetry.getAxisCount() + (axis < onAxes % symmetry.getAxisCount() ? 1 : 0);
+                    if (count == 0) continue;
+                    reducedGroups.add(new PointGroup(count, group.radius()));
+                    kindList.add(OrbitKind.AXIS);
+                    axisList.add(axis);
+                }
+            }
+            if (rest == 1 && centerAllowed && !centerUsed) {
+                reducedGroups.add(new PointGroup(1, group.radius()));
+                kindList.add(OrbitKind.CENTER);
+                axisList.add(-1);
+                centerUsed = true;
+                rest = 0;
+            }
+            if (rest != 0) {
+                throw new IllegalArgumentException(String.format(
+                        "%d points of radius %.2f cannot be arranged with %s symmetry.",
+                        group.count(), group.radius(), symmetry));
+            }
+        }
+
+        this.expandedSize = total;
+        this.genomeLayout = new GenomeLayout(reducedGroups);
+        this.kinds = kindList.toArray(new OrbitKind[0]);
+        this.axisOf = axisList.stream().mapToInt(Integer::intValue).toArray();
+        this.images = new int[kinds.length][];
+        for (int g = 0; g < kinds.length; g++) {
+            images[g] = distinctImages(g);
+        }
+    }
+
+    /**
+     * Calcola gli elementi del gruppo che producono immagini distinte per un gene del gruppo ridotto {@code g}.
+     */
+    private int[] distinctImages(int g) {
+        int order = symmetry.getOrder();
+        if (kinds[g] == OrbitKind.CENTER) return new int[] { 0 };
+        if (kinds[g] == OrbitKind.FREE) {
+            int[] all = new int[order];
+            for (int t = 0; t < order; t++) all[t] = t;
+            return all;
+        }
+        // Punto sull'asse: si applicano tutti gli elementi a un punto campione dell'asse e si scartano i duplicati.
+        double sx = symmetry.getAxisX(axisOf[g]), sy = symmetry.getAxisY(axisOf[g]);
+        List<Integer> distinct = new ArrayList<>();
+        for (int t = 0; t < order; t++) {
+            double ix = symmetry.imageX(t, sx, sy), iy = symmetry.imageY(t, sx, sy);
+            boolean seen = false;
+            for (int u : distinct) {
+                if (Math.abs(symmetry.imageX(u, sx, sy) - ix) < EPSILON && Math.abs(symmetry.imageY(u, sx, sy) - iy) < EPSILON) {
+                    seen = true;
+                    break;
+                }
+            }
+            if (!seen) distinct.add(t);
+        }
+        return distinct.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    // ==================================================================================
+    // 🔁 GENOTIPO → FENOTIPO
+    // ==================================================================================
+
+    /** Coordinata x del rappresentante del gene {@code index}, dopo l'applicazione del vincolo della sua orbita. */
+    public double projectX(int index, double x, double y) {
+        int g = genomeLayout.getGroupOf(index);
+        return switch (kinds[g]) {
+            case FREE -> x;
+            case AXIS -> (x * symmetry.getAxisX(axisOf[g]) + y * symmetry.getAxisY(axisOf[g])) * symmetry.getAxisX(axisOf[g]);
+            case CENTER -> 0;
+        };
+    }
+
+    /** Coordinata y del rappresentante del gene {@code index}, dopo l'applicazione del vincolo della sua orbita. */
+    public double projectY(int index, double x, double y) {
+        int g = genomeLayout.getGroupOf(index);
+        return switch (kinds[g]) {
+            case FREE -> y;
+            case AXIS -> (x * symmetry.getAxisX(axisOf[g]) + y * symmetry.getAxisY(axisOf[g])) * symmetry.getAxisY(axisOf[g]);
+            case CENTER -> 0;
+        };
+    }
+
+    /**
+     * Espande un genoma ridotto nella lista completa dei punti. Per ciascun gruppo ridotto, nell'ordine del genoma,
+     * si elencano prima i suoi rappresentanti e poi le loro immagini: i punti di uno stesso raggio restano così
+     * contigui e nello stesso ordine dei gruppi del problema completo.
+     * @param genome I geni, disposti secondo {@link #getGenomeLayout()}.
+     * @return I {@link #getExpandedSize()} punti del problema completo.
+     */
+    public List<Point> expand(List<Point> genome) {
+        List<Point> expanded = new ArrayList<>(expandedSize);
+        double[] xs = new double[genome.size()];
+        double[] ys = new double[genome.size()];
+        for (int g = 0; g < kinds.length; g++) {
+            int start = genomeLayout.getStart(g), end = genomeLayout.getEnd(g);
+            double radius = genomeLayout.getRadius(g);
+            for (int i = start; i < end; i++) {
+                Point p = genome.get(i);
+                xs[i] = projectX(i, p.getX(), p.getY());
+                ys[i] = projectY(i, p.getX(), p.getY());
+                expanded.add(new Point(xs[i], ys[i], radius));
+            }
+            int[] imgs = images[g];
+            for (int i = start; i < end; i++) {
+                for (int k = 1; k < imgs.length; k++) {
+                    expanded.add(new Point(symmetry.imageX(imgs[k], xs[i], ys[i]), symmetry.imageY(imgs[k], xs[i], ys[i]), radius));
+                }
+            }
+        }
+        return expanded;
+    }
+
+    /** Espande un individuo ridotto, conservandone la fitness. */
+    public Individual expand(Individual genome) {
+        return new Individual(expand(genome.getChromosomes()), genome.getFitness());
+    }
+
+    // ------------------- GETTER -------------------
+
+    public Symmetry getSymmetry() { return symmetry; }
+
+    /** La layout del genoma ridotto (i gruppi ridotti, contigui). */
+    public GenomeLayout getGenomeLayout() { return genomeLayout; }
+
+    /** Numero di punti del problema completo. */
+    public int getExpandedSize() { return expandedSize; }
+
+    /** Tipo di orbita del gruppo ridotto {@code group}. */
+    public OrbitKind getKind(int group) { return kinds[group]; }
+
+    /** Dimensione dell'orbita (numero di punti nel problema completo) di un gene del gruppo ridotto {@code group}. */
+    public int getOrbitSize(int group) { return images[group].length; }
+
+    /** Elemento del gruppo di simmetria che produce la {@code k}-esima immagine di un gene del gruppo {@code group}. */
+    public int getImage(int group, int k) { return images[group][k]; }
+}
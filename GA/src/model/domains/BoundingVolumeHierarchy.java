@@ -0,0 +1,157 @@
+package model.domains;
+
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Gerarchia di bounding box (BVH) su un insieme di domini, usata da {@link CompositeDomain}.
+ * <p>
+ * È un albero binario: ogni nodo ha la bounding box dei domini che contiene, le foglie hanno al più
+ * {@link #LEAF_SIZE} domini. Le interrogazioni scendono solo nei nodi la cui box contiene il punto (o è abbastanza
+ * vicina), quindi con decine di domini se ne interrogano solo pochi.
+ * <p>
+ * Scelta Implementativa: i nodi sono memorizzati in array paralleli in ordine anticipato (il figlio sinistro di un
+ * nodo interno è il nodo successivo), come le altre strutture spaziali del progetto: nessun oggetto per nodo e
+ * interrogazioni senza allocazioni, condivisibili tra i thread.
+ */
+final class BoundingVolumeHierarchy {
+
+    // Domini per foglia: pochi, il test di una box costa quanto quello di un dominio semplice.
+    private static final int LEAF_SIZE = 2;
+
+    // ------------------- ATTRIBUTI -------------------
+
+    // I domini, riordinati in modo che ogni foglia ne copra un intervallo contiguo.
+    private final Domain[] items;
+
+    // Box dei nodi.
+    private final double[] minX, minY, maxX, maxY;
+
+    // Foglie: items[first .. first + count - 1]; nodi interni: count == 0 e figlio destro in right.
+    private final int[] first, count, right;
+
+    private int nodeCount;
+
+    // ------------------- COSTRUTTORE -------------------
+
+    /**
+     * Costruisce la gerarchia (divisione alla mediana lungo l'asse più esteso dei centri delle box).
+     * @param domains I domini, almeno uno.
+     */
+    BoundingVolumeHierarchy(List<Domain> domains) {
+        this.items = domains.toArray(new Domain[0]);
+        int capacity = Math.max(1, 2 * items.length - 1);
+        this.minX = new double[capacity];
+        this.minY = new double[capacity];
+        this.maxX = new double[capacity];
+        this.maxY = new double[capacity];
+        this.first = new int[capacity];
+        this.count = new int[capacity];
+        this.right = new int[capacity];
+        build(0, items.length);
+    }
+
+    private int build(int from, int to) {
+        int node = nodeCount++;
+        double x0 = Double.POSITIVE_INFINITY, y0 = Double.POSITIVE_INFINITY;
+        double x1 = Double.NEGATIVE_INFINITY, y1 = Double.NEGATIVE_INFINITY;
+        double cx0 = Double.POSITIVE_INFINITY, cy0 = Double.POSITIVE_INFINITY;
+        double cx1 = Double.NEGATIVE_INFINITY, cy1 = Double.NEGATIVE_INFINITY;
+        for (int k = from; k < to; k++) {
+            Rectangle2D box = items[k].getBoundingBox();
+            x0 = Math.min(x0, box.getMinX());
+            y0 = Math.min(y0, box.getMinY());
+            x1 = Math.max(x1, box.getMaxX());
+            y1 = Math.max(y1, box.getMaxY());
+            cx0 = Math.min(cx0, box.getCenterX());
+            cy0 = Math.min(cy0, box.getCenterY());
+            cx1 = Math.max(cx1, box.getCenterX());
+            cy1 = Math.max(cy1, box.getCenterY());
+        }
+        minX[node] = x0;
+        minY[node] = y0;
+        maxX[node] = x1;
+        maxY[node] = y1;
+
+        if (to - from <= LEAF_SIZE) {
+            first[node] = from;
+            count[node] = to - from;
+            return node;
+        }
+
+        Comparator<Domain> order = cx1 - cx0 >= cy1 - cy0
+                ? Comparator.comparingDouble(d -> d.getBoundingBox().getCenterX())
+                : Comparator.comparingDouble(d -> d.getBoundingBox().getCenterY());
+        Arrays.sort(items, from, to, order);
+        int mid = (from + to) >>> 1;
+        build(from, mid);
+        right[node] = build(mid, to);
+        return node;
+    }
+
+    // ==================================================================================
+    // 🔎 INTERROGAZIONI
+    // ==================================================================================
+
+    /** Verifica se il punto è dentro almeno uno dei domini. */
+    boolean anyContains(double x, double y) {
+        return anyContains(0, x, y);
+    }
+
+    private boolean anyContains(int node, double x, double y) {
+        if (x < minX[node] || x > maxX[node] || y < minY[node] || y > maxY[node]) return false;
+        if (count[node] > 0) {
+            for (int k = first[node], end = k + count[node]; k < end; k++) {
+                if (!items[k].isPointOutside(x, y)) return true;
+            }
+            return false;
+        }
+        return anyContains(node + 1, x, y) || anyContains(right[node], x, y);
+    }
+
+    /**
+     * Distanza con segno dall'unione dei domini, {@code min} delle distanze dei singoli domini.
+     * <p>
+     * Ogni dominio è contenuto nella sua box, quindi da un punto fuori dalla box la distanza dalla box è un limite
+     * inferiore delle distanze dei domini del nodo: i nodi più lontani della migliore distanza trovata finora vengono
+     * saltati. I nodi la cui box contiene il punto vanno sempre visitati (un dominio può contenerlo più in profondità).
+     */
+    double minSignedDistance(double x, double y) {
+        return minSignedDistance(0, x, y, Double.POSITIVE_INFINITY);
+    }
+
+    private double minSignedDistance(int node, double x, double y, double best) {
+        double distance = boxDistance(node, x, y);
+        if (distance > 0 && distance >= best) return best;
+        if (count[node] > 0) {
+            for (int k = first[node], end = k + count[node]; k < end; k++) {
+                best = Math.min(best, items[k].signedDistance(x, y));
+            }
+            return best;
+        }
+        // Prima il figlio più vicino: stringe subito il limite per l'altro.
+        int left = node + 1;
+        int other = right[node];
+        if (boxDistance(other, x, y) < boxDistance(left, x, y)) {
+            int swap = left;
+            left = other;
+            other = swap;
+        }
+        best = minSignedDistance(left, x, y, best);
+        return minSignedDistance(other, x, y, best);
+    }
+
+    /** Distanza del punto dalla box del nodo (0 se il punto è dentro la box). */
+    private double boxDistance(int node, double x, double y) {
+        double dx = Math.max(Math.max(minX[node] - x, x - maxX[node]), 0);
+        double dy = Math.max(Math.max(minY[node] - y, y - maxY[node]), 0);
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /** La box della radice (unione delle box di tutti i domini). */
+    Rectangle2D getBounds() {
+        return new Rectangle2D.Double(minX[0], minY[0], maxX[0] - minX[0], maxY[0] - minY[0]);
+    }
+}
@@ -0,0 +1,610 @@
+package model.domains;
+
+import model.Individual;
+import model.Point;
+
+import java.awt.geom.Rectangle2D;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Dominio composto (Constructive Solid Geometry): unione, intersezione o differenza di altri domini.
+ * <p>
+ * Sostituisce le classi scritte a mano per ogni combinazione di forme: per esempio una cornice è
+ * {@code difference(new RectangleDomain(40, 30), new RectangleDomain(20, 10))} e due ellissi unite a croce sono
+ * {@code union(new EllipseDomain(20, 5), new EllipseDomain(5, 20))}. Le forme del progetto sono centrate
+ * nell'origine: {@link #translate(Domain, double, double)} le sposta. I domini composti si possono annidare.
+ * <ul>
+ *   <li>{@code UNION}: dentro se il punto è dentro almeno un operando;</li>
+ *   <li>{@code INTERSECTION}: dentro se il punto è dentro tutti gli operandi;</li>
+ *   <li>{@code DIFFERENCE}: dentro se il punto è dentro il primo operando e fuori da tutti gli altri.</li>
+ * </ul>
+ * La distanza con segno è la combinazione CSG classica ({@code min} per l'unione, {@code max} per l'intersezione,
+ * {@code max(a, -b)} per la differenza): il segno è esatto e il valore assoluto non supera mai la distanza vera
+ * (è esatto fuori da un'unione). Vicino alle giunture interne la penalità di confine graduata è quindi prudente.
+ * <p>
+ * Un composto si può anche leggere da un file di testo con {@link #load(Path, double)} (è il dominio
+ * {@code COMPOSITE} dei job). Ogni riga è un'operazione ({@code UNION}, {@code INTERSECTION}, {@code DIFFERENCE})
+ * oppure una forma, scritta con il nome del suo {@link DomainType} seguito dai parametri nell'ordine di
+ * {@link DomainType#getRequiredParameters()}; gli operandi di un'operazione sono le righe successive più
+ * rientrate. Un suffisso {@code at dx dy} sposta la forma (o l'operazione); {@code #} inizia un commento:
+ * <pre>
+ * # cornice con due fori circolari
+ * DIFFERENCE
+ *     RECTANGLE 40 30
+ *     CIRCLE 4 at -10 0
+ *     CIRCLE 4 at 10 0
+ * </pre>
+ * La prima riga è l'operazione radice; tutte le lunghezze vengono moltiplicate per la scala.
+ * <p>
+ * Scelta Implementativa: gli operandi di un'unione (e quelli sottratti in una differenza) sono organizzati in una
+ * {@link BoundingVolumeHierarchy}: {@link #isPointOutside(double, double)} interroga solo gli operandi la cui box
+ * contiene il punto, quindi resta veloce anche con decine di forme. La bounding box del composto viene stretta una
+ * sola volta alla costruzione, con una griglia di distanze sulla box ricavata da quelle degli operandi.
+ */
+public final class CompositeDomain implements Domain {
+
+    /** Le operazioni supportate. */
+    public enum Operation { UNION, INTERSECTION, DIFFERENCE }
+
+    // Celle lungo il lato più lungo della griglia usata per stringere la bounding box.
+    private static final int TIGHTENING_RESOLUTION = 256;
+
+    // ------------------- ATTRIBUTI -------------------
+
+    private final Operation operation;
+
+    // Tutti gli operandi, nell'ordine dato (per la differenza il primo è quello da cui si sottrae).
+    private final List<Domain> operands;
+
+    // Il dominio da cui si sottrae (solo DIFFERENCE).
+    private final Domain base;
+
+    // Gerarchia degli operandi dell'unione o di quelli sottratti (null per l'intersezione).
+    private final BoundingVolumeHierarchy hierarchy;
+
+    // Operandi dell'intersezione.
+    private final Domain[] intersected;
+
+    // Bounding box stretta, anche come campi per il rigetto immediato.
+    private final Rectangle2D boundingBox;
+    private final double minX, minY, maxX, maxY;
+
+    // Unione: aree cumulative delle box degli operandi, per il campionamento.
+    private final double[] cumulativeAreas;
+
+    // Impronta della descrizione letta da file (prima della scala); null per i composti costruiti da codice.
+    private final String fingerprint;
+
+    // ------------------- COSTRUTTORE -------------------
+
+    private CompositeDomain(Operation operation, List<Domain> operands) {
+        this(operation, operands, null);
+    }
+
+    private CompositeDomain(Operation operation, List<Domain> operands, String fingerprint) {
+        if (operands.isEmpty()) {
+            throw new IllegalArgumentException("A composite domain needs at least one operand.");
+        }
+        for (Domain operand : operands) {
+            if (operand == null) {
+                throw new IllegalArgumentException("The operands of a composite domain cannot be null.");
+            }
+        }
+        this.operation = operation;
+        this.operands = List.copyOf(operands);
+
+        Rectangle2D coarse;
+        switch (operation) {
+            case UNION -> {
+                this.base = null;
+                this.hierarchy = new BoundingVolumeHierarchy(this.operands);
+                this.intersected = null;
+                coarse = hierarchy.getBounds();
+            }
+            case INTERSECTION -> {
+                this.base = null;
+                this.hierarchy = null;
+                this.intersected = this.operands.toArray(new Domain[0]);
+                double x0 = Double.NEGATIVE_INFINITY, y0 = Double.NEGATIVE_INFINITY;
+                double x1 = Double.POSITIVE_INFINITY, y1 = Double.POSITIVE_INFINITY;
+                for (Domain operand : this.operands) {
+                    Rectangle2D box = operand.getBoundingBox();
+                    x0 = Math.max(x0, box.getMinX());
+                    y0 = Math.max(y0, box.getMinY());
+                    x1 = Math.min(x1, box.getMaxX());
+                    y1 = Math.min(y1, box.getMaxY());
+                }
+                coarse = new Rectangle2D.Double(x0, y0, x1 - x0, y1 - y0);
+            }
+            default -> {
+                this.base = this.operands.get(0);
+                List<Domain> holes = this.operands.subList(1, this.operands.size());
+                this.hierarchy = holes.isEmpty() ? null : new BoundingVolumeHierarchy(holes);
+                this.intersected = null;
+                coarse = base.getBoundingBox();
+            }
+        }
+        if (coarse.getWidth() < 0 || coarse.getHeight() < 0) {
+            throw new IllegalArgumentException("The composite domain is empty: the operands do not overlap.");
+        }
+
+        this.boundingBox = tighten(coarse);
+        this.minX = boundingBox.getMinX();
+        this.minY = boundingBox.getMinY();
+        this.maxX = boundingBox.getMaxX();
+        this.maxY = boundingBox.getMaxY();
+        this.cumulativeAreas = operation == Operation.UNION ? cumulativeAreas(this.operands) : null;
+        this.fingerprint = fingerprint;
+    }
+
+    // ------------------- FACTORY -------------------
+
+    /**
+     * Unione di domini: un punto è dentro se è dentro almeno uno di essi.
+     * @throws IllegalArgumentException Se non ci sono domini o uno di essi è null.
+     */
+    public static CompositeDomain union(Domain... domains) {
+        return new CompositeDomain(Operation.UNION, Arrays.asList(domains));
+    }
+
+    /** Unione di una lista di domini (es. decine di forme costruite da codice). */
+    public static CompositeDomain union(List<? extends Domain> domains) {
+        return new CompositeDomain(Operation.UNION, new ArrayList<>(domains));
+    }
+
+    /**
+     * Intersezione di domini: un punto è dentro se è dentro tutti.
+     * @throws IllegalArgumentException Se non ci sono domini, uno di essi è null o le loro box non si sovrappongono.
+     */
+    public static CompositeDomain intersection(Domain... domains) {
+        return new CompositeDomain(Operation.INTERSECTION, Arrays.asList(domains));
+    }
+
+    /**
+     * Differenza: {@code base} privato di tutti i {@code holes}.
+     * @throws IllegalArgumentException Se uno dei domini è null o se non resta alcuna area.
+     */
+    public static CompositeDomain difference(Domain base, Domain... holes) {
+        List<Domain> operands = new ArrayList<>(holes.length + 1);
+        operands.add(base);
+        operands.addAll(Arrays.asList(holes));
+        return new CompositeDomain(Operation.DIFFERENCE, operands);
+    }
+
+    /**
+     * Sposta un dominio di (dx, dy), per comporre forme che non sono centrate nell'origine.
+     * @return Il dominio spostato (lo stesso dominio se lo spostamento è nullo).
+     */
+    public static Domain translate(Domain domain, double dx, double dy) {
+        if (domain == null) {
+            throw new IllegalArgumentException("The domain to translate cannot be null.");
+        }
+        if (!Double.isFinite(dx) || !Double.isFinite(dy)) {
+            throw new IllegalArgumentException("The translation must be finite. Found: (" + dx + ", " + dy + ")");
+        }
+        return dx == 0 && dy == 0 ? domain : new Translated(domain, dx, dy);
+    }
+
+    /**
+     * Legge un dominio composto dalla sua descrizione testuale (formato nella documentazione della classe).
+     * @param file Il file della descrizione.
+     * @param scale Il fattore di scala applicato a tutte le lunghezze (parametri delle forme e spostamenti).
+     * @return Il dominio, con l'impronta della descrizione (vedi {@link #getFingerprint()}).
+     * @throws IOException Se il file non può essere letto.
+     * @throws IllegalArgumentException Se il contenuto del file non descrive un dominio composto valido.
+     */
+    public static CompositeDomain load(Path file, double scale) throws IOException {
+        if (!(scale > 0) || !Double.isFinite(scale)) {
+            throw new IllegalArgumentException("The scale must be positive and finite. Found: " + scale);
+        }
+        List<Line> lines = new ArrayList<>();
+        List<String> text = Files.readAllLines(file, StandardCharsets.UTF_8);
+        for (int i = 0; i < text.size(); i++) {
+            String line = text.get(i);
+            int comment = line.indexOf('#');
+            if (comment >= 0) line = line.substring(0, comment);
+            String content = line.strip();
+            if (content.isEmpty()) continue;
+            int indent = 0;
+            while (Character.isWhitespace(line.charAt(indent))) indent++;
+            lines.add(new Line(i + 1, indent, content.split("\\s+")));
+        }
+        if (lines.isEmpty()) {
+            throw new IllegalArgumentException(file + ": the composite domain description is empty.");
+        }
+        return new DescriptionParser(file, lines, scale).parseRoot();
+    }
+
+    // ==================================================================================
+    // 🧮 COSTRUZIONE
+    // ==================================================================================
+
+    /**
+     * Stringe la box ricavata dagli operandi: tiene solo le celle di una griglia il cui centro dista dal dominio
+     * meno di mezza diagonale. La distanza CSG non supera mai quella vera, quindi nessuna cella che tocca il dominio
+     * viene scartata e la box risultante lo contiene sempre (con un margine di al più una cella).
+     * @throws IllegalArgumentException Se nessuna cella tocca il dominio.
+     */
+    private Rectangle2D tighten(Rectangle2D coarse) {
+        double cell = Math.max(coarse.getWidth(), coarse.getHeight()) / TIGHTENING_RESOLUTION;
+        if (cell == 0) return coarse;
+        int cols = Math.max(1, (int) Math.ceil(coarse.getWidth() / cell));
+        int rows = Math.max(1, (int) Math.ceil(coarse.getHeight() / cell));
+        double halfDiagonal = cell * Math.sqrt(0.5);
+
+        int minCol = cols, maxCol = -1, minRow = rows, maxRow = -1;
+        for (int j = 0; j < rows; j++) {
+            double y = coarse.getMinY() + (j + 0.5) * cell;
+            for (int i = 0; i < cols; i++) {
+                if (signedDistance(coarse.getMinX() + (i + 0.5) * cell, y) <= halfDiagonal) {
+                    minCol = Math.min(minCol, i);
+                    maxCol = Math.max(maxCol, i);
+                    minRow = Math.min(minRow, j);
+                    maxRow = Math.max(maxRow, j);
+                }
+            }
+        }
+        if (maxCol < 0) {
+            throw new IllegalArgumentException("The composite domain is empty.");
+        }
+        double x0 = coarse.getMinX() + minCol * cell;
+        double y0 = coarse.getMinY() + minRow * cell;
+        double x1 = Math.min(coarse.getMinX() + (maxCol + 1) * cell, coarse.getMaxX());
+        double y1 = Math.min(coarse.getMinY() + (maxRow + 1) * cell, coarse.getMaxY());
+        return new Rectangle2D.Double(x0, y0, x1 - x0, y1 - y0);
+    }
+
+    private static double[] cumulativeAreas(List<Domain> domains) {
+        double[] result = new double[domains.size()];
+        double total = 0;
+        for (int k = 0; k < result.length; k++) {
+            Rectangle2D box = domains.get(k).getBoundingBox();
+            total += box.getWidth() * box.getHeight();
+            result[k] = total;
+        }
+        return result;
+    }
+
+    // ==================================================================================
+    // 📐 IMPLEMENTAZIONE INTERFACCIA DOMAIN
+    // ==================================================================================
+
+    /**
+     * Verifica se un punto è fuori dal dominio composto. Fuori dalla bounding box la risposta è immediata;
+     * per unioni e differenze vengono interrogati solo gli operandi la cui box contiene il punto.
+     */
+    @Override
+    public boolean isPointOutside(double x, double y) {
+        if (x < minX || x > maxX || y < minY || y > maxY) return true;
+        return switch (operation) {
+            case UNION -> !hierarchy.anyContains(x, y);
+            case INTERSECTION -> {
+                for (Domain operand : intersected) {
+                    if (operand.isPointOutside(x, y)) yield true;
+                }
+                yield false;
+            }
+            case DIFFERENCE -> base.isPointOutside(x, y) || (hierarchy != null && hierarchy.anyContains(x, y));
+        };
+    }
+
+    /**
+     * Distanza con segno CSG: segno esatto, valore assoluto mai maggiore della distanza vera dal bordo.
+     */
+    @Override
+    public double signedDistance(double x, double y) {
+        return switch (operation) {
+            case UNION -> hierarchy.minSignedDistance(x, y);
+            case INTERSECTION -> {
+                double distance = Double.NEGATIVE_INFINITY;
+                for (Domain operand : intersected) {
+                    distance = Math.max(distance, operand.signedDistance(x, y));
+                }
+                yield distance;
+            }
+            case DIFFERENCE -> {
+                double distance = base.signedDistance(x, y);
+                yield hierarchy == null ? distance : Math.max(distance, -hierarchy.minSignedDistance(x, y));
+            }
+        };
+    }
+
+    /**
+     * Unione: il punto viene campionato da un operando scelto con probabilità proporzionale all'area della sua box,
+     * così anche forme sparse in una box grande ricevono punti. Negli altri casi si usa la box (stretta) del composto.
+     */
+    @Override
+    public Point samplePoint(double radius) {
+        if (cumulativeAreas == null) {
+            return Domain.super.samplePoint(radius);
+        }
+        double target = ThreadLocalRandom.current().nextDouble() * cumulativeAreas[cumulativeAreas.length - 1];
+        int k = Arrays.binarySearch(cumulativeAreas, target);
+        k = k >= 0 ? k + 1 : -k - 1;
+        return operands.get(Math.min(k, operands.size() - 1)).samplePoint(radius);
+    }
+
+    @Override
+    public boolean isValidIndividual(Individual individual) {
+        List<Point> points = individual.getChromosomes();
+        for (Point p : points) {
+            if (isPointOutside(p.getX(), p.getY())) { return false; }
+        }
+        return true;
+    }
+
+    @Override
+    public Rectangle2D getBoundingBox() {
+        return boundingBox;
+    }
+
+    /**
+     * Unione, intersezione e differenza di insiemi invarianti per lo stesso gruppo sono invarianti: il composto ha
+     * la simmetria richiesta se tutti gli operandi hanno la stessa.
+     */
+    @Override
+    public Optional<Symmetry> getSymmetry(int order) {
+        Optional<Symmetry> symmetry = operands.get(0).getSymmetry(order);
+        if (symmetry.isEmpty()) return symmetry;
+        for (Domain operand : operands) {
+            Optional<Symmetry> other = operand.getSymmetry(order);
+            if (other.isEmpty() || !other.get().equals(symmetry.get())) {
+                return Optional.empty();
+            }
+        }
+        return symmetry;
+    }
+
+    // ------------------- GETTER -------------------
+
+    public Operation getOperation() { return operation; }
+
+    /** Gli operandi, nell'ordine dato (per la differenza il primo è quello da cui si sottrae). */
+    public List<Domain> getOperands() { return operands; }
+
+    /**
+     * Impronta della descrizione letta da {@link #load(Path, double)}, prima della scala: due composti uguali a meno
+     * della scala hanno la stessa impronta (commenti, rientri e formato dei numeri non contano).
+     * @return L'impronta, oppure null per i composti costruiti da codice.
+     */
+    public String getFingerprint() { return fingerprint; }
+
+    // ==================================================================================
+    // 📄 LETTURA DA FILE
+    // ==================================================================================
+
+    /** Una riga significativa della descrizione: numero di riga, rientro e parole. */
+    private record Line(int number, int indent, String[] tokens) {}
+
+    /**
+     * Parser a discesa ricorsiva della descrizione: ogni nodo consuma le righe successive più rientrate come
+     * operandi. Accumula anche la forma canonica della descrizione (nomi e valori prima della scala), da cui viene
+     * calcolata l'impronta.
+     */
+    private static final class DescriptionParser {
+
+        private final DomainFactory factory = new DomainFactory();
+        private final Path file;
+        private final List<Line> lines;
+        private final double scale;
+        private final StringBuilder canonical = new StringBuilder();
+        private int position;
+
+        private DescriptionParser(Path file, List<Line> lines, double scale) {
+            this.file = file;
+            this.lines = lines;
+            this.scale = scale;
+        }
+
+        /** La radice: un'operazione non spostata, che copre tutte le righe. */
+        private CompositeDomain parseRoot() {
+            Line root = lines.get(position++);
+            Operation operation = operation(root.tokens()[0]);
+            if (operation == null || root.tokens().length != 1) {
+                throw error(root, "the first line must be an operation (UNION, INTERSECTION or DIFFERENCE)");
+            }
+            canonical.append(operation.name());
+            List<Domain> operands = parseOperands(root);
+            if (position < lines.size()) {
+                throw error(lines.get(position), "a composite domain has a single root; indent the operands");
+            }
+            try {
+                return new CompositeDomain(operation, operands, fingerprint(canonical.toString()));
+            } catch (IllegalArgumentException e) {
+                throw error(root, e.getMessage());
+            }
+        }
+
+        /** Un nodo qualunque: un'operazione con i suoi operandi oppure una forma, eventualmente spostati. */
+        private Domain parseNode() {
+            Line line = lines.get(position++);
+            String[] tokens = line.tokens();
+            int end = tokens.length;
+            double dx = 0, dy = 0;
+            if (end >= 3 && tokens[end - 3].equalsIgnoreCase("at")) {
+                dx = number(line, tokens[end - 2]);
+                dy = number(line, tokens[end - 1]);
+                end -= 3;
+            }
+
+            Domain domain;
+            Operation operation = operation(tokens[0]);
+            if (operation != null) {
+                if (end != 1) {
+                    throw error(line, "an operation has no parameters");
+                }
+                canonical.append(operation.name());
+                List<Domain> operands = parseOperands(line);
+                try {
+                    domain = new CompositeDomain(operation, operands);
+                } catch (IllegalArgumentException e) {
+                    throw error(line, e.getMessage());
+                }
+            } else {
+                domain = parseShape(line, end);
+                if (position < lines.size() && lines.get(position).indent() > line.indent()) {
+                    throw error(lines.get(position), "only operations have operands");
+                }
+            }
+
+            if (dx != 0 || dy != 0) {
+                canonical.append('@').append(dx).append(',').append(dy);
+            }
+            return translate(domain, dx * scale, dy * scale);
+        }
+
+        /** Gli operandi di {@code parent}: le righe successive più rientrate, tutte con lo stesso rientro. */
+        private List<Domain> parseOperands(Line parent) {
+            List<Domain> operands = new ArrayList<>();
+            int indent = -1;
+            canonical.append('(');
+            while (position < lines.size() && lines.get(position).indent() > parent.indent()) {
+                Line next = lines.get(position);
+                if (indent < 0) {
+                    indent = next.indent();
+                } else if (next.indent() != indent) {
+                    throw error(next, "inconsistent indentation");
+                }
+                if (!operands.isEmpty()) canonical.append(',');
+                operands.add(parseNode());
+            }
+            canonical.append(')');
+            if (operands.isEmpty()) {
+                throw error(parent, "the operation has no operands");
+            }
+            return operands;
+        }
+
+        /** Una forma: il nome del tipo seguito dai suoi parametri, creata dalla {@link DomainFactory}. */
+        private Domain parseShape(Line line, int end) {
+            DomainType type;
+            try {
+                type = DomainType.valueOf(line.tokens()[0].toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw error(line, "unknown shape or operation: " + line.tokens()[0]);
+            }
+            if (type.requiresFile()) {
+                throw error(line, "the domain '" + type.getDisplayName() + "' cannot be part of a composite domain");
+            }
+            List<String> names = type.getRequiredParameters();
+            if (end - 1 != names.size()) {
+                throw error(line, "expected " + names.size() + " parameters " + names + ", found " + (end - 1));
+            }
+            canonical.append(type.name());
+            Map<String, Double> params = new HashMap<>();
+            for (int k = 0; k < names.size(); k++) {
+                double value = number(line, line.tokens()[k + 1]);
+                canonical.append(' ').append(value);
+                params.put(names.get(k), value * scale);
+            }
+            try {
+                return factory.createDomain(type, params);
+            } catch (IllegalArgumentException e) {
+                throw error(line, e.getMessage());
+            }
+        }
+
+        private static Operation operation(String token) {
+            for (Operation operation : Operation.values()) {
+                if (operation.name().equalsIgnoreCase(token)) return operation;
+            }
+            return null;
+        }
+
+        private double number(Line line, String token) {
+            try {
+                double value = Double.parseDouble(token);
+                if (Double.isFinite(value)) return value;
+            } catch (NumberFormatException ignored) {
+                // Riportato sotto, con il numero di riga.
+            }
+            throw error(line, "invalid number: " + token);
+        }
+
+        private IllegalArgumentException error(Line line, String message) {
+            return new IllegalArgumentException(file + ", line " + line.number() + ": " + message);
+        }
+
+        private static String fingerprint(String description) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                byte[] hash = digest.digest(description.getBytes(StandardCharsets.UTF_8));
+                return HexFormat.of().formatHex(hash, 0, 8);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+    }
+
+    // ==================================================================================
+    // ↔️ TRASLAZIONE
+    // ==================================================================================
+
+    /**
+     * Un dominio spostato di (dx, dy): ogni interrogazione viene riportata nel sistema di riferimento del dominio
+     * originale. Le distanze restano esatte; le simmetrie (centrate nell'origine) si perdono.
+     */
+    private static final class Translated implements Domain {
+
+        private final Domain domain;
+        private final double dx, dy;
+        private final Rectangle2D boundingBox;
+
+        private Translated(Domain domain, double dx, double dy) {
+            this.domain = domain;
+            this.dx = dx;
+            this.dy = dy;
+            Rectangle2D box = domain.getBoundingBox();
+            this.boundingBox = new Rectangle2D.Double(box.getX() + dx, box.getY() + dy, box.getWidth(), box.getHeight());
+        }
+
+        @Override
+        public boolean isPointOutside(double x, double y) {
+            return domain.isPointOutside(x - dx, y - dy);
+        }
+
+        @Override
+        public double signedDistance(double x, double y) {
+            return domain.signedDistance(x - dx, y - dy);
+        }
+
+        @Override
+        public double protrusion(double x, double y, double radius) {
+            return domain.protrusion(x - dx, y - dy, radius);
+        }
+
+        @Override
+        public Point samplePoint(double radius) {
+            Point p = domain.samplePoint(radius);
+            return new Point(p.getX() + dx, p.getY() + dy, radius);
+        }
+
+        @Override
+        public boolean isValidIndividual(Individual individual) {
+            List<Point> points = individual.getChromosomes();
+            for (Point p : points) {
+                if (isPointOutside(p.getX(), p.getY())) { return false; }
+            }
+            return true;
+        }
+
+        @Override
+        public Rectangle2D getBoundingBox() {
+            return boundingBox;
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package model.domains;
+
+import model.Individual;
+import model.Point;
+
+import java.awt.geom.Rectangle2D;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Strato di accelerazione di un dominio: campo di distanza con segno (SDF) precalcolato su una griglia.
+ * <p>
+ * Il campo viene costruito una sola volta sulla {@link Domain#getBoundingBox()} (allargata di qualche cella),
+ * campionando il dominio sui nodi della griglia. Da quel momento le interrogazioni costano una lettura
+ * bilineare, qualunque sia la complessità della forma:
+ * <ul>
+ *   <li>{@link #signedDistance(double, double)}: distanza dal bordo, negativa dentro il dominio e positiva fuori;
+ *       lontano dal bordo è approssimata (errore dell'ordine del lato di una cella), entro {@link #BOUNDARY_CELLS}
+ *       celle dal bordo è quella esatta del dominio originale;</li>
+ *   <li>{@link #isPointOutside(double, double)}: risposta dal campo lontano dal bordo; vicino al bordo, dove la
+ *       griglia non è affidabile, si interroga il dominio originale, quindi il risultato è sempre esatto.</li>
+ * </ul>
+ * La penalità di confine graduata interroga {@link #protrusion(double, double, double)}: i dischi sicuramente
+ * dentro costano una lettura del campo, tutti gli altri ricevono la risposta esatta del dominio originale.
+ * La distanza ai nodi è ottenuta dalla maschera dentro/fuori con la trasformata di distanza euclidea esatta
+ * (Felzenszwalb-Huttenlocher, lineare nel numero di nodi), quindi basta che il dominio sappia rispondere a
+ * {@link Domain#isPointOutside(double, double)}. I dettagli più sottili di circa una cella non vengono visti
+ * dalla griglia: la risoluzione deve risolvere la parte più stretta della forma.
+ * <p>
+ * Scelta Implementativa: il campo è un {@code Domain} (Decorator) immutabile: può sostituire il dominio
+ * originale ovunque ed essere condiviso in sola lettura da tutti i thread, senza sincronizzazione. Con
+ * {@code distanceField} di {@code EvolutionConfig} il {@code FitnessCalculator} valuta le configurazioni sul campo.
+ */
+public final class DistanceField implements Domain {
+
+    /** Numero di celle di default lungo il lato più lungo della bounding box. */
+    public static final int DEFAULT_RESOLUTION = 256;
+
+    /** Numero massimo di celle lungo il lato più lungo (4096: al più 64 MiB di campo per un dominio quadrato). */
+    public static final int MAX_RESOLUTION = 4096;
+
+    // Distanza dal bordo (in celle) entro cui la risposta del campo viene verificata sul dominio originale.
+    // La distanza ai nodi ha un errore di mezza cella e l'interpolazione bilineare aggiunge al più una diagonale.
+    private static final double BOUNDARY_CELLS = 2.0;
+
+    // Celle aggiunte attorno alla bounding box, così il bordo del dominio è sempre interno alla griglia.
+    private static final int PADDING = 2;
+
+    // "Infinito" della trasformata di distanza (in celle al quadrato).
+    private static final double FAR = 1e20;
+
+    // ------------------- ATTRIBUTI -------------------
+
+    private final Domain domain;
+
+    // Griglia dei nodi: il nodo (i, j) è in (originX + i * cellSize, originY + j * cellSize).
+    private final double originX, originY, cellSize;
+    private final int cols, rows;
+
+    // Distanza con segno ai nodi, riga per riga (float: metà memoria, precisione più che sufficiente).
+    private final float[] distances;
+
+    // Soglia oltre la quale il segno del campo interpolato è certo.
+    private final double boundaryBand;
+
+    // ------------------- COSTRUTTORE -------------------
+
+    /**
+     * Costruisce il campo di distanza di un dominio.
+     * @param domain Il dominio da accelerare.
+     * @param resolution Il numero di celle lungo il lato più lungo della bounding box.
+     * @throws IllegalArgumentException Se la risoluzione è fuori da [2, {@link #MAX_RESOLUTION}].
+     */
+    public DistanceField(Domain domain, int resolution) {
+        if (resolution < 2 || resolution > MAX_RESOLUTION) {
+            throw new IllegalArgumentException("The resolution must be in [2, " + MAX_RESOLUTION + "]. Found: " + resolution);
+        }
+        this.domain = domain;
+
+        Rectangle2D box = domain.getBoundingBox();
+        this.cellSize = Math.max(box.getWidth(), box.getHeight()) / resolution;
+        this.originX = box.getMinX() - PADDING * cellSize;
+        this.originY = box.getMinY() - PADDING * cellSize;
+        this.cols = (int) Math.ceil(box.getWidth() / cellSize) + 2 * PADDING + 1;
+        this.rows = (int) Math.ceil(box.getHeight() / cellSize) + 2 * PADDING + 1;
+        this.boundaryBand = BOUNDARY_CELLS * cellSize;
+        this.distances = build();
+    }
+
+    /**
+     * Ritorna il campo di distanza del dominio, con la risoluzione di default.
+     * @param domain Il dominio da accelerare.
+     * @return Il dominio stesso se è già un campo di distanza, altrimenti un nuovo campo.
+     */
+    public static DistanceField of(Domain domain) {
+        return domain instanceof DistanceField field ? field : new DistanceField(domain, DEFAULT_RESOLUTION);
+    }
+
+    // ==================================================================================
+    // 🧮 COSTRUZIONE
+    // ==================================================================================
+
+    /**
+     * Campiona il dominio sui nodi e calcola la distanza con segno con due trasformate di distanza:
+     * dai nodi esterni per i nodi interni e viceversa. Il bordo passa a metà tra due nodi di segno opposto,
+     * da cui la correzione di mezza cella.
+     */
+    private float[] build() {
+        int n = cols * rows;
+        boolean[] outside = new boolean[n];
+        for (int j = 0; j < rows; j++) {
+            double y = originY + j * cellSize;
+            for (int i = 0; i < cols; i++) {
+                outside[j * cols + i] = domain.isPointOutside(originX + i * cellSize, y);
+            }
+        }
+
+        double[] toInside = new double[n];
+        double[] toOutside = new double[n];
+        for (int k = 0; k < n; k++) {
+            toInside[k] = outside[k] ? FAR : 0;
+            toOutside[k] = outside[k] ? 0 : FAR;
+        }
+        squaredDistanceTransform(toInside);
+        squaredDistanceTransform(toOutside);
+
+        float[] field = new float[n];
+        for (int k = 0; k < n; k++) {
+            field[k] = (float) (outside[k]
+                    ? (Math.sqrt(toInside[k]) - 0.5) * cellSize
+                    : -(Math.sqrt(toOutside[k]) - 0.5) * cellSize);
+        }
+        return field;
+    }
+
+    /**
+     * Trasformata di distanza euclidea al quadrato (in celle), sul posto: ogni nodo a {@link #FAR} riceve il
+     * quadrato della distanza dal nodo a 0 più vicino. Separabile: prima le colonne, poi le righe.
+     */
+    private void squaredDistanceTransform(double[] grid) {
+        int length = Math.max(cols, rows);
+        double[] line = new double[length];
+        double[] out = new double[length];
+        int[] hull = new int[length];
+        double[] bounds = new double[length + 1];
+
+        for (int i = 0; i < cols; i++) {
+            for (int j = 0; j < rows; j++) line[j] = grid[j * cols + i];
+            transform1D(line, rows, out, hull, bounds);
+            for (int j = 0; j < rows; j++) grid[j * cols + i] = out[j];
+        }
+        for (int j = 0; j < rows; j++) {
+            System.arraycopy(grid, j * cols, line, 0, cols);
+            transform1D(line, cols, out, hull, bounds);
+            System.arraycopy(out, 0, grid, j * cols, cols);
+        }
+    }
+
+    /**
+     * Trasformata 1D: {@code out[q] = min_p ((q - p)² + f[p])}, come inviluppo inferiore di parabole.
+     */
+    private static void transform1D(double[] f, int n, double[] out, int[] hull, double[] bounds) {
+        int k = 0;
+        hull[0] = 0;
+        bounds[0] = Double.NEGATIVE_INFINITY;
+        bounds[1] = Double.POSITIVE_INFINITY;
+        for (int q = 1; q < n; q++) {
+            // Ascissa in cui la parabola di q supera l'ultima dell'inviluppo; bounds[0] = -∞ ferma il ciclo.
+            double s = intersection(f, hull[k], q);
+            while (s <= bounds[k]) {
+                k--;
+                s = intersection(f, hull[k], q);
+            }
+            k++;
+            hull[k] = q;
+            bounds[k] = s;
+            bounds[k + 1] = Double.POSITIVE_INFINITY;
+        }
+        k = 0;
+        for (int q = 0; q < n; q++) {
+            while (bounds[k + 1] < q) k++;
+            double d = q - hull[k];
+            out[q] = d * d + f[hull[k]];
+        }
+    }
+
+    private static double intersection(double[] f, int p, int q) {
+        return ((f[q] + (double) q * q) - (f[p] + (double) p * p)) / (2.0 * (q - p));
+    }
+
+    // ==================================================================================
+    // 🔎 INTERROGAZIONI
+    // ==================================================================================
+
+    /**
+     * Distanza con segno dal bordo del dominio: negativa dentro, positiva fuori.
+     * <p>
+     * Lontano dal bordo è l'interpolazione bilineare dei quattro nodi della cella; fuori dalla griglia si somma la
+     * distanza dalla griglia al valore del suo punto più vicino (un'approssimazione per eccesso, sempre positiva).
+     * Vicino al bordo viene restituita la distanza esatta del dominio originale.
+     * @param x Coordinata X del punto.
+     * @param y Coordinata Y del punto.
+     * @return La distanza: esatta vicino al bordo, altrimenti con un errore dell'ordine di {@code getCellSize()}.
+     */
+    @Override
+    public double signedDistance(double x, double y) {
+        double value = interpolate(x, y);
+        return Math.abs(value) > boundaryBand ? value : domain.signedDistance(x, y);
+    }
+
+    /** Lettura del campo, senza ricorrere al dominio originale. */
+    private double interpolate(double x, double y) {
+        double gx = (x - originX) / cellSize;
+        double gy = (y - originY) / cellSize;
+        double cx = Math.min(Math.max(gx, 0), cols - 1);
+        double cy = Math.min(Math.max(gy, 0), rows - 1);
+
+        int i = Math.min((int) cx, cols - 2);
+        int j = Math.min((int) cy, rows - 2);
+        double tx = cx - i, ty = cy - j;
+        int k = j * cols + i;
+        double bottom = distances[k] + tx * (distances[k + 1] - distances[k]);
+        double top = distances[k + cols] + tx * (distances[k + cols + 1] - distances[k + cols]);
+        double value = bottom + ty * (top - bottom);
+
+        if (cx != gx || cy != gy) {
+            value += Math.hypot(gx - cx, gy - cy) * cellSize;
+        }
+        return value;
+    }
+
+    /**
+     * Quanto un disco sporge dal dominio. Se il campo garantisce che il disco è dentro (con il margine
+     * dell'errore del campo) la risposta è 0 senza interrogare il dominio, altrimenti è quella esatta del dominio
+     * originale: la penalità di confine graduata non cambia.
+     */
+    @Override
+    public double protrusion(double x, double y, double radius) {
+        if (interpolate(x, y) + radius < -boundaryBand) return 0.0;
+        return domain.protrusion(x, y, radius);
+    }
+
+    /**
+     * Verifica se un punto è fuori dal dominio: dal campo se il punto è lontano dal bordo, altrimenti
+     * interrogando il dominio originale. Il risultato coincide sempre con quello del dominio originale.
+     */
+    @Override
+    public boolean isPointOutside(double x, double y) {
+        double distance = interpolate(x, y);
+        if (distance > boundaryBand) return true;
+        if (distance < -boundaryBand) return false;
+        return domain.isPointOutside(x, y);
+    }
+
+    @Override
+    public boolean isValidIndividual(Individual individual) {
+        List<Point> points = individual.getChromosomes();
+        for (Point p : points) {
+            if (isPointOutside(p.getX(), p.getY())) { return false; }
+        }
+        return true;
+    }
+
+    @Override
+    public Rectangle2D getBoundingBox() {
+        return domain.getBoundingBox();
+    }
+
+    /** Il campionamento del dominio originale (es. le celle occupate di un poligono). */
+    @Override
+    public Point samplePoint(double radius) {
+        return domain.samplePoint(radius);
+    }
+
+    @Override
+    public Optional<Symmetry> getSymmetry(int order) {
+        return domain.getSymmetry(order);
+    }
+
+    // ------------------- GETTER -------------------
+
+    /** Il dominio originale. */
+    public Domain getDomain() { return domain; }
+
+    /** Il lato delle celle della griglia. */
+    public double getCellSize() { return cellSize; }
+}
@@ -1,8 +1,11 @@
 package model.domains;
 
 import model.Individual;
+import model.Point;
 
 import java.awt.geom.Rectangle2D;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
 
 public interface Domain {
     //controlla se un punto è all'interno del dominio
@@ -13,4 +16,64 @@ public interface Domain {
 
     //bounding box per la generazione di punti casuali
     Rectangle2D getBoundingBox();
+
+    /**
+     * Distanza con segno del punto dal bordo del dominio: negativa dentro, positiva fuori, nulla sul bordo.
+     * <p>
+     * Usata dalla penalità di confine graduata: un disco di raggio r centrato in (x, y) sporge dal dominio di
+     * {@code max(0, signedDistance(x, y) + r)}.
+     * @param x Coordinata X del punto.
+     * @param y Coordinata Y del punto.
+     * @return La distanza euclidea dal punto più vicino del bordo, con segno.
+     */
+    double signedDistance(double x, double y);
+
+    /**
+     * Quanto un disco di raggio {@code radius} centrato in (x, y) sporge dal dominio: {@code max(0, signedDistance + radius)}.
+     * <p>
+     * I domini per cui la distanza esatta è costosa lontano dal bordo possono limitare la ricerca al raggio del disco.
+     * @return La sporgenza (0 se il disco è interamente dentro il dominio).
+     */
+    default double protrusion(double x, double y, double radius) {
+        return Math.max(0, signedDistance(x, y) + radius);
+    }
+
+    /**
+     * Genera un punto casuale per la popolazione iniziale.
+     * <p>
+     * Il default è un punto uniforme nella Bounding Box (i punti fuori dal dominio vengono poi penalizzati dalla
+     * fitness); i domini che occupano una piccola parte della loro Bounding Box possono campionare più da vicino.
+     * @param radius Il raggio del punto.
+     * @return Un nuovo punto.
+     */
+    default Point samplePoint(double radius) {
+        Rectangle2D box = getBoundingBox();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new Point(box.getMinX() + random.nextDouble() * box.getWidth(),
+                box.getMinY() + random.nextDouble() * box.getHeight(), radius);
+    }
+
+    /**
+     * Ritorna il gruppo di simmetria dell'ordine richiesto, se il dominio lo possiede.
+     * <p>
+     * Usato dalla modalità a simmetria ridotta: i motori evolvono solo i punti di una regione fondamentale e li
+     * espandono per riflessione o rotazione. Il default è "nessuna simmetria".
+     * @param order L'ordine del gruppo (es. 4 per i quattro quadranti).
+     * @return Il gruppo di simmetria, oppure {@code Optional.empty()} se il dominio non ha quella simmetria.
+     */
+    default Optional<Symmetry> getSymmetry(int order) {
+        return Optional.empty();
+    }
+
+    /**
+     * Distanza con segno da un rettangolo centrato nell'origine (negativa dentro), condivisa dai domini rettangolari.
+     * @param halfWidth Metà della larghezza del rettangolo.
+     * @param halfHeight Metà dell'altezza del rettangolo.
+     */
+    static double boxDistance(double x, double y, double halfWidth, double halfHeight) {
+        double dx = Math.abs(x) - halfWidth;
+        double dy = Math.abs(y) - halfHeight;
+        // Fuori: distanza dall'angolo o dal lato più vicino; dentro: distanza dal lato più vicino.
+        return Math.hypot(Math.max(dx, 0), Math.max(dy, 0)) + Math.min(Math.max(dx, dy), 0);
+    }
 }
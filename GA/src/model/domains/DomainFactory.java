@@ -2,6 +2,8 @@ package model.domains;
 
 import model.domains.types.*;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 
@@ -30,6 +32,20 @@ public class DomainFactory {
      * non è supportato da questa factory.
      */
     public Domain createDomain(DomainType type, Map<String, Double> params) {
+        return createDomain(type, params, null);
+    }
+
+    /**
+     * Crea un'istanza di Domain, anche per i tipi descritti da un file (es. {@code POLYGON}).
+     *
+     * @param type Il tipo di dominio da creare.
+     * @param params La mappa dei parametri di configurazione.
+     * @param file Il file del dominio, richiesto solo se {@code type.requiresFile()} (altrimenti ignorato).
+     * @return L'istanza concreta del {@code Domain} richiesto.
+     * @throws IllegalArgumentException Se i parametri sono mancanti/nulli, se manca il file richiesto o se il file
+     * non può essere letto o non descrive un dominio valido.
+     */
+    public Domain createDomain(DomainType type, Map<String, Double> params, Path file) {
 
         // 1. Validazione: Controlla che tutti i parametri richiesti dall'enum siano presenti.
         // @implNote La validazione preventiva impedisce l'instanziazione con valori nulli/mancanti,
@@ -56,6 +72,10 @@ public class DomainFactory {
                 new FrameDomain(params.get("innerWidth"), params.get("innerHeight"), params.get("outerWidth"), params.get("outherHeight"));
             case ANNULUS ->
                 new AnnulusDomain(params.get("innerRadius"), params.get("outerRadius"));
+            case POLYGON ->
+                loadPolygon(file, params.get("scale"));
+            case COMPOSITE ->
+                loadComposite(file, params.get("scale"));
             /*
             default ->
                 // Meccanismo di sicurezza: Cattura eventuali nuovi tipi non ancora gestiti nel factory.
@@ -66,6 +86,35 @@ public class DomainFactory {
 
     }
 
+    /**
+     * Legge un poligono dal suo file di vertici, riportando gli errori di lettura come errori di validazione
+     * (il chiamante li gestisce come un parametro non valido).
+     */
+    private Domain loadPolygon(Path file, double scale) {
+        if (file == null) {
+            throw new IllegalArgumentException("The domain '" + DomainType.POLYGON.getDisplayName() + "' requires a vertex file.");
+        }
+        try {
+            return PolygonDomain.load(file, scale);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read the vertex file " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Legge un dominio composto dal suo file di descrizione, con la stessa gestione degli errori di {@link #loadPolygon}.
+     */
+    private Domain loadComposite(Path file, double scale) {
+        if (file == null) {
+            throw new IllegalArgumentException("The domain '" + DomainType.COMPOSITE.getDisplayName() + "' requires a description file.");
+        }
+        try {
+            return CompositeDomain.load(file, scale);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read the description file " + file + ": " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Metodo helper privato responsabile della validazione della presenza e della non-nullità dei parametri.
      *
@@ -33,7 +33,11 @@ public enum DomainType {
     //Dominio a "frame", o cornice, richiede le dimensioni per i due rettangoli
     FRAME(6, "FRAME", List.of("innerWidth", "innerHeight","outerWidth", "outherHeight")),
     //Dominio a corona circolare, o annulus, richiede i raggi della circonferenza esterna e di quella interna
-    ANNULUS(7, "ANNULUS", List.of("innerRadius", "outerRadius"));
+    ANNULUS(7, "ANNULUS", List.of("innerRadius", "outerRadius")),
+    //Dominio poligonale (anche con buchi), letto da un file di vertici; richiede il fattore di scala delle coordinate
+    POLYGON(8, "POLYGON", List.of("scale"), true),
+    //Dominio composto (unioni, intersezioni e differenze di forme), letto da un file di descrizione; richiede il fattore di scala delle lunghezze
+    COMPOSITE(9, "COMPOSITE", List.of("scale"), true);
 
     // ------------------- ATTRIBUTI -------------------
 
@@ -47,6 +51,9 @@ public enum DomainType {
     // alla DomainFactory per creare correttamente questo specifico tipo di dominio.
     private final List<String> requiredParameters;
 
+    // true se il dominio è descritto da un file (es. i vertici del poligono), oltre che dai parametri numerici.
+    private final boolean fileBased;
+
     // ------------------- COSTRUTTORE -------------------
 
     /**
@@ -57,9 +64,14 @@ public enum DomainType {
      * @param requiredParameters La lista dei nomi delle chiavi dei parametri attesi.
      */
     DomainType(int menuId, String displayName, List<String> requiredParameters) {
+        this(menuId, displayName, requiredParameters, false);
+    }
+
+    DomainType(int menuId, String displayName, List<String> requiredParameters, boolean fileBased) {
         this.menuId = menuId;
         this.displayName = displayName;
         this.requiredParameters = requiredParameters;
+        this.fileBased = fileBased;
     }
 
     // ------------------- GETTER PUBBLICI -------------------
@@ -90,6 +102,14 @@ public enum DomainType {
         return this.displayName;
     }
 
+    /**
+     * Indica se il dominio richiede anche un file (vedi {@code DomainFactory.createDomain(DomainType, Map, Path)}).
+     * @return true per i domini descritti da un file, come il poligono.
+     */
+    public boolean requiresFile() {
+        return this.fileBased;
+    }
+
     // ------------------- METODI DI UTILITÀ -------------------
 
     /**
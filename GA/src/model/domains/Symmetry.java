@@ -0,0 +1,117 @@
+package model.domains;
+
+import java.util.Arrays;
+
+/**
+ * Gruppo di simmetria (finito, centrato nell'origine) di un dominio.
+ * <p>
+ * Ogni elemento del gruppo è un'isometria lineare {@code (x, y) -> (a x + b y, c x + d y)}; il primo elemento è
+ * sempre l'identità. I gruppi supportati sono:
+ * <ul>
+ *   <li>{@link #mirror()}: riflessione rispetto all'asse y (ordine 2, regione fondamentale: semipiano x >= 0);</li>
+ *   <li>{@link #quadrant()}: riflessioni rispetto a entrambi gli assi (ordine 4, regione fondamentale: un quadrante);</li>
+ *   <li>{@link #rotational(int)}: rotazioni di multipli di {@code 2π/k} (ordine k, regione fondamentale: uno spicchio).</li>
+ * </ul>
+ * Gli assi di riflessione sono gli insiemi di punti fissati da una riflessione: un punto su un asse ha un'orbita
+ * di metà dimensione (la sua immagine riflessa coincide con sé stesso).
+ */
+public final class Symmetry {
+
+    // Le isometrie del gruppo, come matrici 2x2 piatte {a, b, c, d}. transforms[0] è l'identità.
+    private final double[][] transforms;
+
+    // Direzioni (versori) degli assi di riflessione; vuoto per i gruppi di sole rotazioni.
+    private final double[][] axes;
+
+    private final String name;
+
+    private Symmetry(String name, double[][] transforms, double[][] axes) {
+        this.name = name;
+        this.transforms = transforms;
+        this.axes = axes;
+    }
+
+    // ------------------- GRUPPI SUPPORTATI -------------------
+
+    /** Riflessione rispetto all'asse y: {@code (x, y) -> (-x, y)}. */
+    public static Symmetry mirror() {
+        return new Symmetry("mirror",
+                new double[][] { {1, 0, 0, 1}, {-1, 0, 0, 1} },
+                new double[][] { {0, 1} });
+    }
+
+    /** Riflessioni rispetto a entrambi gli assi (gruppo di Klein): {@code (±x, ±y)}. */
+    public static Symmetry quadrant() {
+        return new Symmetry("quadrant",
+                new double[][] { {1, 0, 0, 1}, {1, 0, 0, -1}, {-1, 0, 0, 1}, {-1, 0, 0, -1} },
+                new double[][] { {1, 0}, {0, 1} });
+    }
+
+    /**
+     * Rotazioni di multipli di {@code 2π/order} attorno all'origine.
+     * @throws IllegalArgumentException Se l'ordine è minore di 2.
+     */
+    public static Symmetry rotational(int order) {
+        if (order < 2) {
+            throw new IllegalArgumentException("The order of a rotational symmetry must be at least 2. Found: " + order);
+        }
+        double[][] transforms = new double[order][];
+        for (int j = 0; j < order; j++) {
+            double angle = 2 * Math.PI * j / order;
+            double cos = Math.cos(angle), sin = Math.sin(angle);
+            transforms[j] = new double[] { cos, -sin, sin, cos };
+        }
+        transforms[0] = new double[] { 1, 0, 0, 1 }; // identità esatta, senza errori di arrotondamento
+        return new Symmetry("rotational-" + order, transforms, new double[0][]);
+    }
+
+    // ------------------- APPLICAZIONE -------------------
+
+    /** Coordinata x dell'immagine di (x, y) tramite l'elemento {@code t} del gruppo. */
+    public double imageX(int t, double x, double y) {
+        double[] m = transforms[t];
+        return m[0] * x + m[1] * y;
+    }
+
+    /** Coordinata y dell'immagine di (x, y) tramite l'elemento {@code t} del gruppo. */
+    public double imageY(int t, double x, double y) {
+        double[] m = transforms[t];
+        return m[2] * x + m[3] * y;
+    }
+
+    // ------------------- GETTER -------------------
+
+    /** Numero di elementi del gruppo (dimensione dell'orbita di un punto generico). */
+    public int getOrder() { return transforms.length; }
+
+    /** Numero di assi di riflessione. */
+    public int getAxisCount() { return axes.length; }
+
+    /** Componente x del versore dell'asse {@code axis}. */
+    public double getAxisX(int axis) { return axes[axis][0]; }
+
+    /** Componente y del versore dell'asse {@code axis}. */
+    public double getAxisY(int axis) { return axes[axis][1]; }
+
+    // ------------------- OVERRIDE -------------------
+
+    /**
+     * Due simmetrie sono uguali se descrivono lo stesso gruppo: stesse isometrie, nello stesso ordine, e stessi assi.
+     */
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Symmetry symmetry
+                && Arrays.deepEquals(transforms, symmetry.transforms)
+                && Arrays.deepEquals(axes, symmetry.axes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.deepHashCode(transforms);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
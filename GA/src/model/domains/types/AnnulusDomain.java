@@ -3,9 +3,11 @@ package model.domains.types;
 import model.Individual;
 import model.Point;
 import model.domains.Domain;
+import model.domains.Symmetry;
 
 import java.awt.geom.Rectangle2D;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Implementa l'interfaccia Domain definendo un'area non convessa a forma di corona circolare (Annulus).
@@ -82,6 +84,16 @@ public class AnnulusDomain implements Domain {
         return isOutsideOuter || isInsideHole;
     }
 
+    /**
+     * Distanza con segno dalla corona: la più vincolante tra quella dal cerchio esterno e quella dal buco.
+     * Esatta anche dentro il buco e fuori dal cerchio esterno, perché le due circonferenze sono concentriche.
+     */
+    @Override
+    public double signedDistance(double x, double y) {
+        double distanceFromCenter = Math.hypot(x, y);
+        return Math.max(distanceFromCenter - outerRadius, innerRadius - distanceFromCenter);
+    }
+
     /**
      * Verifica se un intero individuo rispetta il vincolo di confine.
      */
@@ -101,4 +113,12 @@ public class AnnulusDomain implements Domain {
     public Rectangle2D getBoundingBox() {
         return this.boundingBox;
     }
+
+    /**
+     * Il dominio ha simmetria rotazionale continua: supporta la suddivisione in spicchi di qualunque ordine >= 2.
+     */
+    @Override
+    public Optional<Symmetry> getSymmetry(int order) {
+        return order >= 2 ? Optional.of(Symmetry.rotational(order)) : Optional.empty();
+    }
 }
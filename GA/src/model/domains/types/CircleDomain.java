@@ -3,9 +3,11 @@ package model.domains.types;
 import model.Individual;
 import model.Point;
 import model.domains.Domain;
+import model.domains.Symmetry;
 
 import java.awt.geom.Rectangle2D;
 import java.util.List;
+import java.util.Optional;
 
 public class CircleDomain implements Domain {
 
@@ -59,6 +61,14 @@ public class CircleDomain implements Domain {
         return !((x * x + y * y) <= (radius * radius));
     }
 
+    /**
+     * Distanza con segno dalla circonferenza: distanza dal centro meno il raggio.
+     */
+    @Override
+    public double signedDistance(double x, double y) {
+        return Math.hypot(x, y) - radius;
+    }
+
     /**
      * Verifica se un intero individuo (tutti i suoi punti) rispetta il vincolo di confine.
      * Complessità: O(N), dove N è il numero di punti nell'individuo.
@@ -84,4 +94,12 @@ public class CircleDomain implements Domain {
     public Rectangle2D getBoundingBox() {
         return this.boundingBox;
     }
+
+    /**
+     * Il dominio ha simmetria rotazionale continua: supporta la suddivisione in spicchi di qualunque ordine >= 2.
+     */
+    @Override
+    public Optional<Symmetry> getSymmetry(int order) {
+        return order >= 2 ? Optional.of(Symmetry.rotational(order)) : Optional.empty();
+    }
 }
@@ -3,9 +3,11 @@ package model.domains.types;
 import model.Individual;
 import model.Point;
 import model.domains.Domain;
+import model.domains.Symmetry;
 
 import java.awt.geom.Rectangle2D;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Implementa l'interfaccia Domain definendo un'area di vincolo di forma ellittica.
@@ -16,6 +18,10 @@ public class EllipseDomain implements Domain {
 
 // ------------------- ATTRIBUTI  -------------------
 
+    // Parametri del metodo di Newton della distanza dal bordo (converge in genere in 3-6 iterazioni).
+    private static final int ELLIPSE_MAX_ITERATIONS = 32;
+    private static final double ELLIPSE_TOLERANCE = 1e-12;
+
     // Semi-larghezza (raggio sull'asse X). Corrisponde al semiasse 'a'.
     private final double semiWidth;
 
@@ -70,6 +76,54 @@ public class EllipseDomain implements Domain {
         return !(result <= 1.0);
     }
 
+    /**
+     * Distanza con segno dal bordo dell'ellisse.
+     * <p>
+     * Per simmetria si lavora nel primo quadrante, con il semiasse maggiore {@code e0} sull'asse x. Il punto del
+     * bordo più vicino a (y0, y1) è {@code (e0² y0 / (t + e0²), e1² y1 / (t + e1²))}, dove t è la radice di
+     * <pre>
+     *     F(t) = (e0 y0 / (t + e0²))² + (e1 y1 / (t + e1²))² - 1
+     * </pre>
+     * (metodo di Eberly). F è decrescente e convessa per {@code t > -e1²}, quindi il metodo di Newton partito a
+     * sinistra della radice (da {@code t = -e1² + e1 y1}, dove F >= 0) converge in modo monotono, in poche iterazioni.
+     */
+    @Override
+    public double signedDistance(double x, double y) {
+        boolean swap = semiHeight > semiWidth;
+        double e0 = swap ? semiHeight : semiWidth;
+        double e1 = swap ? semiWidth : semiHeight;
+        double y0 = Math.abs(swap ? y : x);
+        double y1 = Math.abs(swap ? x : y);
+
+        double x0, x1;
+        if (y1 > 0) {
+            double a = e0 * y0, b = e1 * y1;
+            double e0Sq = e0 * e0, e1Sq = e1 * e1;
+            double t = -e1Sq + b;
+            for (int iteration = 0; iteration < ELLIPSE_MAX_ITERATIONS; iteration++) {
+                double r0 = a / (t + e0Sq), r1 = b / (t + e1Sq);
+                double f = r0 * r0 + r1 * r1 - 1;
+                if (f <= ELLIPSE_TOLERANCE) break;
+                double derivative = -2 * (r0 * r0 / (t + e0Sq) + r1 * r1 / (t + e1Sq));
+                t -= f / derivative;
+            }
+            x0 = e0Sq * y0 / (t + e0Sq);
+            x1 = e1Sq * y1 / (t + e1Sq);
+        } else {
+            // Sull'asse maggiore: il punto più vicino è fuori dall'asse solo se y0 è abbastanza vicino al centro.
+            double focal = e0 * e0 - e1 * e1;
+            if (e0 * y0 < focal) {
+                x0 = e0 * e0 * y0 / focal;
+                x1 = e1 * Math.sqrt(Math.max(0, 1 - (x0 / e0) * (x0 / e0)));
+            } else {
+                x0 = e0;
+                x1 = 0;
+            }
+        }
+        double distance = Math.hypot(y0 - x0, y1 - x1);
+        return isPointOutside(x, y) ? distance : -distance;
+    }
+
     /**
      * Verifica se un intero individuo rispetta il vincolo di confine.
      * Complessità: O(N), dove N è il numero di punti.
@@ -91,4 +145,16 @@ public class EllipseDomain implements Domain {
         return this.boundingBox;
     }
 
+    /**
+     * Il dominio è simmetrico rispetto a entrambi gli assi: supporta la riflessione sull'asse y (ordine 2)
+     * e quella sui quattro quadranti (ordine 4).
+     */
+    @Override
+    public Optional<Symmetry> getSymmetry(int order) {
+        return switch (order) {
+            case 2 -> Optional.of(Symmetry.mirror());
+            case 4 -> Optional.of(Symmetry.quadrant());
+            default -> Optional.empty();
+        };
+    }
 }
@@ -3,9 +3,11 @@ package model.domains.types;
 import model.Individual;
 import model.Point;
 import model.domains.Domain;
+import model.domains.Symmetry;
 
 import java.awt.geom.Rectangle2D;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Implementa l'interfaccia Domain definendo un'area non convessa a forma di cornice (Frame).
@@ -79,6 +81,18 @@ public class FrameDomain implements Domain {
                 (y >= -innerHeight / 2.0) && (y <= innerHeight / 2.0);
     }
 
+    /**
+     * Distanza con segno dalla cornice: differenza tra rettangolo esterno e buco, {@code max(d_esterno, -d_buco)}.
+     * È esatta ovunque: dentro la cornice il bordo più vicino è uno dei due rettangoli, dentro il buco (o fuori dal
+     * rettangolo esterno) conta solo il bordo del buco (o quello esterno).
+     */
+    @Override
+    public double signedDistance(double x, double y) {
+        double outer = Domain.boxDistance(x, y, outerWidth / 2.0, outerHeight / 2.0);
+        double hole = Domain.boxDistance(x, y, innerWidth / 2.0, innerHeight / 2.0);
+        return Math.max(outer, -hole);
+    }
+
     /**
      * Verifica se un intero individuo rispetta il vincolo di confine.
      */
@@ -98,4 +112,17 @@ public class FrameDomain implements Domain {
     public Rectangle2D getBoundingBox() {
         return this.boundingBox;
     }
+
+    /**
+     * Il dominio è simmetrico rispetto a entrambi gli assi: supporta la riflessione sull'asse y (ordine 2)
+     * e quella sui quattro quadranti (ordine 4).
+     */
+    @Override
+    public Optional<Symmetry> getSymmetry(int order) {
+        return switch (order) {
+            case 2 -> Optional.of(Symmetry.mirror());
+            case 4 -> Optional.of(Symmetry.quadrant());
+            default -> Optional.empty();
+        };
+    }
 }
@@ -0,0 +1,513 @@
+package model.domains.types;
+
+import model.Individual;
+import model.Point;
+import model.domains.Domain;
+
+import java.awt.geom.Rectangle2D;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Implementa l'interfaccia Domain definendo un poligono semplice qualsiasi, eventualmente con buchi.
+ * <p>
+ * Il poligono è descritto da uno o più anelli di vertici: il primo è il contorno esterno, gli altri sono i buchi
+ * (regola pari/dispari: l'orientamento degli anelli è irrilevante). Il file dei vertici è testuale:
+ * <pre>
+ * # contorno esterno: un vertice "x y" (o "x, y") per riga
+ * 0 0
+ * 40 0
+ * 40 30
+ * 0 30
+ *                   # una riga vuota chiude l'anello
+ * 10 10             # buco
+ * 20 10
+ * 15 20
+ * </pre>
+ * Le coordinate vengono moltiplicate per il parametro {@code scale}.
+ * <p>
+ * Scelta Implementativa: con centinaia o migliaia di lati il test classico (conteggio degli attraversamenti su
+ * tutti i lati) dominerebbe il calcolo della fitness. I lati vengono quindi distribuiti, una sola volta, su una
+ * griglia uniforme sulla bounding box (in media pochi lati per cella) e per ogni cella si precalcola se il suo
+ * centro è dentro il poligono. Un punto è dentro se il centro della sua cella lo è e il segmento punto-centro
+ * attraversa un numero pari di lati: quei lati stanno tutti nella cella, quindi il test costa O(1) in media.
+ */
+public class PolygonDomain implements Domain {
+
+    // ------------------- COSTANTI -------------------
+
+    // Celle della griglia per lato del poligono: poche celle di bordo con pochi lati ciascuna.
+    private static final int CELLS_PER_EDGE = 4;
+    private static final int MAX_CELLS = 1 << 20;
+
+    // Tentativi massimi del campionamento per rigetto (ogni tentativo ha probabilità alta di successo).
+    private static final int MAX_SAMPLING_ATTEMPTS = 1000;
+
+    // ------------------- ATTRIBUTI -------------------
+
+    // I lati, come segmenti (x0, y0) - (x1, y1).
+    private final double[] x0, y0, x1, y1;
+
+    // La Bounding Box dei vertici.
+    private final Rectangle2D boundingBox;
+
+    // Griglia dei lati: i lati della cella c sono cellEdges[cellStart[c] .. cellStart[c + 1] - 1].
+    private final double cellWidth, cellHeight;
+    private final int cols, rows;
+    private final int[] cellStart;
+    private final int[] cellEdges;
+
+    // true se il centro della cella è dentro il poligono.
+    private final boolean[] centerInside;
+
+    // Limite inferiore della distanza dal bordo di ogni punto della cella: i dischi più piccoli, con il centro dentro,
+    // non sporgono (la sporgenza viene calcolata in O(1) per la grande maggioranza dei dischi interni).
+    private final float[] clearance;
+
+    // Celle che contengono almeno una parte del poligono (centro dentro o attraversate da un lato), per il campionamento.
+    private final int[] samplingCells;
+
+    // Impronta dei vertici letti dal file (prima della scala), per la cache delle soluzioni.
+    private final String fingerprint;
+
+    // ------------------- COSTRUTTORE -------------------
+
+    /**
+     * Crea un dominio poligonale.
+     * @param rings Gli anelli di vertici {x0, y0, x1, y1, ...}: il primo è il contorno, gli altri i buchi.
+     * @param scale Il fattore di scala applicato alle coordinate.
+     * @throws IllegalArgumentException Se un anello ha meno di 3 vertici, una coordinata non è finita, la scala non
+     * è positiva, il poligono ha area nulla o un buco non è dentro il contorno.
+     */
+    public PolygonDomain(List<double[]> rings, double scale) {
+        if (!(scale > 0)) {
+            throw new IllegalArgumentException("The scale must be strictly positive (> 0). Found: " + scale);
+        }
+        if (rings.isEmpty()) {
+            throw new IllegalArgumentException("The polygon must have at least one ring.");
+        }
+        int edges = 0;
+        for (double[] ring : rings) {
+            if (ring.length < 6 || ring.length % 2 != 0) {
+                throw new IllegalArgumentException("Every ring must have at least 3 vertices.");
+            }
+            for (double c : ring) {
+                if (!Double.isFinite(c)) throw new IllegalArgumentException("Polygon coordinates must be finite.");
+            }
+            edges += ring.length / 2;
+        }
+        this.fingerprint = fingerprint(rings);
+
+        // --- Lati (scalati) e bounding box ---
+        this.x0 = new double[edges];
+        this.y0 = new double[edges];
+        this.x1 = new double[edges];
+        this.y1 = new double[edges];
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        int e = 0;
+        for (double[] ring : rings) {
+            int n = ring.length / 2;
+            for (int v = 0; v < n; v++, e++) {
+                int w = (v + 1) % n;
+                x0[e] = ring[2 * v] * scale;
+                y0[e] = ring[2 * v + 1] * scale;
+                x1[e] = ring[2 * w] * scale;
+                y1[e] = ring[2 * w + 1] * scale;
+                minX = Math.min(minX, x0[e]);
+                minY = Math.min(minY, y0[e]);
+                maxX = Math.max(maxX, x0[e]);
+                maxY = Math.max(maxY, y0[e]);
+            }
+        }
+        if (!(maxX > minX && maxY > minY) || Math.abs(signedArea(rings.getFirst())) == 0) {
+            throw new IllegalArgumentException("The polygon must have a positive area.");
+        }
+        for (int h = 1; h < rings.size(); h++) {
+            double[] hole = rings.get(h);
+            if (!ringContains(rings.getFirst(), hole[0], hole[1])) {
+                throw new IllegalArgumentException("Hole " + h + " is not inside the outer ring.");
+            }
+        }
+        this.boundingBox = new Rectangle2D.Double(minX, minY, maxX - minX, maxY - minY);
+
+        // --- Griglia: celle di proporzioni simili a quelle della bounding box ---
+        int targetCells = (int) Math.min(MAX_CELLS, Math.max(16L, (long) CELLS_PER_EDGE * edges));
+        double aspect = (maxX - minX) / (maxY - minY);
+        this.cols = Math.max(1, (int) Math.round(Math.sqrt(targetCells * aspect)));
+        this.rows = Math.max(1, targetCells / cols);
+        this.cellWidth = (maxX - minX) / cols;
+        this.cellHeight = (maxY - minY) / rows;
+
+        this.cellStart = new int[cols * rows + 1];
+        this.cellEdges = bucketEdges();
+        this.centerInside = classifyCenters();
+        this.samplingCells = collectSamplingCells();
+        this.clearance = computeClearance();
+    }
+
+    /**
+     * Legge un dominio poligonale da un file di vertici (formato nella documentazione della classe).
+     * @param file Il file dei vertici.
+     * @param scale Il fattore di scala applicato alle coordinate.
+     * @return Il dominio.
+     * @throws IOException Se il file non può essere letto.
+     * @throws IllegalArgumentException Se il contenuto del file non descrive un poligono valido.
+     */
+    public static PolygonDomain load(Path file, double scale) throws IOException {
+        List<double[]> rings = new ArrayList<>();
+        List<Double> current = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                int comment = line.indexOf('#');
+                if (comment >= 0) line = line.substring(0, comment);
+                line = line.trim();
+                if (line.isEmpty()) {
+                    closeRing(rings, current);
+                    continue;
+                }
+                String[] parts = line.split("[\\s,;]+");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException(file + ", line " + lineNumber + ": expected 'x y', found: " + line);
+                }
+                try {
+                    current.add(Double.parseDouble(parts[0]));
+                    current.add(Double.parseDouble(parts[1]));
+                } catch (NumberFormatException ex) {
+                    throw new IllegalArgumentException(file + ", line " + lineNumber + ": non-numeric vertex: " + line);
+                }
+            }
+        }
+        closeRing(rings, current);
+        return new PolygonDomain(rings, scale);
+    }
+
+    private static void closeRing(List<double[]> rings, List<Double> current) {
+        if (current.isEmpty()) return;
+        double[] ring = new double[current.size()];
+        for (int i = 0; i < ring.length; i++) ring[i] = current.get(i);
+        // Un ultimo vertice uguale al primo (anello "chiuso" esplicitamente) viene scartato.
+        int n = ring.length;
+        if (n >= 8 && ring[0] == ring[n - 2] && ring[1] == ring[n - 1]) ring = Arrays.copyOf(ring, n - 2);
+        rings.add(ring);
+        current.clear();
+    }
+
+    // ==================================================================================
+    // 🧮 COSTRUZIONE DELLA GRIGLIA
+    // ==================================================================================
+
+    /**
+     * Assegna ogni lato alle celle che attraversa (formato CSR, riempie {@code cellStart}).
+     * Per ogni cella della bounding box del lato si verifica che la retta del lato separi davvero gli angoli della
+     * cella, così i lati lunghi e obliqui non finiscono in tutte le celle del loro rettangolo.
+     */
+    private int[] bucketEdges() {
+        int cells = cols * rows;
+        int[] counts = new int[cells];
+        List<int[]> assignments = new ArrayList<>();
+        for (int e = 0; e < x0.length; e++) {
+            int iMin = column(Math.min(x0[e], x1[e])), iMax = column(Math.max(x0[e], x1[e]));
+            int jMin = row(Math.min(y0[e], y1[e])), jMax = row(Math.max(y0[e], y1[e]));
+            for (int j = jMin; j <= jMax; j++) {
+                for (int i = iMin; i <= iMax; i++) {
+                    if (edgeTouchesCell(e, i, j)) {
+                        counts[j * cols + i]++;
+                        assignments.add(new int[] { j * cols + i, e });
+                    }
+                }
+            }
+        }
+        for (int c = 0; c < cells; c++) cellStart[c + 1] = cellStart[c] + counts[c];
+        int[] next = Arrays.copyOf(cellStart, cells);
+        int[] edges = new int[assignments.size()];
+        for (int[] a : assignments) edges[next[a[0]]++] = a[1];
+        return edges;
+    }
+
+    /** Verifica (in modo conservativo) se il lato e interseca la cella (i, j). */
+    private boolean edgeTouchesCell(int e, int i, int j) {
+        double left = boundingBox.getMinX() + i * cellWidth, bottom = boundingBox.getMinY() + j * cellHeight;
+        double right = left + cellWidth, top = bottom + cellHeight;
+        double dx = x1[e] - x0[e], dy = y1[e] - y0[e];
+        // Segno della retta del lato nei quattro angoli: se è lo stesso ovunque, il lato passa fuori dalla cella.
+        double s1 = dx * (bottom - y0[e]) - dy * (left - x0[e]);
+        double s2 = dx * (bottom - y0[e]) - dy * (right - x0[e]);
+        double s3 = dx * (top - y0[e]) - dy * (left - x0[e]);
+        double s4 = dx * (top - y0[e]) - dy * (right - x0[e]);
+        return !((s1 > 0 && s2 > 0 && s3 > 0 && s4 > 0) || (s1 < 0 && s2 < 0 && s3 < 0 && s4 < 0));
+    }
+
+    /**
+     * Classifica i centri delle celle riga per riga: gli attraversamenti dei lati con la retta orizzontale dei
+     * centri, ordinati per ascissa, dividono la riga in tratti alternativamente fuori e dentro.
+     * Costo O(lati * righe + celle), invece di O(lati * celle).
+     */
+    private boolean[] classifyCenters() {
+        boolean[] inside = new boolean[cols * rows];
+        double[] crossings = new double[x0.length];
+        for (int j = 0; j < rows; j++) {
+            double y = boundingBox.getMinY() + (j + 0.5) * cellHeight;
+            int count = 0;
+            for (int e = 0; e < x0.length; e++) {
+                // Regola semiaperta: un vertice esattamente sulla retta viene contato una sola volta.
+                if ((y0[e] > y) != (y1[e] > y)) {
+                    crossings[count++] = x0[e] + (y - y0[e]) * (x1[e] - x0[e]) / (y1[e] - y0[e]);
+                }
+            }
+            Arrays.sort(crossings, 0, count);
+            int k = 0;
+            for (int i = 0; i < cols; i++) {
+                double x = boundingBox.getMinX() + (i + 0.5) * cellWidth;
+                while (k < count && crossings[k] < x) k++;
+                inside[j * cols + i] = (k & 1) == 1;
+            }
+        }
+        return inside;
+    }
+
+    private int[] collectSamplingCells() {
+        int[] cells = new int[cols * rows];
+        int count = 0;
+        for (int c = 0; c < cols * rows; c++) {
+            if (centerInside[c] || cellStart[c + 1] > cellStart[c]) cells[count++] = c;
+        }
+        return Arrays.copyOf(cells, count);
+    }
+
+    /**
+     * Distanza del centro di ogni cella dal lato più vicino, meno metà della diagonale della cella (arrotondata per
+     * difetto a float, così resta un limite inferiore).
+     */
+    private float[] computeClearance() {
+        float[] result = new float[cols * rows];
+        double halfDiagonal = 0.5 * Math.hypot(cellWidth, cellHeight);
+        for (int j = 0; j < rows; j++) {
+            for (int i = 0; i < cols; i++) {
+                double x = boundingBox.getMinX() + (i + 0.5) * cellWidth;
+                double y = boundingBox.getMinY() + (j + 0.5) * cellHeight;
+                double value = nearestEdgeDistance(x, y, Double.MAX_VALUE) - halfDiagonal;
+                result[j * cols + i] = Math.nextDown((float) Math.max(0, value));
+            }
+        }
+        return result;
+    }
+
+    // ==================================================================================
+    // 📐 IMPLEMENTAZIONE INTERFACCIA DOMAIN
+    // ==================================================================================
+
+    /**
+     * Verifica se un punto è fuori dal poligono (o dentro un buco).
+     * Complessità: O(1) in media (i lati della cella del punto).
+     */
+    @Override
+    public boolean isPointOutside(double x, double y) {
+        if (x < boundingBox.getMinX() || x > boundingBox.getMaxX() || y < boundingBox.getMinY() || y > boundingBox.getMaxY()) {
+            return true;
+        }
+        int i = column(x), j = row(y);
+        int c = j * cols + i;
+        double cx = boundingBox.getMinX() + (i + 0.5) * cellWidth;
+        double cy = boundingBox.getMinY() + (j + 0.5) * cellHeight;
+
+        boolean inside = centerInside[c];
+        for (int k = cellStart[c]; k < cellStart[c + 1]; k++) {
+            if (crosses(cellEdges[k], x, y, cx, cy)) inside = !inside;
+        }
+        return !inside;
+    }
+
+    /**
+     * Verifica se il segmento (px, py) - (qx, qy) attraversa il lato e.
+     * Regola semiaperta sui vertici: un segmento che passa per un vertice condiviso da due lati lo attraversa
+     * una sola volta (o nessuna, se lo tocca senza cambiare lato).
+     */
+    private boolean crosses(int e, double px, double py, double qx, double qy) {
+        double ax = x0[e], ay = y0[e], bx = x1[e], by = y1[e];
+        boolean aSide = (qx - px) * (ay - py) - (qy - py) * (ax - px) > 0;
+        boolean bSide = (qx - px) * (by - py) - (qy - py) * (bx - px) > 0;
+        if (aSide == bSide) return false;
+        boolean pSide = (bx - ax) * (py - ay) - (by - ay) * (px - ax) > 0;
+        boolean qSide = (bx - ax) * (qy - ay) - (by - ay) * (qx - ax) > 0;
+        return pSide != qSide;
+    }
+
+    /**
+     * Distanza con segno dal bordo del poligono (contorno o buchi).
+     * <p>
+     * I lati vengono cercati ad anelli di celle crescenti attorno alla cella del punto; la ricerca si ferma quando
+     * il lato più vicino trovato è più vicino di qualunque cella non ancora esplorata. Il costo cresce con la
+     * distanza dal bordo: per i punti lontani conviene {@link #protrusion}.
+     */
+    @Override
+    public double signedDistance(double x, double y) {
+        double distance = nearestEdgeDistance(x, y, Double.MAX_VALUE);
+        return isPointOutside(x, y) ? distance : -distance;
+    }
+
+    /**
+     * Sporgenza di un disco dal poligono. Per i dischi con il centro dentro basta sapere se un lato è più vicino del
+     * raggio: se la cella è abbastanza lontana dal bordo la risposta è immediata, altrimenti la ricerca dei lati si
+     * ferma al raggio del disco.
+     */
+    @Override
+    public double protrusion(double x, double y, double radius) {
+        if (isPointOutside(x, y)) {
+            return nearestEdgeDistance(x, y, Double.MAX_VALUE) + radius;
+        }
+        if (clearance[row(y) * cols + column(x)] >= radius) {
+            return 0;
+        }
+        return Math.max(0, radius - nearestEdgeDistance(x, y, radius));
+    }
+
+    /**
+     * Distanza dal lato più vicino, cercata ad anelli di celle; se nessun lato è entro {@code limit} il risultato è
+     * solo garantito essere >= {@code limit}.
+     */
+    private double nearestEdgeDistance(double x, double y, double limit) {
+        // Proiezione sulla griglia: le distanze dalle celle non crescono proiettando, quindi il limite resta valido.
+        int ci = column(Math.min(Math.max(x, boundingBox.getMinX()), boundingBox.getMaxX()));
+        int cj = row(Math.min(Math.max(y, boundingBox.getMinY()), boundingBox.getMaxY()));
+        double minCell = Math.min(cellWidth, cellHeight);
+        // Si lavora con i quadrati delle distanze: una sola radice alla fine.
+        double bestSq = limit == Double.MAX_VALUE ? Double.MAX_VALUE : limit * limit;
+        int maxRing = Math.max(cols, rows);
+        for (int r = 0; r <= maxRing; r++) {
+            for (int j = cj - r; j <= cj + r; j++) {
+                if (j < 0 || j >= rows) continue;
+                boolean edgeRow = j == cj - r || j == cj + r;
+                for (int i = ci - r; i <= ci + r; i += edgeRow ? 1 : 2 * r) {
+                    if (i >= 0 && i < cols) bestSq = cellDistanceSq(i, j, x, y, bestSq);
+                    if (r == 0) break;
+                }
+            }
+            // Le celle dell'anello r + 1 distano almeno r celle dal punto (proiettato).
+            double reached = r * minCell;
+            if (bestSq <= reached * reached) break;
+        }
+        return Math.sqrt(bestSq);
+    }
+
+    /**
+     * Minimo tra {@code bestSq} e il quadrato della distanza dai lati della cella (i, j).
+     * La cella viene saltata se il suo rettangolo è già più lontano di {@code bestSq}.
+     */
+    private double cellDistanceSq(int i, int j, double x, double y, double bestSq) {
+        int c = j * cols + i;
+        if (cellStart[c] == cellStart[c + 1]) return bestSq;
+        double left = boundingBox.getMinX() + i * cellWidth, bottom = boundingBox.getMinY() + j * cellHeight;
+        double gx = Math.max(0, Math.max(left - x, x - left - cellWidth));
+        double gy = Math.max(0, Math.max(bottom - y, y - bottom - cellHeight));
+        if (gx * gx + gy * gy >= bestSq) return bestSq;
+
+        for (int k = cellStart[c]; k < cellStart[c + 1]; k++) {
+            int e = cellEdges[k];
+            double dx = x1[e] - x0[e], dy = y1[e] - y0[e];
+            double t = ((x - x0[e]) * dx + (y - y0[e]) * dy) / (dx * dx + dy * dy);
+            t = Math.max(0, Math.min(1, t));
+            double ex = x - (x0[e] + t * dx), ey = y - (y0[e] + t * dy);
+            bestSq = Math.min(bestSq, ex * ex + ey * ey);
+        }
+        return bestSq;
+    }
+
+    /**
+     * Genera un punto uniforme nel poligono: cella uniforme tra quelle che contengono parte del poligono, punto
+     * uniforme nella cella, rigetto dei punti fuori. Molto più efficiente della bounding box per poligoni sottili.
+     */
+    @Override
+    public Point samplePoint(double radius) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double x = 0, y = 0;
+        for (int attempt = 0; attempt < MAX_SAMPLING_ATTEMPTS; attempt++) {
+            int c = samplingCells[random.nextInt(samplingCells.length)];
+            x = boundingBox.getMinX() + (c % cols + random.nextDouble()) * cellWidth;
+            y = boundingBox.getMinY() + (c / cols + random.nextDouble()) * cellHeight;
+            if (!isPointOutside(x, y)) break;
+        }
+        return new Point(x, y, radius);
+    }
+
+    @Override
+    public boolean isValidIndividual(Individual individual) {
+        List<Point> points = individual.getChromosomes();
+        for (Point p : points) {
+            if (isPointOutside(p.getX(), p.getY())) { return false; }
+        }
+        return true;
+    }
+
+    @Override
+    public Rectangle2D getBoundingBox() {
+        return this.boundingBox;
+    }
+
+    // ------------------- GETTER E UTILITÀ -------------------
+
+    /** Numero di lati del poligono (buchi compresi). */
+    public int getEdgeCount() { return x0.length; }
+
+    /**
+     * Impronta dei vertici letti (prima della scala): due poligoni uguali a meno della scala hanno la stessa impronta.
+     */
+    public String getFingerprint() { return fingerprint; }
+
+    private int column(double x) {
+        return Math.min(cols - 1, Math.max(0, (int) ((x - boundingBox.getMinX()) / cellWidth)));
+    }
+
+    private int row(double y) {
+        return Math.min(rows - 1, Math.max(0, (int) ((y - boundingBox.getMinY()) / cellHeight)));
+    }
+
+    private static double signedArea(double[] ring) {
+        double area = 0;
+        int n = ring.length / 2;
+        for (int v = 0; v < n; v++) {
+            int w = (v + 1) % n;
+            area += ring[2 * v] * ring[2 * w + 1] - ring[2 * w] * ring[2 * v + 1];
+        }
+        return area / 2;
+    }
+
+    /** Test pari/dispari classico su un solo anello (usato solo in costruzione). */
+    private static boolean ringContains(double[] ring, double x, double y) {
+        boolean inside = false;
+        int n = ring.length / 2;
+        for (int v = 0, w = n - 1; v < n; w = v++) {
+            double xv = ring[2 * v], yv = ring[2 * v + 1], xw = ring[2 * w], yw = ring[2 * w + 1];
+            if ((yv > y) != (yw > y) && x < xv + (y - yv) * (xw - xv) / (yw - yv)) inside = !inside;
+        }
+        return inside;
+    }
+
+    private static String fingerprint(List<double[]> rings) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (double[] ring : rings) {
+                for (double c : ring) {
+                    long bits = Double.doubleToLongBits(c);
+                    for (int b = 0; b < 8; b++) digest.update((byte) (bits >>> (8 * b)));
+                }
+                digest.update((byte) '|');
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -3,9 +3,11 @@ package model.domains.types;
 import model.Individual;
 import model.Point;
 import model.domains.Domain;
+import model.domains.Symmetry;
 
 import java.awt.geom.Rectangle2D;
 import java.util.List;
+import java.util.Optional;
 
 public class RectangleDomain implements Domain {
 
@@ -60,6 +62,14 @@ public class RectangleDomain implements Domain {
                 (y >= -height / 2) && (y <= height / 2));
     }
 
+    /**
+     * Distanza con segno dal bordo del rettangolo (esatta, anche dagli angoli).
+     */
+    @Override
+    public double signedDistance(double x, double y) {
+        return Domain.boxDistance(x, y, width / 2, height / 2);
+    }
+
     /**
      * Verifica se un intero individuo (tutti i suoi punti) rispetta il vincolo di confine.
      * Complessità: O(N), dove N è il numero di punti nell'individuo.
@@ -84,4 +94,17 @@ public class RectangleDomain implements Domain {
     public Rectangle2D getBoundingBox() {
         return this.boundingBox;
     }
+
+    /**
+     * Il dominio è simmetrico rispetto a entrambi gli assi: supporta la riflessione sull'asse y (ordine 2)
+     * e quella sui quattro quadranti (ordine 4).
+     */
+    @Override
+    public Optional<Symmetry> getSymmetry(int order) {
+        return switch (order) {
+            case 2 -> Optional.of(Symmetry.mirror());
+            case 4 -> Optional.of(Symmetry.quadrant());
+            default -> Optional.empty();
+        };
+    }
 }
@@ -73,6 +73,33 @@ public class RightAngledTriangle implements Domain {
         return !isInsideHypotenuse;
     }
 
+    /**
+     * Distanza con segno dal bordo del triangolo.
+     * <p>
+     * Dentro il triangolo il bordo più vicino è uno dei tre lati presi come rette (i cateti sugli assi e
+     * l'ipotenusa); fuori è il più vicino dei tre segmenti, che può essere un vertice.
+     */
+    @Override
+    public double signedDistance(double x, double y) {
+        if (!isPointOutside(x, y)) {
+            // Distanza (positiva) dalla retta dell'ipotenusa H x + B y = B H.
+            double toHypotenuse = (base * height - height * x - base * y) / Math.hypot(base, height);
+            return -Math.min(Math.min(x, y), toHypotenuse);
+        }
+        double toBase = segmentDistance(x, y, 0, 0, base, 0);
+        double toHeight = segmentDistance(x, y, 0, 0, 0, height);
+        double toHypotenuse = segmentDistance(x, y, base, 0, 0, height);
+        return Math.min(toBase, Math.min(toHeight, toHypotenuse));
+    }
+
+    /** Distanza del punto (x, y) dal segmento (x1, y1)-(x2, y2). */
+    private static double segmentDistance(double x, double y, double x1, double y1, double x2, double y2) {
+        double dx = x2 - x1, dy = y2 - y1;
+        double t = ((x - x1) * dx + (y - y1) * dy) / (dx * dx + dy * dy);
+        t = Math.max(0, Math.min(1, t));
+        return Math.hypot(x - (x1 + t * dx), y - (y1 + t * dy));
+    }
+
     /**
      * Verifica se un intero individuo rispetta il vincolo di confine.
      */
@@ -3,9 +3,11 @@ package model.domains.types;
 import model.Individual;
 import model.Point;
 import model.domains.Domain;
+import model.domains.Symmetry;
 
 import java.awt.geom.Rectangle2D;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Implementa l'interfaccia Domain definendo un'area di vincolo di forma quadrata.
@@ -61,6 +63,14 @@ public class SquareDomain implements Domain {
         return !((x >= -side/2) && (x <= side/2) && (y >= -side/2) && (y <= side/2));
     }
 
+    /**
+     * Distanza con segno dal bordo del quadrato (esatta, anche dagli angoli).
+     */
+    @Override
+    public double signedDistance(double x, double y) {
+        return Domain.boxDistance(x, y, side / 2, side / 2);
+    }
+
     /**
      * Verifica se un intero individuo (tutti i suoi punti) rispetta il vincolo di confine.
      * Complessità: O(N), dove N è il numero di punti nell'individuo.
@@ -86,4 +96,17 @@ public class SquareDomain implements Domain {
     public Rectangle2D getBoundingBox() {
         return this.boundingBox;
     }
+
+    /**
+     * Il dominio è simmetrico rispetto a entrambi gli assi: supporta la riflessione sull'asse y (ordine 2)
+     * e quella sui quattro quadranti (ordine 4).
+     */
+    @Override
+    public Optional<Symmetry> getSymmetry(int order) {
+        return switch (order) {
+            case 2 -> Optional.of(Symmetry.mirror());
+            case 4 -> Optional.of(Symmetry.quadrant());
+            default -> Optional.empty();
+        };
+    }
 }
@@ -1,16 +1,24 @@
 package service;
 
+import model.GenomeLattice;
+import model.GenomeLayout;
 import model.Individual;
 import model.Point;
+import model.domains.Domain;
 import utils.RandomUtils;
 
-import java.util.ArrayList;
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * crossover function
  * given a crossover probability P_c two individuals will
  * cross their genes.
+ * <p>
+ * Due operatori di ricombinazione: il crossover uniforme (ogni gene da un genitore a caso) e il crossover a taglio
+ * geometrico (il dominio viene diviso da una retta o da una circonferenza casuale e ogni genitore dà i suoi punti
+ * da un lato), scelti a ogni ricombinazione con la probabilità configurata.
  * */
 public class Crossover {
 
@@ -19,18 +27,70 @@ public class Crossover {
     // La probabilità che l'operazione di crossover avvenga tra i due genitori selezionati.
     private final double CrossoverProbability;
 
+    // La disposizione dei gruppi nel cromosoma: lo scambio dei geni avviene gruppo per gruppo.
+    private final GenomeLayout layout;
+
+    // Probabilità che una ricombinazione usi il taglio geometrico invece del crossover uniforme (0 = mai).
+    private final double cutProbability;
+
+    // Bounding box del dominio, in cui vengono estratti i tagli (null se il taglio non è usato).
+    private final Rectangle2D bounds;
+
+    // Chiavi di ordinamento per thread (distanza dal taglio e indice del gene), dimensionate sul gruppo più grande.
+    private final ThreadLocal<long[][]> cutKeys;
+
     // ------------------- COSTRUTTORE -------------------
 
     /**
      * Costruisce l'operatore di Crossover con la probabilità specificata.
      * @param CrossoverProbability La probabilità (tra 0.0 e 1.0) di eseguire il crossover.
+     * @param layout La disposizione dei gruppi nel cromosoma.
      * * Scelta Implementativa: L'uso di 'final' garantisce l'immutabilità della probabilità di configurazione.
      */
-    public Crossover(double CrossoverProbability) {
+    public Crossover(double CrossoverProbability, GenomeLayout layout) {
+        this(CrossoverProbability, layout, null, 0);
+    }
+
+    /**
+     * Costruisce l'operatore di Crossover che alterna crossover uniforme e taglio geometrico.
+     * @param CrossoverProbability La probabilità (tra 0.0 e 1.0) di eseguire il crossover.
+     * @param layout La disposizione dei gruppi nel cromosoma.
+     * @param domain Il dominio, in cui vengono estratti i tagli (può essere null se cutProbability è 0).
+     * @param cutProbability La probabilità che una ricombinazione usi il taglio geometrico.
+     */
+    public Crossover(double CrossoverProbability, GenomeLayout layout, Domain domain, double cutProbability) {
+        if (cutProbability > 0 && domain == null) {
+            throw new IllegalArgumentException("The cut-line crossover needs the domain.");
+        }
         this.CrossoverProbability = CrossoverProbability;
+        this.layout = layout;
+        this.cutProbability = cutProbability;
+        this.bounds = domain == null ? null : domain.getBoundingBox();
+        int largestGroup = 0;
+        for (int g = 0; g < layout.getGroupCount(); g++) {
+            largestGroup = Math.max(largestGroup, layout.getEnd(g) - layout.getStart(g));
+        }
+        final int capacity = largestGroup;
+        this.cutKeys = ThreadLocal.withInitial(() -> new long[][]{new long[capacity], new long[capacity]});
     }
 
-    // ------------------- METODO PRINCIPALE -------------------
+    // ------------------- METODI PRINCIPALI -------------------
+
+    /**
+     * Esegue il crossover tra due individui, scegliendo l'operatore: con probabilità {@code cutProbability} il
+     * taglio geometrico, altrimenti il crossover uniforme.
+     * @param I1 Il primo genitore.
+     * @param I2 Il secondo genitore.
+     * @return Una nuova istanza di Individual (il figlio).
+     */
+    public Individual crossover(Individual I1, Individual I2) {
+        checkParents(I1, I2);
+        // 1. Controlla se il Crossover deve avvenire (probabilità di ricombinazione).
+        if (RandomUtils.randDouble() < CrossoverProbability) {
+            return cutProbability > 0 && RandomUtils.randDouble() < cutProbability ? mixByCut(I1, I2) : mixUniform(I1, I2);
+        }
+        return cloneParent(I1, I2);
+    }
 
     /**
      * Esegue il **Crossover Uniforme** tra due individui, generando un figlio.
@@ -39,41 +99,198 @@ public class Crossover {
      * @return Una nuova istanza di Individual (il figlio).
      */
     public Individual uniformCrossover(Individual I1, Individual I2) {
-        int lenght = I1.getDimension();
-        List<Point> childChromosomes = new ArrayList<>(lenght);
-
+        checkParents(I1, I2);
         // 1. Controlla se il Crossover deve avvenire (probabilità di ricombinazione).
-        if(RandomUtils.randDouble() < CrossoverProbability) {
+        if (RandomUtils.randDouble() < CrossoverProbability) {
+            return mixUniform(I1, I2);
+        }
+        return cloneParent(I1, I2);
+    }
+
+    /**
+     * Esegue il **Crossover a taglio geometrico** tra due individui, generando un figlio.
+     * @param I1 Il primo genitore.
+     * @param I2 Il secondo genitore.
+     * @return Una nuova istanza di Individual (il figlio).
+     * @throws IllegalArgumentException Se l'operatore è stato costruito senza dominio.
+     */
+    public Individual cutLineCrossover(Individual I1, Individual I2) {
+        if (bounds == null) {
+            throw new IllegalArgumentException("The cut-line crossover needs the domain.");
+        }
+        checkParents(I1, I2);
+        if (RandomUtils.randDouble() < CrossoverProbability) {
+            return mixByCut(I1, I2);
+        }
+        return cloneParent(I1, I2);
+    }
+
+    // ------------------- OPERATORI -------------------
 
-            // --- Crossover Uniforme ---
-            // Scambia i geni uno per uno, con una probabilità del 50% per ogni gene.
-            for (int i = 0; i < lenght; i++) {
+    private void checkParents(Individual I1, Individual I2) {
+        int lenght = layout.getSize();
+        if (I1.getDimension() != lenght || I2.getDimension() != lenght) {
+            throw new IllegalArgumentException("Parents do not match the genome layout (" + lenght + " points).");
+        }
+    }
+
+    /** Crossover uniforme: ogni gene viene da uno dei due genitori, a caso. */
+    private Individual mixUniform(Individual I1, Individual I2) {
+        if (I1.getLattice() != null) {
+            return mixUniformOnLattice(I1, I2);
+        }
+        int lenght = layout.getSize();
+        Point[] childChromosomes = new Point[lenght];
+        List<Point> genes1 = I1.getChromosomes();
+        List<Point> genes2 = I2.getChromosomes();
+
+        // --- Crossover Uniforme per gruppo ---
+        // Scambia i geni uno per uno, con una probabilità del 50% per ogni gene, restando nei confini di
+        // ciascun gruppo: il gene i del figlio viene sempre dal gene i di un genitore, quindi conserva il raggio
+        // del suo gruppo e la disposizione contigua del cromosoma.
+        int fromI1 = 0;
+        for (int g = 0; g < layout.getGroupCount(); g++) {
+            for (int i = layout.getStart(g); i < layout.getEnd(g); i++) {
                 // Il CoinToss decide se prendere il gene da I1 (0) o I2 (1).
+                // Si aggiunge un riferimento al Point (gene), che è sicuro perché Point è immutabile.
                 if (RandomUtils.CoinToss() == 0) {
-                    // Si aggiunge un riferimento al Point (gene), che è sicuro perché Point è immutabile.
-                    childChromosomes.add(I1.getChromosomes().get(i));
+                    childChromosomes[i] = genes1.get(i);
+                    fromI1++;
                 } else {
-                    childChromosomes.add(I2.getChromosomes().get(i));
+                    childChromosomes[i] = genes2.get(i);
                 }
             }
+        }
 
-            // Restituisce un nuovo individuo con il genoma misto.
-            // Il costruttore di Individual garantisce la COPIA della lista per l'isolamento genetico.
-            return new Individual(childChromosomes);
-
-        } else {
-            // 2. Crossover non avviene: Il figlio è una copia (clone) di uno dei genitori.
+        // Restituisce un nuovo individuo con il genoma misto.
+        // Il figlio adotta l'array appena composto, senza copiarlo una seconda volta.
+        Individual child = new Individual(childChromosomes);
+        // Il figlio eredita la lista dei vicini del genitore che gli ha dato più geni: è quella che ha più
+        // probabilità di essere ancora valida (la validità viene comunque verificata alla valutazione).
+        child.setNeighbourList(2 * fromI1 >= lenght ? I1.getNeighbourList() : I2.getNeighbourList());
+        return child;
+    }
 
-            // Sceglie casualmente quale dei due genitori clonare.
+    /**
+     * Crossover uniforme tra individui quantizzati: la stessa scelta gene per gene, ma sui codici del reticolo, senza
+     * ricostruire i {@code Point} dei genitori.
+     */
+    private Individual mixUniformOnLattice(Individual I1, Individual I2) {
+        int lenght = layout.getSize();
+        int[] childCodes = new int[lenght];
+        int fromI1 = 0;
+        for (int i = 0; i < lenght; i++) {
             if (RandomUtils.CoinToss() == 0) {
-                // Restituisce un nuovo individuo geneticamente identico a I1.
-                return new Individual(I1.getChromosomes());
+                childCodes[i] = I1.getCode(i);
+                fromI1++;
             } else {
-                // Restituisce un nuovo individuo geneticamente identico a I2.
-                return new Individual(I2.getChromosomes());
+                childCodes[i] = I2.getCode(i);
             }
-            // * Scelta Implementativa: La creazione di un 'new Individual' assicura che anche se il crossover fallisce,
-            // il figlio sia un oggetto separato, prevenendo riferimenti incrociati e permettendone la mutazione successiva.
         }
+        Individual child = new Individual(childCodes, I1.getLattice());
+        child.setNeighbourList(2 * fromI1 >= lenght ? I1.getNeighbourList() : I2.getNeighbourList());
+        return child;
+    }
+
+    /**
+     * Crossover a taglio geometrico: un taglio casuale (retta o circonferenza) divide il dominio in due lati; il
+     * figlio prende i punti di I1 da un lato e quelli di I2 dall'altro, gruppo per gruppo.
+     * <p>
+     * Riparazione: il figlio deve avere esattamente i geni di ogni gruppo. Per ogni gruppo si ordinano i geni dei
+     * due genitori per distanza con segno dal taglio: se I1 ha k geni dal suo lato, il figlio prende i k geni di I1
+     * più "interni" e gli n - k geni di I2 più lontani dal taglio dall'altro lato. Se I2 non ne ha abbastanza, per
+     * lui il taglio si sposta oltre la linea, prendendo i suoi punti più vicini al confine; il resto della
+     * disposizione di ciascun genitore resta intatto.
+     * <p>
+     * Scelta Implementativa: i geni di I1 restano nelle loro posizioni del cromosoma e quelli di I2 occupano le
+     * posizioni dei geni di I1 scartati, quindi il figlio eredita la lista dei vicini di I1, che resta valida per
+     * i punti ereditati da lui. Le chiavi di ordinamento impacchettano distanza (come float) e indice in un long,
+     * ordinato con {@code Arrays.sort} sui primitivi, senza comparatori né oggetti.
+     */
+    private Individual mixByCut(Individual I1, Individual I2) {
+        List<Point> genes1 = I1.getChromosomes();
+        List<Point> genes2 = I2.getChromosomes();
+        // Con i geni quantizzati il figlio si compone sui codici; i punti servono solo per le distanze dal taglio.
+        GenomeLattice lattice = I1.getLattice();
+        Point[] childChromosomes = lattice == null ? genes1.toArray(new Point[0]) : null;
+        int[] childCodes = lattice == null ? null : new int[layout.getSize()];
+        if (lattice != null) {
+            for (int i = 0; i < childCodes.length; i++) childCodes[i] = I1.getCode(i);
+        }
+        long[][] keys = cutKeys.get();
+        long[] keys1 = keys[0], keys2 = keys[1];
+
+        // Il taglio: metà delle volte una retta per un punto casuale della box, altrimenti una circonferenza con
+        // centro nella box e raggio fino a metà diagonale. cutDistance è negativa dal lato di I1.
+        double px = bounds.getMinX() + RandomUtils.randDouble() * bounds.getWidth();
+        double py = bounds.getMinY() + RandomUtils.randDouble() * bounds.getHeight();
+        boolean line = RandomUtils.CoinToss() == 0;
+        double angle = 2 * Math.PI * RandomUtils.randDouble();
+        double nx = Math.cos(angle), ny = Math.sin(angle);
+        double cutRadius = 0.5 * Math.hypot(bounds.getWidth(), bounds.getHeight()) * RandomUtils.randDouble();
+
+        for (int g = 0; g < layout.getGroupCount(); g++) {
+            int start = layout.getStart(g);
+            int n = layout.getEnd(g) - start;
+            int sideOfI1 = 0;
+            for (int k = 0; k < n; k++) {
+                double d1 = cutDistance(genes1.get(start + k), line, px, py, nx, ny, cutRadius);
+                double d2 = cutDistance(genes2.get(start + k), line, px, py, nx, ny, cutRadius);
+                if (d1 < 0) sideOfI1++;
+                keys1[k] = sortKey(d1, k);
+                keys2[k] = sortKey(d2, k);
+            }
+            Arrays.sort(keys1, 0, n);
+            Arrays.sort(keys2, 0, n);
+
+            // I geni di I1 scartati (i più lontani dal suo lato, keys1[sideOfI1 ..]) vengono sostituiti dai geni di
+            // I2 più lontani dal lato di I1 (keys2 dalla fine).
+            for (int k = sideOfI1; k < n; k++) {
+                int slot = (int) keys1[k];
+                int donor = (int) keys2[n - 1 - (k - sideOfI1)];
+                if (lattice == null) {
+                    childChromosomes[start + slot] = genes2.get(start + donor);
+                } else {
+                    childCodes[start + slot] = I2.getCode(start + donor);
+                }
+            }
+        }
+
+        Individual child = lattice == null ? new Individual(childChromosomes) : new Individual(childCodes, lattice);
+        child.setNeighbourList(I1.getNeighbourList());
+        return child;
+    }
+
+    /** Distanza con segno dal taglio (retta di normale (nx, ny) per (px, py), oppure circonferenza di centro (px, py)). */
+    private static double cutDistance(Point p, boolean line, double px, double py, double nx, double ny, double cutRadius) {
+        double dx = p.getX() - px;
+        double dy = p.getY() - py;
+        return line ? dx * nx + dy * ny : Math.sqrt(dx * dx + dy * dy) - cutRadius;
+    }
+
+    /**
+     * Chiave ordinabile: la distanza (come float, con i bit trasformati in modo che l'ordine degli interi con segno
+     * sia quello dei float) nei 32 bit alti, l'indice del gene nei 32 bassi.
+     */
+    private static long sortKey(double distance, int index) {
+        int bits = Float.floatToIntBits((float) distance);
+        bits ^= (bits >> 31) & Integer.MAX_VALUE;
+        return ((long) bits << 32) | index;
+    }
+
+    /** Nessuna ricombinazione: il figlio è una copia di uno dei genitori. */
+    private Individual cloneParent(Individual I1, Individual I2) {
+        // 2. Crossover non avviene: Il figlio è una copia (clone) di uno dei genitori.
+
+        // Sceglie casualmente quale dei due genitori clonare.
+        Individual parent = RandomUtils.CoinToss() == 0 ? I1 : I2;
+        // Restituisce un nuovo individuo geneticamente identico al genitore scelto, con la sua lista dei vicini.
+        // I geni non vengono copiati: il figlio condivide i segmenti del cromosoma del genitore e la mutazione
+        // copia solo quelli che tocca.
+        Individual child = new Individual(parent.getChromosomes());
+        child.setNeighbourList(parent.getNeighbourList());
+        return child;
+        // * Scelta Implementativa: La creazione di un 'new Individual' assicura che anche se il crossover fallisce,
+        // il figlio sia un oggetto separato, prevenendo riferimenti incrociati e permettendone la mutazione successiva.
     }
 }
@@ -0,0 +1,83 @@
+package service;
+
+import model.Individual;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache delle fitness di una generazione, indicizzata per impronta del genoma ({@link Individual#getFingerprint()}).
+ * <p>
+ * Un figlio nato senza crossover e non toccato dalla mutazione è identico a un genitore: invece di rivalutarlo ne
+ * riprende la fitness (e la lista dei vicini). La cache contiene gli individui della generazione corrente e i figli
+ * già valutati; viene svuotata a ogni generazione, quindi trattiene solo individui ancora vivi.
+ * <p>
+ * Scelta Implementativa: impronta a 64 bit come chiave di una {@code ConcurrentHashMap}, perché i figli vengono
+ * generati e valutati in parallelo. Un'impronta uguale non basta: il riuso richiede anche gli stessi punti nelle
+ * stesse posizioni (confronto per identità, i punti sono immutabili e condivisi), un controllo O(n) molto più
+ * economico di una valutazione. In caso di dubbio il figlio viene semplicemente valutato.
+ */
+public class FitnessCache {
+
+    // ------------------- ATTRIBUTI -------------------
+
+    // Individui già valutati, per impronta (il primo registrato vince).
+    private final ConcurrentHashMap<Long, Individual> evaluated = new ConcurrentHashMap<>();
+
+    // Valutazioni risparmiate dalla creazione della cache.
+    private final LongAdder hits = new LongAdder();
+
+    // ------------------- METODI PRINCIPALI -------------------
+
+    /**
+     * Svuota la cache e vi registra una generazione già valutata (es. i genitori della prossima).
+     */
+    public void reset(List<Individual> generation) {
+        evaluated.clear();
+        for (Individual individual : generation) {
+            register(individual);
+        }
+    }
+
+    /**
+     * Registra un individuo già valutato. Non va più modificato finché la cache non viene svuotata.
+     */
+    public void register(Individual individual) {
+        evaluated.putIfAbsent(individual.getFingerprint(), individual);
+    }
+
+    /**
+     * Verifica se la cache contiene un individuo con gli stessi geni.
+     */
+    public boolean contains(Individual individual) {
+        return twinOf(individual) != null;
+    }
+
+    /**
+     * Se la cache contiene un individuo con gli stessi geni, ne copia fitness e lista dei vicini.
+     * @return true se la valutazione è stata risparmiata.
+     */
+    public boolean reuse(Individual individual) {
+        Individual twin = twinOf(individual);
+        if (twin == null) return false;
+        individual.setFitness(twin.getFitness());
+        individual.setNeighbourList(twin.getNeighbourList());
+        hits.increment();
+        return true;
+    }
+
+    /** Numero di valutazioni risparmiate. */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    // ------------------- METODI UTILITY -------------------
+
+    /** L'individuo registrato con gli stessi geni (stessi punti, stesse posizioni), oppure null. */
+    private Individual twinOf(Individual individual) {
+        Individual twin = evaluated.get(individual.getFingerprint());
+        if (twin == null || twin == individual) return twin;
+        return twin.getChromosomes().equals(individual.getChromosomes()) ? twin : null;
+    }
+}
@@ -1,17 +1,25 @@
 package service;
 
+import model.EvolutionConfig;
+import model.GenomeLayout;
+import model.PointGroup;
+import model.SymmetricLayout;
+import model.domains.DistanceField;
 import model.domains.Domain;
+import model.domains.Symmetry;
 import model.Individual;
 import model.Point;
+import service.strategies.OverlapMasked;
 import service.strategies.OverlapQuadratic;
 import service.strategies.OverlapSpatial;
 import service.strategies.OverlapStrategy;
-import utils.DistanceCalculator;
+import service.strategies.OverlapSymmetric;
+import service.strategies.OverlapVerlet;
+import utils.ParallelSum;
 
+import java.awt.geom.Rectangle2D;
 import java.util.List;
 
-import java.util.*;
-
 public class FitnessCalculator {
 
     // ------------------- COSTANTI DI PENALIZZAZIONE -------------------
@@ -20,6 +28,11 @@ public class FitnessCalculator {
     // Assicura che la soluzione venga scartata se i punti sono fuori dal dominio.
     private static final double DOMAIN_PENALTY = 10000.0;
 
+    // Peso della penalità di confine graduata, per unità di sporgenza di ciascun disco.
+    // Scelta Implementativa: penalità lineare (non quadratica come l'overlap): resta incisiva anche per sporgenze
+    // minime, altrimenti la pressione degli overlap lascia i dischi leggermente fuori dal bordo.
+    private static final double BOUNDARY_WEIGHT = 1000.0;
+
     // Peso moltiplicativo applicato alla penalità di sovrapposizione.
     // L'uso di un peso alto spinge l'AG a risolvere prima le collisioni.
     private static final double OVERLAP_WEIGHT = 100.0;
@@ -28,68 +41,411 @@ public class FitnessCalculator {
     // Sotto questo numero di punti (N), il metodo O(N^2) è più veloce dell'O(N) a causa dell'overhead di setup.
     private static final int HASHING_THRESHOLD = 80;
 
+    // Punti per task nella penalità di dominio della valutazione parallela di un individuo.
+    private static final int PARALLEL_BLOCK_SIZE = 4096;
+
     // ------------------- ATTRIBUTI -------------------
 
     // Riferimento al dominio geometrico (il vincolo di confine).
     private final Domain currentDomain;
-    private final DistanceCalculator distanceCalculator;
 
     // Strategie di overlap (istanziamo una volta sola, risparmiando risorse)
     private final OverlapStrategy quadraticStrategy;
     private final OverlapStrategy spatialStrategy;
 
+    // La griglia ristretta al dominio, se è la strategia O(N) (l'unica che sa dividere un individuo tra più core).
+    private final OverlapMasked maskedStrategy;
+
+    // La layout del genoma valutato (ridotto, se è attiva la simmetria).
+    private final GenomeLayout genomeLayout;
+
+    // Codifica a simmetria ridotta, oppure null se il genoma contiene tutti i punti.
+    private final SymmetricLayout symmetricLayout;
+
+    // Strategia con liste dei vicini per individuo, oppure null se disattivata.
+    private final OverlapVerlet verletStrategy;
+
+    // true se la penalità di confine è graduata (proporzionale alla sporgenza dei dischi).
+    private final boolean gradedBoundary;
+
+    // Obiettivo di dispersione: peso nella fitness scalare (0 = ignorata) e calcolo della somma delle distanze
+    // (usato anche dai motori multi-obiettivo, che la considerano separatamente).
+    private final double spreadWeight;
+    private final PairwiseSpread spread;
+
+    // Diagonale della bounding box del dominio: la distanza massima tra due punti, per normalizzare la dispersione.
+    private final double domainDiagonal;
+
     // ------------------- COSTRUTTORE -------------------
     /**
      * Inizializza il calcolatore di fitness.
      * @param domain Il dominio geometrico.
-     * @param maxRadius Il raggio massimo assoluto tra tutti i punti (costante per il problema).
+     * @param layout La disposizione dei gruppi (#piante, raggio) nel cromosoma (costante per il problema).
+     */
+    public FitnessCalculator(Domain domain, GenomeLayout layout) {
+        this(domain, layout, 0, false);
+    }
+
+    /**
+     * Inizializza il calcolatore di fitness con le liste dei vicini per individuo.
+     * <p>
+     * Con un margine positivo, gli individui valutati tramite {@link #getFitness(Individual)} conservano la loro
+     * lista dei vicini (vedi {@link OverlapVerlet}), che viene riusata finché i punti si spostano poco.
+     * @param domain Il dominio geometrico.
+     * @param layout La disposizione dei gruppi (#piante, raggio) nel cromosoma (costante per il problema).
+     * @param neighbourSkin Il margine delle liste, in frazioni del raggio del gruppo più numeroso (0 = disattivate).
+     * @param gradedBoundary true per la penalità di confine graduata (vedi {@link EvolutionConfig#isGradedBoundary()}).
      */
-    public FitnessCalculator(Domain domain, double maxRadius) {
+    public FitnessCalculator(Domain domain, GenomeLayout layout, double neighbourSkin, boolean gradedBoundary) {
+        this(domain, layout, neighbourSkin, gradedBoundary, 0, PairwiseSpread.DEFAULT_THETA);
+    }
+
+    /**
+     * Inizializza il calcolatore di fitness con le liste dei vicini e l'obiettivo di dispersione.
+     * @param domain Il dominio geometrico.
+     * @param layout La disposizione dei gruppi (#piante, raggio) nel cromosoma (costante per il problema).
+     * @param neighbourSkin Il margine delle liste, in frazioni del raggio del gruppo più numeroso (0 = disattivate).
+     * @param gradedBoundary true per la penalità di confine graduata (vedi {@link EvolutionConfig#isGradedBoundary()}).
+     * @param spreadWeight Il peso della dispersione (0 = disattivata, vedi {@link EvolutionConfig#getSpreadWeight()}).
+     * @param spreadTheta L'angolo di apertura di Barnes–Hut per la dispersione (vedi {@link PairwiseSpread}).
+     */
+    public FitnessCalculator(Domain domain, GenomeLayout layout, double neighbourSkin, boolean gradedBoundary,
+                             double spreadWeight, double spreadTheta) {
         this.currentDomain = domain;
-        this.distanceCalculator = new DistanceCalculator(); // Helper per la distanza
 
         // Inizializzazione delle due strategie O(N^2) e O(N).
-        // Passiamo maxRadius solo alla strategia spaziale che ne ha bisogno.
-        this.quadraticStrategy = new OverlapQuadratic();
-        this.spatialStrategy = new OverlapSpatial(maxRadius);
+        // Entrambe leggono gruppi e distanze minime precalcolate dalla layout.
+        // La griglia O(N) è ristretta alle celle del dominio (reticolo calcolato qui, una sola volta), ma solo se
+        // verrà usata: sotto la soglia basta la griglia semplice.
+        this.quadraticStrategy = new OverlapQuadratic(layout);
+        this.maskedStrategy = layout.getSize() > HASHING_THRESHOLD ? new OverlapMasked(layout, domain) : null;
+        this.spatialStrategy = maskedStrategy != null ? maskedStrategy : new OverlapSpatial(layout);
+        this.genomeLayout = layout;
+        this.symmetricLayout = null;
+        this.verletStrategy = neighbourSkin > 0 ? new OverlapVerlet(layout, neighbourSkin * layout.getDominantRadius()) : null;
+        this.gradedBoundary = gradedBoundary;
+        this.spreadWeight = spreadWeight;
+        this.spread = new PairwiseSpread(spreadTheta);
+        this.domainDiagonal = diagonalOf(domain);
+    }
+
+    /**
+     * Inizializza il calcolatore per un genoma a simmetria ridotta.
+     * <p>
+     * Il genoma contiene solo i rappresentanti delle orbite; la fitness è quella della configurazione completa
+     * (stessa scala delle penalità), ma la valutazione costa circa 1/k di quella completa.
+     * @param domain Il dominio geometrico (simmetrico).
+     * @param symmetricLayout La codifica a simmetria ridotta del problema.
+     * @param gradedBoundary true per la penalità di confine graduata.
+     */
+    public FitnessCalculator(Domain domain, SymmetricLayout symmetricLayout, boolean gradedBoundary) {
+        this(domain, symmetricLayout, gradedBoundary, 0, PairwiseSpread.DEFAULT_THETA);
+    }
+
+    /**
+     * Inizializza il calcolatore per un genoma a simmetria ridotta, con l'obiettivo di dispersione.
+     * La dispersione viene calcolata sulla configurazione completa (le orbite espanse).
+     * @param domain Il dominio geometrico (simmetrico).
+     * @param symmetricLayout La codifica a simmetria ridotta del problema.
+     * @param gradedBoundary true per la penalità di confine graduata.
+     * @param spreadWeight Il peso della dispersione (0 = disattivata).
+     * @param spreadTheta L'angolo di apertura di Barnes–Hut per la dispersione.
+     */
+    public FitnessCalculator(Domain domain, SymmetricLayout symmetricLayout, boolean gradedBoundary,
+                             double spreadWeight, double spreadTheta) {
+        this.currentDomain = domain;
+
+        // La strategia simmetrica sceglie internamente tra confronto diretto e griglia.
+        OverlapStrategy symmetric = new OverlapSymmetric(symmetricLayout);
+        this.quadraticStrategy = symmetric;
+        this.spatialStrategy = symmetric;
+        this.maskedStrategy = null;
+        this.genomeLayout = symmetricLayout.getGenomeLayout();
+        this.symmetricLayout = symmetricLayout;
+        this.verletStrategy = null;
+        this.gradedBoundary = gradedBoundary;
+        this.spreadWeight = spreadWeight;
+        this.spread = new PairwiseSpread(spreadTheta);
+        this.domainDiagonal = diagonalOf(domain);
+    }
+
+    /**
+     * Crea il calcolatore adatto al problema: completo, oppure a simmetria ridotta se richiesto.
+     * @param domain Il dominio geometrico.
+     * @param groups I gruppi (#piante, raggio) del problema completo.
+     * @param symmetryOrder L'ordine della simmetria da sfruttare (0 o 1 = nessuna).
+     * @return Il calcolatore; la sua {@link #getGenomeLayout()} descrive il genoma che i motori devono evolvere.
+     * @throws IllegalArgumentException Se il dominio non ha la simmetria richiesta o i gruppi non sono scomponibili in orbite.
+     */
+    public static FitnessCalculator forProblem(Domain domain, List<PointGroup> groups, int symmetryOrder) {
+        return forProblem(domain, groups, symmetryOrder, 0, false, 0, PairwiseSpread.DEFAULT_THETA);
+    }
+
+    /**
+     * Crea il calcolatore adatto al problema con le opzioni di valutazione della configurazione
+     * (simmetria, liste dei vicini, penalità di confine, dispersione).
+     * @param domain Il dominio geometrico.
+     * @param groups I gruppi (#piante, raggio) del problema completo.
+     * @param config La configurazione dell'esecuzione.
+     * @return Il calcolatore; la sua {@link #getGenomeLayout()} descrive il genoma che i motori devono evolvere.
+     * @throws IllegalArgumentException Se il dominio non ha la simmetria richiesta o i gruppi non sono scomponibili in orbite.
+     */
+    public static FitnessCalculator forProblem(Domain domain, List<PointGroup> groups, EvolutionConfig config) {
+        // Con il campo di distanza le interrogazioni della valutazione (penalità di dominio, celle della griglia)
+        // passano dal campo, con la stessa penalità; il motore continua a usare il dominio originale.
+        if (config.getDistanceField() > 0) {
+            domain = new DistanceField(domain, config.getDistanceField());
+        }
+        return forProblem(domain, groups, config.getSymmetryOrder(), config.getNeighbourSkin(), config.isGradedBoundary(),
+                config.getSpreadWeight(), config.getSpreadTheta());
+    }
+
+    private static FitnessCalculator forProblem(Domain domain, List<PointGroup> groups, int symmetryOrder,
+                                                double neighbourSkin, boolean gradedBoundary,
+                                                double spreadWeight, double spreadTheta) {
+        if (symmetryOrder <= 1) {
+            return new FitnessCalculator(domain, new GenomeLayout(groups), neighbourSkin, gradedBoundary,
+                    spreadWeight, spreadTheta);
+        }
+        Symmetry symmetry = domain.getSymmetry(symmetryOrder).orElseThrow(() -> new IllegalArgumentException(
+                "The domain does not have a symmetry of order " + symmetryOrder + "."));
+        boolean centerAllowed = !domain.isPointOutside(0, 0);
+        return new FitnessCalculator(domain, new SymmetricLayout(symmetry, groups, centerAllowed), gradedBoundary,
+                spreadWeight, spreadTheta);
     }
 
     // ------------------- METODO PRINCIPALE -------------------
     /**
      * Calcola il valore di fitness per un dato individuo. La strategia è ibrida.
      * @param individual L'individuo da valutare.
-     * @return Il valore di fitness (valore più alto è migliore, max 1.0).
+     * @return Il valore di fitness (valore più alto è migliore; vedi {@link #getFitness(List)}).
      */
     public double getFitness(Individual individual) {
+        if (verletStrategy != null && individual.getDimension() > HASHING_THRESHOLD) {
+            // La lista dei vicini dell'individuo viene riusata (o ricostruita e salvata) dalla strategia.
+            double totalPenalty = domainPenalty(individual.getChromosomes())
+                    + verletStrategy.calculateOverlap(individual, OVERLAP_WEIGHT);
+            return toFitness(totalPenalty, individual.getChromosomes(), false);
+        }
+        return getFitness(individual.getChromosomes());
+    }
+
+    /**
+     * Calcola la fitness di un individuo che interessa solo se raggiunge una soglia (es. un figlio nella selezione
+     * (μ+λ), che deve battere il peggiore dei genitori).
+     * <p>
+     * La penalità di dominio (O(N)) viene calcolata per prima; l'overlap si ferma appena la penalità totale supera
+     * quella corrispondente alla soglia. Nella fase avanzata quasi tutti i figli sono peggiori dei genitori, quindi
+     * gran parte delle coppie non viene mai visitata.
+     * @param individual L'individuo da valutare.
+     * @param minFitness La soglia: sotto questa fitness il valore esatto non interessa.
+     * @return La fitness esatta (identica a {@link #getFitness(Individual)}) se è almeno {@code minFitness};
+     * altrimenti un valore minore di {@code minFitness} e non minore della fitness vera.
+     */
+    public double getFitness(Individual individual, double minFitness) {
+        // F = 1 / (1 + P) >= minFitness  <=>  P <= 1 / minFitness - 1. Sopra 1 (solo con la dispersione) serve P = 0.
+        double bound = minFitness > 1 ? 0.0 : minFitness > 0 ? 1.0 / minFitness - 1.0 : Double.POSITIVE_INFINITY;
         List<Point> chromosomes = individual.getChromosomes();
         int n = chromosomes.size();
-        double totalPenalty = 0.0;
 
-        // 1️⃣ Penalità di dominio (Complessità O(N))
-        // Controlla che ogni punto sia confinato all'interno del dominio.
-        for (Point p : chromosomes) {
-            if (currentDomain.isPointOutside(p.getX(), p.getY())) {
-                totalPenalty += DOMAIN_PENALTY;
-            }
+        double totalPenalty = domainPenalty(chromosomes);
+        if (totalPenalty > bound) {
+            return 1.0 / (1.0 + totalPenalty);
+        }
+        double remaining = bound - totalPenalty;
+        if (verletStrategy != null && n > HASHING_THRESHOLD) {
+            totalPenalty += verletStrategy.calculateOverlap(individual, OVERLAP_WEIGHT, remaining);
+        } else if (n <= HASHING_THRESHOLD) {
+            totalPenalty += quadraticStrategy.calculateOverlap(chromosomes, OVERLAP_WEIGHT, remaining);
+        } else {
+            totalPenalty += spatialStrategy.calculateOverlap(chromosomes, OVERLAP_WEIGHT, remaining);
         }
+        return toFitness(totalPenalty, chromosomes, false);
+    }
+
+    /**
+     * Calcola la fitness direttamente su una lista di punti.
+     * <p>
+     * Usato dai motori che non rappresentano la popolazione come {@code Individual}
+     * (es. la Differential Evolution, che lavora sul vettore primitivo delle coordinate).
+     * @param chromosomes I punti da valutare.
+     * @return Il valore di fitness (valore più alto è migliore): 1 / (1 + penalità), quindi al più 1.0; con la
+     * dispersione attiva una configurazione senza penalità vale 1.0 + peso · dispersione (vedi {@link #toFitness}).
+     */
+    public double getFitness(List<Point> chromosomes) {
+        // Penalità di dominio e di overlap (vedi getPenalty), poi la conversione finale
+        // (Minimizzazione della Penalità -> Massimizzazione della Fitness): F = 1 / (1 + Penalità Totale),
+        // più la dispersione se non ci sono penalità.
+        return toFitness(getPenalty(chromosomes), chromosomes, false);
+    }
+
+    /**
+     * Calcola la fitness di un solo individuo dividendo il lavoro tra più core (task fork-join), per i genomi
+     * molto grandi valutati uno alla volta.
+     * <p>
+     * Penalità di dominio e di overlap sono divise in blocchi di punti (per l'overlap: blocchi di celle contigue)
+     * e sommate con un albero fisso, quindi il risultato è deterministico e non dipende dal numero di core.
+     * Non va chiamato dentro un ciclo già parallelo sulla popolazione.
+     * @param chromosomes I punti da valutare.
+     * @return Il valore di fitness; se la valutazione parallela non è supportata (vedi
+     * {@link #supportsParallelEvaluation()}), quello di {@link #getFitness(List)}.
+     */
+    public double getFitnessParallel(List<Point> chromosomes) {
+        if (maskedStrategy == null) {
+            return getFitness(chromosomes);
+        }
+        double totalPenalty = ParallelSum.sum(0, chromosomes.size(), PARALLEL_BLOCK_SIZE, (from, to) -> {
+            double penalty = 0.0;
+            for (int i = from; i < to; i++) {
+                Point p = chromosomes.get(i);
+                penalty += pointPenalty(p.getX(), p.getY(), genomeLayout.getRadiusAt(i));
+            }
+            return penalty;
+        });
+        totalPenalty += maskedStrategy.calculateOverlapParallel(chromosomes, OVERLAP_WEIGHT);
+        return toFitness(totalPenalty, chromosomes, true);
+    }
+
+    /**
+     * Indica se {@link #getFitnessParallel(List)} divide davvero un individuo tra più core: serve un genoma
+     * completo (non ridotto per simmetria) abbastanza grande da usare la griglia.
+     */
+    public boolean supportsParallelEvaluation() {
+        return maskedStrategy != null;
+    }
+
+    // ------------------- OBIETTIVI SEPARATI -------------------
+
+    /**
+     * Penalità totale di una configurazione (dominio più overlap pesato): il primo obiettivo, da minimizzare.
+     * Vale 0 se e solo se la configurazione è valida.
+     * @param chromosomes I punti da valutare.
+     * @return La penalità totale, quella che {@link #getFitness(List)} converte in {@code 1 / (1 + P)}.
+     */
+    public double getPenalty(List<Point> chromosomes) {
+        int n = chromosomes.size();
+
+        // 1️⃣ Penalità di dominio (Complessità O(N))
+        double totalPenalty = domainPenalty(chromosomes);
 
         // 2️⃣ Penalità di overlap: Logica di commutazione Ibrida
         if (n <= HASHING_THRESHOLD) {
             // Per N piccoli, l'overhead della struttura dati O(N) non ripaga.
             totalPenalty += quadraticStrategy.calculateOverlap(
-                    chromosomes, OVERLAP_WEIGHT, distanceCalculator
+                    chromosomes, OVERLAP_WEIGHT
             );
         } else {
             // Per N grandi, l'efficienza O(N) medio è necessaria.
             totalPenalty += spatialStrategy.calculateOverlap(
-                    chromosomes, OVERLAP_WEIGHT, distanceCalculator
+                    chromosomes, OVERLAP_WEIGHT
             );
         }
 
-        // 3️⃣ Conversione finale (Minimizzazione della Penalità -> Massimizzazione della Fitness)
-        // Formula standard: F = 1 / (1 + Penalità Totale).
-        return 1.0 / (1.0 + totalPenalty);
+        return totalPenalty;
     }
 
-}
+    /**
+     * Dispersione di una configurazione: il secondo obiettivo, da massimizzare. È la distanza media tra due centri
+     * (della configurazione completa, se il genoma è ridotto per simmetria) divisa per la diagonale del dominio.
+     * @param chromosomes I punti da valutare.
+     * @return La dispersione, in [0, 1].
+     */
+    public double getSpread(List<Point> chromosomes) {
+        return normalizedSpread(chromosomes, false);
+    }
 
+    /**
+     * Fitness scalare a partire dai due obiettivi, con la stessa regola di {@link #getFitness(List)}:
+     * {@code 1 / (1 + P)} con penalità, {@code 1 + peso · dispersione} senza.
+     */
+    public double combine(double penalty, double spread) {
+        return penalty > 0 ? 1.0 / (1.0 + penalty) : 1.0 + spreadWeight * spread;
+    }
+
+    /**
+     * Penalità di dominio: controlla che ogni punto sia confinato all'interno del dominio.
+     * <p>
+     * Con la penalità fissa conta solo il centro dei punti; con quella graduata ogni disco paga in proporzione a
+     * quanto sporge dal bordo ({@code signedDistance + raggio}), quindi la penalità si riduce con continuità
+     * mentre il disco rientra.
+     */
+    private double domainPenalty(List<Point> chromosomes) {
+        int n = chromosomes.size();
+        double totalPenalty = 0.0;
+        if (symmetricLayout == null) {
+            for (int i = 0; i < n; i++) {
+                Point p = chromosomes.get(i);
+                totalPenalty += pointPenalty(p.getX(), p.getY(), genomeLayout.getRadiusAt(i));
+            }
+        } else {
+            // Il dominio è simmetrico: tutte le immagini di un rappresentante sono dentro o fuori insieme,
+            // quindi basta controllare il rappresentante e pesare la penalità con la dimensione della sua orbita.
+            for (int i = 0; i < n; i++) {
+                Point p = chromosomes.get(i);
+                double x = symmetricLayout.projectX(i, p.getX(), p.getY());
+                double y = symmetricLayout.projectY(i, p.getX(), p.getY());
+                int group = genomeLayout.getGroupOf(i);
+                totalPenalty += pointPenalty(x, y, genomeLayout.getRadius(group)) * symmetricLayout.getOrbitSize(group);
+            }
+        }
+        return totalPenalty;
+    }
+
+    /**
+     * Converte la penalità totale in fitness: {@code 1 / (1 + P)}.
+     * <p>
+     * Con la dispersione attiva, una configurazione senza penalità vale {@code 1 + peso · s}, dove s è la distanza
+     * media tra due punti divisa per la diagonale del dominio (in [0, 1]). Scelta Implementativa: la dispersione
+     * conta solo tra le soluzioni valide, quindi "fitness >= 1.0 se e solo se non ci sono penalità" resta vero
+     * (la cache delle soluzioni e lo sweep dei parametri lo usano) e la dispersione non compete mai con gli overlap.
+     * Viene calcolata solo sugli individui validi, che nelle fasi iniziali sono pochi.
+     */
+    private double toFitness(double totalPenalty, List<Point> chromosomes, boolean parallel) {
+        if (totalPenalty > 0 || spreadWeight == 0) {
+            return 1.0 / (1.0 + totalPenalty);
+        }
+        return combine(totalPenalty, normalizedSpread(chromosomes, parallel));
+    }
+
+    /** Distanza media tra due centri della configurazione completa, divisa per la diagonale del dominio. */
+    private double normalizedSpread(List<Point> chromosomes, boolean parallel) {
+        List<Point> points = symmetricLayout == null ? chromosomes : symmetricLayout.expand(chromosomes);
+        int n = points.size();
+        if (n < 2 || domainDiagonal <= 0) {
+            return 0.0;
+        }
+        double distances = parallel ? spread.sumParallel(points, PARALLEL_BLOCK_SIZE) : spread.sum(points);
+        double pairs = 0.5 * n * (n - 1);
+        return Math.min(1.0, distances / (pairs * domainDiagonal));
+    }
+
+    /** La diagonale della bounding box del dominio. */
+    private static double diagonalOf(Domain domain) {
+        Rectangle2D box = domain.getBoundingBox();
+        return Math.hypot(box.getWidth(), box.getHeight());
+    }
+
+    /** Penalità di confine di un singolo disco di raggio {@code radius} centrato in (x, y). */
+    private double pointPenalty(double x, double y, double radius) {
+        if (!gradedBoundary) {
+            return currentDomain.isPointOutside(x, y) ? DOMAIN_PENALTY : 0.0;
+        }
+        return BOUNDARY_WEIGHT * currentDomain.protrusion(x, y, radius);
+    }
+
+    // ------------------- GENOTIPO E FENOTIPO -------------------
+
+    /** La layout del genoma valutato da questo calcolatore (ridotto, se è attiva la simmetria). */
+    public GenomeLayout getGenomeLayout() {
+        return genomeLayout;
+    }
+
+    /**
+     * Converte un individuo evoluto nella soluzione completa del problema.
+     * @param genome L'individuo, disposto secondo {@link #getGenomeLayout()}.
+     * @return Lo stesso individuo se il genoma è completo, altrimenti la sua espansione per simmetria (stessa fitness).
+     */
+    public Individual toPhenotype(Individual genome) {
+        return symmetricLayout == null ? genome : symmetricLayout.expand(genome);
+    }
+}
@@ -0,0 +1,216 @@
+package service;
+
+import model.GenomeLayout;
+import model.Individual;
+import model.Point;
+import model.domains.Domain;
+
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Riordino dei geni della popolazione secondo l'ordine di Morton (curva Z), per la località della valutazione.
+ * <p>
+ * L'ordine dei geni in un cromosoma è arbitrario, quindi punti vicini nel piano finiscono sparsi in memoria e le
+ * strategie di overlap saltano da un capo all'altro del cromosoma. Il riordino calcola, gruppo per gruppo, la
+ * permutazione che mette in ordine di Morton i geni di un individuo di riferimento (il migliore della popolazione)
+ * e applica <b>la stessa permutazione</b> a tutti gli individui: in una popolazione che converge i geni vicini nel
+ * cromosoma diventano vicini nel piano per quasi tutti.
+ * <p>
+ * Scelta Implementativa: una permutazione comune invece dell'ordinamento di ogni individuo. Il gene i di due
+ * genitori resta "lo stesso punto" ereditato da un antenato comune, quindi crossover e mutazione, che lavorano
+ * gene per gene, si comportano esattamente come senza riordino. Ordinare ogni individuo per conto suo rompeva
+ * questa corrispondenza (un piccolo spostamento cambia il rango di molti geni) e il crossover uniforme combinava
+ * punti diversi, fermando la convergenza sui domini cavi.
+ * <p>
+ * Il riordino è una permutazione dentro ciascun gruppo (ogni gene conserva il suo raggio), quindi non cambia le
+ * soluzioni né la loro fitness; invalida però la lista dei vicini, che è indicizzata per posizione nel cromosoma.
+ * Chiavi di Morton a 32 bit (16 bit per asse, sulla bounding box del dominio) ordinate con un radix sort LSD a 4
+ * passate da 8 bit, stabile e lineare. Gli array di lavoro sono allocati una volta, dimensionati sul genoma.
+ */
+public class MortonOrder {
+
+    // Bit per asse delle coordinate quantizzate.
+    static final int BITS_PER_AXIS = 16;
+    static final int MAX_CELL = (1 << BITS_PER_AXIS) - 1;
+
+    // Radix sort: 4 passate da 8 bit sulla chiave a 32 bit.
+    private static final int RADIX_BITS = 8;
+    static final int RADIX = 1 << RADIX_BITS;
+
+    // ------------------- ATTRIBUTI -------------------
+
+    private final GenomeLayout layout;
+
+    // Quantizzazione: stessa scala sui due assi, così le celle della curva Z sono quadrate.
+    private final double originX, originY, scale;
+
+    // Area di lavoro dell'ordinamento del riferimento e permutazione comune (indici assoluti nel cromosoma).
+    private final Workspace work;
+    private final int[] permutation;
+
+    // Geni di un individuo durante la permutazione, per thread: gli individui vengono permutati in parallelo.
+    private final ThreadLocal<Point[]> genes;
+
+    /** Array di lavoro del radix sort, dimensionati sul gruppo più grande. */
+    private static final class Workspace {
+        final int[] keys, keysTmp, order, orderTmp;
+        final int[] counts = new int[RADIX];
+
+        Workspace(int capacity) {
+            keys = new int[capacity];
+            keysTmp = new int[capacity];
+            order = new int[capacity];
+            orderTmp = new int[capacity];
+        }
+    }
+
+    // ------------------- COSTRUTTORE -------------------
+
+    /**
+     * @param domain Il dominio: la sua bounding box definisce la quantizzazione delle coordinate.
+     * @param layout La disposizione dei gruppi nel cromosoma: i geni vengono riordinati dentro ciascun gruppo.
+     */
+    public MortonOrder(Domain domain, GenomeLayout layout) {
+        this.layout = layout;
+        Rectangle2D box = domain.getBoundingBox();
+        this.originX = box.getMinX();
+        this.originY = box.getMinY();
+        double side = Math.max(box.getWidth(), box.getHeight());
+        this.scale = side > 0 ? MAX_CELL / side : 0;
+
+        int largestGroup = 0;
+        for (int g = 0; g < layout.getGroupCount(); g++) {
+            largestGroup = Math.max(largestGroup, layout.getEnd(g) - layout.getStart(g));
+        }
+        this.work = new Workspace(largestGroup);
+        this.permutation = new int[layout.getSize()];
+        this.genes = ThreadLocal.withInitial(() -> new Point[layout.getSize()]);
+    }
+
+    // ------------------- METODO PRINCIPALE -------------------
+
+    /**
+     * Riordina in-place tutti gli individui con la permutazione che mette in ordine di Morton i geni del riferimento.
+     * Le fitness restano valide; la lista dei vicini viene scartata se la permutazione non è l'identità.
+     * Non è rientrante: un motore riordina la propria popolazione una volta alla volta.
+     * @param population Gli individui da riordinare (permutati in parallelo).
+     * @param reference L'individuo che definisce l'ordine, di solito il migliore della popolazione.
+     * @return true se l'ordine dei geni è cambiato.
+     */
+    public boolean reorder(List<Individual> population, Individual reference) {
+        if (reference.getDimension() != layout.getSize()) {
+            throw new IllegalArgumentException("Individual does not match the genome layout (" + layout.getSize() + " points).");
+        }
+        List<Point> chromosomes = reference.getChromosomes();
+        boolean changed = false;
+
+        for (int g = 0; g < layout.getGroupCount(); g++) {
+            int start = layout.getStart(g);
+            int n = layout.getEnd(g) - start;
+
+            for (int k = 0; k < n; k++) {
+                Point p = chromosomes.get(start + k);
+                work.keys[k] = mortonKey(p.getX(), p.getY());
+                work.order[k] = k;
+            }
+            int[] order = radixSort(work.keys, work.keysTmp, work.order, work.orderTmp, work.counts, n);
+            for (int k = 0; k < n; k++) {
+                permutation[start + k] = start + order[k];
+                changed |= order[k] != k;
+            }
+        }
+
+        if (changed) {
+            population.parallelStream().forEach(this::permute);
+        }
+        return changed;
+    }
+
+    /** Applica la permutazione comune a un individuo, scrivendo solo i geni che cambiano posizione. */
+    private void permute(Individual individual) {
+        if (individual.getDimension() != layout.getSize()) {
+            throw new IllegalArgumentException("Individual does not match the genome layout (" + layout.getSize() + " points).");
+        }
+        Point[] buffer = genes.get();
+        List<Point> chromosomes = individual.getChromosomes();
+        int n = permutation.length;
+        for (int k = 0; k < n; k++) {
+            buffer[k] = chromosomes.get(k);
+        }
+        for (int k = 0; k < n; k++) {
+            if (permutation[k] != k) {
+                individual.setChromosome(k, buffer[permutation[k]]);
+            }
+        }
+        // Non trattiene riferimenti ai punti tra una chiamata e l'altra.
+        Arrays.fill(buffer, 0, n, null);
+        individual.setNeighbourList(null);
+    }
+
+    // ------------------- METODI UTILITY -------------------
+
+    /**
+     * Chiave di Morton: i bit delle coordinate quantizzate intercalati (x nei bit pari, y nei dispari).
+     * La forma negata del confronto manda i NaN nella cella 0.
+     */
+    private int mortonKey(double x, double y) {
+        double qx = (x - originX) * scale;
+        double qy = (y - originY) * scale;
+        int cx = !(qx > 0) ? 0 : (int) Math.min(qx, MAX_CELL);
+        int cy = !(qy > 0) ? 0 : (int) Math.min(qy, MAX_CELL);
+        return interleave(cx, cy);
+    }
+
+    /** Chiave di Morton di una cella: i 16 bit bassi di cx nei bit pari, quelli di cy nei dispari. */
+    static int interleave(int cx, int cy) {
+        return spread(cx) | (spread(cy) << 1);
+    }
+
+    /** Distribuisce i 16 bit bassi di v sui bit pari di un int. */
+    private static int spread(int v) {
+        v = (v | (v << 8)) & 0x00FF00FF;
+        v = (v | (v << 4)) & 0x0F0F0F0F;
+        v = (v | (v << 2)) & 0x33333333;
+        v = (v | (v << 1)) & 0x55555555;
+        return v;
+    }
+
+    /**
+     * Radix sort LSD stabile di {@code keys[0 .. n - 1]} (come interi senza segno), portandosi dietro gli indici
+     * {@code order[0 .. n - 1]}. Le passate in cui tutte le chiavi hanno la stessa cifra vengono saltate.
+     * Gli array temporanei hanno almeno n elementi, {@code counts} ne ha {@code RADIX}; il contenuto finale di
+     * keys e keysTmp non è specificato.
+     * @return L'array (order o orderTmp) che contiene gli indici originali in ordine di chiave.
+     */
+    static int[] radixSort(int[] keys, int[] keysTmp, int[] order, int[] orderTmp, int[] counts, int n) {
+        int[] keysOut = keysTmp;
+        int[] orderOut = orderTmp;
+
+        for (int shift = 0; shift < Integer.SIZE; shift += RADIX_BITS) {
+            Arrays.fill(counts, 0);
+            for (int k = 0; k < n; k++) {
+                counts[(keys[k] >>> shift) & (RADIX - 1)]++;
+            }
+            if (n == 0 || counts[(keys[0] >>> shift) & (RADIX - 1)] == n) continue;
+
+            // Somme prefisse: posizione di partenza di ogni cifra.
+            int sum = 0;
+            for (int d = 0; d < RADIX; d++) {
+                int c = counts[d];
+                counts[d] = sum;
+                sum += c;
+            }
+            for (int k = 0; k < n; k++) {
+                int slot = counts[(keys[k] >>> shift) & (RADIX - 1)]++;
+                keysOut[slot] = keys[k];
+                orderOut[slot] = order[k];
+            }
+
+            int[] swap = keys; keys = keysOut; keysOut = swap;
+            swap = order; order = orderOut; orderOut = swap;
+        }
+        return order;
+    }
+}
@@ -1,5 +1,7 @@
 package service;
 
+import model.GenomeLattice;
+import model.GenomeLayout;
 import model.Individual;
 import model.Point;
 import model.domains.Domain;
@@ -18,9 +20,18 @@ public class Mutation {
     // Riferimento al dominio per ottenere i limiti (Bounding Box) per il clamping.
     private final Domain domain;
 
-    //
+    // Numero totale di generazioni, usato per il decadimento della forza di mutazione.
     private final int totalGenerations;
 
+    // La disposizione dei gruppi nel cromosoma: fornisce il raggio di ogni gene.
+    private final GenomeLayout layout;
+
+    // Fattore di scala del passo per ciascun gruppo: r_g / r_dominante.
+    // Scelta Implementativa: con specie di dimensioni molto diverse un passo unico è troppo grande per le piante
+    // piccole e troppo piccolo per quelle grandi; il passo è quindi proporzionale al raggio del gruppo, e resta
+    // invariato (fattore 1) per il gruppo più numeroso e per i problemi a un solo gruppo.
+    private final double[] stepScale;
+
     // ------------------- COSTRUTTORE -------------------
 
     /**
@@ -28,13 +39,21 @@ public class Mutation {
      * @param mutationProbability La probabilità che la mutazione avvenga su un gene.
      * @param initialMutationStrength L'entità della perturbazione.
      * @param domain Il riferimento al dominio del problema.
+     * @param totalGenerations Il numero totale di generazioni dell'esecuzione.
+     * @param layout La disposizione dei gruppi nel cromosoma.
      * * Scelta Implementativa: L'uso di 'final' per tutti i campi garantisce l'immutabilità della configurazione.
      */
-    public Mutation(double mutationProbability, double initialMutationStrength, Domain domain, int totalGenerations) {
+    public Mutation(double mutationProbability, double initialMutationStrength, Domain domain, int totalGenerations,
+                    GenomeLayout layout) {
         this.mutationProbability = mutationProbability;
         this.initialMutationStrength = initialMutationStrength;
         this.domain = domain;
         this.totalGenerations = totalGenerations;
+        this.layout = layout;
+        this.stepScale = new double[layout.getGroupCount()];
+        for (int g = 0; g < stepScale.length; g++) {
+            stepScale[g] = layout.getRadius(g) / layout.getDominantRadius();
+        }
     }
 
     // ------------------- METODO PRINCIPALE -------------------
@@ -56,42 +75,80 @@ public class Mutation {
         double maxX = boundingBox.getMaxX();
         double maxY = boundingBox.getMaxY();
 
-        // Cicla su ogni cromosoma (per ogni punto).
-        for (int i = 0; i < I.getDimension(); i++) {
+        // Individuo quantizzato: lo spostamento viene arrotondato a un numero intero di passi del reticolo.
+        GenomeLattice lattice = I.getLattice();
+
+        // Cicla sui gruppi e, per ciascun gruppo, sui suoi punti (contigui nel cromosoma).
+        for (int g = 0; g < layout.getGroupCount(); g++) {
+            double radius = layout.getRadius(g); // Il raggio è quello del gruppo e resta invariato.
+            double groupStrength = adaptiveStrenght * stepScale[g];
 
-            // Controlla la probabilità di mutazione per questo gene.
-            if (RandomUtils.randDouble() < mutationProbability) {
+            for (int i = layout.getStart(g); i < layout.getEnd(g); i++) {
 
-                Point oldPoint = I.getChromosomes().get(i);
-                double radius = oldPoint.getRadius(); // Mantiene il raggio invariato.
+                // Controlla la probabilità di mutazione per questo gene.
+                if (RandomUtils.randDouble() < mutationProbability) {
 
-                // Calcola la perturbazione casuale (Mutazione Gaussiana / Creep Mutation).
-                // (RandomUtils.randDouble() * 2 - 1) genera un valore tra [-1.0, 1.0).
-                double newX = oldPoint.getX() + (RandomUtils.randDouble() * 2 - 1) * adaptiveStrenght;
-                double newY = oldPoint.getY() + (RandomUtils.randDouble() * 2 - 1) * adaptiveStrenght;
+                    if (lattice != null) {
+                        mutateOnLattice(I, i, lattice, groupStrength);
+                        continue;
+                    }
 
-                // 🌟 APPLICAZIONE DEL SOFT-CLAMPING
-                // Forza le coordinate all'interno dei limiti della Bounding Box.
-                // * Scelta Implementativa: Strategia ibrida per l'efficienza.
-                // Previene la generazione di troppi individui palesemente fuori dominio,
-                // riducendo il lavoro per la FitnessCalculator.
-                double finalX = clamp(newX, minX, maxX);
-                double finalY = clamp(newY, minY, maxY);
+                    Point oldPoint = I.getChromosomes().get(i);
 
-                // Crea un nuovo oggetto Point (necessario perché Point è immutabile).
-                Point newPoint = new Point(finalX, finalY, radius);
+                    // Calcola la perturbazione casuale (Mutazione Gaussiana / Creep Mutation).
+                    // (RandomUtils.randDouble() * 2 - 1) genera un valore tra [-1.0, 1.0).
+                    double newX = oldPoint.getX() + (RandomUtils.randDouble() * 2 - 1) * groupStrength;
+                    double newY = oldPoint.getY() + (RandomUtils.randDouble() * 2 - 1) * groupStrength;
 
-                // Sostituisce il vecchio gene con il nuovo gene mutato (Mutazione in-place).
-                // L'uso di setChromosome() è necessario per aggirare la vista immutabile del getter.
-                I.setChromosome(i, newPoint);
+                    // 🌟 APPLICAZIONE DEL SOFT-CLAMPING
+                    // Forza le coordinate all'interno dei limiti della Bounding Box.
+                    // * Scelta Implementativa: Strategia ibrida per l'efficienza.
+                    // Previene la generazione di troppi individui palesemente fuori dominio,
+                    // riducendo il lavoro per la FitnessCalculator.
+                    double finalX = clamp(newX, minX, maxX);
+                    double finalY = clamp(newY, minY, maxY);
+
+                    // Crea un nuovo oggetto Point (necessario perché Point è immutabile).
+                    Point newPoint = new Point(finalX, finalY, radius);
+
+                    // Sostituisce il vecchio gene con il nuovo gene mutato (Mutazione in-place).
+                    // L'uso di setChromosome() è necessario per aggirare la vista immutabile del getter.
+                    I.setChromosome(i, newPoint);
+                }
             }
         }
         // * Scelta Implementativa: La mutazione avviene "in-place" (modificando il riferimento all'individuo I),
         // come è tipico per gli operatori genetici.
     }
 
+    /**
+     * Mutazione di un gene quantizzato: la stessa perturbazione uniforme, espressa in passi interi del reticolo (con
+     * l'arrotondamento stocastico di {@link #toSteps(double)}) e limitata al reticolo, cioè alla Bounding Box. Uno
+     * spostamento di zero passi lascia il gene (e il suo segmento, se condiviso) com'è.
+     */
+    private void mutateOnLattice(Individual I, int index, GenomeLattice lattice, double strength) {
+        double stepsPerUnit = 1.0 / lattice.getStep();
+        long dColumns = toSteps((RandomUtils.randDouble() * 2 - 1) * strength * stepsPerUnit);
+        long dRows = toSteps((RandomUtils.randDouble() * 2 - 1) * strength * stepsPerUnit);
+        int code = I.getCode(index);
+        int moved = lattice.shift(code, dColumns, dRows);
+        if (moved != code) {
+            I.setCode(index, moved);
+        }
+    }
+
     // ------------------- METODI UTILITY -------------------
 
+    /**
+     * Arrotondamento stocastico di uno spostamento in passi: per difetto o per eccesso, con probabilità pari alla
+     * parte frazionaria. Lo spostamento atteso resta quello continuo anche quando la forza è inferiore a mezzo passo,
+     * dove l'arrotondamento al più vicino darebbe sempre zero e fermerebbe la mutazione a fine esecuzione.
+     */
+    private static long toSteps(double steps) {
+        double floor = Math.floor(steps);
+        return (long) floor + (RandomUtils.randDouble() < steps - floor ? 1 : 0);
+    }
+
     /**
      * Limita un valore 'value' all'interno di un intervallo chiuso [min, max].
      */
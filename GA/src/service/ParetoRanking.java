@@ -0,0 +1,175 @@
+package service;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Ordinamento non dominato (fronti di Pareto) e distanza di affollamento di un insieme di soluzioni con due
+ * obiettivi da minimizzare, come in NSGA-II.
+ * <p>
+ * Una soluzione a domina b se non è peggiore in nessun obiettivo ed è migliore in almeno uno. Il fronte 0 contiene
+ * le soluzioni non dominate, il fronte k quelle dominate solo da soluzioni dei fronti precedenti. La distanza di
+ * affollamento misura, dentro un fronte, lo spazio libero attorno a una soluzione (gli estremi valgono infinito):
+ * a parità di fronte si preferiscono le soluzioni isolate, per mantenere il fronte distribuito.
+ * <p>
+ * Scelta Implementativa: con due obiettivi l'ordinamento è in O(N log N) (Jensen). Le soluzioni vengono visitate
+ * in ordine di primo obiettivo crescente (a parità, di secondo): una soluzione può essere dominata solo da quelle già
+ * visitate, e dentro un fronte il secondo obiettivo decresce, quindi per sapere se un fronte domina la soluzione
+ * basta confrontarla con l'ultima soluzione entrata nel fronte. Gli ultimi ingressi dei fronti sono ordinati per
+ * secondo obiettivo, quindi il fronte di ogni soluzione si trova con una ricerca binaria, invece del confronto di
+ * ogni coppia (O(M N^2)) dell'NSGA-II originale. Con due obiettivi l'ordine di visita è anche l'ordine dei vicini
+ * nel fronte, quindi le distanze di affollamento non richiedono altri ordinamenti e si calcolano in parallelo,
+ * una soluzione per task.
+ */
+public final class ParetoRanking {
+
+    // ------------------- ATTRIBUTI -------------------
+
+    // Fronte di ogni soluzione (0 = non dominata).
+    private final int[] rank;
+
+    // Distanza di affollamento di ogni soluzione nel suo fronte.
+    private final double[] crowding;
+
+    // Soluzioni raggruppate per fronte (fronte k: byFront[frontStart[k] .. frontStart[k + 1] - 1]), ciascun fronte
+    // in ordine di primo obiettivo crescente.
+    private final int[] byFront;
+    private final int[] frontStart;
+
+    // ------------------- COSTRUTTORE -------------------
+
+    private ParetoRanking(int[] rank, double[] crowding, int[] byFront, int[] frontStart) {
+        this.rank = rank;
+        this.crowding = crowding;
+        this.byFront = byFront;
+        this.frontStart = frontStart;
+    }
+
+    // ------------------- METODO PRINCIPALE -------------------
+
+    /**
+     * Ordina le soluzioni in fronti e ne calcola la distanza di affollamento.
+     * @param f1 Il primo obiettivo di ogni soluzione (da minimizzare).
+     * @param f2 Il secondo obiettivo di ogni soluzione (da minimizzare), stessa lunghezza.
+     * @return I fronti e le distanze di affollamento.
+     * @throws IllegalArgumentException Se gli array hanno lunghezze diverse o contengono NaN.
+     */
+    public static ParetoRanking of(double[] f1, double[] f2) {
+        int n = f1.length;
+        if (f2.length != n) {
+            throw new IllegalArgumentException("Objective arrays differ in length: " + n + " vs " + f2.length + ".");
+        }
+        for (int i = 0; i < n; i++) {
+            if (Double.isNaN(f1[i]) || Double.isNaN(f2[i])) {
+                throw new IllegalArgumentException("Objective values must not be NaN (solution " + i + ").");
+            }
+        }
+
+        // 1. Ordine di visita: primo obiettivo crescente, a parità secondo obiettivo crescente.
+        Integer[] sorted = new Integer[n];
+        for (int i = 0; i < n; i++) sorted[i] = i;
+        Arrays.sort(sorted, (a, b) -> {
+            int c = Double.compare(f1[a], f1[b]);
+            return c != 0 ? c : Double.compare(f2[a], f2[b]);
+        });
+
+        // 2. Assegnazione dei fronti: tail[k] è l'ultima soluzione entrata nel fronte k.
+        int[] rank = new int[n];
+        int[] tail = new int[n];
+        int[] frontSize = new int[n];
+        int fronts = 0;
+        for (int s = 0; s < n; s++) {
+            int i = sorted[s];
+            // Primo fronte che non domina i (i fronti che la dominano sono un prefisso).
+            int lo = 0, hi = fronts;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (dominates(tail[mid], i, f1, f2)) lo = mid + 1;
+                else hi = mid;
+            }
+            if (lo == fronts) fronts++;
+            rank[i] = lo;
+            tail[lo] = i;
+            frontSize[lo]++;
+        }
+
+        // 3. Raggruppamento per fronte, conservando l'ordine di visita (counting sort stabile).
+        int[] frontStart = new int[fronts + 1];
+        for (int k = 0; k < fronts; k++) {
+            frontStart[k + 1] = frontStart[k] + frontSize[k];
+        }
+        int[] next = Arrays.copyOf(frontStart, fronts);
+        int[] byFront = new int[n];
+        for (int s = 0; s < n; s++) {
+            int i = sorted[s];
+            byFront[next[rank[i]]++] = i;
+        }
+
+        // 4. Distanze di affollamento: ogni posizione legge solo i suoi vicini nel fronte, quindi un task per soluzione.
+        double[] crowding = new double[n];
+        IntStream.range(0, n).parallel().forEach(p -> {
+            int i = byFront[p];
+            int first = frontStart[rank[i]], last = frontStart[rank[i] + 1] - 1;
+            crowding[i] = crowdingAt(p, first, last, byFront, f1, f2);
+        });
+
+        return new ParetoRanking(rank, crowding, byFront, frontStart);
+    }
+
+    // ------------------- ACCESSO -------------------
+
+    /** Il fronte della soluzione i (0 = non dominata). */
+    public int getRank(int i) {
+        return rank[i];
+    }
+
+    /** La distanza di affollamento della soluzione i nel suo fronte (infinito per gli estremi). */
+    public double getCrowding(int i) {
+        return crowding[i];
+    }
+
+    /** Il numero di fronti. */
+    public int getFrontCount() {
+        return frontStart.length - 1;
+    }
+
+    /** Le soluzioni del fronte k, in ordine di primo obiettivo crescente. */
+    public int[] getFront(int k) {
+        return Arrays.copyOfRange(byFront, frontStart[k], frontStart[k + 1]);
+    }
+
+    /**
+     * Confronto affollato di NSGA-II: negativo se la soluzione a è preferibile a b (fronte migliore, oppure
+     * stesso fronte e più isolata), positivo se è preferibile b, 0 se sono equivalenti.
+     */
+    public int compare(int a, int b) {
+        if (rank[a] != rank[b]) return Integer.compare(rank[a], rank[b]);
+        return Double.compare(crowding[b], crowding[a]);
+    }
+
+    // ------------------- METODI UTILITY -------------------
+
+    /**
+     * Indica se t domina i, sapendo che t precede i nell'ordine di visita ({@code f1[t] <= f1[i]}, e a parità
+     * {@code f2[t] <= f2[i]}). Due soluzioni identiche non si dominano.
+     */
+    private static boolean dominates(int t, int i, double[] f1, double[] f2) {
+        return f2[t] < f2[i] || (f2[t] == f2[i] && f1[t] < f1[i]);
+    }
+
+    /**
+     * Distanza di affollamento della soluzione in posizione p del fronte {@code byFront[first .. last]}: la somma,
+     * sui due obiettivi, della distanza tra i vicini normalizzata con l'ampiezza del fronte.
+     */
+    private static double crowdingAt(int p, int first, int last, int[] byFront, double[] f1, double[] f2) {
+        if (p == first || p == last) return Double.POSITIVE_INFINITY;
+        int prev = byFront[p - 1], next = byFront[p + 1];
+        // Nel fronte il primo obiettivo cresce e il secondo decresce: gli estremi danno le ampiezze.
+        double range1 = f1[byFront[last]] - f1[byFront[first]];
+        double range2 = f2[byFront[first]] - f2[byFront[last]];
+        double distance = 0.0;
+        if (range1 > 0) distance += (f1[next] - f1[prev]) / range1;
+        if (range2 > 0) distance += (f2[prev] - f2[next]) / range2;
+        return distance;
+    }
+}
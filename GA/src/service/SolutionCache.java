@@ -0,0 +1,266 @@
+package service;
+
+import model.Individual;
+import model.Point;
+import model.ProblemSignature;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Archivio persistente delle soluzioni, indicizzato per {@link ProblemSignature}.
+ * <p>
+ * Le soluzioni sono salvate in coordinate normalizzate (divise per la scala del problema), quindi una soluzione
+ * trovata per un dominio vale, riscalata, per ogni problema uguale a meno della scala. Per ogni problema si conserva
+ * solo la soluzione migliore trovata finora.
+ * <p>
+ * L'archivio è un unico file binario, caricato all'apertura e riscritto (su un file temporaneo, poi sostituito
+ * atomicamente) a ogni soluzione salvata:
+ * <pre>
+ *     header:  int MAGIC | short VERSION | int #record
+ *     record:  UTF chiave | int #gruppi | (int #punti, double raggio)* | double fitness | (double x, double y)*
+ * </pre>
+ * I record sono scritti dal meno al più recentemente usato. Quando la dimensione totale supera {@code maxBytes}
+ * vengono scartati i record usati meno di recente (politica LRU).
+ * <p>
+ * Scelta Implementativa: i metodi pubblici sono {@code synchronized}, così la stessa cache può essere condivisa
+ * dai worker del servizio; l'ordine LRU aggiornato dalle letture viene reso persistente alla scrittura successiva.
+ */
+public class SolutionCache {
+
+    /** Dimensione massima di default del file della cache (64 MiB). */
+    public static final long DEFAULT_MAX_BYTES = 64L << 20;
+
+    // "GASC": firma del formato, seguita dalla versione.
+    private static final int MAGIC = 0x47415343;
+    private static final short VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 2 + 4;
+
+    /**
+     * Una soluzione trovata in cache, già riportata alla scala e ai raggi del problema richiesto.
+     * @param solution La disposizione dei punti; per una corrispondenza esatta conserva la fitness salvata.
+     * @param exact true se la soluzione è stata salvata per lo stesso problema (a meno della scala),
+     *              false se proviene dal problema con la stessa forma e i raggi più simili.
+     */
+    public record Hit(Individual solution, boolean exact) {}
+
+    // Un record: chiave esatta, raggi normalizzati per gruppo, fitness e coordinate normalizzate (x, y alternate).
+    private record Entry(String key, int[] counts, double[] radii, double fitness, double[] coordinates) {
+
+        String shapeKey() {
+            return key.substring(0, key.indexOf('@'));
+        }
+
+        long bytes() {
+            return 2 + key.getBytes(StandardCharsets.UTF_8).length + 4 + 12L * counts.length + 8 + 8L * coordinates.length;
+        }
+    }
+
+    private final Path file;
+    private final long maxBytes;
+
+    // Ordine di accesso: il primo elemento è il record usato meno di recente.
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes = HEADER_BYTES;
+
+    /**
+     * Apre (o crea, alla prima scrittura) la cache nel file indicato.
+     * @param file Il file della cache.
+     * @param maxBytes La dimensione massima del file.
+     * @throws IOException Se il file esiste ma non può essere letto o non è una cache valida.
+     * @throws IllegalArgumentException Se {@code maxBytes} non è positivo.
+     */
+    public SolutionCache(Path file, long maxBytes) throws IOException {
+        if (maxBytes <= HEADER_BYTES) {
+            throw new IllegalArgumentException("The cache size must be positive. Found: " + maxBytes);
+        }
+        this.file = file;
+        this.maxBytes = maxBytes;
+        load();
+        evict();
+    }
+
+    // ==================================================================================
+    // 🔎 RICERCA
+    // ==================================================================================
+
+    /**
+     * Cerca una soluzione per il problema indicato.
+     * <p>
+     * Si preferisce la soluzione dello stesso problema; in mancanza, quella del problema con la stessa forma
+     * (dominio, proporzioni e numero di punti per gruppo) e i raggi più simili, posta ai raggi richiesti.
+     * @param signature La firma del problema.
+     * @return La soluzione riscalata, oppure {@code Optional.empty()} se nessun record è compatibile.
+     */
+    public synchronized Optional<Hit> lookup(ProblemSignature signature) {
+        Entry exact = entries.get(signature.key());
+        if (exact != null) {
+            return Optional.of(new Hit(new Individual(toPoints(exact, signature), exact.fitness()), true));
+        }
+
+        Entry nearest = null;
+        double nearestDistance = Double.MAX_VALUE;
+        for (Entry entry : entries.values()) {
+            if (!entry.shapeKey().equals(signature.shapeKey())) continue;
+            double distance = signature.radiusDistance(entry.radii());
+            if (distance < nearestDistance) {
+                nearest = entry;
+                nearestDistance = distance;
+            }
+        }
+        if (nearest == null) {
+            return Optional.empty();
+        }
+        entries.get(nearest.key()); // aggiorna l'ordine LRU
+        return Optional.of(new Hit(new Individual(toPoints(nearest, signature)), false));
+    }
+
+    /**
+     * Riporta le coordinate normalizzate di un record alla scala del problema, con i raggi del problema.
+     */
+    private static List<Point> toPoints(Entry entry, ProblemSignature signature) {
+        double scale = signature.scale();
+        List<Point> points = new ArrayList<>(signature.totalCount());
+        int i = 0;
+        for (int g = 0; g < signature.counts().length; g++) {
+            double radius = signature.radii()[g] * scale;
+            for (int k = 0; k < signature.counts()[g]; k++, i += 2) {
+                points.add(new Point(entry.coordinates()[i] * scale, entry.coordinates()[i + 1] * scale, radius));
+            }
+        }
+        return points;
+    }
+
+    // ==================================================================================
+    // 💾 SCRITTURA
+    // ==================================================================================
+
+    /**
+     * Salva una soluzione, se migliora quella già presente per lo stesso problema, e aggiorna il file.
+     * @param signature La firma del problema risolto.
+     * @param solution La soluzione, con la fitness calcolata.
+     * @return true se la soluzione è stata salvata.
+     * @throws IOException Se il file non può essere scritto.
+     * @throws IllegalArgumentException Se il numero di punti della soluzione non corrisponde alla firma.
+     */
+    public synchronized boolean store(ProblemSignature signature, Individual solution) throws IOException {
+        if (solution.getDimension() != signature.totalCount()) {
+            throw new IllegalArgumentException(String.format(
+                    "The solution has %d points, the problem has %d.", solution.getDimension(), signature.totalCount()));
+        }
+        Entry previous = entries.get(signature.key());
+        if (previous != null && previous.fitness() >= solution.getFitness()) {
+            return false;
+        }
+
+        double[] coordinates = new double[2 * solution.getDimension()];
+        int i = 0;
+        for (Point p : solution.getChromosomes()) {
+            coordinates[i++] = p.getX() / signature.scale();
+            coordinates[i++] = p.getY() / signature.scale();
+        }
+        Entry entry = new Entry(signature.key(), signature.counts().clone(), signature.radii().clone(),
+                solution.getFitness(), coordinates);
+        if (HEADER_BYTES + entry.bytes() > maxBytes) {
+            return false;
+        }
+
+        if (previous != null) {
+            entries.remove(previous.key());
+            totalBytes -= previous.bytes();
+        }
+        entries.put(entry.key(), entry);
+        totalBytes += entry.bytes();
+        evict();
+        save();
+        return true;
+    }
+
+    /** Scarta i record usati meno di recente finché il file non rientra nella dimensione massima. */
+    private void evict() {
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            totalBytes -= eldest.next().bytes();
+            eldest.remove();
+        }
+    }
+
+    // ==================================================================================
+    // 📂 FORMATO BINARIO
+    // ==================================================================================
+
+    private void load() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+                throw new IOException(file + " is not a solution cache.");
+            }
+            int count = in.readInt();
+            for (int r = 0; r < count; r++) {
+                String key = in.readUTF();
+                int groups = in.readInt();
+                int[] counts = new int[groups];
+                double[] radii = new double[groups];
+                int total = 0;
+                for (int g = 0; g < groups; g++) {
+                    counts[g] = in.readInt();
+                    radii[g] = in.readDouble();
+                    total += counts[g];
+                }
+                double fitness = in.readDouble();
+                double[] coordinates = new double[2 * total];
+                for (int c = 0; c < coordinates.length; c++) coordinates[c] = in.readDouble();
+
+                Entry entry = new Entry(key, counts, radii, fitness, coordinates);
+                entries.put(key, entry);
+                totalBytes += entry.bytes();
+            }
+        } catch (NoSuchFileException e) {
+            // Cache nuova: il file verrà creato alla prima scrittura.
+        }
+    }
+
+    private void save() throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(entries.size());
+            for (Entry entry : entries.values()) {
+                out.writeUTF(entry.key());
+                out.writeInt(entry.counts().length);
+                for (int g = 0; g < entry.counts().length; g++) {
+                    out.writeInt(entry.counts()[g]);
+                    out.writeDouble(entry.radii()[g]);
+                }
+                out.writeDouble(entry.fitness());
+                for (double c : entry.coordinates()) out.writeDouble(c);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // ------------------- GETTER -------------------
+
+    /** Numero di soluzioni in cache. */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /** Dimensione del file della cache, in byte. */
+    public synchronized long getSizeBytes() {
+        return totalBytes;
+    }
+}
@@ -0,0 +1,84 @@
+package service.strategies;
+
+import java.util.Arrays;
+
+/**
+ * Griglia uniforme densa su array primitivi, condivisa dalle strategie di overlap basate su indici.
+ * <p>
+ * I punti sono ordinati per cella con un counting sort: gli indici dei punti della cella {@code c} sono
+ * {@code sorted[cellStart[c]] .. sorted[cellStart[c + 1] - 1]}. Gli array vengono riallocati solo quando il
+ * problema o la griglia crescono, quindi un'istanza per thread non alloca nulla a regime.
+ */
+final class CellGrid {
+
+    // Numero massimo di celle per punto: se i raggi sono minuscoli rispetto all'area occupata,
+    // la cella viene allargata per non allocare una griglia quasi vuota.
+    static final int MAX_CELLS_PER_POINT = 4;
+
+    // Coordinate dei punti (riempite dalla strategia prima di build()).
+    double[] xs = new double[0];
+    double[] ys = new double[0];
+
+    // Risultato di build().
+    int[] cellOf = new int[0];
+    int[] sorted = new int[0];
+    int[] cellStart = new int[1];
+    int cols, rows;
+    double cellSize;
+    double minX, minY;
+
+    private int[] fill = new int[0];
+
+    /** Garantisce spazio per {@code n} punti negli array delle coordinate e dei risultati. */
+    void ensurePoints(int n) {
+        if (xs.length < n) {
+            xs = new double[n];
+            ys = new double[n];
+            cellOf = new int[n];
+            sorted = new int[n];
+        }
+    }
+
+    /**
+     * Costruisce la griglia sui primi {@code n} punti di {@code xs}/{@code ys}.
+     * @param n Il numero di punti.
+     * @param baseCellSize Il lato desiderato della cella (può essere allargato per limitare il numero di celle).
+     */
+    void build(int n, double baseCellSize) {
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, xs[i]);
+            maxX = Math.max(maxX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+
+        this.minX = minX;
+        this.minY = minY;
+        cellSize = Math.max(baseCellSize, Math.sqrt((maxX - minX) * (maxY - minY) / (MAX_CELLS_PER_POINT * (double) n)));
+        cols = (int) ((maxX - minX) / cellSize) + 1;
+        rows = (int) ((maxY - minY) / cellSize) + 1;
+        int cells = cols * rows;
+        if (fill.length < cells) {
+            cellStart = new int[cells + 1];
+            fill = new int[cells];
+        }
+
+        Arrays.fill(cellStart, 0, cells + 1, 0);
+        for (int i = 0; i < n; i++) {
+            int cx = (int) ((xs[i] - minX) / cellSize);
+            int cy = (int) ((ys[i] - minY) / cellSize);
+            cellOf[i] = cy * cols + cx;
+            cellStart[cellOf[i] + 1]++;
+        }
+        for (int c = 0; c < cells; c++) cellStart[c + 1] += cellStart[c];
+        System.arraycopy(cellStart, 0, fill, 0, cells);
+        for (int i = 0; i < n; i++) sorted[fill[cellOf[i]]++] = i;
+    }
+
+    /** Numero di celle da esplorare in ogni direzione per coprire una distanza {@code distance}. */
+    int reach(double distance) {
+        return (int) Math.ceil(distance / cellSize);
+    }
+}
@@ -0,0 +1,115 @@
+package service.strategies;
+
+import model.domains.Domain;
+
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+
+/**
+ * Reticolo di celle sulla bounding box di un dominio, ridotto alle sole celle che toccano il dominio.
+ * <p>
+ * Le celle del reticolo vengono classificate una sola volta: una cella viene tenuta se il suo centro dista dal
+ * dominio al più mezza diagonale ({@link Domain#signedDistance(double, double)} non supera mai la distanza vera,
+ * quindi nessuna cella che tocca il dominio viene scartata). Le celle tenute ricevono un indice compatto
+ * {@code 0 .. getCellCount() - 1} in ordine di riga; tutti i punti che cadono altrove condividono l'indice
+ * {@code getCellCount()} ("overflow"). Il reticolo è immutabile e condiviso in sola lettura tra i thread.
+ * <p>
+ * Scelta Implementativa: invece di una tabella cella -> indice compatto si memorizza il rango di ogni cella (quante
+ * celle tenute la precedono). Le celle tenute di un tratto di riga hanno indici consecutivi, quindi i loro punti,
+ * ordinati per indice compatto, occupano un unico intervallo contiguo: la ricerca dei vicini scorre un intervallo
+ * per riga, senza controllare le celle una per una.
+ */
+final class DomainLattice {
+
+    // ------------------- ATTRIBUTI -------------------
+
+    // Reticolo: la cella (col, row) copre [originX + col * cellSize, originX + (col + 1) * cellSize) e così via.
+    final double originX, originY, cellSize;
+    final int cols, rows;
+
+    // Rango di ogni cella del reticolo (row * cols + col): numero di celle tenute che la precedono (cols * rows + 1
+    // elementi). La cella è tenuta se rank[cell + 1] > rank[cell], e in quel caso il suo indice compatto è rank[cell].
+    final int[] rank;
+
+    // Colonna e riga di ogni cella compatta.
+    final int[] columnOf, rowOf;
+
+    // Numero di celle tenute (l'indice di overflow).
+    private final int cellCount;
+
+    // ------------------- COSTRUTTORE -------------------
+
+    /**
+     * @param domain Il dominio.
+     * @param baseCellSize Il lato desiderato della cella (allargato, come in {@link CellGrid}, se il reticolo
+     *                     avrebbe troppe celle per il numero di punti).
+     * @param points Il numero di punti del problema.
+     */
+    DomainLattice(Domain domain, double baseCellSize, int points) {
+        Rectangle2D box = domain.getBoundingBox();
+        double area = box.getWidth() * box.getHeight();
+        this.cellSize = Math.max(baseCellSize, Math.sqrt(area / (CellGrid.MAX_CELLS_PER_POINT * (double) points)));
+        this.originX = box.getMinX();
+        this.originY = box.getMinY();
+        this.cols = (int) (box.getWidth() / cellSize) + 1;
+        this.rows = (int) (box.getHeight() / cellSize) + 1;
+
+        this.rank = new int[cols * rows + 1];
+        double halfDiagonal = cellSize * Math.sqrt(0.5);
+        int[] columns = new int[cols * rows];
+        int[] rowsOf = new int[cols * rows];
+        int kept = 0;
+        for (int row = 0; row < rows; row++) {
+            double y = originY + (row + 0.5) * cellSize;
+            for (int col = 0; col < cols; col++) {
+                double x = originX + (col + 0.5) * cellSize;
+                if (domain.signedDistance(x, y) <= halfDiagonal) {
+                    columns[kept] = col;
+                    rowsOf[kept] = row;
+                    kept++;
+                }
+                rank[row * cols + col + 1] = kept;
+            }
+        }
+        this.cellCount = kept;
+        this.columnOf = Arrays.copyOf(columns, kept);
+        this.rowOf = Arrays.copyOf(rowsOf, kept);
+    }
+
+    // ------------------- INTERROGAZIONI -------------------
+
+    /** Indice compatto della cella che contiene (x, y), oppure {@link #getCellCount()} (overflow). */
+    int cellOf(double x, double y) {
+        double gx = (x - originX) / cellSize;
+        double gy = (y - originY) / cellSize;
+        // La forma negata scarta anche i NaN.
+        if (!(gx >= 0 && gx < cols && gy >= 0 && gy < rows)) return cellCount;
+        int cell = (int) gy * cols + (int) gx;
+        return rank[cell + 1] > rank[cell] ? rank[cell] : cellCount;
+    }
+
+    /** Colonna del reticolo che contiene l'ascissa {@code x}, limitata a [-1, cols] per i punti lontani. */
+    int column(double x) {
+        return (int) Math.floor(Math.min(Math.max((x - originX) / cellSize, -1), cols));
+    }
+
+    /** Riga del reticolo che contiene l'ordinata {@code y}, limitata a [-1, rows] per i punti lontani. */
+    int row(double y) {
+        return (int) Math.floor(Math.min(Math.max((y - originY) / cellSize, -1), rows));
+    }
+
+    /** Numero di celle da esplorare in ogni direzione per coprire una distanza {@code distance}. */
+    int reach(double distance) {
+        return (int) Math.ceil(distance / cellSize);
+    }
+
+    /** Numero di celle che toccano il dominio. */
+    int getCellCount() {
+        return cellCount;
+    }
+
+    /** Frazione delle celle del reticolo che toccano il dominio. */
+    double getOccupancy() {
+        return cellCount / (double) (cols * rows);
+    }
+}
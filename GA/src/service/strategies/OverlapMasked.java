@@ -0,0 +1,353 @@
+package service.strategies;
+
+import model.GenomeLayout;
+import model.Point;
+import model.domains.Domain;
+import utils.ParallelSum;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Strategia di overlap su una griglia ristretta al dominio, per i domini "vuoti" (corone, cornici, triangoli),
+ * in cui buona parte della bounding box non può contenere punti validi.
+ * <p>
+ * Il reticolo di celle viene calcolato una sola volta per dominio ({@link DomainLattice}): solo le celle che
+ * toccano il dominio hanno un secchio, in un array denso e compatto; i punti che cadono altrove finiscono in un
+ * unico secchio di overflow. Gli array di lavoro per thread hanno quindi una voce per cella del dominio, non per
+ * cella della bounding box dei punti, e le celle adiacenti di una riga restano contigue in memoria.
+ * <p>
+ * Il risultato è identico a quello di {@link OverlapSpatial}, con la stessa regola di attribuzione delle coppie:
+ * <ul>
+ *   <li>i punti nelle celle del dominio cercano i vicini non più grandi nelle celle del dominio adiacenti;</li>
+ *   <li>i punti di overflow (pochi, e solo finché la popolazione non rientra nel dominio) cercano tutti i vicini
+ *       nelle celle del dominio adiacenti, e tra loro su una {@link CellGrid} costruita a parte: ogni coppia
+ *       viene comunque contata una sola volta.</li>
+ * </ul>
+ */
+public class OverlapMasked implements OverlapStrategy {
+
+    // Punti per task nella valutazione parallela: abbastanza lavoro da ammortizzare il fork.
+    private static final int PARALLEL_BLOCK_SIZE = 4096;
+
+    // ------------------- ATTRIBUTI -------------------
+
+    // La disposizione dei gruppi nel cromosoma (gruppo per indice e tabella delle distanze minime).
+    private final GenomeLayout layout;
+
+    // Lato "naturale" della cella: il diametro del gruppo più numeroso.
+    private final double baseCellSize;
+
+    // Il reticolo del dominio, condiviso in sola lettura.
+    private final DomainLattice lattice;
+
+    // Raggio di ricerca (in celle del reticolo) per gruppo: verso i vicini non più grandi, e verso tutti i vicini.
+    private final int[] reach;
+    private final int[] reachAll;
+
+    // Buffer di lavoro per thread: la strategia è condivisa tra le valutazioni parallele della popolazione.
+    private final ThreadLocal<Workspace> buffers = ThreadLocal.withInitial(Workspace::new);
+
+    /** Coordinate, secchi del reticolo e griglia dei punti di overflow. */
+    private static final class Workspace {
+        double[] xs = new double[0];
+        double[] ys = new double[0];
+        int[] cellOf = new int[0];
+        int[] sorted = new int[0];
+        int[] cellStart = new int[0];
+        int[] fill = new int[0];
+        final CellGrid overflow = new CellGrid();
+        int[] overflowIndex = new int[0];
+        int[] overflowReach;
+
+        void ensure(int n, int buckets, int groups) {
+            if (xs.length < n) {
+                xs = new double[n];
+                ys = new double[n];
+                cellOf = new int[n];
+                sorted = new int[n];
+                overflowIndex = new int[n];
+            }
+            if (fill.length < buckets) {
+                cellStart = new int[buckets + 1];
+                fill = new int[buckets];
+            }
+            if (overflowReach == null) {
+                overflowReach = new int[groups];
+            }
+        }
+    }
+
+    /**
+     * Costruisce la strategia e il reticolo del dominio.
+     * @param layout La disposizione dei gruppi nel cromosoma.
+     * @param domain Il dominio (solo per il reticolo: il risultato non dipende dal dominio).
+     */
+    public OverlapMasked(GenomeLayout layout, Domain domain) {
+        this.layout = layout;
+        this.baseCellSize = 2.0 * layout.getDominantRadius();
+        this.lattice = new DomainLattice(domain, baseCellSize, layout.getSize());
+
+        int groups = layout.getGroupCount();
+        this.reach = new int[groups];
+        this.reachAll = new int[groups];
+        for (int g = 0; g < groups; g++) {
+            reach[g] = lattice.reach(2.0 * layout.getRadius(g));
+            double farthest = 0;
+            for (int h = 0; h < groups; h++) {
+                farthest = Math.max(farthest, layout.getRequiredDistance(g, h));
+            }
+            reachAll[g] = lattice.reach(farthest);
+        }
+    }
+
+    /**
+     * Frazione delle celle della bounding box del dominio che lo toccano: più è bassa, più la griglia ristretta
+     * conviene rispetto a quella di {@link OverlapSpatial}.
+     */
+    public double getOccupancy() {
+        return lattice.getOccupancy();
+    }
+
+    /**
+     * Calcola la penalità totale di sovrapposizione sulla griglia ristretta al dominio.
+     * Complessità: O(N) medio, come {@link OverlapSpatial}.
+     * @param chromosomes La lista dei punti da valutare, disposti secondo la layout.
+     * @param overlapWeight Il peso da applicare alla penalità.
+     * @return La penalità totale di overlap.
+     * @throws IllegalArgumentException Se il numero di punti non corrisponde alla layout.
+     */
+    @Override
+    public double calculateOverlap(List<Point> chromosomes, double overlapWeight) {
+        Workspace work = sortByCell(chromosomes);
+        int inDomain = work.cellStart[lattice.getCellCount()];
+        double penalty = domainOverlap(work, 0, inDomain, Double.POSITIVE_INFINITY);
+        penalty += overflowOverlap(work, inDomain, chromosomes.size() - inDomain);
+        return penalty * overlapWeight;
+    }
+
+    /**
+     * Come {@link #calculateOverlap(List, double)}, ma si ferma appena la penalità supera
+     * {@code bound}: i punti del dominio vengono scanditi per primi (con il controllo dopo ogni punto), quelli di
+     * overflow solo se il limite non è ancora superato.
+     */
+    @Override
+    public double calculateOverlap(List<Point> chromosomes, double overlapWeight, double bound) {
+        Workspace work = sortByCell(chromosomes);
+        int inDomain = work.cellStart[lattice.getCellCount()];
+        // Il confronto avviene sulla somma non pesata.
+        double unweightedBound = bound / overlapWeight;
+        double penalty = domainOverlap(work, 0, inDomain, unweightedBound);
+        if (penalty <= unweightedBound) {
+            penalty += overflowOverlap(work, inDomain, chromosomes.size() - inDomain);
+        }
+        return penalty * overlapWeight;
+    }
+
+    /**
+     * Calcola la penalità di sovrapposizione di un solo individuo su più core, per i genomi molto grandi.
+     * <p>
+     * Dopo il counting sort i punti del dominio sono ordinati per cella, riga per riga: un intervallo di
+     * {@code sorted} è un blocco di celle contigue. L'intervallo viene diviso in blocchi di
+     * {@link #PARALLEL_BLOCK_SIZE} punti, ognuno valutato da un task fork-join che legge soltanto i dati del
+     * counting sort; la somma dei blocchi segue un albero fisso ({@link ParallelSum}), quindi il risultato non
+     * dipende dal numero di core. I punti di overflow (pochi) sono valutati dal thread chiamante.
+     * @param chromosomes La lista dei punti da valutare, disposti secondo la layout.
+     * @param overlapWeight Il peso da applicare alla penalità.
+     * @return La penalità totale di overlap.
+     * @throws IllegalArgumentException Se il numero di punti non corrisponde alla layout.
+     */
+    public double calculateOverlapParallel(List<Point> chromosomes, double overlapWeight) {
+        Workspace work = sortByCell(chromosomes);
+        int inDomain = work.cellStart[lattice.getCellCount()];
+        double penalty = ParallelSum.sum(0, inDomain, PARALLEL_BLOCK_SIZE, (from, to) -> domainOverlap(work, from, to, Double.POSITIVE_INFINITY));
+        penalty += overflowOverlap(work, inDomain, chromosomes.size() - inDomain);
+        return penalty * overlapWeight;
+    }
+
+    /**
+     * Copia le coordinate nei buffer del thread e ordina i punti per cella compatta con un counting sort
+     * (l'ultimo secchio è l'overflow).
+     */
+    private Workspace sortByCell(List<Point> chromosomes) {
+        int n = chromosomes.size();
+        if (n != layout.getSize()) {
+            throw new IllegalArgumentException("Expected " + layout.getSize() + " points, found " + n + ".");
+        }
+        int overflowCell = lattice.getCellCount();
+        Workspace work = buffers.get();
+        work.ensure(n, overflowCell + 1, layout.getGroupCount());
+        double[] xs = work.xs;
+        double[] ys = work.ys;
+        int[] cellOf = work.cellOf;
+        int[] cellStart = work.cellStart;
+
+        Arrays.fill(cellStart, 0, overflowCell + 2, 0);
+        for (int i = 0; i < n; i++) {
+            Point p = chromosomes.get(i);
+            xs[i] = p.getX();
+            ys[i] = p.getY();
+            cellOf[i] = lattice.cellOf(xs[i], ys[i]);
+            cellStart[cellOf[i] + 1]++;
+        }
+        for (int c = 0; c <= overflowCell; c++) cellStart[c + 1] += cellStart[c];
+        System.arraycopy(cellStart, 0, work.fill, 0, overflowCell + 1);
+        for (int i = 0; i < n; i++) work.sorted[work.fill[cellOf[i]]++] = i;
+        return work;
+    }
+
+    /**
+     * Overlap delle coppie di competenza dei punti {@code sorted[from .. to - 1]}, tutti nelle celle del dominio.
+     * I punti delle celle tenute di un tratto di riga sono contigui in {@code sorted}: un solo intervallo per riga.
+     * Legge soltanto i buffer, quindi può essere eseguito da più thread sullo stesso {@code work}.
+     * Si ferma dopo il punto corrente se la penalità (non pesata) supera {@code bound}.
+     */
+    private double domainOverlap(Workspace work, int from, int to, double bound) {
+        double[] xs = work.xs;
+        double[] ys = work.ys;
+        int[] cellOf = work.cellOf;
+        int[] cellStart = work.cellStart;
+        int[] sorted = work.sorted;
+        int cols = lattice.cols;
+        int[] rank = lattice.rank;
+        double penalty = 0.0;
+
+        for (int p = from; p < to; p++) {
+            int i = sorted[p];
+            int cell = cellOf[i];
+            int gi = layout.getGroupOf(i);
+            double ri = layout.getRadius(gi);
+            double sameRequired = layout.getRequiredDistance(gi, gi);
+            double sameRequiredSq = layout.getRequiredDistanceSq(gi, gi);
+            double xi = xs[i], yi = ys[i];
+
+            int r = reach[gi];
+            int cx = lattice.columnOf[cell], cy = lattice.rowOf[cell];
+            int fromX = Math.max(0, cx - r), toX = Math.min(cols - 1, cx + r);
+            int fromY = Math.max(0, cy - r), toY = Math.min(lattice.rows - 1, cy + r);
+
+            for (int y = fromY; y <= toY; y++) {
+                int rowBase = y * cols;
+                for (int s = cellStart[rank[rowBase + fromX]], end = cellStart[rank[rowBase + toX + 1]]; s < end; s++) {
+                    int j = sorted[s];
+                    int gj = layout.getGroupOf(j);
+
+                    double dx = xs[j] - xi;
+                    double dy = ys[j] - yi;
+                    double d2 = dx * dx + dy * dy;
+
+                    if (gj == gi) {
+                        // Kernel per lo stesso gruppo: distanza minima costante, coppia contata da j > i.
+                        if (j <= i || d2 >= sameRequiredSq) continue;
+                        double overlap = sameRequired - Math.sqrt(d2);
+                        penalty += overlap * overlap;
+                    } else {
+                        // Gruppi diversi: stessa regola di attribuzione di OverlapSpatial.
+                        double rj = layout.getRadius(gj);
+                        if (rj > ri || (rj == ri && j <= i)) continue;
+                        if (d2 >= layout.getRequiredDistanceSq(gi, gj)) continue;
+                        double overlap = layout.getRequiredDistance(gi, gj) - Math.sqrt(d2);
+                        penalty += overlap * overlap;
+                    }
+                }
+            }
+            if (penalty > bound) return penalty;
+        }
+        return penalty;
+    }
+
+    /**
+     * Overlap delle coppie con almeno un punto di overflow: verso le celle del dominio (tutte le coppie, dato che
+     * i punti del dominio non guardano l'overflow) e tra punti di overflow, su una griglia costruita solo per loro.
+     */
+    private double overflowOverlap(Workspace work, int first, int count) {
+        if (count == 0) return 0.0;
+        double[] xs = work.xs;
+        double[] ys = work.ys;
+        int[] cellStart = work.cellStart;
+        int[] sorted = work.sorted;
+        int cols = lattice.cols;
+        int[] rank = lattice.rank;
+        double penalty = 0.0;
+
+        for (int t = 0; t < count; t++) {
+            int i = sorted[first + t];
+            int gi = layout.getGroupOf(i);
+            double xi = xs[i], yi = ys[i];
+            int r = reachAll[gi];
+            int cx = lattice.column(xi), cy = lattice.row(yi);
+            int fromX = Math.max(0, cx - r), toX = Math.min(cols - 1, cx + r);
+            int fromY = Math.max(0, cy - r), toY = Math.min(lattice.rows - 1, cy + r);
+
+            for (int y = fromY; y <= toY; y++) {
+                int rowBase = y * cols;
+                for (int s = cellStart[rank[rowBase + fromX]], end = cellStart[rank[rowBase + toX + 1]]; s < end; s++) {
+                    int j = sorted[s];
+                    int gj = layout.getGroupOf(j);
+                    double dx = xs[j] - xi;
+                    double dy = ys[j] - yi;
+                    double d2 = dx * dx + dy * dy;
+                    if (d2 >= layout.getRequiredDistanceSq(gi, gj)) continue;
+                    double overlap = layout.getRequiredDistance(gi, gj) - Math.sqrt(d2);
+                    penalty += overlap * overlap;
+                }
+            }
+        }
+
+        // Coppie tra punti di overflow: griglia sui soli punti di overflow, con gli indici globali.
+        CellGrid grid = work.overflow;
+        grid.ensurePoints(count);
+        int[] index = work.overflowIndex;
+        for (int t = 0; t < count; t++) {
+            index[t] = sorted[first + t];
+            grid.xs[t] = xs[index[t]];
+            grid.ys[t] = ys[index[t]];
+        }
+        grid.build(count, baseCellSize);
+        int[] overflowReach = work.overflowReach;
+        for (int g = 0; g < overflowReach.length; g++) {
+            overflowReach[g] = grid.reach(2.0 * layout.getRadius(g));
+        }
+        for (int t = 0; t < count; t++) {
+            int i = index[t];
+            int gi = layout.getGroupOf(i);
+            int r = overflowReach[gi];
+            int cx = grid.cellOf[t] % grid.cols;
+            int cy = grid.cellOf[t] / grid.cols;
+            int fromX = Math.max(0, cx - r), toX = Math.min(grid.cols - 1, cx + r);
+            int fromY = Math.max(0, cy - r), toY = Math.min(grid.rows - 1, cy + r);
+
+            for (int y = fromY; y <= toY; y++) {
+                int rowBase = y * grid.cols;
+                for (int c = rowBase + fromX; c <= rowBase + toX; c++) {
+                    for (int s = grid.cellStart[c], end = grid.cellStart[c + 1]; s < end; s++) {
+                        penalty += ownedOverlap(i, gi, index[grid.sorted[s]], xs, ys);
+                    }
+                }
+            }
+        }
+        return penalty;
+    }
+
+    /**
+     * Overlap (non pesato) della coppia (i, j) se è di competenza di i, con la regola di {@link OverlapSpatial}:
+     * nello stesso gruppo la conta il punto con indice minore, tra gruppi diversi il punto con raggio maggiore
+     * (a parità di raggio, quello con indice minore).
+     */
+    private double ownedOverlap(int i, int gi, int j, double[] xs, double[] ys) {
+        int gj = layout.getGroupOf(j);
+        if (gj == gi) {
+            if (j <= i) return 0.0;
+        } else {
+            double ri = layout.getRadius(gi);
+            double rj = layout.getRadius(gj);
+            if (rj > ri || (rj == ri && j <= i)) return 0.0;
+        }
+        double dx = xs[j] - xs[i];
+        double dy = ys[j] - ys[i];
+        double d2 = dx * dx + dy * dy;
+        if (d2 >= layout.getRequiredDistanceSq(gi, gj)) return 0.0;
+        double overlap = layout.getRequiredDistance(gi, gj) - Math.sqrt(d2);
+        return overlap * overlap;
+    }
+}
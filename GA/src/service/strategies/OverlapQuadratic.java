@@ -1,8 +1,7 @@
 package service.strategies;
 
+import model.GenomeLayout;
 import model.Point;
-import utils.DistanceCalculator;
-import utils.PenaltyHelper;
 
 import java.util.List;
 
@@ -11,41 +10,89 @@ import java.util.List;
  * * Questa strategia è la più semplice da implementare ed è preferita
  * quando il numero di punti (N) è basso (sotto la soglia di commutazione),
  * perché evita l'overhead di costruzione delle strutture dati spaziali O(N).
+ * <p>
+ * Poiché i geni sono contigui per gruppo, il doppio ciclo è organizzato a blocchi (gruppo a, gruppo b):
+ * all'interno di un blocco la distanza minima è costante e viene letta una sola volta dalla tabella della layout.
  */
 public class OverlapQuadratic implements OverlapStrategy{
 
+    // La disposizione dei gruppi nel cromosoma.
+    private final GenomeLayout layout;
+
+    /**
+     * @param layout La disposizione dei gruppi nel cromosoma.
+     */
+    public OverlapQuadratic(GenomeLayout layout) {
+        this.layout = layout;
+    }
+
     /**
      * Calcola la penalità totale derivante dalla sovrapposizione tra tutti i punti.
      * * Il metodo confronta ogni punto con tutti gli altri in un doppio ciclo annidato.
      * Complessità Totale: O(N^2).
-     * * @param chromosomes La lista dei punti (cromosomi) da valutare.
+     * * @param chromosomes La lista dei punti (cromosomi) da valutare, disposti secondo la layout.
      * @param overlapWeight Il peso da applicare alla penalità (costante).
-     * @param distanceCalculator L'utility per calcolare la distanza euclidea.
      * @return La penalità totale di overlap.
+     * @throws IllegalArgumentException Se il numero di punti non corrisponde alla layout.
+     */
+    @Override
+    public double calculateOverlap(
+            List<Point> chromosomes,
+            double overlapWeight
+    ) {
+        return calculateOverlap(chromosomes, overlapWeight, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Come {@link #calculateOverlap(List, double)}, ma si ferma (dopo il punto i corrente)
+     * appena la penalità accumulata supera {@code bound}.
      */
     @Override
     public double calculateOverlap(
             List<Point> chromosomes,
             double overlapWeight,
-            DistanceCalculator distanceCalculator
+            double bound
     ) {
-        double penalty = 0.0;
+        if (chromosomes.size() != layout.getSize()) {
+            throw new IllegalArgumentException("Expected " + layout.getSize() + " points, found " + chromosomes.size() + ".");
+        }
+        // Le coordinate vengono lette una sola volta: con un genoma quantizzato ogni get() decodifica il gene.
         int n = chromosomes.size();
-
-        // Ciclo esterno: Seleziona il punto di riferimento p_i. Complessità O(N).
+        double[] xs = new double[n];
+        double[] ys = new double[n];
         for (int i = 0; i < n; i++) {
-            Point p_i = chromosomes.get(i);
+            Point p = chromosomes.get(i);
+            xs[i] = p.getX();
+            ys[i] = p.getY();
+        }
+
+        double penalty = 0.0;
+        int groupCount = layout.getGroupCount();
+
+        // Ciclo sui blocchi (a, b) con b >= a: ogni coppia di gruppi è visitata una sola volta.
+        for (int a = 0; a < groupCount; a++) {
+            for (int b = a; b < groupCount; b++) {
+                double required = layout.getRequiredDistance(a, b);
+                double requiredSq = layout.getRequiredDistanceSq(a, b);
 
-            // Ciclo interno: Confronta p_i con tutti i punti successivi p_j. Complessità O(N).
-            // L'indice j = i + 1 è cruciale per due motivi:
-            // 1. Evita l'auto-confronto (i vs i).
-            // 2. Garantisce che ogni coppia (i, j) sia contata ESATTAMENTE una volta,
-            //    impedendo il doppio conteggio della penalità (i vs j e j vs i).
-            for (int j = i + 1; j < n; j++) {
-                Point p_j = chromosomes.get(j);
+                for (int i = layout.getStart(a); i < layout.getEnd(a); i++) {
+                    double xi = xs[i], yi = ys[i];
 
-                penalty += PenaltyHelper.calculatePairPenalty(p_i, p_j, overlapWeight, distanceCalculator);
+                    // Nello stesso blocco j parte da i + 1: evita l'auto-confronto e il doppio conteggio.
+                    int from = (a == b) ? i + 1 : layout.getStart(b);
+                    for (int j = from; j < layout.getEnd(b); j++) {
+                        double dx = xs[j] - xi;
+                        double dy = ys[j] - yi;
+                        double d2 = dx * dx + dy * dy;
 
+                        // La radice quadrata serve solo per le coppie effettivamente sovrapposte.
+                        if (d2 < requiredSq) {
+                            double overlap = required - Math.sqrt(d2);
+                            penalty += (overlap * overlap) * overlapWeight;
+                        }
+                    }
+                    if (penalty > bound) return penalty;
+                }
             }
         }
         return penalty;
@@ -1,109 +1,151 @@
 package service.strategies;
 
+import model.GenomeLayout;
 import model.Point;
-import utils.DistanceCalculator;
-import utils.PenaltyHelper;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Strategia di calcolo dell'overlap basata sull'Hashing Spaziale (Griglia Uniforme).
  * Questa implementazione riduce la complessità media da O(N^2) a O(N) ed è usata per popolazioni grandi.
+ * <p>
+ * La strategia lavora per indice sulla {@code GenomeLayout} del problema, così gestisce gruppi con raggi molto
+ * diversi senza dimensionare la griglia sul raggio più grande:
+ * <ul>
+ *   <li>la cella ha il lato pari al diametro del gruppo più numeroso (il punto "tipico");</li>
+ *   <li>ogni punto cerca solo i vicini con raggio non maggiore del suo, entro {@code 2 * r_i}: ogni coppia è
+ *       quindi trovata (e contata una sola volta) dal punto più grande, e i punti piccoli — la maggioranza —
+ *       esplorano solo le 3x3 celle adiacenti;</li>
+ *   <li>le distanze minime sono lette dalla tabella per coppia di gruppi della layout, con un ramo dedicato per le
+ *       coppie dello stesso gruppo (stesso raggio).</li>
+ * </ul>
+ * Scelta Implementativa: la griglia è densa e costruita con un counting sort su array primitivi riutilizzati
+ * per thread, invece di una {@code HashMap<Cell, List<Point>>} ricreata a ogni valutazione.
  */
 public class OverlapSpatial implements OverlapStrategy{
 
-    // Record per rappresentare la chiave della cella nella griglia.
-    // Essendo un record, fornisce automaticamente un'implementazione corretta di
-    // hashCode() e equals(), essenziale per l'uso come chiave in una HashMap.
-    private record Cell(int i, int j) {}
+    // La disposizione dei gruppi nel cromosoma (gruppo per indice e tabella delle distanze minime).
+    private final GenomeLayout layout;
 
-    // Dimensione fissa del lato di una cella quadrata.
-    // Viene calcolata una sola volta nel costruttore.
-    private final double cellSize;
+    // Lato "naturale" della cella: il diametro del gruppo più numeroso.
+    private final double baseCellSize;
 
-    /**
-     * Costruttore della strategia di Hashing Spaziale.
-     * @param maxRadius Il raggio massimo assoluto tra tutti i punti nel problema.
-     */
-    public OverlapSpatial(double maxRadius) {
-        // La dimensione della cella è fissata a 2 * R_max.
-        // Questo garantisce che un cerchio con raggio r_i possa interagire solo con i punti
-        // nelle celle immediatamente adiacenti (un'area 3x3).
-        this.cellSize = 2.0 * maxRadius;
-    }
+    // Buffer di lavoro per thread: la strategia è condivisa tra le valutazioni parallele della popolazione.
+    private final ThreadLocal<CellGrid> buffers = ThreadLocal.withInitial(CellGrid::new);
+
+    // Raggio di ricerca (in celle) per ciascun gruppo, per thread.
+    private final ThreadLocal<int[]> reaches;
 
     /**
-     * Mappa una coordinata continua (X o Y) all'indice intero discreto della cella (i o j).
-     * Si basa sulla CELL_SIZE fissa.
+     * Costruttore della strategia di Hashing Spaziale.
+     * @param layout La disposizione dei gruppi nel cromosoma.
      */
-    private int getCellIndex(double coordinate) {
-        // Utilizza Math.floor per mappare in modo coerente i punti all'indice intero corretto.
-        return (int) Math.floor(coordinate / cellSize);
+    public OverlapSpatial(GenomeLayout layout) {
+        this.layout = layout;
+        this.baseCellSize = 2.0 * layout.getDominantRadius();
+        this.reaches = ThreadLocal.withInitial(() -> new int[layout.getGroupCount()]);
     }
 
     /**
      * Calcola la penalità totale derivante dalla sovrapposizione utilizzando la griglia spaziale.
      * Complessità: O(N) per la costruzione + O(N) per il controllo = O(N) totale medio.
-     * * @param chromosomes La lista dei punti da valutare.
+     * @param chromosomes La lista dei punti da valutare, disposti secondo la layout.
      * @param overlapWeight Il peso da applicare alla penalità.
-     * @param distanceCalculator L'utility per calcolare la distanza.
      * @return La penalità totale di overlap.
+     * @throws IllegalArgumentException Se il numero di punti non corrisponde alla layout.
      */
     @Override
     public double calculateOverlap(
             List<Point> chromosomes,
-            double overlapWeight,
-            DistanceCalculator distanceCalculator
+            double overlapWeight
     ) {
-        double penalty = 0.0;
+        return calculateOverlap(chromosomes, overlapWeight, Double.POSITIVE_INFINITY);
+    }
 
-        // La griglia Map<Cell, List<Point>> è locale al metodo e viene ricostruita
-        // ad ogni chiamata O(N), poiché le posizioni dei punti cambiano di continuo (mutazione/crossover).
-        Map<Cell, List<Point>> grid = new HashMap<>();
-
-        // Fase 1: Popolamento griglia (Complessità O(N))
-        // Mappa ogni punto alla sua cella (i, j).
-        for (Point p : chromosomes) {
-            int i = getCellIndex(p.getX());
-            int j = getCellIndex(p.getY());
-            // Aggiunge il punto alla lista associata alla chiave Cell(i, j), creando la lista se necessario.
-            grid.computeIfAbsent(new Cell(i, j), k -> new ArrayList<>()).add(p);
+    /**
+     * Come {@link #calculateOverlap(List, double)}, ma si ferma (dopo il punto i corrente)
+     * appena la penalità accumulata supera {@code bound}.
+     */
+    @Override
+    public double calculateOverlap(
+            List<Point> chromosomes,
+            double overlapWeight,
+            double bound
+    ) {
+        int n = chromosomes.size();
+        if (n != layout.getSize()) {
+            throw new IllegalArgumentException("Expected " + layout.getSize() + " points, found " + n + ".");
+        }
+        CellGrid grid = buffers.get();
+        grid.ensurePoints(n);
+        double[] xs = grid.xs;
+        double[] ys = grid.ys;
+
+        // Fase 1: copia delle coordinate in array primitivi.
+        for (int i = 0; i < n; i++) {
+            Point p = chromosomes.get(i);
+            xs[i] = p.getX();
+            ys[i] = p.getY();
         }
 
-        // Fase 2: Controllo overlap locale (Complessità O(N) medio)
-        // Per ogni punto, controlla solo un numero costante (9) di celle.
-        for (Point p_i : chromosomes) {
-            int iCell = getCellIndex(p_i.getX());
-            int jCell = getCellIndex(p_i.getY());
-
-            // Ciclo 3x3: Itera attraverso gli offset [-1, 0, 1] per gli indici i e j.
-            for (int di = -1; di <= 1; di++) {
-                for (int dj = -1; dj <= 1; dj++) {
-
-                    // Recupera i vicini nella cella corrente/adiacente (iCell + di, jCell + dj)
-                    List<Point> neighbors = grid.get(new Cell(iCell + di, jCell + dj));
-                    if (neighbors == null) continue;
-
-                    for (Point p_j : neighbors) {
-
-                        // 1. Evita l'auto-confronto (p_i con sé stesso).
-                        if (p_i == p_j) continue;
-
-                        // 2. Evita il doppio conteggio: Forziamo un ordinamento (p_i vs p_j, ma non p_j vs p_i).
-                        // System.identityHashCode fornisce un ID univoco basato sull'oggetto, garantendo che l'ordine
-                        // sia deterministico e che ogni coppia venga processata una sola volta.
-                        if (System.identityHashCode(p_i) > System.identityHashCode(p_j)) continue;
-
-                        penalty += PenaltyHelper.calculatePairPenalty(p_i, p_j, overlapWeight, distanceCalculator);
+        // Fase 2: costruzione della griglia (counting sort dei punti per cella).
+        grid.build(n, baseCellSize);
+        int cols = grid.cols, rows = grid.rows;
+        int[] cellOf = grid.cellOf;
+        int[] cellStart = grid.cellStart;
+        int[] sorted = grid.sorted;
+
+        // Raggio di ricerca (in celle) per ciascun gruppo: un vicino non più grande dista meno di 2 * r_i.
+        int[] reach = reaches.get();
+        for (int g = 0; g < reach.length; g++) {
+            reach[g] = grid.reach(2.0 * layout.getRadius(g));
+        }
 
+        // Fase 3: controllo overlap locale.
+        double penalty = 0.0;
+        for (int i = 0; i < n; i++) {
+            int gi = layout.getGroupOf(i);
+            double ri = layout.getRadius(gi);
+            double sameRequired = layout.getRequiredDistance(gi, gi);
+            double sameRequiredSq = layout.getRequiredDistanceSq(gi, gi);
+            double xi = xs[i], yi = ys[i];
+
+            int cx = cellOf[i] % cols;
+            int cy = cellOf[i] / cols;
+            int r = reach[gi];
+            int fromX = Math.max(0, cx - r), toX = Math.min(cols - 1, cx + r);
+            int fromY = Math.max(0, cy - r), toY = Math.min(rows - 1, cy + r);
+
+            for (int y = fromY; y <= toY; y++) {
+                int rowBase = y * cols;
+                for (int c = rowBase + fromX; c <= rowBase + toX; c++) {
+                    for (int s = cellStart[c], end = cellStart[c + 1]; s < end; s++) {
+                        int j = sorted[s];
+                        int gj = layout.getGroupOf(j);
+
+                        double dx = xs[j] - xi;
+                        double dy = ys[j] - yi;
+                        double d2 = dx * dx + dy * dy;
+
+                        if (gj == gi) {
+                            // Kernel per lo stesso gruppo: distanza minima costante, coppia contata da j > i.
+                            if (j <= i || d2 >= sameRequiredSq) continue;
+                            double overlap = sameRequired - Math.sqrt(d2);
+                            penalty += (overlap * overlap) * overlapWeight;
+                        } else {
+                            // Gruppi diversi: la coppia è di competenza del punto con raggio maggiore
+                            // (a parità di raggio, di quello con indice minore).
+                            double rj = layout.getRadius(gj);
+                            if (rj > ri || (rj == ri && j <= i)) continue;
+                            if (d2 >= layout.getRequiredDistanceSq(gi, gj)) continue;
+                            double overlap = layout.getRequiredDistance(gi, gj) - Math.sqrt(d2);
+                            penalty += (overlap * overlap) * overlapWeight;
+                        }
                     }
                 }
             }
+            if (penalty > bound) return penalty;
         }
         return penalty;
     }
-
 }
@@ -1,7 +1,6 @@
 package service.strategies;
 
 import model.Point;
-import utils.DistanceCalculator;
 
 import java.util.List;
 
@@ -14,12 +13,31 @@ public interface OverlapStrategy {
      * Calcola la penalità totale derivante dalla sovrapposizione tra i punti.
      * * @param chromosomes La lista dei punti (cromosomi) da valutare.
      * @param overlapWeight Il peso da applicare alla penalità di sovrapposizione.
-     * /@param distanceCalculator Un riferimento al metodo che calcola la distanza euclidea.
      * @return La penalità totale calcolata.
      */
     double calculateOverlap(
             List<Point> chromosomes,
-            double overlapWeight,
-            DistanceCalculator distanceCalculator
+            double overlapWeight
     );
+
+    /**
+     * Calcola la penalità di sovrapposizione, fermandosi appena supera un limite.
+     * <p>
+     * Serve a chi deve solo sapere se un individuo è migliore di una soglia (es. la selezione (μ+λ)): le
+     * penalità delle coppie non sono mai negative, quindi la somma parziale è già un limite inferiore della penalità
+     * vera e, superato il limite, il resto delle coppie non cambia l'esito. Di default la penalità è calcolata per
+     * intero; le strategie che possono interrompersi lo fanno.
+     * @param chromosomes La lista dei punti (cromosomi) da valutare.
+     * @param overlapWeight Il peso da applicare alla penalità di sovrapposizione.
+     * @param bound Il limite (pesato) oltre il quale la valutazione può fermarsi.
+     * @return La penalità totale se non supera {@code bound}; altrimenti un valore maggiore di {@code bound}
+     * e non maggiore della penalità totale.
+     */
+    default double calculateOverlap(
+            List<Point> chromosomes,
+            double overlapWeight,
+            double bound
+    ) {
+        return calculateOverlap(chromosomes, overlapWeight);
+    }
 }
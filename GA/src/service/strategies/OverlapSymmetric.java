@@ -0,0 +1,159 @@
+package service.strategies;
+
+import model.GenomeLayout;
+import model.Point;
+import model.SymmetricLayout;
+import model.domains.Symmetry;
+
+import java.util.List;
+
+/**
+ * Strategia di overlap per i genomi a simmetria ridotta.
+ * <p>
+ * Riceve i soli rappresentanti delle orbite, li espande in array primitivi (senza creare {@code Point}) e sfrutta
+ * la simmetria anche nella valutazione: poiché la configurazione completa è invariante per il gruppo, la somma delle
+ * penalità su tutte le coppie non ordinate è
+ * <pre>
+ *     ½ · Σ_i  o_i · Σ_{q ≠ i} f(i, q)
+ * </pre>
+ * dove i scorre solo sui rappresentanti, o_i è la dimensione della sua orbita e q su tutti i punti espansi.
+ * Si interrogano quindi i vicini di N/k punti invece che di N, con un risultato identico alla valutazione completa.
+ * Le coppie tra un punto e le sue stesse immagini (punti vicini a un asse o al centro) sono incluse e penalizzate.
+ */
+public class OverlapSymmetric implements OverlapStrategy {
+
+    // Sotto questa dimensione espansa il confronto diretto rappresentanti × punti è più veloce della griglia.
+    private static final int GRID_THRESHOLD = 80;
+
+    private final SymmetricLayout symmetricLayout;
+    private final GenomeLayout layout;
+    private final Symmetry symmetry;
+
+    // Lato "naturale" della cella: il diametro del gruppo più numeroso.
+    private final double baseCellSize;
+
+    // Buffer di lavoro per thread (coordinate espanse, griglia e gruppo di ogni punto espanso).
+    private final ThreadLocal<CellGrid> buffers = ThreadLocal.withInitial(CellGrid::new);
+    private final ThreadLocal<int[]> groupBuffers;
+
+    /**
+     * @param symmetricLayout La codifica a simmetria ridotta del problema.
+     */
+    public OverlapSymmetric(SymmetricLayout symmetricLayout) {
+        this.symmetricLayout = symmetricLayout;
+        this.layout = symmetricLayout.getGenomeLayout();
+        this.symmetry = symmetricLayout.getSymmetry();
+        this.baseCellSize = 2.0 * layout.getDominantRadius();
+        this.groupBuffers = ThreadLocal.withInitial(() -> new int[symmetricLayout.getExpandedSize()]);
+    }
+
+    /**
+     * Calcola la penalità di overlap della configurazione completa a partire dal genoma ridotto.
+     * @param chromosomes I rappresentanti delle orbite, disposti secondo la layout del genoma ridotto.
+     * @param overlapWeight Il peso da applicare alla penalità.
+     * @return La penalità totale di overlap, uguale a quella della configurazione espansa.
+     * @throws IllegalArgumentException Se il numero di geni non corrisponde alla layout.
+     */
+    @Override
+    public double calculateOverlap(
+            List<Point> chromosomes,
+            double overlapWeight
+    ) {
+        int n = chromosomes.size();
+        if (n != layout.getSize()) {
+            throw new IllegalArgumentException("Expected " + layout.getSize() + " genes, found " + n + ".");
+        }
+        int total = symmetricLayout.getExpandedSize();
+        CellGrid grid = buffers.get();
+        grid.ensurePoints(total);
+        double[] xs = grid.xs;
+        double[] ys = grid.ys;
+        int[] groupOf = groupBuffers.get();
+
+        // Fase 1: espansione. L'ordine interno (prima tutti i rappresentanti, poi le immagini) differisce da
+        // SymmetricLayout.expand ma la somma non ne dipende, e tiene i rappresentanti sugli indici 0..n-1.
+        for (int i = 0; i < n; i++) {
+            Point p = chromosomes.get(i);
+            xs[i] = symmetricLayout.projectX(i, p.getX(), p.getY());
+            ys[i] = symmetricLayout.projectY(i, p.getX(), p.getY());
+            groupOf[i] = layout.getGroupOf(i);
+        }
+        int m = n;
+        for (int i = 0; i < n; i++) {
+            int g = groupOf[i];
+            for (int k = 1; k < symmetricLayout.getOrbitSize(g); k++) {
+                int t = symmetricLayout.getImage(g, k);
+                xs[m] = symmetry.imageX(t, xs[i], ys[i]);
+                ys[m] = symmetry.imageY(t, xs[i], ys[i]);
+                groupOf[m++] = g;
+            }
+        }
+
+        // Fase 2: somma pesata per orbita dei contributi di ciascun rappresentante.
+        double penalty = total <= GRID_THRESHOLD
+                ? representativesDirect(n, total, xs, ys, groupOf, overlapWeight)
+                : representativesGrid(n, total, grid, groupOf, overlapWeight);
+        return 0.5 * penalty;
+    }
+
+    /**
+     * Confronto diretto di ogni rappresentante con tutti i punti espansi. Complessità O(N²/k).
+     */
+    private double representativesDirect(int n, int total, double[] xs, double[] ys, int[] groupOf, double weight) {
+        double penalty = 0.0;
+        for (int i = 0; i < n; i++) {
+            int gi = groupOf[i];
+            double sum = 0.0;
+            for (int q = 0; q < total; q++) {
+                if (q == i) continue;
+                sum += pairPenalty(xs[q] - xs[i], ys[q] - ys[i], gi, groupOf[q], weight);
+            }
+            penalty += symmetricLayout.getOrbitSize(gi) * sum;
+        }
+        return penalty;
+    }
+
+    /**
+     * Interrogazione della griglia costruita su tutti i punti espansi, solo per i rappresentanti.
+     */
+    private double representativesGrid(int n, int total, CellGrid grid, int[] groupOf, double weight) {
+        grid.build(total, baseCellSize);
+        double[] xs = grid.xs, ys = grid.ys;
+        int cols = grid.cols, rows = grid.rows;
+        double maxRadius = layout.getMaxRadius();
+
+        double penalty = 0.0;
+        for (int i = 0; i < n; i++) {
+            int gi = groupOf[i];
+            double xi = xs[i], yi = ys[i];
+            // Un vicino qualsiasi (anche più grande) dista meno di r_i + r_max.
+            int r = grid.reach(layout.getRadius(gi) + maxRadius);
+            int cx = grid.cellOf[i] % cols;
+            int cy = grid.cellOf[i] / cols;
+            int fromX = Math.max(0, cx - r), toX = Math.min(cols - 1, cx + r);
+            int fromY = Math.max(0, cy - r), toY = Math.min(rows - 1, cy + r);
+
+            double sum = 0.0;
+            for (int y = fromY; y <= toY; y++) {
+                int rowBase = y * cols;
+                for (int c = rowBase + fromX; c <= rowBase + toX; c++) {
+                    for (int s = grid.cellStart[c], end = grid.cellStart[c + 1]; s < end; s++) {
+                        int q = grid.sorted[s];
+                        if (q == i) continue;
+                        sum += pairPenalty(xs[q] - xi, ys[q] - yi, gi, groupOf[q], weight);
+                    }
+                }
+            }
+            penalty += symmetricLayout.getOrbitSize(gi) * sum;
+        }
+        return penalty;
+    }
+
+    /** Penalità quadratica di una coppia, con la distanza minima letta dalla tabella per coppia di gruppi. */
+    private double pairPenalty(double dx, double dy, int gi, int gj, double weight) {
+        double d2 = dx * dx + dy * dy;
+        if (d2 >= layout.getRequiredDistanceSq(gi, gj)) return 0.0;
+        double overlap = layout.getRequiredDistance(gi, gj) - Math.sqrt(d2);
+        return (overlap * overlap) * weight;
+    }
+}
@@ -0,0 +1,323 @@
+package service.strategies;
+
+import model.GenomeLayout;
+import model.Individual;
+import model.NeighbourList;
+import model.Point;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Strategia di overlap con <b>liste di Verlet</b> per individuo.
+ * <p>
+ * Nella fase di convergenza la mutazione sposta pochi punti di poco e i figli sono quasi copie dei genitori:
+ * ricostruire ogni volta la griglia di {@link OverlapSpatial} ripete lo stesso lavoro. Questa strategia conserva
+ * sull'individuo una {@link NeighbourList} costruita con un margine {@code skin} (i figli ereditano quella del
+ * genitore che ha fornito più geni) e, a ogni valutazione:
+ * <ol>
+ *   <li>individua i punti "spostati", cioè più lontani di {@code skin / 2} dalla posizione di riferimento;</li>
+ *   <li>somma l'overlap delle coppie della lista tra punti non spostati (sicuramente complete);</li>
+ *   <li>cerca i vicini di ogni punto spostato nella griglia di riferimento della lista (allargata di
+ *       {@code skin / 2}) e confronta direttamente i punti spostati tra loro.</li>
+ * </ol>
+ * Lo spostamento si accumula lungo la discendenza: quando i punti spostati sono troppi (o manca la lista), la lista
+ * viene ricostruita sulla griglia, calcolando l'overlap nello stesso passaggio.
+ * <p>
+ * Il risultato è identico a quello di {@link OverlapSpatial}: ogni coppia viene contata esattamente una volta.
+ */
+public class OverlapVerlet implements OverlapStrategy {
+
+    // Oltre questa frazione di punti spostati conviene ricostruire la lista.
+    private static final double MAX_DISPLACED_FRACTION = 0.1;
+
+    // Capacità iniziale del buffer dei vicini, per punto.
+    private static final int INITIAL_NEIGHBOURS_PER_POINT = 8;
+
+    private final GenomeLayout layout;
+
+    // Margine assoluto della lista.
+    private final double skin;
+
+    // Lato "naturale" della cella: il diametro del gruppo più numeroso più il margine, così anche la
+    // ricostruzione esplora solo le 3x3 celle adiacenti per i punti tipici.
+    private final double baseCellSize;
+
+    // Quadrato della distanza di inclusione nella lista, per coppia di gruppi [a * G + b].
+    private final double[] cutoffSq;
+
+    // Buffer di lavoro per thread (la strategia è condivisa tra le valutazioni parallele).
+    private final ThreadLocal<Workspace> buffers = ThreadLocal.withInitial(Workspace::new);
+
+    /** Coordinate correnti, griglia e lista dell'ultima ricostruzione, marcatura dei punti spostati. */
+    private static final class Workspace {
+        final CellGrid grid = new CellGrid();
+        int[] starts = new int[1];
+        int[] found = new int[0];
+        int[] displaced = new int[0];
+        // displacedMark[i] == stamp <=> il punto i è spostato nella valutazione corrente (evita di azzerare l'array).
+        int[] displacedMark = new int[0];
+        int stamp = 0;
+    }
+
+    /**
+     * @param layout La disposizione dei gruppi nel cromosoma.
+     * @param skin Il margine della lista (> 0): più è grande, più a lungo la lista resta valida, ma più coppie contiene.
+     * @throws IllegalArgumentException Se il margine non è positivo.
+     */
+    public OverlapVerlet(GenomeLayout layout, double skin) {
+        if (!(skin > 0)) {
+            throw new IllegalArgumentException("The neighbour list skin must be positive. Found: " + skin);
+        }
+        this.layout = layout;
+        this.skin = skin;
+        this.baseCellSize = 2.0 * layout.getDominantRadius() + skin;
+        int groups = layout.getGroupCount();
+        this.cutoffSq = new double[groups * groups];
+        for (int a = 0; a < groups; a++) {
+            for (int b = 0; b < groups; b++) {
+                double cutoff = layout.getRequiredDistance(a, b) + skin;
+                cutoffSq[a * groups + b] = cutoff * cutoff;
+            }
+        }
+    }
+
+    /**
+     * Calcola l'overlap di un individuo riusando, se possibile, la sua lista dei vicini;
+     * altrimenti la ricostruisce e la associa all'individuo.
+     * @param individual L'individuo da valutare (i punti disposti secondo la layout).
+     * @param overlapWeight Il peso da applicare alla penalità.
+     * @return La penalità totale di overlap.
+     * @throws IllegalArgumentException Se il numero di punti non corrisponde alla layout.
+     */
+    public double calculateOverlap(Individual individual, double overlapWeight) {
+        return calculateOverlap(individual, overlapWeight, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Come {@link #calculateOverlap(Individual, double)}, ma quando la lista dei vicini è valida si ferma appena
+     * la penalità supera {@code bound} (restituendo la somma parziale). La ricostruzione della lista, invece, scandisce
+     * sempre tutti i punti: la lista deve essere completa.
+     */
+    public double calculateOverlap(Individual individual, double overlapWeight, double bound) {
+        List<Point> chromosomes = individual.getChromosomes();
+        int n = loadCoordinates(chromosomes);
+        Workspace work = buffers.get();
+
+        NeighbourList list = individual.getNeighbourList();
+        if (list != null && list.size() == n && list.getSkin() == skin) {
+            int displaced = collectDisplaced(list, work, n);
+            if (displaced >= 0) {
+                return overlapFromList(list, work, n, displaced, overlapWeight, bound);
+            }
+        }
+        double penalty = rebuild(work, n, overlapWeight);
+        individual.setNeighbourList(toNeighbourList(work, n));
+        return penalty;
+    }
+
+    /**
+     * Calcola l'overlap di una lista di punti senza individuo associato: la lista dei vicini viene costruita
+     * e scartata (il costo è quello di {@link OverlapSpatial}).
+     */
+    @Override
+    public double calculateOverlap(List<Point> chromosomes, double overlapWeight) {
+        int n = loadCoordinates(chromosomes);
+        return rebuild(buffers.get(), n, overlapWeight);
+    }
+
+    /** Copia le coordinate dei punti negli array primitivi del thread. */
+    private int loadCoordinates(List<Point> chromosomes) {
+        int n = chromosomes.size();
+        if (n != layout.getSize()) {
+            throw new IllegalArgumentException("Expected " + layout.getSize() + " points, found " + n + ".");
+        }
+        CellGrid grid = buffers.get().grid;
+        grid.ensurePoints(n);
+        for (int i = 0; i < n; i++) {
+            Point p = chromosomes.get(i);
+            grid.xs[i] = p.getX();
+            grid.ys[i] = p.getY();
+        }
+        return n;
+    }
+
+    // ==================================================================================
+    // ⚡ VALUTAZIONE SULLA LISTA
+    // ==================================================================================
+
+    /**
+     * Raccoglie e marca i punti spostati oltre {@code skin / 2}.
+     * @return Il numero di punti spostati, oppure -1 se sono troppi e conviene ricostruire la lista.
+     */
+    private int collectDisplaced(NeighbourList list, Workspace work, int n) {
+        if (work.displacedMark.length < n) {
+            work.displacedMark = new int[n];
+            work.displaced = new int[n];
+            work.stamp = 0;
+        }
+        int stamp = ++work.stamp;
+        // Il confronto diretto tra M punti spostati costa M²/2: con M <= √(8n) resta dell'ordine della scansione
+        // della lista (qualche vicino per punto), anche per problemi molto grandi.
+        int limit = (int) Math.min(MAX_DISPLACED_FRACTION * n, Math.sqrt(8.0 * n));
+        double[] xs = work.grid.xs, ys = work.grid.ys;
+
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            if (list.isDisplaced(i, xs[i], ys[i])) {
+                if (count == limit) return -1;
+                work.displaced[count++] = i;
+                work.displacedMark[i] = stamp;
+            }
+        }
+        return count;
+    }
+
+    private double overlapFromList(NeighbourList list, Workspace work, int n, int displacedCount, double weight,
+                                   double bound) {
+        double[] xs = work.grid.xs, ys = work.grid.ys;
+        int[] mark = work.displacedMark;
+        int stamp = work.stamp;
+        double penalty = 0.0;
+
+        // 1. Coppie della lista tra punti non spostati.
+        for (int i = 0; i < n; i++) {
+            if (mark[i] == stamp) continue;
+            int gi = layout.getGroupOf(i);
+            double xi = xs[i], yi = ys[i];
+            for (int k = list.from(i), end = list.to(i); k < end; k++) {
+                int j = list.neighbour(k);
+                if (mark[j] == stamp) continue;
+                penalty += pairPenalty(xs[j] - xi, ys[j] - yi, gi, layout.getGroupOf(j), weight);
+            }
+            if (penalty > bound) return penalty;
+        }
+        if (displacedCount == 0) return penalty;
+
+        // 2. Punti spostati contro punti non spostati, cercati nella griglia di riferimento: un vicino non spostato
+        // che oggi si sovrappone dista, dalla sua posizione di riferimento, meno di r_m + r_max + skin / 2.
+        double maxRadius = layout.getMaxRadius();
+        int cols = list.getColumns(), rows = list.getRows();
+        for (int d = 0; d < displacedCount; d++) {
+            int m = work.displaced[d];
+            int gm = layout.getGroupOf(m);
+            double xm = xs[m], ym = ys[m];
+            int r = list.reach(layout.getRadius(gm) + maxRadius + 0.5 * skin);
+            int cx = list.columnOf(xm), cy = list.rowOf(ym);
+            int fromX = Math.max(0, cx - r), toX = Math.min(cols - 1, cx + r);
+            int fromY = Math.max(0, cy - r), toY = Math.min(rows - 1, cy + r);
+            for (int y = fromY; y <= toY; y++) {
+                int rowBase = y * cols;
+                for (int c = rowBase + fromX; c <= rowBase + toX; c++) {
+                    for (int s = list.cellFrom(c), end = list.cellTo(c); s < end; s++) {
+                        int j = list.cellPoint(s);
+                        if (mark[j] == stamp) continue;
+                        penalty += pairPenalty(xs[j] - xm, ys[j] - ym, gm, layout.getGroupOf(j), weight);
+                    }
+                }
+            }
+            if (penalty > bound) return penalty;
+        }
+
+        // 3. Punti spostati tra loro (sono pochi: confronto diretto).
+        for (int a = 0; a < displacedCount; a++) {
+            int i = work.displaced[a];
+            int gi = layout.getGroupOf(i);
+            for (int b = a + 1; b < displacedCount; b++) {
+                int j = work.displaced[b];
+                penalty += pairPenalty(xs[j] - xs[i], ys[j] - ys[i], gi, layout.getGroupOf(j), weight);
+            }
+        }
+        return penalty;
+    }
+
+    /** Penalità quadratica di una coppia, con la distanza minima letta dalla tabella per coppia di gruppi. */
+    private double pairPenalty(double dx, double dy, int gi, int gj, double weight) {
+        double d2 = dx * dx + dy * dy;
+        if (d2 >= layout.getRequiredDistanceSq(gi, gj)) return 0.0;
+        double overlap = layout.getRequiredDistance(gi, gj) - Math.sqrt(d2);
+        return (overlap * overlap) * weight;
+    }
+
+    // ==================================================================================
+    // 🧱 RICOSTRUZIONE
+    // ==================================================================================
+
+    /**
+     * Costruisce la griglia sulle coordinate correnti, raccoglie nel workspace i vicini entro la distanza minima
+     * più il margine e calcola l'overlap nello stesso passaggio.
+     */
+    private double rebuild(Workspace work, int n, double weight) {
+        CellGrid grid = work.grid;
+        grid.build(n, baseCellSize);
+        double[] xs = grid.xs, ys = grid.ys;
+        int cols = grid.cols, rows = grid.rows;
+        int groups = layout.getGroupCount();
+
+        if (work.starts.length < n + 1) work.starts = new int[n + 1];
+        if (work.found.length < INITIAL_NEIGHBOURS_PER_POINT * n) work.found = new int[INITIAL_NEIGHBOURS_PER_POINT * n];
+        int[] starts = work.starts;
+        int[] found = work.found;
+        int count = 0;
+
+        double penalty = 0.0;
+        for (int i = 0; i < n; i++) {
+            starts[i] = count;
+            int gi = layout.getGroupOf(i);
+            double ri = layout.getRadius(gi);
+            double xi = xs[i], yi = ys[i];
+
+            // Un vicino non più grande, entro il margine, dista meno di 2 * r_i + skin.
+            int r = grid.reach(2.0 * ri + skin);
+            int cx = grid.cellOf[i] % cols;
+            int cy = grid.cellOf[i] / cols;
+            int fromX = Math.max(0, cx - r), toX = Math.min(cols - 1, cx + r);
+            int fromY = Math.max(0, cy - r), toY = Math.min(rows - 1, cy + r);
+
+            for (int y = fromY; y <= toY; y++) {
+                int rowBase = y * cols;
+                for (int c = rowBase + fromX; c <= rowBase + toX; c++) {
+                    for (int s = grid.cellStart[c], end = grid.cellStart[c + 1]; s < end; s++) {
+                        int j = grid.sorted[s];
+                        int gj = layout.getGroupOf(j);
+                        // Stessa regola di attribuzione di OverlapSpatial.
+                        if (gj == gi) {
+                            if (j <= i) continue;
+                        } else {
+                            double rj = layout.getRadius(gj);
+                            if (rj > ri || (rj == ri && j <= i)) continue;
+                        }
+
+                        double dx = xs[j] - xi;
+                        double dy = ys[j] - yi;
+                        double d2 = dx * dx + dy * dy;
+                        if (d2 >= cutoffSq[gi * groups + gj]) continue;
+
+                        if (count == found.length) {
+                            found = Arrays.copyOf(found, 2 * found.length);
+                        }
+                        found[count++] = j;
+                        if (d2 < layout.getRequiredDistanceSq(gi, gj)) {
+                            double overlap = layout.getRequiredDistance(gi, gj) - Math.sqrt(d2);
+                            penalty += (overlap * overlap) * weight;
+                        }
+                    }
+                }
+            }
+        }
+        starts[n] = count;
+        work.found = found;
+        return penalty;
+    }
+
+    /** Copia l'ultima ricostruzione del thread (lista e griglia) in una {@link NeighbourList} immutabile. */
+    private NeighbourList toNeighbourList(Workspace work, int n) {
+        CellGrid grid = work.grid;
+        int cells = grid.cols * grid.rows;
+        return new NeighbourList(
+                Arrays.copyOf(grid.xs, n), Arrays.copyOf(grid.ys, n),
+                Arrays.copyOf(work.starts, n + 1), Arrays.copyOf(work.found, work.starts[n]),
+                grid.minX, grid.minY, grid.cellSize, grid.cols, grid.rows,
+                Arrays.copyOf(grid.cellStart, cells + 1), Arrays.copyOf(grid.sorted, n), skin);
+    }
+}
@@ -0,0 +1,290 @@
+package utils;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.ref.WeakReference;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Traccia binaria degli eventi dei motori, sempre attiva, da esaminare dopo un'esecuzione lenta o fallita.
+ * <p>
+ * Ogni thread scrive i suoi eventi in un proprio buffer circolare di {@link #CAPACITY} record a dimensione fissa
+ * (istante, tipo, un valore intero e uno reale): quando il buffer è pieno i record più vecchi vengono sovrascritti,
+ * quindi la traccia conserva sempre le ultime generazioni di ogni thread con una memoria costante. Con
+ * {@link #dump(Path)} i buffer di tutti i thread vengono scritti in un file, che {@link EventTraceReader} converte
+ * in CSV.
+ * <p>
+ * Scelta Implementativa: un buffer per thread invece di un buffer condiviso. Ogni buffer ha un solo scrittore, quindi
+ * registrare un evento costa quattro scritture in un array di long e una scrittura con semantica release del
+ * contatore, senza lock né operazioni atomiche contese. Chi legge (il dump, da un thread qualsiasi) copia i record
+ * e poi rilegge il contatore: i record che lo scrittore può aver sovrascritto durante la copia vengono scartati,
+ * quindi il dump non contiene mai record spezzati e non ferma mai i motori.
+ * <p>
+ * I buffer dei thread terminati restano nei dump, ma ne vengono conservati solo i {@link #MAX_RETIRED} usati più di
+ * recente: con i thread che nascono e muoiono (pool che sostituiscono i worker, virtual thread del servizio) la
+ * memoria resta limitata ai thread vivi più quelli conservati.
+ * <p>
+ * La traccia si disattiva con la proprietà di sistema {@code -Dga.trace=false}; i dump automatici (vedi
+ * {@link #dumpOnFailure()}) finiscono nella cartella {@code ga.trace.dir}, di default quella temporanea.
+ */
+public final class EventTrace {
+
+    /**
+     * I tipi di evento. Il significato dei due valori (un intero {@code a} e un reale {@code b}) dipende dal tipo.
+     */
+    public enum Event {
+        /** Inizio di un tentativo: a = numero del tentativo. */
+        ATTEMPT_START,
+        /** Fine di un tentativo: a = numero del tentativo, b = fitness della soluzione. */
+        ATTEMPT_END,
+        /** Tutti i tentativi falliti: a = tentativi eseguiti, b = fitness dell'ultima soluzione. */
+        RUN_FAILED,
+        /** Inizio di una generazione: a = generazione. */
+        GENERATION_START,
+        /** Generazione dei figli completata (crossover, mutazione e valutazione): a = durata in ns. */
+        BREEDING,
+        /** Valutazioni della generazione: a = valutazioni eseguite, b = valutazioni risparmiate (cache). */
+        EVALUATIONS,
+        /** Fine di una generazione: a = generazione, b = fitness migliore. */
+        GENERATION_END
+    }
+
+    /** Record conservati per ogni thread (potenza di 2). */
+    public static final int CAPACITY = 1 << 12;
+
+    /** Buffer di thread terminati conservati per i dump (i più recenti); gli altri vengono scartati. */
+    public static final int MAX_RETIRED = 16;
+
+    // Ogni record occupa 4 long: istante (System.nanoTime), tipo, valore intero, bit del valore reale.
+    static final int RECORD_LONGS = 4;
+    private static final int MASK = CAPACITY - 1;
+
+    // Firma e versione del formato dei dump.
+    static final long MAGIC = 0x4741545241434531L; // "GATRACE1"
+
+    private static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("ga.trace"));
+
+    // ------------------- ATTRIBUTI -------------------
+
+    // I buffer dei thread vivi e al più MAX_RETIRED di thread terminati (i loro ultimi eventi restano nel dump).
+    // Le modifiche avvengono sotto il lock della lista; i dump la leggono senza lock.
+    private static final List<Ring> RINGS = new CopyOnWriteArrayList<>();
+
+    private static final ThreadLocal<Ring> LOCAL = ThreadLocal.withInitial(EventTrace::register);
+
+    private EventTrace() {
+    }
+
+    // ------------------- REGISTRAZIONE -------------------
+
+    /** Registra un evento nel buffer del thread corrente. */
+    public static void record(Event event, long a, double b) {
+        if (ENABLED) {
+            LOCAL.get().write(event.ordinal(), a, b);
+        }
+    }
+
+    /** Registra un evento senza valore reale. */
+    public static void record(Event event, long a) {
+        record(event, a, 0.0);
+    }
+
+    /** Indica se la traccia è attiva. */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    // ------------------- DUMP -------------------
+
+    /**
+     * Scrive in un file gli eventi conservati da tutti i thread.
+     * <p>
+     * Formato (big-endian): firma, {@code System.currentTimeMillis()} e {@code System.nanoTime()} dello stesso
+     * istante (per convertire gli istanti dei record in tempo assoluto), nomi dei tipi di evento, nomi dei thread,
+     * poi il numero di record e i record da 32 byte: istante (long), thread (int), tipo (int), a (long), b (double).
+     * @param file Il file da scrivere (sovrascritto se esiste).
+     * @return Il numero di record scritti.
+     * @throws IOException Se il file non può essere scritto.
+     */
+    public static int dump(Path file) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            return dump(out);
+        }
+    }
+
+    /**
+     * Scrive gli eventi conservati nel flusso, nel formato di {@link #dump(Path)}. Il flusso non viene chiuso.
+     * @return Il numero di record scritti.
+     */
+    public static int dump(OutputStream stream) throws IOException {
+        synchronized (RINGS) {
+            pruneRetired();
+        }
+        List<Ring> rings = List.copyOf(RINGS);
+        long[][] snapshots = new long[rings.size()][];
+        int total = 0;
+        for (int t = 0; t < rings.size(); t++) {
+            snapshots[t] = rings.get(t).snapshot();
+            total += snapshots[t].length / RECORD_LONGS;
+        }
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+        out.writeLong(MAGIC);
+        out.writeLong(System.currentTimeMillis());
+        out.writeLong(System.nanoTime());
+        Event[] events = Event.values();
+        out.writeInt(events.length);
+        for (Event event : events) {
+            out.writeUTF(event.name());
+        }
+        out.writeInt(rings.size());
+        for (Ring ring : rings) {
+            out.writeUTF(ring.threadName);
+        }
+        out.writeInt(total);
+        for (int t = 0; t < snapshots.length; t++) {
+            long[] records = snapshots[t];
+            for (int r = 0; r < records.length; r += RECORD_LONGS) {
+                out.writeLong(records[r]);
+                out.writeInt(t);
+                out.writeInt((int) records[r + 1]);
+                out.writeLong(records[r + 2]);
+                out.writeLong(records[r + 3]);
+            }
+        }
+        out.flush();
+        return total;
+    }
+
+    /**
+     * Scrive un dump dopo un fallimento, in {@code ga-trace-<millis>.bin} nella cartella {@code ga.trace.dir}.
+     * Non lancia eccezioni: un dump non riuscito non deve nascondere il fallimento che lo ha causato.
+     * @return Il file scritto, oppure null se la traccia è disattivata o il dump non è riuscito.
+     */
+    public static Path dumpOnFailure() {
+        if (!ENABLED) return null;
+        try {
+            Path dir = Path.of(System.getProperty("ga.trace.dir", System.getProperty("java.io.tmpdir")));
+            Path file = dir.resolve("ga-trace-" + System.currentTimeMillis() + ".bin");
+            dump(file);
+            return file;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    // ------------------- REGISTRO DEI BUFFER -------------------
+
+    /** Crea e registra il buffer del thread corrente (al suo primo evento). */
+    private static Ring register() {
+        Ring ring = new Ring(Thread.currentThread());
+        synchronized (RINGS) {
+            pruneRetired();
+            RINGS.add(ring);
+        }
+        return ring;
+    }
+
+    /**
+     * Scarta i buffer dei thread terminati oltre i {@link #MAX_RETIRED} con l'ultimo evento più recente.
+     * Va chiamato sotto il lock di {@link #RINGS}.
+     */
+    private static void pruneRetired() {
+        List<Ring> retired = new ArrayList<>();
+        for (Ring ring : RINGS) {
+            if (!ring.isOwnerAlive()) retired.add(ring);
+        }
+        if (retired.size() <= MAX_RETIRED) return;
+        retired.sort(Comparator.comparingLong(Ring::lastEventTime));
+        RINGS.removeAll(retired.subList(0, retired.size() - MAX_RETIRED));
+    }
+
+    // ------------------- BUFFER -------------------
+
+    /** Il buffer circolare di un thread: un solo scrittore, lettori qualsiasi. */
+    private static final class Ring {
+
+        private static final VarHandle WRITTEN;
+
+        static {
+            try {
+                WRITTEN = MethodHandles.lookup().findVarHandle(Ring.class, "written", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        final String threadName;
+
+        // Il thread proprietario, per riconoscere i buffer dei thread terminati senza trattenerli in memoria.
+        private final WeakReference<Thread> owner;
+
+        private final long[] records = new long[CAPACITY * RECORD_LONGS];
+
+        // Record scritti dalla creazione (il record n occupa la posizione n & MASK). Pubblicato con semantica
+        // release dopo il record, quindi chi lo legge con semantica acquire vede il record completo.
+        private long written;
+
+        Ring(Thread owner) {
+            this.threadName = owner.getName();
+            this.owner = new WeakReference<>(owner);
+        }
+
+        /** Indica se il thread proprietario è ancora vivo (un thread raccolto dal GC è terminato). */
+        boolean isOwnerAlive() {
+            Thread thread = owner.get();
+            return thread != null && thread.isAlive();
+        }
+
+        /** L'istante (System.nanoTime) dell'ultimo record, oppure Long.MIN_VALUE se il buffer è vuoto. */
+        long lastEventTime() {
+            long n = (long) WRITTEN.getAcquire(this);
+            return n == 0 ? Long.MIN_VALUE : records[(int) ((n - 1) & MASK) * RECORD_LONGS];
+        }
+
+        /** Scrive un record (solo dal thread proprietario). */
+        void write(int type, long a, double b) {
+            long n = written; // solo questo thread lo modifica
+            int base = (int) (n & MASK) * RECORD_LONGS;
+            records[base] = System.nanoTime();
+            records[base + 1] = type;
+            records[base + 2] = a;
+            records[base + 3] = Double.doubleToRawLongBits(b);
+            WRITTEN.setRelease(this, n + 1);
+        }
+
+        /**
+         * Copia i record conservati, dal più vecchio al più recente. I record che lo scrittore può aver sovrascritto
+         * durante la copia vengono scartati.
+         */
+        long[] snapshot() {
+            long end = (long) WRITTEN.getAcquire(this);
+            long start = Math.max(0, end - CAPACITY);
+            long[] copy = new long[(int) (end - start) * RECORD_LONGS];
+            for (long n = start; n < end; n++) {
+                System.arraycopy(records, (int) (n & MASK) * RECORD_LONGS, copy, (int) (n - start) * RECORD_LONGS,
+                        RECORD_LONGS);
+            }
+            // Le letture dei record devono precedere la seconda lettura del contatore.
+            VarHandle.acquireFence();
+            long after = (long) WRITTEN.getAcquire(this);
+            // Lo scrittore sovrascrive il record n - CAPACITY mentre scrive il record n (non ancora pubblicato),
+            // quindi sono intatti solo i record successivi a after - CAPACITY.
+            long firstValid = Math.max(start, after + 1 - CAPACITY);
+            if (firstValid == start) return copy;
+            if (firstValid >= end) return new long[0];
+            int skip = (int) (firstValid - start) * RECORD_LONGS;
+            return Arrays.copyOfRange(copy, skip, copy.length);
+        }
+    }
+}
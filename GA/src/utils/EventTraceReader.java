@@ -0,0 +1,89 @@
+package utils;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Converte in CSV un dump scritto da {@link EventTrace#dump(Path)}.
+ * <p>
+ * Una riga per record, in ordine di thread e, per ogni thread, dal più vecchio al più recente:
+ * {@code time_ms,thread,event,a,b}, dove {@code time_ms} è l'istante assoluto dell'evento in millisecondi
+ * (epoch Unix, con i decimali) e {@code thread} il nome del thread che lo ha registrato.
+ */
+public final class EventTraceReader {
+
+    private EventTraceReader() {
+    }
+
+    /**
+     * Converte un file di dump in CSV.
+     * @param dump Il file scritto da {@link EventTrace#dump(Path)}.
+     * @param csv La destinazione del CSV (non viene chiusa).
+     * @return Il numero di record convertiti.
+     * @throws IOException Se il file non è leggibile o non è un dump.
+     */
+    public static int toCsv(Path dump, Writer csv) throws IOException {
+        try (InputStream in = Files.newInputStream(dump)) {
+            return toCsv(in, csv);
+        }
+    }
+
+    /**
+     * Converte in CSV un dump letto da un flusso (non viene chiuso).
+     * @return Il numero di record convertiti.
+     * @throws IOException Se il flusso non è leggibile o non contiene un dump.
+     */
+    public static int toCsv(InputStream stream, Writer csv) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+        if (in.readLong() != EventTrace.MAGIC) {
+            throw new IOException("Not an event trace dump.");
+        }
+        long epochMillis = in.readLong();
+        long nanoTime = in.readLong();
+        String[] events = new String[in.readInt()];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = in.readUTF();
+        }
+        String[] threads = new String[in.readInt()];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = in.readUTF();
+        }
+
+        PrintWriter out = new PrintWriter(csv);
+        out.println("time_ms,thread,event,a,b");
+        int count = in.readInt();
+        for (int r = 0; r < count; r++) {
+            long time = in.readLong();
+            int thread = in.readInt();
+            int type = in.readInt();
+            long a = in.readLong();
+            double b = in.readDouble();
+            if (thread < 0 || thread >= threads.length || type < 0 || type >= events.length) {
+                throw new IOException("Corrupted event trace dump (record " + r + ").");
+            }
+            // Gli istanti dei record sono di System.nanoTime: il dump riporta lo stesso istante in entrambe le scale.
+            double timeMs = epochMillis + (time - nanoTime) / 1e6;
+            out.printf(Locale.ROOT, "%.3f,%s,%s,%d,%s%n", timeMs, csvField(threads[thread]), events[type], a, b);
+        }
+        out.flush();
+        if (out.checkError()) {
+            throw new IOException("Cannot write the CSV.");
+        }
+        return count;
+    }
+
+    /** Un campo CSV: tra virgolette se contiene separatori (i nomi dei thread sono liberi). */
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
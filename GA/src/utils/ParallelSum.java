@@ -0,0 +1,76 @@
+package utils;
+
+import java.io.Serial;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Somma parallela e deterministica di un intervallo di indici, sui task fork-join.
+ * <p>
+ * L'intervallo viene diviso a metà finché i blocchi non scendono sotto {@code blockSize}; i risultati vengono
+ * sommati sempre come {@code sinistra + destra}. L'albero delle somme dipende solo dall'intervallo e da
+ * {@code blockSize}, non dal numero di core né dall'ordine di esecuzione dei task: il risultato (anche negli
+ * arrotondamenti) è lo stesso a ogni esecuzione e su ogni macchina.
+ * <p>
+ * I task vengono eseguiti nel pool del thread chiamante se è un worker fork-join, altrimenti nel pool comune,
+ * come i {@code parallel()} degli stream.
+ */
+public final class ParallelSum {
+
+    /** Il corpo della somma: il contributo degli indici {@code from .. to - 1}. */
+    @FunctionalInterface
+    public interface RangeBody {
+        double sum(int from, int to);
+    }
+
+    private ParallelSum() {
+    }
+
+    /**
+     * Somma i contributi degli indici {@code from .. to - 1}.
+     * @param from Il primo indice.
+     * @param to L'indice successivo all'ultimo.
+     * @param blockSize La dimensione massima di un blocco eseguito da un solo task (> 0).
+     * @param body Il contributo di un blocco; deve essere thread-safe (in genere legge soltanto dati condivisi).
+     * @return La somma dei contributi.
+     * @throws IllegalArgumentException Se la dimensione del blocco non è positiva.
+     */
+    public static double sum(int from, int to, int blockSize, RangeBody body) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("The block size must be positive. Found: " + blockSize);
+        }
+        if (to - from <= blockSize) {
+            return body.sum(from, to);
+        }
+        return new Block(from, to, blockSize, body).invoke();
+    }
+
+    /** Un nodo dell'albero delle somme. */
+    private static final class Block extends RecursiveTask<Double> {
+
+        // I task sono serializzabili solo perché lo è ForkJoinTask: non vengono mai serializzati.
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to, blockSize;
+        private final transient RangeBody body;
+
+        Block(int from, int to, int blockSize, RangeBody body) {
+            this.from = from;
+            this.to = to;
+            this.blockSize = blockSize;
+            this.body = body;
+        }
+
+        @Override
+        protected Double compute() {
+            if (to - from <= blockSize) {
+                return body.sum(from, to);
+            }
+            int mid = (from + to) >>> 1;
+            Block left = new Block(from, mid, blockSize, body);
+            left.fork();
+            double right = new Block(mid, to, blockSize, body).compute();
+            return left.join() + right;
+        }
+    }
+}
@@ -71,4 +71,22 @@ public class RandomUtils {
 
         return new Point(x,y,radius);
     }
+
+    /**
+     * Genera una copia perturbata di un punto: ogni coordinata viene spostata di un valore uniforme in
+     * [-amplitude, amplitude) e poi limitata alla Bounding Box. Il raggio resta invariato.
+     * Usato per costruire una popolazione iniziale attorno a una soluzione di partenza (warm start).
+     * @param point Il punto di partenza.
+     * @param amplitude L'ampiezza massima dello spostamento su ciascun asse.
+     * @param boundingBox I limiti entro cui mantenere il punto.
+     * @return Un nuovo oggetto Point.
+     */
+    public static Point jitter(Point point, double amplitude, Rectangle2D boundingBox) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double x = point.getX() + (random.nextDouble() * 2 - 1) * amplitude;
+        double y = point.getY() + (random.nextDouble() * 2 - 1) * amplitude;
+        x = Math.max(boundingBox.getMinX(), Math.min(boundingBox.getMaxX(), x));
+        y = Math.max(boundingBox.getMinY(), Math.min(boundingBox.getMaxY(), y));
+        return new Point(x, y, point.getRadius());
+    }
 }
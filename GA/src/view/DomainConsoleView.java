@@ -115,6 +115,22 @@ public class DomainConsoleView {
         return params;
     }
 
+    /**
+     * Legge il percorso del file che descrive il dominio (es. i vertici di un poligono).
+     *
+     * @param domainName Il nome amichevole del dominio per l'output.
+     * @return Il percorso inserito (l'intera riga, quindi può contenere spazi).
+     */
+    public String readFilePath(String domainName) {
+        System.out.print("Enter the path of the file for " + domainName + ": ");
+        String path = "";
+        // Le righe vuote vengono saltate: la prima lettura consuma di solito il fine riga dell'ultimo numero inserito.
+        while (path.isEmpty()) {
+            path = scanner.nextLine().trim();
+        }
+        return path;
+    }
+
     /**
      * Visualizza il menu dei tipi di dominio disponibili.
      * @param types La lista di {@code DomainType} da mostrare.
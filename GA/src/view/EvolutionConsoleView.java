@@ -1,28 +1,63 @@
 package view;
 
+import java.io.PrintStream;
+
 public class EvolutionConsoleView {
+
+    // Flussi di output. Di default sono la console; la modalità headless li redirige (es. su stderr)
+    // per lasciare stdout libero per i risultati.
+    private final PrintStream out;
+    private final PrintStream err;
+
+    public EvolutionConsoleView() {
+        this(System.out, System.err);
+    }
+
+    /**
+     * @param out Il flusso per i messaggi di stato.
+     * @param err Il flusso per i messaggi di errore.
+     */
+    public EvolutionConsoleView(PrintStream out, PrintStream err) {
+        this.out = out;
+        this.err = err;
+    }
+
     // --- MESSAGGIO DI INIZIALIZZAZIONE ---
 
-    public void displayStartMessage(int generations, int populationSize) {
-        System.out.println("\n🧬 Starting Genetic Algorithm...");
-        System.out.printf("Configuration: %d Generations | %d Individuals.\n\n",
+    public void displayStartMessage(String engineName, int generations, int populationSize) {
+        out.println("\n🧬 Starting " + engineName + "...");
+        out.printf("Configuration: %d Generations | %d Individuals.\n\n",
                 generations, populationSize);
-        System.out.println("Executing Evolutionary Cycle ...");
+        out.println("Executing Evolutionary Cycle ...");
     }
 
     // --- MESSAGGI DI TENTATIVO / RIPROVA ---
 
     public void displayRetryWarning(int currentAttempt, int maxAttempts, double lastTimeSecs) {
-        System.out.println("⚠️ WARNING: Invalid solution found.");
-        System.out.printf("Attempt #%d of %d\n", currentAttempt, maxAttempts);
-        System.out.printf("Estimated time for next attempt: ~%.2f seconds.\n", lastTimeSecs);
+        out.println("⚠️ WARNING: Invalid solution found.");
+        out.printf("Attempt #%d of %d\n", currentAttempt, maxAttempts);
+        out.printf("Estimated time for next attempt: ~%.2f seconds.\n", lastTimeSecs);
     }
 
     // --- MESSAGGI DI RISULTATO ---
 
     public void displaySuccess(int attempt, double timeSecs) {
-        System.out.println("\n✅ Success! Valid solution found at attempt #" + attempt + ".");
-        System.out.printf("Execution time: %.2f seconds.\n\n", timeSecs);
+        out.println("\n✅ Success! Valid solution found at attempt #" + attempt + ".");
+        out.printf("Execution time: %.2f seconds.\n\n", timeSecs);
+    }
+
+    // --- MESSAGGI DELLA CACHE DELLE SOLUZIONI ---
+
+    public void displayCacheHit(boolean exact, double fitness) {
+        if (exact) {
+            out.printf("💾 Solution reused from cache (fitness %.6f).\n", fitness);
+        } else {
+            out.println("💾 Starting from the most similar cached solution.");
+        }
+    }
+
+    public void displayCacheWarning(String message) {
+        err.println("⚠️ WARNING: The solution could not be saved in the cache: " + message);
     }
 
     /* Teoricamente lascio la visualizzazione del risultato ad altre classi, non al controller.
@@ -36,9 +71,9 @@ public class EvolutionConsoleView {
     // --- MESSAGGI DI ERRORE ---
 
     public void displayCriticalFailure(int maxAttempts, double lastFitness, double totalTimeSecs) {
-        System.err.println("\n--- 🛑 CRITICAL FAILURE ---");
-        System.err.printf("Could not find a valid solution after %d complete evolutionary cycles (total %.2f seconds of computation).\n",
+        err.println("\n--- 🛑 CRITICAL FAILURE ---");
+        err.printf("Could not find a valid solution after %d complete evolutionary cycles (total %.2f seconds of computation).\n",
                 maxAttempts, totalTimeSecs);
-        System.err.printf("Fitness of best invalid individual found: %.6f\n", lastFitness);
+        err.printf("Fitness of best invalid individual found: %.6f\n", lastFitness);
     }
 }
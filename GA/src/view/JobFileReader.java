@@ -0,0 +1,306 @@
+package view;
+
+import controllers.EngineType;
+import controllers.JobSpec;
+import controllers.SweepSpec;
+import model.EvolutionConfig;
+import model.PointGroup;
+import model.domains.DomainType;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Lettore dei file di job per la modalità headless.
+ * <p>
+ * Il formato è testuale, a sezioni (stile INI). Ogni sezione {@code [nome]} è un job; le righe vuote
+ * e quelle che iniziano con {@code #} sono ignorate:
+ * <pre>
+ * [cerchio-piccolo]
+ * domain = CIRCLE
+ * radius = 10                # parametri del dominio: chiavi di DomainType.getRequiredParameters()
+ * groups = 30x1.0, 5x2.5     # gruppi (#piante x raggio)
+ * engine = GENETIC           # opzionale: GENETIC (default), DIFFERENTIAL_EVOLUTION o NSGA2
+ * generations = 400          # opzionale: qualunque chiave di EvolutionConfig.PARAMETER_NAMES
+ * </pre>
+ * I domini descritti da un file (es. {@code domain = POLYGON} o {@code domain = COMPOSITE}) indicano il percorso con {@code file = <percorso>}.
+ * I job vengono letti uno alla volta con {@link #next()}, quindi l'input può arrivare in streaming (es. da stdin).
+ * Lo stesso formato descrive gli sweep dei parametri, letti con {@link #nextSweep()}.
+ * <p>
+ * Un job malformato solleva {@code IllegalArgumentException} con nome del job e numero di riga; la lettura
+ * può poi proseguire normalmente con il job successivo.
+ */
+public class JobFileReader implements Closeable {
+
+    private final BufferedReader reader;
+
+    // Numero della riga letta per ultima (per i messaggi di errore).
+    private int lineNumber = 0;
+
+    // Il nome della sezione già letta che apre il prossimo job (null se non ancora incontrata).
+    private String pendingName = null;
+
+    // Vero quando l'input è terminato.
+    private boolean exhausted = false;
+
+    // Il nome dell'ultimo job letto (anche se malformato), per riportarlo nell'output.
+    private String lastName = null;
+
+    public JobFileReader(Reader reader) {
+        this.reader = new BufferedReader(reader);
+    }
+
+    /**
+     * Legge il prossimo job.
+     * @return Il job letto, o {@code Optional.empty()} a fine input.
+     * @throws IllegalArgumentException Se il job è malformato (il lettore resta posizionato sul job successivo).
+     */
+    public Optional<JobSpec> next() {
+        Optional<Map<String, String>> section = nextSection();
+        if (section.isEmpty()) return Optional.empty();
+        try {
+            return Optional.of(buildJob(lastName, section.get()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Job '" + lastName + "': " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Legge il prossimo sweep dei parametri. La sezione è un job, in cui i parametri del motore possono avere più
+     * valori separati da virgole (gli assi dello sweep) e due chiavi in più:
+     * <pre>
+     * [mutazione]
+     * domain = SQUARE
+     * side = 100
+     * groups = 50x6
+     * generations = 800
+     * mutationProb = 0.01, 0.02, 0.05    # un asse: un valore per configurazione
+     * populationSize = 50, 100
+     * seeds = 4                          # opzionale: repliche per configurazione (default 3)
+     * samples = 10                       # opzionale: configurazioni estratte a caso (default 0, griglia completa)
+     * </pre>
+     * @return Lo sweep letto, o {@code Optional.empty()} a fine input.
+     * @throws IllegalArgumentException Se lo sweep è malformato (il lettore resta posizionato su quello successivo).
+     */
+    public Optional<SweepSpec> nextSweep() {
+        Optional<Map<String, String>> section = nextSection();
+        if (section.isEmpty()) return Optional.empty();
+        try {
+            Map<String, String> entries = section.get();
+            String seedsValue = entries.remove("seeds");
+            String samplesValue = entries.remove("samples");
+            int seeds = seedsValue == null ? SweepSpec.DEFAULT_SEEDS : parseInteger("seeds", seedsValue);
+            int samples = samplesValue == null ? 0 : parseInteger("samples", samplesValue);
+
+            // Un parametro del motore con più valori è un asse; la configurazione di base usa il primo valore.
+            Map<String, List<Double>> axes = new LinkedHashMap<>();
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                if (EvolutionConfig.PARAMETER_NAMES.contains(entry.getKey()) && entry.getValue().contains(",")) {
+                    List<Double> values = new ArrayList<>();
+                    for (String token : entry.getValue().split(",")) {
+                        values.add(parseNumber(entry.getKey(), token.trim()));
+                    }
+                    axes.put(entry.getKey(), values);
+                    entry.setValue(String.valueOf(values.getFirst()));
+                }
+            }
+            return Optional.of(new SweepSpec(buildJob(lastName, entries), axes, seeds, samples));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Sweep '" + lastName + "': " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Legge la prossima sezione: il nome (in {@link #lastName}) e le sue coppie chiave/valore, nell'ordine del file.
+     * @return Le coppie lette, o {@code Optional.empty()} a fine input.
+     * @throws IllegalArgumentException Se una riga è malformata (il lettore resta posizionato sulla sezione successiva).
+     */
+    private Optional<Map<String, String>> nextSection() {
+        // Salta tutto ciò che precede la prima sezione.
+        while (pendingName == null && !exhausted) {
+            String line = readLine();
+            if (line == null) break;
+            if (line.startsWith("[")) pendingName = parseHeader(line);
+            else if (!line.isEmpty()) throw new IllegalArgumentException("line " + lineNumber + ": expected a [job] header, found: " + line);
+        }
+        if (pendingName == null) return Optional.empty();
+
+        String name = pendingName;
+        pendingName = null;
+        lastName = name;
+
+        // Raccoglie le coppie chiave/valore fino alla prossima sezione; la validazione avviene dopo,
+        // così un errore non lascia il lettore a metà di un job.
+        Map<String, String> entries = new LinkedHashMap<>();
+        String error = null;
+        String line;
+        while ((line = readLine()) != null) {
+            if (line.startsWith("[")) {
+                pendingName = parseHeader(line);
+                break;
+            }
+            if (line.isEmpty()) continue;
+            int eq = line.indexOf('=');
+            if (eq <= 0) {
+                if (error == null) error = "line " + lineNumber + ": expected 'key = value', found: " + line;
+                continue;
+            }
+            String key = line.substring(0, eq).trim();
+            entries.put(key, line.substring(eq + 1).trim());
+        }
+        if (error != null) {
+            throw new IllegalArgumentException("Job '" + name + "', " + error);
+        }
+        return Optional.of(entries);
+    }
+
+    /**
+     * Ritorna il nome dell'ultimo job letto da {@link #next()}, utile per riportare un job malformato.
+     * @return Il nome, o null se nessuna sezione è ancora stata letta.
+     */
+    public String getLastJobName() {
+        return lastName;
+    }
+
+    /**
+     * Costruisce e valida un job dalle sue coppie chiave/valore.
+     */
+    private JobSpec buildJob(String name, Map<String, String> entries) {
+        String domainValue = entries.remove("domain");
+        if (domainValue == null) throw new IllegalArgumentException("missing 'domain'");
+        DomainType domainType = parseDomainType(domainValue);
+
+        String groupsValue = entries.remove("groups");
+        if (groupsValue == null) throw new IllegalArgumentException("missing 'groups'");
+        List<PointGroup> groups = parseGroups(groupsValue);
+
+        String domainFile = entries.remove("file");
+        if (domainType.requiresFile() && domainFile == null) {
+            throw new IllegalArgumentException("missing 'file' for domain " + domainType.getDisplayName());
+        }
+        if (!domainType.requiresFile() && domainFile != null) {
+            throw new IllegalArgumentException("unknown key 'file' for domain " + domainType.getDisplayName());
+        }
+
+        String engineValue = entries.remove("engine");
+        EngineType engineType = engineValue == null ? EngineType.GENETIC : parseEngineType(engineValue);
+
+        Map<String, Double> domainParameters = new HashMap<>();
+        EvolutionConfig.Builder config = EvolutionConfig.builder();
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            String key = entry.getKey();
+            double value = parseNumber(key, entry.getValue());
+            if (domainType.getRequiredParameters().contains(key)) {
+                domainParameters.put(key, value);
+            } else if (EvolutionConfig.PARAMETER_NAMES.contains(key)) {
+                config.set(key, value);
+            } else {
+                throw new IllegalArgumentException("unknown key '" + key + "' for domain " + domainType.getDisplayName());
+            }
+        }
+
+        return new JobSpec(name, domainType, domainParameters, domainFile, groups, engineType, config.build());
+    }
+
+    // ------------------- PARSING DEI VALORI -------------------
+
+    private String parseHeader(String line) {
+        if (!line.endsWith("]") || line.length() < 3) {
+            throw new IllegalArgumentException("line " + lineNumber + ": malformed job header: " + line);
+        }
+        return line.substring(1, line.length() - 1).trim();
+    }
+
+    /**
+     * Accetta il nome della costante ({@code RIGHT_ANGLED_TRIANGLE}), il nome visualizzato o l'ID del menu.
+     */
+    private static DomainType parseDomainType(String value) {
+        for (DomainType type : DomainType.values()) {
+            if (type.name().equalsIgnoreCase(value) || type.getDisplayName().equalsIgnoreCase(value)
+                    || String.valueOf(type.getMenuId()).equals(value)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("unknown domain type: " + value);
+    }
+
+    private static EngineType parseEngineType(String value) {
+        for (EngineType type : EngineType.values()) {
+            if (type.name().equalsIgnoreCase(value) || type.getDisplayName().equalsIgnoreCase(value)
+                    || String.valueOf(type.getMenuId()).equals(value)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("unknown engine type: " + value);
+    }
+
+    /**
+     * Legge una lista di gruppi nel formato {@code 30x1.0, 5x2.5}.
+     */
+    private static List<PointGroup> parseGroups(String value) {
+        List<PointGroup> groups = new ArrayList<>();
+        for (String token : value.split(",")) {
+            String[] parts = token.trim().toLowerCase(Locale.ROOT).split("x");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("malformed group '" + token.trim() + "', expected <count>x<radius>");
+            }
+            try {
+                groups.add(new PointGroup(Integer.parseInt(parts[0].trim()), Double.parseDouble(parts[1].trim())));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("malformed group '" + token.trim() + "', expected <count>x<radius>");
+            }
+        }
+        return groups;
+    }
+
+    private static int parseInteger(String key, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("non-integer value for '" + key + "': " + value);
+        }
+    }
+
+    private static double parseNumber(String key, String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("non-numeric value for '" + key + "': " + value);
+        }
+    }
+
+    /**
+     * Legge la prossima riga, già ripulita da commenti e spazi.
+     * @return La riga, o null a fine input.
+     */
+    private String readLine() {
+        try {
+            String line = reader.readLine();
+            if (line == null) {
+                exhausted = true;
+                return null;
+            }
+            lineNumber++;
+            int comment = line.indexOf('#');
+            if (comment >= 0) line = line.substring(0, comment);
+            return line.trim();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,88 @@
+package view;
+
+import model.GenerationHistory;
+import model.Individual;
+import model.ParetoPoint;
+import model.Point;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Scrive in streaming i risultati dei job headless.
+ * <p>
+ * Ogni job produce una riga di intestazione {@code key=value} seguita, se risolto, da una riga per punto
+ * ({@code x y raggio}) e da una riga vuota. I motori multi-obiettivo aggiungono il fronte di Pareto: una riga
+ * {@code job=<nome> pareto=<n>} seguita da una riga per soluzione ({@code penalità dispersione}) e da una riga vuota.
+ * Con {@code historySize} la storia delle generazioni segue in blocco: una riga
+ * {@code job=<nome> history=<righe> stride=<generazioni per riga>} e una riga per riga della storia
+ * ({@code generazione migliore media peggiore diversità ms}). Il flusso viene svuotato dopo ogni job, così chi legge l'output
+ * (un file o una pipe) vede i risultati man mano che arrivano.
+ */
+public class JobResultWriter {
+
+    private final PrintStream out;
+
+    public JobResultWriter(PrintStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Scrive un job risolto con la sua soluzione.
+     */
+    public void writeSolved(String jobName, String engine, Individual solution, double timeMs) {
+        out.printf(Locale.ROOT, "job=%s status=SOLVED engine=%s fitness=%.6f timeMs=%.1f points=%d%n",
+                jobName, engine, solution.getFitness(), timeMs, solution.getDimension());
+        for (Point p : solution.getChromosomes()) {
+            out.printf(Locale.ROOT, "%.6f %.6f %.6f%n", p.getX(), p.getY(), p.getRadius());
+        }
+        out.println();
+        out.flush();
+    }
+
+    /**
+     * Scrive il fronte di Pareto di un job (nulla se il fronte è vuoto, come per i motori a obiettivo singolo).
+     */
+    public void writeParetoFront(String jobName, List<ParetoPoint> front) {
+        if (front.isEmpty()) return;
+        out.printf(Locale.ROOT, "job=%s pareto=%d%n", jobName, front.size());
+        for (ParetoPoint point : front) {
+            out.printf(Locale.ROOT, "%.6f %.6f%n", point.penalty(), point.spread());
+        }
+        out.println();
+        out.flush();
+    }
+
+    /**
+     * Scrive la storia delle generazioni di un job (nulla se è vuota, ad esempio per una soluzione presa dalla cache).
+     */
+    public void writeHistory(String jobName, GenerationHistory history) {
+        if (history.size() == 0) return;
+        out.printf(Locale.ROOT, "job=%s history=%d stride=%d%n", jobName, history.size(), history.getStride());
+        for (int row = 0; row < history.size(); row++) {
+            out.printf(Locale.ROOT, "%d %.6g %.6g %.6g %.6g %.3f%n", history.getGeneration(row),
+                    history.getBest(row), history.getMean(row), history.getWorst(row), history.getDiversity(row),
+                    history.getTimeMs(row));
+        }
+        out.println();
+        out.flush();
+    }
+
+    /**
+     * Scrive un job per cui il motore non ha trovato una soluzione valida.
+     */
+    public void writeFailed(String jobName, String engine, String message, double timeMs) {
+        out.printf(Locale.ROOT, "job=%s status=FAILED engine=%s timeMs=%.1f message=%s%n%n",
+                jobName, engine, timeMs, message);
+        out.flush();
+    }
+
+    /**
+     * Scrive un job non eseguito perché malformato o non valido.
+     */
+    public void writeError(String jobName, String message) {
+        out.printf(Locale.ROOT, "job=%s status=ERROR message=%s%n%n", jobName, message);
+        out.flush();
+    }
+}
@@ -0,0 +1,281 @@
+package view;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import controllers.JobSpec;
+import controllers.SolverJob;
+import controllers.SolverService;
+import model.Individual;
+import model.Point;
+import utils.EventTrace;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.InetSocketAddress;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Interfaccia HTTP locale del {@code SolverService}, basata sul server HTTP incluso nel JDK.
+ * <p>
+ * Il server ascolta solo sull'interfaccia di loopback. Ogni richiesta è gestita su un virtual thread: le attese
+ * (es. lo streaming dell'avanzamento) non occupano thread di piattaforma, mentre il calcolo vero e proprio resta
+ * confinato nel pool dei worker del servizio.
+ * <pre>
+ * POST   /jobs?priority=N       corpo: un job nel formato di JobFileReader  → 202 {"id": ...}
+ *                                                                          → 503 se la coda è piena
+ * GET    /jobs/{id}             stato del job (con i punti, se risolto)
+ * GET    /jobs/{id}/progress    avanzamento in streaming, una riga JSON per aggiornamento, fino alla fine del job
+ * DELETE /jobs/{id}             annulla il job (in coda o in esecuzione)
+ * GET    /health                numero di job in coda
+ * GET    /trace                 traccia degli eventi dei motori (formato binario di EventTrace, vedi --trace-csv)
+ * </pre>
+ */
+public class SolverHttpServer {
+
+    // Intervallo minimo tra due righe di avanzamento in streaming (evita di inondare il client a ogni generazione).
+    private static final long PROGRESS_INTERVAL_MS = 100;
+
+    private final SolverService service;
+    private final HttpServer server;
+    private final ExecutorService requestExecutor;
+
+    /**
+     * @param service Il servizio da esporre.
+     * @param port La porta locale (0 per una porta libera qualsiasi).
+     * @throws IOException Se la porta non è disponibile.
+     */
+    public SolverHttpServer(SolverService service, int port) throws IOException {
+        this.service = service;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.requestExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(requestExecutor);
+        server.createContext("/jobs", this::handleJobs);
+        server.createContext("/health", exchange ->
+                send(exchange, 200, "{\"queued\":" + service.getQueuedCount() + "}"));
+        server.createContext("/trace", this::handleTrace);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /** Ritorna la porta effettiva su cui il server è in ascolto. */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /** Ferma il server HTTP e il servizio sottostante. */
+    public void stop() {
+        server.stop(0);
+        requestExecutor.shutdownNow();
+        service.shutdown();
+    }
+
+    // ==================================================================================
+    // 🔀 ROUTING
+    // ==================================================================================
+
+    private void handleJobs(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            String[] parts = exchange.getRequestURI().getPath().split("/");
+            // parts: ["", "jobs"] oppure ["", "jobs", id] oppure ["", "jobs", id, "progress"]
+
+            if (parts.length == 2 && method.equals("POST")) {
+                submit(exchange);
+            } else if (parts.length == 3 && method.equals("GET")) {
+                withJob(exchange, parts[2], job -> send(exchange, 200, statusJson(job, true)));
+            } else if (parts.length == 4 && parts[3].equals("progress") && method.equals("GET")) {
+                withJob(exchange, parts[2], job -> streamProgress(exchange, job));
+            } else if (parts.length == 3 && method.equals("DELETE")) {
+                withJob(exchange, parts[2], job -> {
+                    boolean cancelled = service.cancel(job.getId());
+                    send(exchange, cancelled ? 200 : 409,
+                            "{\"id\":\"" + job.getId() + "\",\"cancelled\":" + cancelled + "}");
+                });
+            } else {
+                send(exchange, 404, errorJson("Not found."));
+            }
+        }
+    }
+
+    private void handleTrace(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET") || !exchange.getRequestURI().getPath().equals("/trace")) {
+                send(exchange, 404, errorJson("Not found."));
+                return;
+            }
+            // Il dump viene prima composto in memoria (al più 128 KB per thread) per dichiararne
+            // la lunghezza.
+            ByteArrayOutputStream dump = new ByteArrayOutputStream();
+            EventTrace.dump(dump);
+            exchange.getResponseHeaders().add("Content-Type", "application/octet-stream");
+            exchange.sendResponseHeaders(200, dump.size());
+            try (OutputStream out = exchange.getResponseBody()) {
+                dump.writeTo(out);
+            }
+        }
+    }
+
+    private interface JobHandler {
+        void handle(SolverJob job) throws IOException;
+    }
+
+    private void withJob(HttpExchange exchange, String id, JobHandler handler) throws IOException {
+        Optional<SolverJob> job = service.find(id);
+        if (job.isEmpty()) {
+            send(exchange, 404, errorJson("Unknown job: " + id));
+        } else {
+            handler.handle(job.get());
+        }
+    }
+
+    // ==================================================================================
+    // 📥 HANDLER
+    // ==================================================================================
+
+    private void submit(HttpExchange exchange) throws IOException {
+        int priority;
+        String body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            priority = parsePriority(exchange.getRequestURI().getQuery());
+        } catch (NumberFormatException e) {
+            send(exchange, 400, errorJson("Invalid priority."));
+            return;
+        }
+
+        JobSpec spec;
+        try (JobFileReader reader = new JobFileReader(new StringReader(body))) {
+            Optional<JobSpec> parsed = reader.next();
+            if (parsed.isEmpty()) {
+                send(exchange, 400, errorJson("Empty job."));
+                return;
+            }
+            spec = parsed.get();
+        } catch (IllegalArgumentException e) {
+            send(exchange, 400, errorJson(e.getMessage()));
+            return;
+        }
+
+        try {
+            SolverJob job = service.submit(spec, priority);
+            send(exchange, 202, "{\"id\":\"" + job.getId() + "\",\"state\":\"" + job.getState() + "\"}");
+        } catch (RejectedExecutionException e) {
+            // Backpressure: il client deve riprovare più tardi.
+            exchange.getResponseHeaders().add("Retry-After", "1");
+            send(exchange, 503, errorJson(e.getMessage()));
+        }
+    }
+
+    /**
+     * Invia l'avanzamento del job in streaming (chunked), una riga JSON per aggiornamento, fino alla sua conclusione.
+     */
+    private void streamProgress(HttpExchange exchange, SolverJob job) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/x-ndjson");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+
+        int lastGeneration = Integer.MIN_VALUE;
+        SolverJob.State lastState = null;
+        try {
+            while (true) {
+                boolean done = job.isDone();
+                if (job.getGeneration() != lastGeneration || job.getState() != lastState) {
+                    lastGeneration = job.getGeneration();
+                    lastState = job.getState();
+                    out.write((statusJson(job, done) + "\n").getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                }
+                if (done) break;
+                job.awaitChange(lastGeneration, lastState, 1000);
+                Thread.sleep(PROGRESS_INTERVAL_MS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ==================================================================================
+    // ℹ️ UTILITY
+    // ==================================================================================
+
+    private static int parsePriority(String query) {
+        if (query == null) return 0;
+        for (String param : query.split("&")) {
+            if (param.startsWith("priority=")) {
+                return Integer.parseInt(param.substring("priority=".length()));
+            }
+        }
+        return 0;
+    }
+
+    private static String statusJson(SolverJob job, boolean withPoints) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"id\":\"").append(job.getId()).append('"')
+                .append(",\"state\":\"").append(job.getState()).append('"')
+                .append(",\"priority\":").append(job.getPriority())
+                .append(",\"generation\":").append(job.getGeneration())
+                .append(",\"bestFitness\":").append(jsonNumber(job.getBestFitness()))
+                .append(",\"elapsedMs\":").append(jsonNumber(job.getElapsedMs()));
+        if (job.getMessage() != null) {
+            sb.append(",\"message\":\"").append(escape(job.getMessage())).append('"');
+        }
+        Individual solution = job.getSolution();
+        if (withPoints && solution != null) {
+            sb.append(",\"points\":[");
+            boolean first = true;
+            for (Point p : solution.getChromosomes()) {
+                if (!first) sb.append(',');
+                first = false;
+                sb.append(String.format(Locale.ROOT, "[%.6f,%.6f,%.6f]", p.getX(), p.getY(), p.getRadius()));
+            }
+            sb.append(']');
+        }
+        return sb.append('}').toString();
+    }
+
+    private static String errorJson(String message) {
+        return "{\"error\":\"" + escape(message) + "\"}";
+    }
+
+    private static String jsonNumber(double value) {
+        return Double.isFinite(value) ? String.format(Locale.ROOT, "%.6f", value) : "null";
+    }
+
+    private static String escape(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package view;
+
+import model.SweepSummary;
+
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * View a riga di comando per i risultati dello sweep dei parametri.
+ */
+public class SweepConsoleView {
+
+    private final PrintStream out;
+
+    public SweepConsoleView() {
+        this(System.out);
+    }
+
+    /**
+     * @param out La destinazione delle tabelle (es. il file indicato con {@code --out}).
+     */
+    public SweepConsoleView(PrintStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Intestazione di uno sweep, seguita dalla sua tabella di riepilogo.
+     */
+    public void displayStartMessage(String name, String engine, int configurations, int seeds) {
+        out.printf("sweep=%s engine=%s configurations=%d seeds=%d runs=%d\n",
+                name, engine, configurations, seeds, configurations * seeds);
+    }
+
+    /**
+     * Riporta uno sweep malformato o non eseguibile.
+     */
+    public void displayError(String name, String message) {
+        out.printf("sweep=%s status=ERROR message=%s\n", name, message);
+    }
+
+    /**
+     * Mostra la tabella di riepilogo, una riga per configurazione (dalla migliore alla peggiore).
+     */
+    public void displaySummary(List<SweepSummary> summaries) {
+        out.printf("%-10s %-14s %-14s %-14s %-12s  %s\n",
+                "feasible", "t_feasible(ms)", "mean fitness", "best fitness", "t_run(ms)", "configuration");
+        for (SweepSummary s : summaries) {
+            out.printf("%4d/%-5d %14.1f %14.6f %14.6f %12.1f  %s\n",
+                    s.feasibleRuns(), s.runs(), s.meanTimeToFeasibleMs(), s.meanFinalFitness(),
+                    s.bestFinalFitness(), s.meanTotalTimeMs(), s.config());
+        }
+        out.flush();
+    }
+}